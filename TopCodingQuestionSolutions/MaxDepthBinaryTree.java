@@ -18,7 +18,15 @@
  * }
  */
 
+import trees.ParallelTreeReducer;
+
+// The parallel variant depends on trees/ParallelTreeReducer.java; compile from the repository root:
+// javac -d out trees/ParallelTreeReducer.java TopCodingQuestionSolutions/*.java
+
 public class MaxDepthBinaryTree {
+    private static final ParallelTreeReducer<TreeNode> REDUCER =
+            new ParallelTreeReducer<>(n -> n.left, n -> n.right, n -> n.val);
+
     public static int maxDepth(TreeNode root) {
         if (root == null) {
             return 0;
@@ -30,6 +38,11 @@ public class MaxDepthBinaryTree {
         return Math.max(leftDepth, rightDepth) + 1;
     }
 
+    // Fork-join, iterative variant: no recursion, so skewed trees of any depth are safe.
+    public static int maxDepthParallel(TreeNode root) {
+        return REDUCER.depth(root);
+    }
+
     public static void main(String args[]) {
 
         TreeNode cc1 = new TreeNode(15);
@@ -39,6 +52,14 @@ public class MaxDepthBinaryTree {
         TreeNode t = new TreeNode(3, c1, c2);
 
         System.out.println(maxDepth(t));
+        System.out.println(maxDepthParallel(t));
+
+        // A 1,000,000-node left-leaning chain overflows the recursive version but not the parallel one.
+        TreeNode chain = null;
+        for (int i = 0; i < 1_000_000; i++) {
+            chain = new TreeNode(i, chain, null);
+        }
+        System.out.println(maxDepthParallel(chain));
 
     }
 
@@ -0,0 +1,178 @@
+import java.util.Arrays;
+
+/**
+ * The {@code AStar} class is a reusable point-to-point shortest-path engine over an
+ * {@code int}-weighted {@link IntGraph}, guided by a pluggable {@link Heuristic}.
+ *
+ * <p>It is {@link Dijkstra} with the heap keyed by {@code dist(v) + estimate(v, target)} instead of
+ * {@code dist(v)}, so the search grows towards the target instead of in a ball around the
+ * source. The heuristic must be <em>consistent</em>: {@code estimate(u, t) <= w(u, v) + estimate(v, t)}
+ * for every edge and {@code estimate(t, t) == 0}. Consistency makes every settled vertex final,
+ * exactly as in Dijkstra, so the engine keeps Dijkstra's heap with decrease-key and its
+ * epoch-stamped arrays. {@link Landmarks#heuristic()} is a consistent heuristic for any graph;
+ * {@link Heuristic#ZERO} turns the engine back into Dijkstra.</p>
+ *
+ * <p>A heuristic may also prove that a vertex cannot reach the target by returning
+ * {@link Heuristic#NO_PATH}; such vertices are never queued.</p>
+ *
+ * <p>An engine holds per-query state and is not thread-safe: use one engine per thread, all
+ * sharing the same immutable graph and heuristic.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * Landmarks landmarks = Landmarks.select(graph, 16);
+ * AStar astar = new AStar(graph, landmarks.heuristic());
+ * astar.distance(s, t);     // same answer as Dijkstra, settling far fewer vertices
+ * astar.path(s, t);
+ * }</pre>
+ *
+ * <p><strong>Time Complexity:</strong> O((V + E) log V) per query in the worst case; in practice
+ * proportional to the vertices whose {@code dist + estimate} is below the answer.</p>
+ * <p><strong>Space Complexity:</strong> O(V) per engine, allocated once.</p>
+ *
+ * @author
+ */
+public final class AStar {
+    /**
+     * A lower bound on the distance from a vertex to a target.
+     */
+    @FunctionalInterface
+    public interface Heuristic {
+        /** Estimate meaning the vertex provably cannot reach the target. */
+        int NO_PATH = Integer.MAX_VALUE;
+
+        /** The zero heuristic, under which A* is Dijkstra. */
+        Heuristic ZERO = (v, target) -> 0;
+
+        /**
+         * @param v      A vertex.
+         * @param target The query target.
+         * @return A consistent lower bound on the distance from {@code v} to {@code target}, or
+         *         {@link #NO_PATH}.
+         */
+        int estimate(int v, int target);
+    }
+
+    private final IntGraph graph;
+    private final Heuristic heuristic;
+    private final int[] dist;
+    private final int[] parent;
+    private final int[] estimate;
+    // stamp[v] == epoch means dist[v], parent[v] and estimate[v] were written by the current query.
+    private final int[] stamp;
+    private int epoch;
+    private final IndexedMinHeap heap;
+    private int settled;
+
+    /**
+     * Creates an engine for a graph, checking once that every weight is non-negative.
+     *
+     * @param graph     An {@code int}-weighted graph.
+     * @param heuristic A consistent heuristic for {@code graph}.
+     * @throws IllegalArgumentException if the graph has no {@code int} weights or a negative weight.
+     */
+    public AStar(IntGraph graph, Heuristic heuristic) {
+        if (!graph.hasIntWeights()) {
+            throw new IllegalArgumentException("A* needs an int-weighted graph");
+        }
+        for (int e = 0, m = graph.edgeCount(); e < m; e++) {
+            if (graph.intWeight(e) < 0) {
+                throw new IllegalArgumentException("Negative weight on edge " + e);
+            }
+        }
+        int n = graph.vertexCount();
+        this.graph = graph;
+        this.heuristic = heuristic;
+        this.dist = new int[n];
+        this.parent = new int[n];
+        this.estimate = new int[n];
+        this.stamp = new int[n];
+        this.heap = new IndexedMinHeap(n);
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////          Query Functions        /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Finds the length of a shortest path.
+     *
+     * @param source The start vertex.
+     * @param target The destination vertex.
+     * @return The shortest distance, or {@link Dijkstra#UNREACHABLE}.
+     */
+    public int distance(int source, int target) {
+        return search(source, target) ? dist[target] : Dijkstra.UNREACHABLE;
+    }
+
+    /**
+     * Finds a shortest path.
+     *
+     * @param source The start vertex.
+     * @param target The destination vertex.
+     * @return The vertices of the path from {@code source} to {@code target}, or {@code null} if
+     *         {@code target} is unreachable.
+     */
+    public int[] path(int source, int target) {
+        return search(source, target) ? Dijkstra.pathTo(parent, source, target) : null;
+    }
+
+    /**
+     * @return The number of vertices settled by the last query, a measure of its work.
+     */
+    public int settledCount() {
+        return settled;
+    }
+
+    // Runs A* from source and returns true once target is settled.
+    private boolean search(int source, int target) {
+        int n = dist.length;
+        if (source < 0 || source >= n || target < 0 || target >= n) {
+            throw new IndexOutOfBoundsException("Vertex out of range [0, " + n + ")");
+        }
+        if (++epoch == 0) {                 // wrapped: stamps from 2^32 queries ago could collide
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+        heap.clear();
+        settled = 0;
+        int sourceEstimate = heuristic.estimate(source, target);
+        if (sourceEstimate == Heuristic.NO_PATH) {
+            return false;
+        }
+        stamp[source] = epoch;
+        dist[source] = 0;
+        parent[source] = -1;
+        estimate[source] = sourceEstimate;
+        heap.offer(source, sourceEstimate);
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            settled++;
+            if (u == target) {
+                return true;
+            }
+            int du = dist[u];
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                int v = graph.target(e);
+                int candidate = du + graph.intWeight(e);
+                if (candidate < 0) {
+                    throw new ArithmeticException("Path length overflows int at vertex " + v);
+                }
+                if (stamp[v] != epoch) {
+                    // First reach: the estimate depends on v alone, so it is computed once per query.
+                    stamp[v] = epoch;
+                    estimate[v] = heuristic.estimate(v, target);
+                    if (estimate[v] == Heuristic.NO_PATH) {
+                        continue;
+                    }
+                } else if (candidate >= dist[v] || estimate[v] == Heuristic.NO_PATH) {
+                    // With a consistent heuristic a settled vertex never improves, so no settled flag is needed.
+                    continue;
+                }
+                dist[v] = candidate;
+                parent[v] = u;
+                heap.offer(v, Math.addExact(candidate, estimate[v]));
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,375 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The {@code BidirectionalDijkstra} class is a reusable point-to-point shortest-path engine that
+ * searches forward from the source and backward from the target at the same time, optionally
+ * guided by {@link Landmarks} (bidirectional ALT).
+ *
+ * <p>On a road-like graph a one-sided search settles a disc of radius {@code d(s, t)} around the
+ * source; two searches meeting in the middle settle two discs of half that radius, roughly half
+ * the vertices. The backward search runs on the transpose. Each side expands whichever queue has
+ * the smaller minimum key, and every edge relaxed into a vertex the other side has reached
+ * updates the best meeting distance {@code mu}. The search stops when the two minimum keys sum to
+ * at least {@code mu}: no path through an unsettled vertex can be shorter.</p>
+ *
+ * <p>With landmarks, both sides run A* on one shared potential,
+ * {@code p(v) = (d~(v, t) - d~(s, v)) / 2}, where {@code d~} is the landmark lower bound. The forward
+ * heuristic is {@code p} and the backward heuristic is {@code -p}; because the two add up to a
+ * constant, both searches see the same non-negative reduced edge costs and the stopping rule above
+ * still holds, shifted by {@code p(t) - p(s)}. To keep the halving exact, keys are kept in doubled
+ * units. This prunes far more than either plain bidirectional search or one-sided A*.</p>
+ *
+ * <p>Weights must be non-negative and path lengths below {@code 2^30}, since keys are doubled; a
+ * query that overflows throws {@link ArithmeticException}. An engine holds per-query state and is
+ * not thread-safe: use one engine per thread, all sharing the same immutable graphs and landmarks.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * BidirectionalDijkstra plain = new BidirectionalDijkstra(graph);
+ * plain.distance(s, t);
+ *
+ * IntGraph reverse = graph.transpose();
+ * BidirectionalDijkstra alt = new BidirectionalDijkstra(graph, reverse, Landmarks.load(file, graph));
+ * alt.path(s, t);
+ * }</pre>
+ *
+ * <p><strong>Time Complexity:</strong> O((V + E) log V) per query in the worst case.</p>
+ * <p><strong>Space Complexity:</strong> O(V) per engine, allocated once.</p>
+ *
+ * @author
+ */
+public final class BidirectionalDijkstra {
+    // Potential of a vertex the landmarks prove to be on no source-target path.
+    private static final int OFF_PATH = Integer.MIN_VALUE;
+
+    private final IntGraph graph;
+    private final IntGraph reverse;
+    private final Landmarks landmarks;
+    private final Side forward;
+    private final Side backward;
+    // Doubled potential 2p(v) = d~(v, t) - d~(s, v), valid when potentialStamp[v] == epoch.
+    private final int[] potential;
+    private final int[] potentialStamp;
+    private int epoch;
+    private int source;
+    private int target;
+    private int settled;
+
+    /**
+     * Creates an unguided engine, computing the transpose of {@code graph}.
+     *
+     * @param graph An {@code int}-weighted graph.
+     */
+    public BidirectionalDijkstra(CsrGraph graph) {
+        this(graph, graph.transpose(), null);
+    }
+
+    /**
+     * Creates an engine, checking once that every weight is non-negative.
+     *
+     * @param graph     An {@code int}-weighted graph.
+     * @param reverse   The transpose of {@code graph}, with the same weights.
+     * @param landmarks Landmarks of {@code graph}, or {@code null} for plain bidirectional Dijkstra.
+     * @throws IllegalArgumentException if a graph has no {@code int} weights or a negative weight,
+     *                                  or the graphs and landmarks disagree on the vertex count.
+     */
+    public BidirectionalDijkstra(IntGraph graph, IntGraph reverse, Landmarks landmarks) {
+        int n = graph.vertexCount();
+        if (reverse.vertexCount() != n || reverse.edgeCount() != graph.edgeCount()) {
+            throw new IllegalArgumentException("reverse is not the transpose of graph");
+        }
+        if (landmarks != null && landmarks.vertexCount() != n) {
+            throw new IllegalArgumentException("Landmarks were built for a different graph");
+        }
+        this.graph = graph;
+        this.reverse = reverse;
+        this.landmarks = landmarks;
+        this.forward = new Side(graph);
+        this.backward = new Side(reverse);
+        this.potential = landmarks != null ? new int[n] : null;
+        this.potentialStamp = landmarks != null ? new int[n] : null;
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////          Query Functions        /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Finds the length of a shortest path.
+     *
+     * @param source The start vertex.
+     * @param target The destination vertex.
+     * @return The shortest distance, or {@link Dijkstra#UNREACHABLE}.
+     */
+    public int distance(int source, int target) {
+        long mu = search(source, target);
+        return mu == Long.MAX_VALUE ? Dijkstra.UNREACHABLE : (int) mu;
+    }
+
+    /**
+     * Finds a shortest path.
+     *
+     * @param source The start vertex.
+     * @param target The destination vertex.
+     * @return The vertices of the path from {@code source} to {@code target}, or {@code null} if
+     *         {@code target} is unreachable.
+     */
+    public int[] path(int source, int target) {
+        if (search(source, target) == Long.MAX_VALUE) {
+            return null;
+        }
+        if (source == target) {
+            return new int[]{source};
+        }
+        // source .. meetFrom along forward parents, then meetTo .. target along backward parents.
+        int[] head = Dijkstra.pathTo(forward.parent, source, meetFrom);
+        int length = head.length;
+        for (int v = meetTo; v != -1; v = backward.parent[v]) {
+            length++;
+        }
+        int[] path = Arrays.copyOf(head, length);
+        for (int v = meetTo, i = head.length; v != -1; v = backward.parent[v], i++) {
+            path[i] = v;
+        }
+        return path;
+    }
+
+    /**
+     * @return The number of vertices settled by both sides of the last query, a measure of its work.
+     */
+    public int settledCount() {
+        return settled;
+    }
+
+    // The edge meetFrom -> meetTo joins the two search trees on the best path found.
+    private int meetFrom;
+    private int meetTo;
+
+    // Runs both searches and returns the shortest distance, or Long.MAX_VALUE if unreachable.
+    private long search(int source, int target) {
+        int n = graph.vertexCount();
+        if (source < 0 || source >= n || target < 0 || target >= n) {
+            throw new IndexOutOfBoundsException("Vertex out of range [0, " + n + ")");
+        }
+        if (++epoch == 0) {                 // wrapped: stamps from 2^32 queries ago could collide
+            forward.resetStamps();
+            backward.resetStamps();
+            if (potentialStamp != null) {
+                Arrays.fill(potentialStamp, 0);
+            }
+            epoch = 1;
+        }
+        this.source = source;
+        this.target = target;
+        settled = 0;
+        forward.heap.clear();
+        backward.heap.clear();
+        if (source == target) {
+            return 0;
+        }
+        int sourcePotential = potential(source);
+        int targetPotential = potential(target);
+        if (sourcePotential == OFF_PATH || targetPotential == OFF_PATH) {
+            return Long.MAX_VALUE;
+        }
+        forward.start(source, epoch);
+        backward.start(target, epoch);
+
+        long mu = Long.MAX_VALUE;
+        // Sum of the two minimum keys at which no unsettled vertex can improve mu, minus 2 mu.
+        long shift = (long) targetPotential - sourcePotential;
+        while (!forward.heap.isEmpty() && !backward.heap.isEmpty()) {
+            long keys = (long) forward.heap.minKey() + backward.heap.minKey();
+            if (mu != Long.MAX_VALUE && keys >= 2 * mu + shift) {
+                break;
+            }
+            boolean fromSource = forward.heap.minKey() <= backward.heap.minKey();
+            Side side = fromSource ? forward : backward;
+            Side other = fromSource ? backward : forward;
+            IntGraph edges = fromSource ? graph : reverse;
+            // Forward keys are 2 d + 2p(v) - 2p(s); backward keys are 2 d - 2p(v) + 2p(t).
+            int sign = fromSource ? 1 : -1;
+            int offset = fromSource ? -sourcePotential : targetPotential;
+
+            int u = side.heap.poll();
+            settled++;
+            int du = side.dist[u];
+            for (int e = edges.edgeStart(u), end = edges.edgeEnd(u); e < end; e++) {
+                int v = edges.target(e);
+                int candidate = du + edges.intWeight(e);
+                if (candidate < 0) {
+                    throw new ArithmeticException("Path length overflows int at vertex " + v);
+                }
+                if (side.stamp[v] != epoch || candidate < side.dist[v]) {
+                    int pv = potential(v);
+                    if (pv == OFF_PATH) {
+                        continue;
+                    }
+                    side.stamp[v] = epoch;
+                    side.dist[v] = candidate;
+                    side.parent[v] = u;
+                    side.heap.offer(v, Math.addExact(Math.multiplyExact(2, candidate), sign * pv + offset));
+                }
+                if (other.stamp[v] == epoch) {
+                    long through = (long) candidate + other.dist[v];
+                    if (through < mu) {
+                        mu = through;
+                        meetFrom = fromSource ? u : v;
+                        meetTo = fromSource ? v : u;
+                    }
+                }
+            }
+        }
+        return mu;
+    }
+
+    // Doubled potential of v for the current query, computed on first use; OFF_PATH if the landmarks
+    // prove v is on no source-target path.
+    private int potential(int v) {
+        if (landmarks == null) {
+            return 0;
+        }
+        if (potentialStamp[v] != epoch) {
+            potentialStamp[v] = epoch;
+            int toTarget = landmarks.lowerBound(v, target);
+            int fromSource = landmarks.lowerBound(source, v);
+            potential[v] = toTarget == AStar.Heuristic.NO_PATH || fromSource == AStar.Heuristic.NO_PATH
+                    ? OFF_PATH : toTarget - fromSource;
+        }
+        return potential[v];
+    }
+
+    // The per-direction search state; stamp[v] == epoch means dist[v] and parent[v] are current.
+    private static final class Side {
+        final int[] dist;
+        final int[] parent;
+        final int[] stamp;
+        final IndexedMinHeap heap;
+
+        Side(IntGraph graph) {
+            if (!graph.hasIntWeights()) {
+                throw new IllegalArgumentException("Bidirectional Dijkstra needs int-weighted graphs");
+            }
+            for (int e = 0, m = graph.edgeCount(); e < m; e++) {
+                if (graph.intWeight(e) < 0) {
+                    throw new IllegalArgumentException("Negative weight on edge " + e);
+                }
+            }
+            int n = graph.vertexCount();
+            dist = new int[n];
+            parent = new int[n];
+            stamp = new int[n];
+            heap = new IndexedMinHeap(n);
+        }
+
+        void start(int v, int epoch) {
+            stamp[v] = epoch;
+            dist[v] = 0;
+            parent[v] = -1;
+            heap.offer(v, 0);
+        }
+
+        void resetStamps() {
+            Arrays.fill(stamp, 0);
+        }
+    }
+
+    /**
+     * The {@code main} method checks every point-to-point engine against {@link Dijkstra} on a
+     * road-like grid, round-trips the landmark tables through a file, and reports the vertices
+     * settled and the latency percentiles of each engine.
+     *
+     * @param args Optional: grid side length, number of queries and number of landmarks.
+     */
+    public static void main(String[] args) throws java.io.IOException {
+        CsrGraph small = CsrGraph.intWeightedBuilder(5)
+                .addEdge(0, 1, 2).addEdge(0, 2, 5).addEdge(1, 2, 1).addEdge(2, 3, 1).addEdge(4, 0, 1)
+                .build();
+        BidirectionalDijkstra smallEngine = new BidirectionalDijkstra(small);
+        System.out.println("0 -> 3: " + smallEngine.distance(0, 3));                        // 4
+        System.out.println("Path: " + Arrays.toString(smallEngine.path(0, 3)));            // [0, 1, 2, 3]
+        System.out.println("3 -> 0: " + smallEngine.distance(3, 0));                        // -1
+        Landmarks smallLandmarks = Landmarks.select(small, 2);
+        AStar smallAStar = new AStar(small, smallLandmarks.heuristic());
+        System.out.println("A* 4 -> 3: " + Arrays.toString(smallAStar.path(4, 3)));        // [4, 0, 1, 2, 3]
+
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 700;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+        int landmarkCount = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        CsrGraph road = Dijkstra.grid(side, new Random(23));
+        CsrGraph reverse = road.transpose();
+
+        long t0 = System.nanoTime();
+        Landmarks selected = Landmarks.select(road, reverse, landmarkCount);
+        long t1 = System.nanoTime();
+        java.nio.file.Path file = java.nio.file.Files.createTempFile("landmarks", ".alt");
+        selected.save(file);
+        long t2 = System.nanoTime();
+        Landmarks landmarks = Landmarks.load(file, road);
+        long t3 = System.nanoTime();
+        System.out.printf("V=%d E=%d, %d landmarks: select %.0f ms, save %.0f ms, load %.0f ms, file %d MiB%n",
+                road.vertexCount(), road.edgeCount(), landmarks.count(), (t1 - t0) / 1e6, (t2 - t1) / 1e6,
+                (t3 - t2) / 1e6, java.nio.file.Files.size(file) >> 20);
+        java.nio.file.Files.delete(file);
+
+        Dijkstra dijkstra = new Dijkstra(road);
+        BidirectionalDijkstra bidirectional = new BidirectionalDijkstra(road, reverse, null);
+        AStar astar = new AStar(road, landmarks.heuristic());
+        BidirectionalDijkstra bidirectionalAlt = new BidirectionalDijkstra(road, reverse, landmarks);
+
+        Random random = new Random(29);
+        int[] sources = new int[queries];
+        int[] targets = new int[queries];
+        int[] expected = new int[queries];
+        for (int i = 0; i < queries; i++) {
+            sources[i] = random.nextInt(road.vertexCount());
+            targets[i] = random.nextInt(road.vertexCount());
+            expected[i] = dijkstra.distance(sources[i], targets[i]);
+        }
+        String[] names = {"Dijkstra", "bidirectional", "A* (ALT)", "bidirectional ALT"};
+        for (int round = 0; round < 2; round++) {
+            for (int engine = 0; engine < names.length; engine++) {
+                long[] latency = new long[queries];
+                long settledTotal = 0;
+                boolean same = true;
+                for (int i = 0; i < queries; i++) {
+                    int s = sources[i], t = targets[i];
+                    long start = System.nanoTime();
+                    int d;
+                    switch (engine) {
+                        case 0 -> { d = dijkstra.distance(s, t); settledTotal += dijkstra.settledCount(); }
+                        case 1 -> { d = bidirectional.distance(s, t); settledTotal += bidirectional.settledCount(); }
+                        case 2 -> { d = astar.distance(s, t); settledTotal += astar.settledCount(); }
+                        default -> { d = bidirectionalAlt.distance(s, t); settledTotal += bidirectionalAlt.settledCount(); }
+                    }
+                    latency[i] = System.nanoTime() - start;
+                    int[] path = engine == 1 ? bidirectional.path(s, t) : engine == 2 ? astar.path(s, t)
+                            : engine == 3 ? bidirectionalAlt.path(s, t) : null;
+                    same &= d == expected[i] && (path == null || pathLength(road, path) == d);
+                }
+                Arrays.sort(latency);
+                System.out.printf("%-18s settled/query %8d, p50 %6.2f ms, p99 %6.2f ms, same results %b%n",
+                        names[engine], settledTotal / queries, latency[queries / 2] / 1e6,
+                        latency[queries * 99 / 100] / 1e6, same);
+            }
+        }
+    }
+
+    // Length of a path, or -1 if consecutive vertices are not joined by an edge.
+    private static int pathLength(CsrGraph graph, int[] path) {
+        int length = 0;
+        for (int i = 0; i + 1 < path.length; i++) {
+            int best = -1;
+            for (int e = graph.edgeStart(path[i]); e < graph.edgeEnd(path[i]); e++) {
+                if (graph.target(e) == path[i + 1] && (best < 0 || graph.intWeight(e) < best)) {
+                    best = graph.intWeight(e);
+                }
+            }
+            if (best < 0) {
+                return -1;
+            }
+            length += best;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,573 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * The {@code BitGrid} class is a binary grid packed one bit per cell into a {@code long[]}, for
+ * the grid algorithms ({@link NumberOfIslands}, {@link IslandLabeling}, {@link Maze}) on maps too
+ * large for {@code char[][]} or {@code int[][]}.
+ *
+ * <p>A {@code char[][]} cell costs 16 bits and an {@code int[][]} cell 32, plus a 16-byte array
+ * header and a pointer per row; here a cell costs one bit. Row {@code r} occupies
+ * {@code stride = ceil(cols / 64)} consecutive words starting at {@code r * stride}, and column
+ * {@code c} is bit {@code c % 64} (least significant first) of word {@code c / 64}. Bits past the
+ * last column of a row are always zero, which lets whole-word operations ignore the row end.</p>
+ *
+ * <p>What a set bit means is up to the caller; the loaders set a bit for {@code '1'} in a
+ * {@code char[][]}, for a non-zero {@code int[][]} cell, and for a black PBM pixel, so islands are
+ * set bits for {@link NumberOfIslands} and walls are set bits for {@link Maze}, as in their array
+ * forms.</p>
+ *
+ * <p>Operations work a word (64 cells) at a time where the layout allows:</p>
+ * <ul>
+ *     <li>{@link #nextSetInRow(int, int)} and {@link #previousSetInRow(int, int)} find the next set
+ *     cell along a row with {@code numberOfTrailingZeros}/{@code numberOfLeadingZeros}, skipping 64
+ *     clear cells per step (how far a ball rolls before a wall).</li>
+ *     <li>{@link #transpose()} turns columns into rows in 64 x 64 blocks, so the row scans also
+ *     answer column queries.</li>
+ *     <li>{@link #dilate()} and {@link #erode()} combine each word with its four neighbors by
+ *     shifts, carrying the bit that crosses a word boundary; {@link #complement()} and
+ *     {@link #andNot(BitGrid)} combine whole grids.</li>
+ * </ul>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * BitGrid mask = BitGrid.readPbm(Path.of("tile.pbm"));
+ * int islands = new NumberOfIslands().numIslandsTiled(mask);
+ *
+ * BitGrid walls = BitGrid.of(maze);                // int[][] with 1 for a wall
+ * boolean reachable = Maze.hasPath(walls, start, destination);
+ * }</pre>
+ *
+ * <p><strong>Time Complexity:</strong> O(1) per cell access; O(R * C / 64) for whole-grid operations.</p>
+ * <p><strong>Space Complexity:</strong> R * ceil(C / 64) * 8 bytes.</p>
+ *
+ * @author
+ */
+public final class BitGrid {
+    private final int rows;
+    private final int cols;
+    private final int stride;       // words per row
+    private final long[] words;
+
+    /**
+     * Creates a grid with every cell clear.
+     *
+     * @param rows The number of rows.
+     * @param cols The number of columns.
+     * @throws IllegalArgumentException if a dimension is negative or the grid needs more than 2^31 words.
+     */
+    public BitGrid(int rows, int cols) {
+        if (rows < 0 || cols < 0) {
+            throw new IllegalArgumentException("Negative grid size: " + rows + " x " + cols);
+        }
+        int stride = (int) ((cols + 63L) >>> 6);
+        if ((long) rows * stride > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Grid too large: " + rows + " x " + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.stride = stride;
+        this.words = new long[rows * stride];
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////              Loaders            /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Packs a {@code char[][]} grid, setting the cells that are {@code '1'}.
+     *
+     * @param grid A rectangular grid.
+     * @return The packed grid.
+     * @throws IllegalArgumentException if the grid is not rectangular.
+     */
+    public static BitGrid of(char[][] grid) {
+        int rows = grid == null ? 0 : grid.length;
+        BitGrid bits = new BitGrid(rows, rows == 0 ? 0 : grid[0].length);
+        for (int r = 0; r < rows; r++) {
+            char[] line = grid[r];
+            bits.checkRowLength(r, line.length);
+            for (int c = 0; c < line.length; c++) {
+                if (line[c] == '1') {
+                    bits.words[r * bits.stride + (c >>> 6)] |= 1L << c;
+                }
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Packs an {@code int[][]} grid, setting the cells that are non-zero.
+     *
+     * @param grid A rectangular grid.
+     * @return The packed grid.
+     * @throws IllegalArgumentException if the grid is not rectangular.
+     */
+    public static BitGrid of(int[][] grid) {
+        int rows = grid == null ? 0 : grid.length;
+        BitGrid bits = new BitGrid(rows, rows == 0 ? 0 : grid[0].length);
+        for (int r = 0; r < rows; r++) {
+            int[] line = grid[r];
+            bits.checkRowLength(r, line.length);
+            for (int c = 0; c < line.length; c++) {
+                if (line[c] != 0) {
+                    bits.words[r * bits.stride + (c >>> 6)] |= 1L << c;
+                }
+            }
+        }
+        return bits;
+    }
+
+    private void checkRowLength(int r, int length) {
+        if (length != cols) {
+            throw new IllegalArgumentException("Row " + r + " has " + length + " cells, not " + cols);
+        }
+    }
+
+    /**
+     * Reads a PBM bitmap, plain ({@code P1}) or raw ({@code P4}), setting the black (1) pixels.
+     *
+     * @param path The file to read.
+     * @return The grid, one row per image row.
+     * @throws IOException if the file cannot be read or is not a well-formed PBM.
+     */
+    public static BitGrid readPbm(Path path) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path), 1 << 16)) {
+            int p = in.read();
+            int kind = in.read();
+            if (p != 'P' || (kind != '1' && kind != '4')) {
+                throw new IOException(path + ": not a PBM file (bad magic)");
+            }
+            int width = readHeaderInt(in, path);
+            int height = readHeaderInt(in, path);
+            BitGrid grid;
+            try {
+                grid = new BitGrid(height, width);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(path + ": " + e.getMessage());
+            }
+            if (kind == '4') {
+                grid.readRaw(in, path);
+            } else {
+                grid.readPlain(in, path);
+            }
+            return grid;
+        }
+    }
+
+    // Raw rows are packed most significant bit first and padded to a byte.
+    private void readRaw(InputStream in, Path path) throws IOException {
+        byte[] line = new byte[(cols + 7) >>> 3];
+        for (int r = 0; r < rows; r++) {
+            if (in.readNBytes(line, 0, line.length) != line.length) {
+                throw new IOException(path + ": unexpected end of file in row " + r);
+            }
+            int base = r * stride;
+            for (int i = 0; i < line.length; i++) {
+                long reversed = Integer.reverse(line[i] & 0xFF) >>> 24;
+                words[base + (i >>> 3)] |= reversed << ((i & 7) * 8);
+            }
+            if ((cols & 63) != 0) {
+                words[base + stride - 1] &= (1L << cols) - 1;   // drop the padding bits
+            }
+        }
+    }
+
+    // Plain pixels are '0' or '1', with any whitespace or comments between them.
+    private void readPlain(InputStream in, Path path) throws IOException {
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int ch = skipWhitespace(in);
+                if (ch == '1') {
+                    words[r * stride + (c >>> 6)] |= 1L << c;
+                } else if (ch != '0') {
+                    throw new IOException(path + ": bad pixel at row " + r + ", column " + c);
+                }
+            }
+        }
+    }
+
+    private static int readHeaderInt(InputStream in, Path path) throws IOException {
+        int ch = skipWhitespace(in);
+        if (ch < '0' || ch > '9') {
+            throw new IOException(path + ": bad PBM header");
+        }
+        long value = 0;
+        while (ch >= '0' && ch <= '9') {
+            value = value * 10 + (ch - '0');
+            if (value > Integer.MAX_VALUE) {
+                throw new IOException(path + ": PBM dimension too large");
+            }
+            ch = in.read();
+        }
+        if (ch != -1 && !Character.isWhitespace(ch)) {     // the single separator before raw data
+            throw new IOException(path + ": bad PBM header");
+        }
+        return (int) value;
+    }
+
+    // Returns the next character that is not whitespace or inside a '#' comment, or -1 at the end.
+    private static int skipWhitespace(InputStream in) throws IOException {
+        int ch = in.read();
+        while (ch != -1) {
+            if (ch == '#') {
+                while (ch != -1 && ch != '\n' && ch != '\r') {
+                    ch = in.read();
+                }
+            } else if (!Character.isWhitespace(ch)) {
+                return ch;
+            }
+            ch = in.read();
+        }
+        return -1;
+    }
+
+    /**
+     * Writes the grid as a raw ({@code P4}) PBM bitmap, set cells black. The file is written to a
+     * temporary sibling and atomically renamed.
+     *
+     * @param path The file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public void writePbm(Path path) throws IOException {
+        GraphFile.writeAtomically(path, channel -> {
+            // Flushed but not closed: closing the stream would close the channel before it is forced
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+            out.write(("P4\n" + cols + " " + rows + "\n").getBytes(StandardCharsets.US_ASCII));
+            byte[] line = new byte[(cols + 7) >>> 3];
+            for (int r = 0; r < rows; r++) {
+                int base = r * stride;
+                for (int i = 0; i < line.length; i++) {
+                    int octet = (int) (words[base + (i >>> 3)] >>> ((i & 7) * 8)) & 0xFF;
+                    line[i] = (byte) (Integer.reverse(octet) >>> 24);
+                }
+                out.write(line);
+            }
+            out.flush();
+        });
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////           Cell Access           /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * @return The number of rows.
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * @return The number of columns.
+     */
+    public int cols() {
+        return cols;
+    }
+
+    /**
+     * @param r A row.
+     * @param c A column.
+     * @return {@code true} if the cell is set.
+     * @throws IndexOutOfBoundsException if the cell is outside the grid.
+     */
+    public boolean get(int r, int c) {
+        return (words[index(r, c)] & (1L << c)) != 0;
+    }
+
+    /**
+     * Sets a cell.
+     *
+     * @param r A row.
+     * @param c A column.
+     * @throws IndexOutOfBoundsException if the cell is outside the grid.
+     */
+    public void set(int r, int c) {
+        words[index(r, c)] |= 1L << c;
+    }
+
+    /**
+     * Clears a cell.
+     *
+     * @param r A row.
+     * @param c A column.
+     * @throws IndexOutOfBoundsException if the cell is outside the grid.
+     */
+    public void clear(int r, int c) {
+        words[index(r, c)] &= ~(1L << c);
+    }
+
+    private int index(int r, int c) {
+        if (r < 0 || r >= rows || c < 0 || c >= cols) {
+            throw new IndexOutOfBoundsException("Cell (" + r + ", " + c + ") outside " + rows + " x " + cols);
+        }
+        return r * stride + (c >>> 6);
+    }
+
+    // Word k of row r, unchecked: bit j is column 64 * k + j.
+    long word(int r, int k) {
+        return words[r * stride + k];
+    }
+
+    /**
+     * @return The number of set cells.
+     */
+    public long cardinality() {
+        long count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @return The heap bytes used by the cells.
+     */
+    public long bytes() {
+        return 8L * words.length;
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////      Word-Parallel Operations   /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Finds the first set cell in row {@code r} at or after column {@code c}.
+     *
+     * @param r A row.
+     * @param c The column to start from; may be {@code cols()} or more.
+     * @return The column of that cell, or {@code cols()} if there is none.
+     */
+    public int nextSetInRow(int r, int c) {
+        if (c >= cols) {
+            return cols;
+        }
+        int base = r * stride;
+        int k = c >>> 6;
+        long word = words[base + k] & (-1L << c);
+        while (word == 0) {
+            if (++k == stride) {
+                return cols;
+            }
+            word = words[base + k];
+        }
+        return (k << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Finds the last set cell in row {@code r} at or before column {@code c}.
+     *
+     * @param r A row.
+     * @param c The column to start from; may be negative.
+     * @return The column of that cell, or -1 if there is none.
+     */
+    public int previousSetInRow(int r, int c) {
+        if (c < 0) {
+            return -1;
+        }
+        int base = r * stride;
+        int k = c >>> 6;
+        long word = words[base + k] & (-1L >>> (63 - (c & 63)));
+        while (word == 0) {
+            if (--k < 0) {
+                return -1;
+            }
+            word = words[base + k];
+        }
+        return (k << 6) + 63 - Long.numberOfLeadingZeros(word);
+    }
+
+    /**
+     * @return A new grid with cell {@code (c, r)} set exactly when cell {@code (r, c)} is set here.
+     */
+    public BitGrid transpose() {
+        BitGrid t = new BitGrid(cols, rows);
+        long[] block = new long[64];
+        for (int br = 0; br < rows; br += 64) {
+            int height = Math.min(64, rows - br);
+            for (int k = 0; k < stride; k++) {
+                boolean empty = true;
+                for (int i = 0; i < 64; i++) {
+                    block[i] = i < height ? words[(br + i) * stride + k] : 0;
+                    empty &= block[i] == 0;
+                }
+                if (empty) {
+                    continue;
+                }
+                transpose64(block);
+                int width = Math.min(64, cols - (k << 6));
+                for (int j = 0; j < width; j++) {
+                    t.words[((k << 6) + j) * t.stride + (br >>> 6)] = block[j];
+                }
+            }
+        }
+        return t;
+    }
+
+    // Transposes a 64 x 64 bit matrix in place (row i bit j <-> row j bit i) by swapping the
+    // off-diagonal halves of every block at sizes 32, 16, ..., 1.
+    private static void transpose64(long[] a) {
+        long mask = 0x00000000FFFFFFFFL;
+        for (int j = 32; j != 0; j >>>= 1, mask ^= mask << j) {
+            for (int k = 0; k < 64; k = ((k | j) + 1) & ~j) {
+                long t = ((a[k] >>> j) ^ a[k | j]) & mask;
+                a[k] ^= t << j;
+                a[k | j] ^= t;
+            }
+        }
+    }
+
+    /**
+     * @return A new grid with a cell set if it or any of its four neighbors is set here.
+     */
+    public BitGrid dilate() {
+        return neighborhood(true);
+    }
+
+    /**
+     * @return A new grid with a cell set if it and all four of its neighbors are set here; cells
+     *         outside the grid count as clear, so border cells are always cleared.
+     */
+    public BitGrid erode() {
+        return neighborhood(false);
+    }
+
+    /**
+     * @return A new grid with every cell flipped.
+     */
+    public BitGrid complement() {
+        BitGrid out = new BitGrid(rows, cols);
+        long tail = (cols & 63) == 0 ? -1L : (1L << cols) - 1;
+        for (int i = 0; i < words.length; i++) {
+            out.words[i] = (i % stride == stride - 1) ? ~words[i] & tail : ~words[i];
+        }
+        return out;
+    }
+
+    /**
+     * @param other A grid of the same size.
+     * @return A new grid with the cells set here and clear in {@code other}.
+     * @throws IllegalArgumentException if the sizes differ.
+     */
+    public BitGrid andNot(BitGrid other) {
+        if (other.rows != rows || other.cols != cols) {
+            throw new IllegalArgumentException("Grid sizes differ: " + rows + " x " + cols + " and "
+                    + other.rows + " x " + other.cols);
+        }
+        BitGrid out = new BitGrid(rows, cols);
+        for (int i = 0; i < words.length; i++) {
+            out.words[i] = words[i] & ~other.words[i];
+        }
+        return out;
+    }
+
+    private BitGrid neighborhood(boolean any) {
+        BitGrid out = new BitGrid(rows, cols);
+        long tail = (cols & 63) == 0 ? -1L : (1L << cols) - 1;
+        for (int r = 0; r < rows; r++) {
+            int base = r * stride;
+            for (int k = 0; k < stride; k++) {
+                long word = words[base + k];
+                long west = (word << 1) | (k > 0 ? words[base + k - 1] >>> 63 : 0);         // bit c: cell c - 1
+                long east = (word >>> 1) | (k + 1 < stride ? words[base + k + 1] << 63 : 0); // bit c: cell c + 1
+                long north = r > 0 ? words[base - stride + k] : 0;
+                long south = r + 1 < rows ? words[base + stride + k] : 0;
+                long result = any ? word | west | east | north | south : word & west & east & north & south;
+                out.words[base + k] = k + 1 == stride ? result & tail : result;
+            }
+        }
+        return out;
+    }
+
+    /**
+     * The {@code main} method checks the loaders, the PBM round trip and every word-parallel
+     * operation against cell-by-cell versions, then compares memory with the array forms.
+     *
+     * @param args Optional: side length of the memory comparison grid.
+     */
+    public static void main(String[] args) throws IOException {
+        Random random = new Random(45);
+        boolean ok = true;
+        for (int round = 0; round < 200 && ok; round++) {
+            int rows = 1 + random.nextInt(150);
+            int cols = 1 + random.nextInt(150);
+            int[][] cells = new int[rows][cols];
+            char[][] chars = new char[rows][cols];
+            double density = random.nextDouble();
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    cells[r][c] = random.nextDouble() < density ? 1 : 0;
+                    chars[r][c] = cells[r][c] == 1 ? '1' : '0';
+                }
+            }
+            BitGrid grid = of(cells);
+            BitGrid t = grid.transpose();
+            BitGrid dilated = grid.dilate();
+            BitGrid eroded = grid.erode();
+            BitGrid fromChars = of(chars);
+            BitGrid flipped = grid.complement();
+            BitGrid shore = grid.andNot(eroded);
+            for (int r = 0; r < rows && ok; r++) {
+                int next = cols, previous = -1;
+                for (int c = cols - 1; c >= 0; c--) {
+                    next = cells[r][c] == 1 ? c : next;
+                    ok &= grid.nextSetInRow(r, c) == next;
+                }
+                for (int c = 0; c < cols; c++) {
+                    previous = cells[r][c] == 1 ? c : previous;
+                    ok &= grid.previousSetInRow(r, c) == previous;
+                    boolean set = cells[r][c] == 1;
+                    ok &= grid.get(r, c) == set && fromChars.get(r, c) == set && t.get(c, r) == set;
+                    boolean up = r > 0 && cells[r - 1][c] == 1, down = r + 1 < rows && cells[r + 1][c] == 1;
+                    boolean left = c > 0 && cells[r][c - 1] == 1, right = c + 1 < cols && cells[r][c + 1] == 1;
+                    ok &= dilated.get(r, c) == (set || up || down || left || right);
+                    ok &= eroded.get(r, c) == (set && up && down && left && right);
+                    ok &= flipped.get(r, c) != set && shore.get(r, c) == (set && !(up && down && left && right));
+                }
+            }
+            ok &= t.transpose().cardinality() == grid.cardinality() && dilated.cardinality() >= grid.cardinality()
+                    && flipped.cardinality() == (long) rows * cols - grid.cardinality();
+        }
+        System.out.println("Word-parallel operations agree with cell-by-cell versions: " + ok);
+
+        BitGrid image = new BitGrid(37, 101);
+        for (int i = 0; i < 900; i++) {
+            image.set(random.nextInt(37), random.nextInt(101));
+        }
+        Path raw = Files.createTempFile("grid", ".pbm");
+        Path plain = Files.createTempFile("grid", ".pbm");
+        try {
+            image.writePbm(raw);
+            StringBuilder text = new StringBuilder("P1\n# plain copy\n101 37\n");
+            for (int r = 0; r < 37; r++) {
+                for (int c = 0; c < 101; c++) {
+                    text.append(image.get(r, c) ? '1' : '0').append(c % 20 == 19 ? "\n" : " ");
+                }
+                text.append('\n');
+            }
+            Files.writeString(plain, text);
+            BitGrid a = readPbm(raw);
+            BitGrid b = readPbm(plain);
+            boolean same = a.rows == 37 && a.cols == 101 && b.rows == 37 && b.cols == 101;
+            for (int r = 0; r < 37 && same; r++) {
+                for (int c = 0; c < 101; c++) {
+                    same &= a.get(r, c) == image.get(r, c) && b.get(r, c) == image.get(r, c);
+                }
+            }
+            System.out.println("PBM P4 and P1 round trip: " + same);
+        } finally {
+            Files.deleteIfExists(raw);
+            Files.deleteIfExists(plain);
+        }
+
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 4000;
+        BitGrid big = new BitGrid(side, side);
+        System.out.printf("%d x %d grid: BitGrid %.1f MiB, char[][] %.1f MiB, int[][] %.1f MiB%n", side, side,
+                big.bytes() / 1048576.0, (side * (2L * side + 16)) / 1048576.0, (side * (4L * side + 16)) / 1048576.0);
+    }
+}
@@ -0,0 +1,692 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * The {@code Centrality} class scores the vertices of a directed graph by importance: PageRank,
+ * degree centrality and betweenness centrality, each computed in parallel on a
+ * {@link ForkJoinPool} over the primitive adjacency of an {@link IntGraph}.
+ *
+ * <ul>
+ *     <li><b>PageRank</b> runs power iteration with damping {@code d}: every round each vertex keeps
+ *     {@code (1 - d) / V} and receives {@code d} times its in-neighbors' rank split evenly over their
+ *     out-edges. The rank of vertices with no out-edges is spread over all vertices, so ranks always
+ *     sum to 1. Iteration stops when the L1 change of a round falls below the tolerance. In
+ *     {@link Mode#PULL} mode each vertex sums over its in-edges, so every rank is written by one task
+ *     and results are deterministic. In {@link Mode#PUSH} mode each vertex adds its share along its
+ *     out-edges with an atomic add, which needs no transpose but sums in scheduling order.</li>
+ *     <li><b>Degree centrality</b> is the in- or out-degree divided by {@code V - 1}.</li>
+ *     <li><b>Betweenness centrality</b> counts, for each vertex, the shortest paths between other
+ *     vertices that pass through it (each split by the number of equally short paths), using
+ *     Brandes' algorithm: one BFS per source, then dependencies accumulated in reverse BFS order.
+ *     With fewer samples than vertices, sources are drawn at random and the sum is scaled by
+ *     {@code V / samples}, an unbiased estimate whose error shrinks as {@code 1 / sqrt(samples)}.
+ *     Sources are split across tasks, each with its own scratch arrays and partial sums.</li>
+ * </ul>
+ *
+ * <p>Pairs are ordered, so on an undirected graph stored with both edge directions each path is
+ * counted from both ends; halve betweenness to get the undirected convention.</p>
+ *
+ * <p>Results are {@link Scores}: look one vertex up, stream {@code (vertex, score)} entries, or take
+ * the top K with a bounded heap in O(V log K) instead of sorting all vertices. An engine is
+ * immutable and may run many computations concurrently.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * Centrality centrality = new Centrality(graph);        // computes graph.transpose() once
+ * Centrality.Scores rank = centrality.pageRank(0.85, 1e-9, 100, Centrality.Mode.PULL);
+ * for (Centrality.Entry top : rank.topK(10)) {
+ *     System.out.println(top.vertex() + " " + top.score());
+ * }
+ * Centrality.Scores between = centrality.betweenness(256, 7L);
+ * between.stream().filter(e -> e.score() > 1000).forEach(System.out::println);
+ * }</pre>
+ *
+ * <p><strong>Time Complexity:</strong> PageRank O(V + E) per iteration; degree O(V);
+ * betweenness O(samples * (V + E)); top K O(V log K).</p>
+ * <p><strong>Space Complexity:</strong> PageRank O(V); betweenness O(V) per task.</p>
+ *
+ * @author
+ */
+public final class Centrality {
+    // Vertices per partial sum. Partials are added in chunk order, so sums do not depend on scheduling.
+    private static final int CHUNK = 1 << 12;
+    // Vertices per task in plain per-vertex loops.
+    private static final int GRAIN = 1 << 12;
+
+    private static final VarHandle DOUBLES = MethodHandles.arrayElementVarHandle(double[].class);
+
+    private final IntGraph graph;
+    private final IntGraph incoming;
+    private final ForkJoinPool pool;
+
+    /**
+     * How PageRank moves rank along edges.
+     */
+    public enum Mode {
+        /** Each vertex sums the shares of its in-neighbors; deterministic. */
+        PULL,
+        /** Each vertex adds its share to its out-neighbors; uses atomic adds. */
+        PUSH
+    }
+
+    /**
+     * Creates an engine for a heap graph, building its transpose once.
+     *
+     * @param graph The graph to score.
+     */
+    public Centrality(CsrGraph graph) {
+        this(graph, graph.transpose(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an engine that runs on the common pool.
+     *
+     * @param graph    The graph to score.
+     * @param incoming The transpose of {@code graph}; {@code graph} itself if it is undirected.
+     */
+    public Centrality(IntGraph graph, IntGraph incoming) {
+        this(graph, incoming, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an engine.
+     *
+     * @param graph    The graph to score.
+     * @param incoming The transpose of {@code graph}; {@code graph} itself if it is undirected.
+     * @param pool     The pool that runs each computation.
+     */
+    public Centrality(IntGraph graph, IntGraph incoming, ForkJoinPool pool) {
+        if (graph.vertexCount() != incoming.vertexCount() || graph.edgeCount() != incoming.edgeCount()) {
+            throw new IllegalArgumentException("incoming is not the transpose of graph");
+        }
+        this.graph = graph;
+        this.incoming = incoming;
+        this.pool = Objects.requireNonNull(pool);
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////             PageRank            /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Computes PageRank with damping 0.85 in pull mode, to an L1 tolerance of 1e-9 or 100 iterations.
+     *
+     * @return The ranks, summing to 1.
+     */
+    public Scores pageRank() {
+        return pageRank(0.85, 1e-9, 100, Mode.PULL);
+    }
+
+    /**
+     * Computes PageRank by power iteration from the uniform distribution.
+     *
+     * @param damping       The probability of following an edge rather than jumping, in [0, 1].
+     * @param tolerance     Stop once the L1 change of an iteration is below this.
+     * @param maxIterations Stop after this many iterations regardless.
+     * @param mode          Whether rank is pulled along in-edges or pushed along out-edges.
+     * @return The ranks, summing to 1, with the number of iterations run.
+     */
+    public Scores pageRank(double damping, double tolerance, int maxIterations, Mode mode) {
+        if (!(damping >= 0 && damping <= 1)) {
+            throw new IllegalArgumentException("Damping must be in [0, 1]: " + damping);
+        }
+        if (!(tolerance >= 0) || maxIterations < 0) {
+            throw new IllegalArgumentException("Bad stopping rule: tolerance " + tolerance
+                    + ", maxIterations " + maxIterations);
+        }
+        Objects.requireNonNull(mode);
+        int n = graph.vertexCount();
+        double[] rank = new double[n];
+        double[] next = new double[n];
+        double[] share = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+        int iterations = 0;
+        while (iterations < maxIterations) {
+            iterations++;
+            // Each vertex's share per out-edge; the rank of vertices without out-edges is pooled.
+            double[] r = rank;
+            double dangling = sumChunks(n, (lo, hi) -> {
+                double sum = 0;
+                for (int v = lo; v < hi; v++) {
+                    int degree = graph.edgeEnd(v) - graph.edgeStart(v);
+                    if (degree == 0) {
+                        sum += r[v];
+                        share[v] = 0;
+                    } else {
+                        share[v] = r[v] / degree;
+                    }
+                }
+                return sum;
+            });
+            double base = (1 - damping) / n + damping * dangling / n;
+            double[] x = next;
+            if (mode == Mode.PUSH) {
+                ParallelRange.forRange(pool, 0, n, GRAIN, (lo, hi) -> Arrays.fill(x, lo, hi, 0));
+                ParallelRange.forRange(pool, 0, n, GRAIN, (lo, hi) -> {
+                    for (int u = lo; u < hi; u++) {
+                        double s = share[u];
+                        for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                            addDouble(x, graph.target(e), s);
+                        }
+                    }
+                });
+            }
+            double change = sumChunks(n, (lo, hi) -> {
+                double sum = 0;
+                for (int v = lo; v < hi; v++) {
+                    double in;
+                    if (mode == Mode.PUSH) {
+                        in = x[v];
+                    } else {
+                        in = 0;
+                        for (int e = incoming.edgeStart(v), end = incoming.edgeEnd(v); e < end; e++) {
+                            in += share[incoming.target(e)];
+                        }
+                    }
+                    x[v] = base + damping * in;
+                    sum += Math.abs(x[v] - r[v]);
+                }
+                return sum;
+            });
+            next = rank;
+            rank = x;
+            if (change < tolerance) {
+                break;
+            }
+        }
+        return new Scores(rank, iterations);
+    }
+
+    // Atomically adds x to a[i].
+    private static void addDouble(double[] a, int i, double x) {
+        double current = a[i];
+        while (!DOUBLES.weakCompareAndSet(a, i, current, current + x)) {
+            current = (double) DOUBLES.getVolatile(a, i);
+        }
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////              Degree             /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * @return The out-degree of every vertex divided by {@code V - 1}.
+     */
+    public Scores outDegree() {
+        return degree(graph);
+    }
+
+    /**
+     * @return The in-degree of every vertex divided by {@code V - 1}.
+     */
+    public Scores inDegree() {
+        return degree(incoming);
+    }
+
+    private Scores degree(IntGraph g) {
+        int n = g.vertexCount();
+        double scale = n > 1 ? 1.0 / (n - 1) : 0;
+        double[] score = new double[n];
+        ParallelRange.forRange(pool, 0, n, GRAIN, (lo, hi) -> {
+            for (int v = lo; v < hi; v++) {
+                score[v] = (g.edgeEnd(v) - g.edgeStart(v)) * scale;
+            }
+        });
+        return new Scores(score, 0);
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////            Betweenness          /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Computes betweenness centrality, exactly when {@code samples >= V} and otherwise estimated from
+     * {@code samples} distinct random sources.
+     *
+     * @param samples The number of BFS sources.
+     * @param seed    The seed that picks the sources.
+     * @return The betweenness of every vertex over ordered pairs, with the number of sources used.
+     */
+    public Scores betweenness(int samples, long seed) {
+        if (samples <= 0) {
+            throw new IllegalArgumentException("Need at least one sample: " + samples);
+        }
+        int n = graph.vertexCount();
+        int k = Math.min(samples, n);
+        int[] sources = new int[n];
+        for (int v = 0; v < n; v++) {
+            sources[v] = v;
+        }
+        if (k < n) {
+            Random random = new Random(seed);
+            for (int i = 0; i < k; i++) {
+                int j = i + random.nextInt(n - i);
+                int t = sources[i];
+                sources[i] = sources[j];
+                sources[j] = t;
+            }
+        }
+        double scale = (double) n / k;
+
+        // A fixed split of the sources, so the partials are added in the same order on every run.
+        int parts = Math.min(k, 2 * pool.getParallelism());
+        double[][] partial = new double[parts][];
+        ParallelRange.forRange(pool, 0, parts, 1, (lo, hi) -> {
+            for (int p = lo; p < hi; p++) {
+                partial[p] = new Brandes(n).run(sources, (int) ((long) k * p / parts),
+                        (int) ((long) k * (p + 1) / parts));
+            }
+        });
+        double[] score = new double[n];
+        ParallelRange.forRange(pool, 0, n, GRAIN, (lo, hi) -> {
+            for (double[] part : partial) {
+                for (int v = lo; v < hi; v++) {
+                    score[v] += part[v];
+                }
+            }
+            for (int v = lo; v < hi; v++) {
+                score[v] *= scale;
+            }
+        });
+        return new Scores(score, k);
+    }
+
+    /**
+     * The scratch arrays of one task of Brandes' algorithm. Only the vertices reached from the
+     * current source are reset between sources.
+     */
+    private final class Brandes {
+        final int[] dist;
+        final double[] sigma;       // number of shortest paths from the source
+        final double[] delta;       // dependency of the source on each vertex
+        final int[] order;          // vertices in BFS order
+        final double[] sum;
+
+        Brandes(int n) {
+            dist = new int[n];
+            Arrays.fill(dist, -1);
+            sigma = new double[n];
+            delta = new double[n];
+            order = new int[n];
+            sum = new double[n];
+        }
+
+        double[] run(int[] sources, int from, int to) {
+            for (int i = from; i < to; i++) {
+                accumulate(sources[i]);
+            }
+            return sum;
+        }
+
+        private void accumulate(int s) {
+            dist[s] = 0;
+            sigma[s] = 1;
+            order[0] = s;
+            int size = 1;
+            for (int head = 0; head < size; head++) {
+                int u = order[head];
+                for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    int v = graph.target(e);
+                    if (dist[v] < 0) {
+                        dist[v] = dist[u] + 1;
+                        order[size++] = v;
+                    }
+                    if (dist[v] == dist[u] + 1) {
+                        sigma[v] += sigma[u];
+                    }
+                }
+            }
+            // Successors finish before their predecessors in reverse BFS order.
+            for (int i = size - 1; i >= 0; i--) {
+                int u = order[i];
+                double d = 0;
+                for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    int v = graph.target(e);
+                    if (dist[v] == dist[u] + 1) {
+                        d += sigma[u] / sigma[v] * (1 + delta[v]);
+                    }
+                }
+                delta[u] = d;
+                if (u != s) {
+                    sum[u] += d;
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                int u = order[i];
+                dist[u] = -1;
+                sigma[u] = 0;
+                delta[u] = 0;
+            }
+        }
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////              Results            /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * A partial sum over the vertex range {@code [lo, hi)}.
+     */
+    @FunctionalInterface
+    private interface ChunkSum {
+        double run(int lo, int hi);
+    }
+
+    // Runs body over fixed chunks of [0, n) in parallel and adds the partials in chunk order.
+    private double sumChunks(int n, ChunkSum body) {
+        int chunks = (n + CHUNK - 1) / CHUNK;
+        double[] partial = new double[chunks];
+        ParallelRange.forRange(pool, 0, chunks, 1, (lo, hi) -> {
+            for (int c = lo; c < hi; c++) {
+                partial[c] = body.run(c * CHUNK, Math.min(n, (c + 1) * CHUNK));
+            }
+        });
+        double sum = 0;
+        for (double p : partial) {
+            sum += p;
+        }
+        return sum;
+    }
+
+    /**
+     * One vertex and its score.
+     */
+    public static final class Entry {
+        private final int vertex;
+        private final double score;
+
+        Entry(int vertex, double score) {
+            this.vertex = vertex;
+            this.score = score;
+        }
+
+        /**
+         * @return The vertex.
+         */
+        public int vertex() {
+            return vertex;
+        }
+
+        /**
+         * @return Its score.
+         */
+        public double score() {
+            return score;
+        }
+
+        @Override
+        public String toString() {
+            return vertex + "=" + score;
+        }
+    }
+
+    /**
+     * The {@code Scores} class holds one score per vertex.
+     */
+    public static final class Scores {
+        private final double[] score;
+        private final int iterations;
+
+        Scores(double[] score, int iterations) {
+            this.score = score;
+            this.iterations = iterations;
+        }
+
+        /**
+         * @return The number of vertices.
+         */
+        public int size() {
+            return score.length;
+        }
+
+        /**
+         * @param v A vertex.
+         * @return Its score.
+         */
+        public double score(int v) {
+            return score[v];
+        }
+
+        /**
+         * @return PageRank iterations run, betweenness sources used, or 0 for degree centrality.
+         */
+        public int iterations() {
+            return iterations;
+        }
+
+        /**
+         * @return A new array of the scores by vertex.
+         */
+        public double[] toArray() {
+            return score.clone();
+        }
+
+        /**
+         * @return A lazy stream of {@code (vertex, score)} entries in vertex order.
+         */
+        public Stream<Entry> stream() {
+            return IntStream.range(0, score.length).mapToObj(v -> new Entry(v, score[v]));
+        }
+
+        /**
+         * Finds the {@code k} highest scores with a bounded min-heap, in O(V log k) time and O(k) space.
+         *
+         * @param k The number of entries wanted.
+         * @return Up to {@code k} entries, highest score first, ties by lower vertex.
+         */
+        public List<Entry> topK(int k) {
+            if (k < 0) {
+                throw new IllegalArgumentException("Negative k: " + k);
+            }
+            k = Math.min(k, score.length);
+            // heap[0] is the weakest entry kept; it is replaced by anything better.
+            int[] heap = new int[k];
+            int size = 0;
+            for (int v = 0; v < score.length; v++) {
+                if (size < k) {
+                    heap[size] = v;
+                    siftUp(heap, size++);
+                } else if (k > 0 && better(v, heap[0])) {
+                    heap[0] = v;
+                    siftDown(heap, size);
+                }
+            }
+            List<Entry> top = new ArrayList<>(size);
+            while (size > 0) {
+                top.add(new Entry(heap[0], score[heap[0]]));
+                heap[0] = heap[--size];
+                siftDown(heap, size);
+            }
+            Collections.reverse(top);
+            return top;
+        }
+
+        // Whether u ranks above v: higher score, then lower vertex.
+        private boolean better(int u, int v) {
+            return score[u] > score[v] || (score[u] == score[v] && u < v);
+        }
+
+        private void siftUp(int[] heap, int i) {
+            int v = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!better(heap[parent], v)) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = v;
+        }
+
+        private void siftDown(int[] heap, int size) {
+            if (size == 0) {
+                return;
+            }
+            int v = heap[0];
+            int i = 0;
+            for (int child; (child = 2 * i + 1) < size; i = child) {
+                if (child + 1 < size && better(heap[child], heap[child + 1])) {
+                    child++;
+                }
+                if (!better(v, heap[child])) {
+                    break;
+                }
+                heap[i] = heap[child];
+            }
+            heap[i] = v;
+        }
+    }
+
+    /**
+     * The {@code main} method checks PageRank in both modes against a sequential power iteration,
+     * exact betweenness against a count over all pairs, and top K against a full sort, then times
+     * each measure on a large random graph with skewed in-degrees.
+     *
+     * @param args Optional: vertex count and average degree.
+     */
+    public static void main(String[] args) {
+        Random random = new Random(50);
+        boolean agree = true;
+        for (int round = 0; round < 40 && agree; round++) {
+            int n = 1 + random.nextInt(60);
+            CsrGraph.Builder builder = CsrGraph.builder(n);
+            for (int i = random.nextInt(4 * n); i > 0; i--) {
+                builder.addEdge(random.nextInt(n), random.nextInt(random.nextInt(n) + 1));
+            }
+            CsrGraph graph = builder.build();
+            Centrality centrality = new Centrality(graph, graph.transpose(), new ForkJoinPool(3));
+
+            double[] expected = referencePageRank(graph, 0.85, 200);
+            for (Mode mode : Mode.values()) {
+                Scores rank = centrality.pageRank(0.85, 1e-13, 200, mode);
+                double total = 0;
+                for (int v = 0; v < n; v++) {
+                    agree &= Math.abs(rank.score(v) - expected[v]) < 1e-10;
+                    total += rank.score(v);
+                }
+                agree &= Math.abs(total - 1) < 1e-9;
+            }
+
+            double[] exact = referenceBetweenness(graph);
+            Scores between = centrality.betweenness(n + random.nextInt(3), 0);
+            for (int v = 0; v < n; v++) {
+                agree &= Math.abs(between.score(v) - exact[v]) < 1e-9 * (1 + exact[v]);
+            }
+
+            int k = random.nextInt(n + 2);
+            Integer[] sorted = IntStream.range(0, n).boxed().toArray(Integer[]::new);
+            Arrays.sort(sorted, (u, v) -> between.score(u) != between.score(v)
+                    ? Double.compare(between.score(v), between.score(u)) : Integer.compare(u, v));
+            List<Entry> top = between.topK(k);
+            agree &= top.size() == Math.min(k, n);
+            for (int i = 0; i < top.size(); i++) {
+                agree &= top.get(i).vertex() == sorted[i];
+            }
+            centrality.pool.shutdown();
+        }
+        System.out.println("PageRank, betweenness and top K agree with references: " + agree);
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 20;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        CsrGraph.Builder builder = CsrGraph.builder(n);
+        for (long i = 0, m = (long) n * degree; i < m; i++) {
+            builder.addEdge(random.nextInt(n), random.nextInt(random.nextInt(n) + 1));   // skewed to low ids
+        }
+        CsrGraph graph = builder.build();
+        Centrality centrality = new Centrality(graph);
+        System.out.printf("V=%d E=%d, %d workers%n", n, graph.edgeCount(), centrality.pool.getParallelism());
+        for (int round = 0; round < 2; round++) {
+            long t0 = System.nanoTime();
+            Scores pull = centrality.pageRank(0.85, 1e-9, 100, Mode.PULL);
+            long t1 = System.nanoTime();
+            Scores push = centrality.pageRank(0.85, 1e-9, 100, Mode.PUSH);
+            long t2 = System.nanoTime();
+            Scores in = centrality.inDegree();
+            long t3 = System.nanoTime();
+            Scores between = centrality.betweenness(32, 7);
+            long t4 = System.nanoTime();
+            List<Entry> top = pull.topK(5);
+            long t5 = System.nanoTime();
+            double difference = 0;
+            for (int v = 0; v < n; v++) {
+                difference = Math.max(difference, Math.abs(pull.score(v) - push.score(v)));
+            }
+            System.out.printf("PageRank pull %d iterations %.0f ms, push %.0f ms (max difference %.1e)%n",
+                    pull.iterations(), (t1 - t0) / 1e6, (t2 - t1) / 1e6, difference);
+            System.out.printf("in-degree %.0f ms, betweenness from %d sources %.0f ms, top 5 %.1f ms: %s%n",
+                    (t3 - t2) / 1e6, between.iterations(), (t4 - t3) / 1e6, (t5 - t4) / 1e6, top);
+            System.out.println("most in-degree: " + in.topK(3) + ", most between: " + between.topK(3));
+        }
+    }
+
+    // Power iteration in one thread.
+    private static double[] referencePageRank(CsrGraph graph, double damping, int iterations) {
+        int n = graph.vertexCount();
+        double[] rank = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+        for (int round = 0; round < iterations; round++) {
+            double[] next = new double[n];
+            double dangling = 0;
+            for (int u = 0; u < n; u++) {
+                if (graph.outDegree(u) == 0) {
+                    dangling += rank[u];
+                }
+                for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                    next[graph.target(e)] += rank[u] / graph.outDegree(u);
+                }
+            }
+            for (int v = 0; v < n; v++) {
+                next[v] = (1 - damping) / n + damping * (dangling / n + next[v]);
+            }
+            rank = next;
+        }
+        return rank;
+    }
+
+    // Sum over ordered pairs (s, t) of the fraction of shortest s-t paths through v, from
+    // all-pairs distances and path counts.
+    private static double[] referenceBetweenness(CsrGraph graph) {
+        int n = graph.vertexCount();
+        int[][] dist = new int[n][];
+        double[][] paths = new double[n][n];
+        for (int s = 0; s < n; s++) {
+            dist[s] = GraphBfs.distances(graph, s);
+            Integer[] byDistance = IntStream.range(0, n).boxed().toArray(Integer[]::new);
+            int[] d = dist[s];
+            Arrays.sort(byDistance, (u, v) -> Integer.compare(d[u], d[v]));
+            paths[s][s] = 1;
+            for (int u : byDistance) {
+                if (d[u] < 0) {
+                    continue;
+                }
+                for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                    int v = graph.target(e);
+                    if (d[v] == d[u] + 1) {
+                        paths[s][v] += paths[s][u];
+                    }
+                }
+            }
+        }
+        double[] between = new double[n];
+        for (int s = 0; s < n; s++) {
+            for (int t = 0; t < n; t++) {
+                if (s == t || dist[s][t] < 0) {
+                    continue;
+                }
+                for (int v = 0; v < n; v++) {
+                    if (v != s && v != t && dist[s][v] >= 0 && dist[v][t] >= 0
+                            && dist[s][v] + dist[v][t] == dist[s][t]) {
+                        between[v] += paths[s][v] * paths[v][t] / paths[s][t];
+                    }
+                }
+            }
+        }
+        return between;
+    }
+}
@@ -0,0 +1,304 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code ConcurrentUnionFind} class is a lock-free disjoint-set forest over the elements
+ * {@code 0 .. n-1} that any number of threads can update at once, for connectivity over edge
+ * streams too large to union from one thread.
+ *
+ * <p>The parent pointers are an {@link AtomicIntegerArray}, and every write is a compare-and-set:</p>
+ * <ul>
+ *     <li><strong>Linking by index.</strong> {@code unite} links the root that comes first in a
+ *     fixed pseudo-random order of the elements under the other root, with one CAS of the child's
+ *     parent from itself to the new parent. The order is a bijective hash of the index, so it is
+ *     total (two threads never link two roots under each other and form a cycle) yet looks random
+ *     (trees stay shallow in expectation, as in Jayanti and Tarjan's randomized linking). No rank
+ *     has to be kept in step with the parent, which is what makes a single CAS enough. If the CAS
+ *     fails, another thread has just linked that root, and {@code unite} retries from the new
+ *     roots.</li>
+ *     <li><strong>Path splitting.</strong> {@code find} points each node it passes at its
+ *     grandparent with a CAS. A failed CAS means another thread already shortened that link, so
+ *     it is not retried.</li>
+ * </ul>
+ *
+ * <p>Every failed CAS is caused by a successful one in another thread, so some thread always makes
+ * progress: the structure is lock-free. All operations are linearizable; {@link #connected(int, int)}
+ * answers "no" only after seeing {@code a}'s root still be a root once {@code b}'s root differs.
+ * {@link #setCount()} and {@link #labels()} scan every element and are exact only while no
+ * {@code unite} is running.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * ConcurrentUnionFind sets = new ConcurrentUnionFind(n);
+ * sets.uniteAll(sources, targets, count, ForkJoinPool.commonPool());   // one batch of the stream
+ * edgesFromOtherThreads.parallel().forEach(e -> sets.unite(e.u, e.v));
+ * int[] component = sets.labels();
+ * }</pre>
+ *
+ * <p><strong>Time Complexity:</strong> O(log n) expected per operation, near-constant in practice.</p>
+ * <p><strong>Space Complexity:</strong> 4 bytes per element.</p>
+ *
+ * @author
+ */
+public final class ConcurrentUnionFind {
+    // Batches of edges handed to one fork-join task.
+    private static final int GRAIN = 1 << 14;
+
+    private final AtomicIntegerArray parent;
+
+    /**
+     * Creates {@code n} singleton sets.
+     *
+     * @param n The number of elements.
+     */
+    public ConcurrentUnionFind(int n) {
+        parent = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) {
+            parent.setPlain(i, i);
+        }
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////          Set Operations         /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Finds the current representative of the set containing {@code x}, splitting the path on
+     * the way. Under concurrent unions the answer may be out of date as soon as it is returned.
+     *
+     * @param x An element.
+     * @return A root of {@code x}'s set.
+     */
+    public int find(int x) {
+        AtomicIntegerArray parent = this.parent;
+        while (true) {
+            int p = parent.get(x);
+            if (p == x) {
+                return x;
+            }
+            int grandparent = parent.get(p);
+            if (p != grandparent) {
+                parent.compareAndSet(x, p, grandparent);
+            }
+            x = p;
+        }
+    }
+
+    /**
+     * Merges the sets containing {@code a} and {@code b}.
+     *
+     * @param a An element.
+     * @param b An element.
+     * @return {@code true} if this call merged two sets; {@code false} if they were already one,
+     *         possibly because another thread merged them first.
+     */
+    public boolean unite(int a, int b) {
+        while (true) {
+            a = find(a);
+            b = find(b);
+            if (a == b) {
+                return false;
+            }
+            if (order(a) > order(b)) {
+                int t = a;
+                a = b;
+                b = t;
+            }
+            if (parent.compareAndSet(a, a, b)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param a An element.
+     * @param b An element.
+     * @return {@code true} if {@code a} and {@code b} are in the same set at some moment during the call.
+     */
+    public boolean connected(int a, int b) {
+        while (true) {
+            a = find(a);
+            b = find(b);
+            if (a == b) {
+                return true;
+            }
+            if (parent.get(a) == a) {
+                return false;   // a was still a root after b's root was read, so they were apart
+            }
+        }
+    }
+
+    /**
+     * Unites the endpoints of a batch of edges in parallel.
+     *
+     * @param sources The first endpoint of each edge.
+     * @param targets The second endpoint of each edge.
+     * @param count   The number of edges to take from the start of the arrays.
+     * @param pool    The pool to run on.
+     * @return The number of merges this batch performed.
+     */
+    public long uniteAll(int[] sources, int[] targets, int count, ForkJoinPool pool) {
+        AtomicLong merges = new AtomicLong();
+        ParallelRange.forRange(pool, 0, count, GRAIN, (lo, hi) -> {
+            int local = 0;
+            for (int i = lo; i < hi; i++) {
+                if (unite(sources[i], targets[i])) {
+                    local++;
+                }
+            }
+            merges.addAndGet(local);
+        });
+        return merges.get();
+    }
+
+    /**
+     * Counts the roots. Exact only while no {@code unite} is running.
+     *
+     * @return The number of disjoint sets.
+     */
+    public int setCount() {
+        int roots = 0;
+        for (int i = 0, n = parent.length(); i < n; i++) {
+            if (parent.get(i) == i) {
+                roots++;
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * Labels every element with its root, compressing every path fully. Exact only while no
+     * {@code unite} is running.
+     *
+     * @return A new {@code int[]} of roots, equal for exactly the elements of one set.
+     */
+    public int[] labels() {
+        int n = parent.length();
+        int[] labels = new int[n];
+        for (int i = 0; i < n; i++) {
+            int root = find(i);
+            parent.set(i, root);
+            labels[i] = root;
+        }
+        return labels;
+    }
+
+    /**
+     * @return The number of elements.
+     */
+    public int size() {
+        return parent.length();
+    }
+
+    // The linking order: a bijection on int, so distinct elements never tie.
+    private static int order(int x) {
+        return x * 0x9E3779B9;
+    }
+
+    /**
+     * The {@code main} method stress-tests the structure against {@link UnionFind} under heavy
+     * contention, then compares throughput on a large random edge stream at increasing thread
+     * counts.
+     *
+     * @param args Optional: element count and edges per element for the benchmark.
+     */
+    public static void main(String[] args) {
+        ConcurrentUnionFind small = new ConcurrentUnionFind(5);
+        System.out.println("unite(0, 1): " + small.unite(0, 1));            // true
+        System.out.println("unite(1, 0): " + small.unite(1, 0));            // false
+        System.out.println("unite(3, 4): " + small.unite(3, 4));            // true
+        System.out.println("connected(0, 4): " + small.connected(0, 4));    // false
+        System.out.println("sets: " + small.setCount());                    // 3
+
+        // Stress: few elements and many edges, so threads constantly race on the same roots.
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        ForkJoinPool stressPool = new ForkJoinPool(threads);
+        Random random = new Random(41);
+        boolean stressOk = true;
+        for (int round = 0; round < 200 && stressOk; round++) {
+            int n = 1 + random.nextInt(2000);
+            int m = random.nextInt(4 * n + 1);
+            int[] sources = new int[m];
+            int[] targets = new int[m];
+            for (int i = 0; i < m; i++) {
+                sources[i] = random.nextInt(n);
+                targets[i] = random.nextInt(n);
+            }
+            UnionFind reference = new UnionFind(n);
+            for (int i = 0; i < m; i++) {
+                reference.unite(sources[i], targets[i]);
+            }
+            ConcurrentUnionFind concurrent = new ConcurrentUnionFind(n);
+            long merges = concurrent.uniteAllFine(sources, targets, m, stressPool);
+            stressOk = merges == n - reference.setCount()
+                    && concurrent.setCount() == reference.setCount()
+                    && samePartition(reference, concurrent.labels());
+        }
+        stressPool.shutdown();
+        System.out.println("Stress test against UnionFind passed: " + stressOk);
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        int perElement = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int m = n * perElement;
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        for (int i = 0; i < m; i++) {
+            sources[i] = random.nextInt(n);
+            targets[i] = random.nextInt(n);
+        }
+        for (int round = 0; round < 2; round++) {
+            long t0 = System.nanoTime();
+            UnionFind reference = new UnionFind(n);
+            for (int i = 0; i < m; i++) {
+                reference.unite(sources[i], targets[i]);
+            }
+            long t1 = System.nanoTime();
+            System.out.printf("n=%d m=%d: UnionFind %.0f ms (%.0f M edges/s)%n", n, m, (t1 - t0) / 1e6,
+                    m / ((t1 - t0) / 1e3));
+            for (int p = 1; p <= threads; p *= 2) {
+                ForkJoinPool pool = new ForkJoinPool(p);
+                long t2 = System.nanoTime();
+                ConcurrentUnionFind concurrent = new ConcurrentUnionFind(n);
+                concurrent.uniteAll(sources, targets, m, pool);
+                long t3 = System.nanoTime();
+                pool.shutdown();
+                System.out.printf("  ConcurrentUnionFind, %2d threads: %.0f ms (%.0f M edges/s), same sets %b%n", p,
+                        (t3 - t2) / 1e6, m / ((t3 - t2) / 1e3), concurrent.setCount() == reference.setCount());
+            }
+        }
+    }
+
+    // uniteAll with one-edge tasks, so the stress test interleaves threads as finely as possible.
+    private long uniteAllFine(int[] sources, int[] targets, int count, ForkJoinPool pool) {
+        AtomicLong merges = new AtomicLong();
+        ParallelRange.forRange(pool, 0, count, 1, (lo, hi) -> {
+            for (int i = lo; i < hi; i++) {
+                if (unite(sources[i], targets[i])) {
+                    merges.incrementAndGet();
+                }
+            }
+        });
+        return merges.get();
+    }
+
+    // True if labels put two elements together exactly when the reference does.
+    private static boolean samePartition(UnionFind reference, int[] labels) {
+        int n = labels.length;
+        int[] labelOfRoot = new int[n];
+        Arrays.fill(labelOfRoot, -1);
+        int[] rootOfLabel = new int[n];
+        Arrays.fill(rootOfLabel, -1);
+        for (int x = 0; x < n; x++) {
+            int root = reference.find(x);
+            if (labelOfRoot[root] < 0 && rootOfLabel[labels[x]] < 0) {
+                labelOfRoot[root] = labels[x];
+                rootOfLabel[labels[x]] = root;
+            } else if (labelOfRoot[root] != labels[x] || rootOfLabel[labels[x]] != root) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,836 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.CRC32C;
+
+/**
+ * The {@code ContractionHierarchy} class preprocesses a static {@code int}-weighted graph once so
+ * that point-to-point shortest-path queries settle a few hundred vertices instead of a large part of
+ * the graph.
+ *
+ * <p><strong>Preprocessing</strong> contracts the vertices one at a time in order of importance. To
+ * contract {@code v}, every pair of remaining neighbors {@code u -> v -> w} whose shortest path runs
+ * through {@code v} gets a shortcut edge {@code u -> w}, so that distances among the remaining
+ * vertices are unchanged once {@code v} is removed. A bounded local Dijkstra from {@code u} that
+ * avoids {@code v} (the <em>witness search</em>) decides whether the shortcut is needed. The next
+ * vertex to contract is the one with the smallest <em>edge difference</em> (shortcuts added minus
+ * edges removed) plus the number of neighbors already contracted, which spreads contraction evenly
+ * over the graph. Priorities are kept in an {@link IndexedMinHeap} and updated lazily: the popped
+ * vertex is re-evaluated and put back if it is no longer the minimum. Re-evaluating every neighbor
+ * after each contraction instead costs over three times the witness searches on road-like graphs
+ * for no measurable gain in shortcuts or query time.</p>
+ *
+ * <p>The contraction order is the vertex <em>rank</em>. Every shortest path in the graph with
+ * shortcuts is "up then down" in rank, so a <strong>query</strong> is a bidirectional Dijkstra
+ * where the forward search from {@code s} only takes edges to higher-ranked vertices and the
+ * backward search from {@code t} only takes edges from higher-ranked vertices. Each side stops
+ * once its smallest key reaches the best meeting distance. <em>Stall-on-demand</em> skips
+ * relaxing a vertex that is provably reached more cheaply from a higher-ranked vertex. Paths are
+ * recovered by unpacking each shortcut into the two edges it replaced, using the contracted middle
+ * vertex stored with the shortcut.</p>
+ *
+ * <p>The hierarchy is immutable and is written with {@link #save(Path)} and read with
+ * {@link #load(Path)}; queries run on per-thread {@link Query} engines from {@link #newQuery()}.
+ * The file is little-endian: a 32-byte header, then the rank array and the upward and downward
+ * edge arrays.</p>
+ * <pre>
+ *  offset  size  field
+ *       0     8  magic "CHIERARC"
+ *       8     4  format version (1)
+ *      12     4  vertex count V
+ *      16     4  upward edge count U
+ *      20     4  downward edge count D
+ *      24     4  CRC32C of everything after the header
+ *      28     4  CRC32C of header bytes 0..27
+ *      32        rank (V), up offsets (V + 1), up targets, weights, middles (U each),
+ *                down offsets (V + 1), down sources, weights, middles (D each)
+ * </pre>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * ContractionHierarchy ch = ContractionHierarchy.build(graph);   // offline
+ * ch.save(Path.of("roads.ch"));
+ *
+ * ContractionHierarchy.Query query = ContractionHierarchy.load(Path.of("roads.ch")).newQuery();
+ * query.distance(s, t);
+ * query.path(s, t);     // original vertices, shortcuts unpacked
+ * }</pre>
+ *
+ * <p><strong>Time Complexity:</strong> preprocessing is graph dependent: about a minute per million
+ * vertices of the random-weight grid in {@code main}, less on real road networks, which have a
+ * clearer hierarchy. A query there settles a few hundred vertices.</p>
+ * <p><strong>Space Complexity:</strong> O(V + E + shortcuts).</p>
+ *
+ * @author
+ */
+public final class ContractionHierarchy {
+    static final long MAGIC = 0x4352415245494843L; // "CHIERARC" read as a little-endian long
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+
+    // Staging buffer size for reads and writes.
+    private static final int IO_BUFFER_BYTES = 1 << 20;
+
+    private final int[] rank;
+    // Edges u -> x with rank[x] > rank[u], stored at u. middle is the contracted vertex a shortcut
+    // replaces, or -1 for an original edge.
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final int[] upWeights;
+    private final int[] upMiddles;
+    // Edges x -> u with rank[x] > rank[u], stored at u.
+    private final int[] downOffsets;
+    private final int[] downSources;
+    private final int[] downWeights;
+    private final int[] downMiddles;
+
+    private ContractionHierarchy(int[] rank, int[] upOffsets, int[] upTargets, int[] upWeights, int[] upMiddles,
+                                 int[] downOffsets, int[] downSources, int[] downWeights, int[] downMiddles) {
+        this.rank = rank;
+        this.upOffsets = upOffsets;
+        this.upTargets = upTargets;
+        this.upWeights = upWeights;
+        this.upMiddles = upMiddles;
+        this.downOffsets = downOffsets;
+        this.downSources = downSources;
+        this.downWeights = downWeights;
+        this.downMiddles = downMiddles;
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////        Preprocessing Function   /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Contracts every vertex of a graph.
+     *
+     * @param graph An {@code int}-weighted graph with non-negative weights.
+     * @return The hierarchy.
+     * @throws IllegalArgumentException if the graph has no {@code int} weights or a negative weight.
+     */
+    public static ContractionHierarchy build(IntGraph graph) {
+        if (!graph.hasIntWeights()) {
+            throw new IllegalArgumentException("Contraction hierarchies need an int-weighted graph");
+        }
+        return new Contractor(graph).run();
+    }
+
+    /**
+     * @return The number of vertices.
+     */
+    public int vertexCount() {
+        return rank.length;
+    }
+
+    /**
+     * @return The number of upward plus downward edges, including shortcuts.
+     */
+    public int edgeCount() {
+        return upTargets.length + downSources.length;
+    }
+
+    /**
+     * @param v A vertex.
+     * @return The position of {@code v} in the contraction order.
+     */
+    public int rank(int v) {
+        return rank[v];
+    }
+
+    /**
+     * @return A new query engine over this hierarchy. Engines are not thread-safe; the hierarchy is.
+     */
+    public Query newQuery() {
+        return new Query();
+    }
+
+    // The contraction state: adjacency of the remaining graph as growable (neighbor, weight, middle)
+    // triples. Once a vertex is contracted its lists are frozen and become its up and down edges.
+    private static final class Contractor {
+        // Settled-vertex budget of one witness search. A search that gives up adds a shortcut that
+        // may be unnecessary, which costs query time but never correctness. Simulated contractions,
+        // which only rank vertices, get a smaller budget: they are most of the searches.
+        private static final int WITNESS_SETTLE_LIMIT = 100;
+        private static final int SIMULATED_SETTLE_LIMIT = 20;
+
+        final int n;
+        final int[][] out;
+        final int[] outSize;
+        final int[][] in;
+        final int[] inSize;
+        final int[] deletedNeighbors;
+        final int[] rank;
+        final IndexedMinHeap order;
+
+        // Witness search scratch; witnessStamp[v] == witnessEpoch means witnessDist[v] is current.
+        final int[] witnessDist;
+        final int[] witnessStamp;
+        int witnessEpoch;
+        final IndexedMinHeap witnessHeap;
+
+        Contractor(IntGraph graph) {
+            n = graph.vertexCount();
+            out = new int[n][];
+            outSize = new int[n];
+            in = new int[n][];
+            inSize = new int[n];
+            deletedNeighbors = new int[n];
+            rank = new int[n];
+            order = new IndexedMinHeap(n);
+            witnessDist = new int[n];
+            witnessStamp = new int[n];
+            witnessHeap = new IndexedMinHeap(n);
+            for (int v = 0; v < n; v++) {
+                out[v] = new int[3 * Math.max(1, graph.outDegree(v))];
+                in[v] = new int[6];
+            }
+            for (int u = 0; u < n; u++) {
+                for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    int v = graph.target(e);
+                    int w = graph.intWeight(e);
+                    if (w < 0) {
+                        throw new IllegalArgumentException("Negative weight on edge " + e);
+                    }
+                    if (u != v) {
+                        addArc(u, v, w, -1);
+                    }
+                }
+            }
+        }
+
+        ContractionHierarchy run() {
+            for (int v = 0; v < n; v++) {
+                order.offer(v, priority(v));
+            }
+            int next = 0;
+            while (!order.isEmpty()) {
+                int v = order.poll();
+                // Lazy update: contracting neighbors changes v's priority after it was queued.
+                int p = priority(v);
+                if (!order.isEmpty() && p > order.minKey()) {
+                    order.offer(v, p);
+                    continue;
+                }
+                rank[v] = next++;
+                contract(v, false);
+                for (int i = 0; i < outSize[v]; i += 3) {
+                    int x = out[v][i];
+                    removeArc(in, inSize, x, v);
+                    deletedNeighbors[x]++;
+                }
+                for (int i = 0; i < inSize[v]; i += 3) {
+                    int u = in[v][i];
+                    removeArc(out, outSize, u, v);
+                    deletedNeighbors[u]++;
+                }
+            }
+            return freeze();
+        }
+
+        private int priority(int v) {
+            int shortcuts = contract(v, true);
+            return shortcuts - (outSize[v] + inSize[v]) / 3 + deletedNeighbors[v];
+        }
+
+        // Adds the shortcuts needed to remove v, or only counts them when simulating.
+        private int contract(int v, boolean simulate) {
+            int shortcuts = 0;
+            int[] ins = in[v];
+            int[] outs = out[v];
+            for (int i = 0; i < inSize[v]; i += 3) {
+                int u = ins[i];
+                int toV = ins[i + 1];
+                int maxOut = -1;
+                for (int j = 0; j < outSize[v]; j += 3) {
+                    if (outs[j] != u) {
+                        maxOut = Math.max(maxOut, outs[j + 1]);
+                    }
+                }
+                if (maxOut < 0) {
+                    continue;
+                }
+                witnessSearch(u, v, Math.addExact(toV, maxOut), simulate ? SIMULATED_SETTLE_LIMIT : WITNESS_SETTLE_LIMIT);
+                for (int j = 0; j < outSize[v]; j += 3) {
+                    int x = outs[j];
+                    if (x == u) {
+                        continue;
+                    }
+                    int via = Math.addExact(toV, outs[j + 1]);
+                    if (witnessStamp[x] != witnessEpoch || witnessDist[x] > via) {
+                        shortcuts++;
+                        if (!simulate) {
+                            addArc(u, x, via, v);
+                        }
+                    }
+                }
+            }
+            return shortcuts;
+        }
+
+        // Bounded Dijkstra from source in the remaining graph without avoid, up to distance limit.
+        private void witnessSearch(int source, int avoid, int limit, int settleLimit) {
+            if (++witnessEpoch == 0) {
+                Arrays.fill(witnessStamp, 0);
+                witnessEpoch = 1;
+            }
+            witnessHeap.clear();
+            witnessStamp[source] = witnessEpoch;
+            witnessDist[source] = 0;
+            witnessHeap.offer(source, 0);
+            int settled = 0;
+            while (!witnessHeap.isEmpty() && witnessHeap.minKey() <= limit && settled++ < settleLimit) {
+                int u = witnessHeap.poll();
+                int du = witnessDist[u];
+                int[] edges = out[u];
+                for (int i = 0, size = outSize[u]; i < size; i += 3) {
+                    int x = edges[i];
+                    if (x == avoid) {
+                        continue;
+                    }
+                    int candidate = du + edges[i + 1];
+                    if (candidate >= 0 && (witnessStamp[x] != witnessEpoch || candidate < witnessDist[x])) {
+                        witnessStamp[x] = witnessEpoch;
+                        witnessDist[x] = candidate;
+                        witnessHeap.offer(x, candidate);
+                    }
+                }
+            }
+        }
+
+        // Adds u -> x, or lowers the weight of an existing u -> x; parallel edges are never kept.
+        private void addArc(int u, int x, int weight, int middle) {
+            int[] edges = out[u];
+            for (int i = 0, size = outSize[u]; i < size; i += 3) {
+                if (edges[i] == x) {
+                    if (weight < edges[i + 1]) {
+                        edges[i + 1] = weight;
+                        edges[i + 2] = middle;
+                        int[] back = in[x];
+                        for (int j = 0; ; j += 3) {
+                            if (back[j] == u) {
+                                back[j + 1] = weight;
+                                back[j + 2] = middle;
+                                break;
+                            }
+                        }
+                    }
+                    return;
+                }
+            }
+            append(out, outSize, u, x, weight, middle);
+            append(in, inSize, x, u, weight, middle);
+        }
+
+        private static void append(int[][] lists, int[] sizes, int v, int neighbor, int weight, int middle) {
+            int size = sizes[v];
+            if (size + 3 > lists[v].length) {
+                lists[v] = Arrays.copyOf(lists[v], 2 * lists[v].length);
+            }
+            int[] list = lists[v];
+            list[size] = neighbor;
+            list[size + 1] = weight;
+            list[size + 2] = middle;
+            sizes[v] = size + 3;
+        }
+
+        // Swap-removes the triple for neighbor from v's list.
+        private static void removeArc(int[][] lists, int[] sizes, int v, int neighbor) {
+            int[] list = lists[v];
+            int last = sizes[v] - 3;
+            for (int i = 0; i <= last; i += 3) {
+                if (list[i] == neighbor) {
+                    list[i] = list[last];
+                    list[i + 1] = list[last + 1];
+                    list[i + 2] = list[last + 2];
+                    sizes[v] = last;
+                    return;
+                }
+            }
+        }
+
+        // Packs the frozen lists into CSR arrays: a contracted vertex's remaining out-edges all lead
+        // to higher ranks and its remaining in-edges all come from higher ranks.
+        private ContractionHierarchy freeze() {
+            int[] upOffsets = new int[n + 1];
+            int[] downOffsets = new int[n + 1];
+            for (int v = 0; v < n; v++) {
+                upOffsets[v + 1] = upOffsets[v] + outSize[v] / 3;
+                downOffsets[v + 1] = downOffsets[v] + inSize[v] / 3;
+            }
+            int[] upTargets = new int[upOffsets[n]];
+            int[] upWeights = new int[upOffsets[n]];
+            int[] upMiddles = new int[upOffsets[n]];
+            int[] downSources = new int[downOffsets[n]];
+            int[] downWeights = new int[downOffsets[n]];
+            int[] downMiddles = new int[downOffsets[n]];
+            for (int v = 0; v < n; v++) {
+                for (int i = 0, e = upOffsets[v]; i < outSize[v]; i += 3, e++) {
+                    upTargets[e] = out[v][i];
+                    upWeights[e] = out[v][i + 1];
+                    upMiddles[e] = out[v][i + 2];
+                }
+                for (int i = 0, e = downOffsets[v]; i < inSize[v]; i += 3, e++) {
+                    downSources[e] = in[v][i];
+                    downWeights[e] = in[v][i + 1];
+                    downMiddles[e] = in[v][i + 2];
+                }
+            }
+            return new ContractionHierarchy(rank, upOffsets, upTargets, upWeights, upMiddles,
+                    downOffsets, downSources, downWeights, downMiddles);
+        }
+    }
+
+    /**
+     * The {@code Query} class answers point-to-point queries on a {@link ContractionHierarchy}. It
+     * reuses its arrays across queries with epoch stamps, as {@link Dijkstra} does, and is not
+     * thread-safe: use one engine per thread.
+     */
+    public final class Query {
+        // Forward side: parent vertex and the middle of the edge parent -> v. Backward side: the next
+        // vertex towards the target and the middle of the edge v -> next.
+        private final int[] distF;
+        private final int[] parentF;
+        private final int[] middleF;
+        private final int[] stampF;
+        private final int[] distR;
+        private final int[] parentR;
+        private final int[] middleR;
+        private final int[] stampR;
+        private int epoch;
+        private final IndexedMinHeap heapF;
+        private final IndexedMinHeap heapR;
+        private int settled;
+        private int meet;
+
+        private Query() {
+            int n = rank.length;
+            distF = new int[n];
+            parentF = new int[n];
+            middleF = new int[n];
+            stampF = new int[n];
+            distR = new int[n];
+            parentR = new int[n];
+            middleR = new int[n];
+            stampR = new int[n];
+            heapF = new IndexedMinHeap(n);
+            heapR = new IndexedMinHeap(n);
+        }
+
+        /**
+         * Finds the length of a shortest path.
+         *
+         * @param source The start vertex.
+         * @param target The destination vertex.
+         * @return The shortest distance, or {@link Dijkstra#UNREACHABLE}.
+         */
+        public int distance(int source, int target) {
+            long mu = search(source, target);
+            return mu == Long.MAX_VALUE ? Dijkstra.UNREACHABLE : (int) mu;
+        }
+
+        /**
+         * Finds a shortest path in the original graph.
+         *
+         * @param source The start vertex.
+         * @param target The destination vertex.
+         * @return The vertices of the path from {@code source} to {@code target}, or {@code null}
+         *         if {@code target} is unreachable.
+         */
+        public int[] path(int source, int target) {
+            if (search(source, target) == Long.MAX_VALUE) {
+                return null;
+            }
+            IntList path = new IntList();
+            path.add(source);
+            // The forward half is found from meet back to source; unpack its edges source-first.
+            IntList up = new IntList();
+            for (int v = meet; v != source; v = parentF[v]) {
+                up.add(v);
+            }
+            for (int i = up.size - 1; i >= 0; i--) {
+                int v = up.items[i];
+                unpack(parentF[v], v, middleF[v], path);
+            }
+            for (int v = meet; v != target; v = parentR[v]) {
+                unpack(v, parentR[v], middleR[v], path);
+            }
+            return path.toArray();
+        }
+
+        /**
+         * @return The number of vertices settled by both sides of the last query.
+         */
+        public int settledCount() {
+            return settled;
+        }
+
+        private long search(int source, int target) {
+            int n = rank.length;
+            if (source < 0 || source >= n || target < 0 || target >= n) {
+                throw new IndexOutOfBoundsException("Vertex out of range [0, " + n + ")");
+            }
+            if (++epoch == 0) {             // wrapped: stamps from 2^32 queries ago could collide
+                Arrays.fill(stampF, 0);
+                Arrays.fill(stampR, 0);
+                epoch = 1;
+            }
+            heapF.clear();
+            heapR.clear();
+            settled = 0;
+            stampF[source] = epoch;
+            distF[source] = 0;
+            heapF.offer(source, 0);
+            stampR[target] = epoch;
+            distR[target] = 0;
+            heapR.offer(target, 0);
+
+            long mu = Long.MAX_VALUE;
+            while (true) {
+                // A side is done once nothing it could still settle can beat mu.
+                if (!heapF.isEmpty() && heapF.minKey() >= mu) {
+                    heapF.clear();
+                }
+                if (!heapR.isEmpty() && heapR.minKey() >= mu) {
+                    heapR.clear();
+                }
+                if (heapF.isEmpty() && heapR.isEmpty()) {
+                    return mu;
+                }
+                boolean forward = heapR.isEmpty() || (!heapF.isEmpty() && heapF.minKey() <= heapR.minKey());
+                if (forward) {
+                    int u = heapF.poll();
+                    settled++;
+                    if (stampR[u] == epoch && (long) distF[u] + distR[u] < mu) {
+                        mu = (long) distF[u] + distR[u];
+                        meet = u;
+                    }
+                    if (!stalled(u, distF, stampF, downOffsets, downSources, downWeights)) {
+                        relax(u, distF, parentF, middleF, stampF, heapF, upOffsets, upTargets, upWeights, upMiddles);
+                    }
+                } else {
+                    int u = heapR.poll();
+                    settled++;
+                    if (stampF[u] == epoch && (long) distF[u] + distR[u] < mu) {
+                        mu = (long) distF[u] + distR[u];
+                        meet = u;
+                    }
+                    if (!stalled(u, distR, stampR, upOffsets, upTargets, upWeights)) {
+                        relax(u, distR, parentR, middleR, stampR, heapR, downOffsets, downSources, downWeights,
+                                downMiddles);
+                    }
+                }
+            }
+        }
+
+        // Stall-on-demand: u's tentative distance is not shortest if a higher-ranked vertex this side
+        // already reached gets to u more cheaply, so nothing found from u can be on a shortest path.
+        private boolean stalled(int u, int[] dist, int[] stamp, int[] offsets, int[] neighbors, int[] weights) {
+            int du = dist[u];
+            for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                int x = neighbors[e];
+                if (stamp[x] == epoch && (long) dist[x] + weights[e] < du) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void relax(int u, int[] dist, int[] parent, int[] middle, int[] stamp, IndexedMinHeap heap,
+                           int[] offsets, int[] neighbors, int[] weights, int[] middles) {
+            int du = dist[u];
+            for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                int x = neighbors[e];
+                int candidate = du + weights[e];
+                if (candidate < 0) {
+                    throw new ArithmeticException("Path length overflows int at vertex " + x);
+                }
+                if (stamp[x] != epoch || candidate < dist[x]) {
+                    stamp[x] = epoch;
+                    dist[x] = candidate;
+                    parent[x] = u;
+                    middle[x] = middles[e];
+                    heap.offer(x, candidate);
+                }
+            }
+        }
+
+        // Appends the original vertices after a on the edge a -> b, expanding shortcuts depth-first.
+        private void unpack(int a, int b, int mid, IntList path) {
+            IntList stack = new IntList();
+            stack.add(a);
+            stack.add(b);
+            stack.add(mid);
+            while (stack.size > 0) {
+                int m = stack.items[--stack.size];
+                int y = stack.items[--stack.size];
+                int x = stack.items[--stack.size];
+                if (m < 0) {
+                    path.add(y);
+                    continue;
+                }
+                // m was contracted before x and y: x -> m is a down edge of m, m -> y an up edge of m.
+                // Push the second half first so the first half is expanded first.
+                stack.add(m);
+                stack.add(y);
+                stack.add(middleOf(m, y, upOffsets, upTargets, upWeights, upMiddles));
+                stack.add(x);
+                stack.add(m);
+                stack.add(middleOf(m, x, downOffsets, downSources, downWeights, downMiddles));
+            }
+        }
+    }
+
+    // The middle of the stored edge between v and neighbor in one of v's edge lists.
+    private static int middleOf(int v, int neighbor, int[] offsets, int[] neighbors, int[] weights, int[] middles) {
+        for (int e = offsets[v], end = offsets[v + 1]; e < end; e++) {
+            if (neighbors[e] == neighbor) {
+                return middles[e];
+            }
+        }
+        throw new IllegalStateException("Missing edge between " + v + " and " + neighbor);
+    }
+
+    // A minimal growable int list for path assembly.
+    private static final class IntList {
+        int[] items = new int[16];
+        int size;
+
+        void add(int value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, 2 * size);
+            }
+            items[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(items, size);
+        }
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////          File Functions         /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Writes the hierarchy to {@code path}, replacing any existing file atomically.
+     *
+     * @param path The destination file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(Path path) throws IOException {
+        GraphFile.writeAtomically(path, channel -> {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32C crc = new CRC32C();
+            long position = HEADER_BYTES;
+            for (int[] section : sections()) {
+                position = GraphFile.writeIntArray(channel, position, section, buffer, crc);
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putLong(MAGIC).putInt(VERSION).putInt(rank.length)
+                    .putInt(upTargets.length).putInt(downSources.length).putInt((int) crc.getValue());
+            header.putInt(headerCrc(header));
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        });
+    }
+
+    private int[][] sections() {
+        return new int[][]{rank, upOffsets, upTargets, upWeights, upMiddles,
+                downOffsets, downSources, downWeights, downMiddles};
+    }
+
+    /**
+     * Reads a hierarchy written by {@link #save(Path)}, checking its checksums.
+     *
+     * @param path The file to read.
+     * @return The hierarchy.
+     * @throws IOException if the file cannot be read or is corrupt.
+     */
+    public static ContractionHierarchy load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException(path + ": unexpected end of file in header");
+                }
+            }
+            if (header.getLong(0) != MAGIC) {
+                throw new IOException(path + ": not a contraction hierarchy file (bad magic)");
+            }
+            if (header.getInt(8) != VERSION) {
+                throw new IOException(path + ": unsupported format version " + header.getInt(8));
+            }
+            if (headerCrc(header.duplicate().order(ByteOrder.LITTLE_ENDIAN).position(28)) != header.getInt(28)) {
+                throw new IOException(path + ": header checksum mismatch");
+            }
+            int n = header.getInt(12);
+            int up = header.getInt(16);
+            int down = header.getInt(20);
+            if (n < 0 || up < 0 || down < 0
+                    || channel.size() != HEADER_BYTES + 4L * (3L * n + 2 + 3L * up + 3L * down)) {
+                throw new IOException(path + ": corrupt size");
+            }
+            ContractionHierarchy ch = new ContractionHierarchy(new int[n], new int[n + 1], new int[up], new int[up],
+                    new int[up], new int[n + 1], new int[down], new int[down], new int[down]);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32C crc = new CRC32C();
+            long position = HEADER_BYTES;
+            for (int[] section : ch.sections()) {
+                position = GraphFile.readIntArray(channel, position, section, buffer, crc, path);
+            }
+            if ((int) crc.getValue() != header.getInt(24)) {
+                throw new IOException(path + ": checksum mismatch");
+            }
+            ch.validate(path);
+            return ch;
+        }
+    }
+
+    // Checks the invariants queries rely on, so a file that passes its checksums but was written
+    // wrongly fails here rather than with an index error or a shortcut that never unpacks.
+    private void validate(Path path) throws IOException {
+        int n = rank.length;
+        boolean[] seen = new boolean[n];
+        for (int v = 0; v < n; v++) {
+            if (rank[v] < 0 || rank[v] >= n || seen[rank[v]]) {
+                throw new IOException(path + ": corrupt rank at vertex " + v);
+            }
+            seen[rank[v]] = true;
+        }
+        validateEdges(path, "up", upOffsets, upTargets, upWeights, upMiddles);
+        validateEdges(path, "down", downOffsets, downSources, downWeights, downMiddles);
+    }
+
+    // Offsets run monotonically from 0 to the edge count, every neighbor is a vertex ranked above
+    // the edge's owner, every weight is non-negative, and every middle is -1 or a vertex ranked
+    // below both ends.
+    private void validateEdges(Path path, String kind, int[] offsets, int[] neighbors, int[] weights,
+                               int[] middles) throws IOException {
+        int n = rank.length;
+        if (offsets[0] != 0 || offsets[n] != neighbors.length) {
+            throw new IOException(path + ": corrupt " + kind + " offsets");
+        }
+        for (int v = 0; v < n; v++) {
+            if (offsets[v + 1] < offsets[v]) {
+                throw new IOException(path + ": corrupt " + kind + " offsets at vertex " + v);
+            }
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int x = neighbors[e];
+                int m = middles[e];
+                if (x < 0 || x >= n || rank[x] <= rank[v] || weights[e] < 0
+                        || m < -1 || m >= n || (m >= 0 && (rank[m] >= rank[v] || rank[m] >= rank[x]))) {
+                    throw new IOException(path + ": corrupt " + kind + " edge " + e + " at vertex " + v);
+                }
+            }
+        }
+    }
+
+    // CRC32C of the header bytes 0..27.
+    private static int headerCrc(ByteBuffer header) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer bytes = header.duplicate();
+        bytes.flip();
+        bytes.limit(28);
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * The {@code main} method contracts a road-like grid, round-trips the hierarchy through a file,
+     * and compares query time against {@link Dijkstra}, checking distances and unpacked paths on
+     * random pairs.
+     *
+     * @param args Optional: grid side length and number of queries.
+     */
+    public static void main(String[] args) throws IOException {
+        CsrGraph small = CsrGraph.intWeightedBuilder(5)
+                .addEdge(0, 1, 2).addEdge(0, 2, 5).addEdge(1, 2, 1).addEdge(2, 3, 1).addEdge(4, 0, 1)
+                .build();
+        Query smallQuery = build(small).newQuery();
+        System.out.println("4 -> 3: " + smallQuery.distance(4, 3));                          // 5
+        System.out.println("Path: " + Arrays.toString(smallQuery.path(4, 3)));              // [4, 0, 1, 2, 3]
+        System.out.println("3 -> 0: " + smallQuery.distance(3, 0));                          // -1
+
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        CsrGraph road = Dijkstra.grid(side, new Random(23));
+        long t0 = System.nanoTime();
+        ContractionHierarchy built = build(road);
+        long t1 = System.nanoTime();
+        Path file = Files.createTempFile("roads", ".ch");
+        built.save(file);
+        ContractionHierarchy ch = load(file);
+        long t2 = System.nanoTime();
+        System.out.printf("V=%d E=%d: contracted in %.0f ms, %d CH edges (%.2fx), save + load %.0f ms, file %d MiB%n",
+                road.vertexCount(), road.edgeCount(), (t1 - t0) / 1e6, ch.edgeCount(),
+                (double) ch.edgeCount() / road.edgeCount(), (t2 - t1) / 1e6, Files.size(file) >> 20);
+        Files.delete(file);
+
+        Dijkstra dijkstra = new Dijkstra(road);
+        Query query = ch.newQuery();
+        Random random = new Random(29);
+        int[] sources = new int[queries];
+        int[] targets = new int[queries];
+        for (int i = 0; i < queries; i++) {
+            sources[i] = random.nextInt(road.vertexCount());
+            targets[i] = random.nextInt(road.vertexCount());
+        }
+        int[] expected = new int[queries];
+        int[] actual = new int[queries];
+        for (int round = 0; round < 3; round++) {
+            long settledDijkstra = 0, settledCh = 0;
+            long t3 = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                expected[i] = dijkstra.distance(sources[i], targets[i]);
+                settledDijkstra += dijkstra.settledCount();
+            }
+            long t4 = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                actual[i] = query.distance(sources[i], targets[i]);
+                settledCh += query.settledCount();
+            }
+            long t5 = System.nanoTime();
+            int mismatch = 0;
+            while (mismatch < queries && expected[mismatch] == actual[mismatch]) {
+                mismatch++;
+            }
+            System.out.printf("%d queries: Dijkstra %.3f ms/query (%d settled), CH %.4f ms/query (%d settled), %.0fx, %s%n",
+                    queries, (t4 - t3) / 1e6 / queries, settledDijkstra / queries, (t5 - t4) / 1e6 / queries,
+                    settledCh / queries, (double) (t4 - t3) / (t5 - t4), mismatch == queries
+                            ? "same results"
+                            : "MISMATCH " + sources[mismatch] + " -> " + targets[mismatch] + ": Dijkstra "
+                                    + expected[mismatch] + ", CH " + actual[mismatch]);
+        }
+        boolean pathsOk = true;
+        for (int i = 0; i < Math.min(queries, 200); i++) {
+            int[] path = query.path(sources[i], targets[i]);
+            pathsOk &= path[0] == sources[i] && path[path.length - 1] == targets[i]
+                    && pathLength(road, path) == expected[i];
+        }
+        System.out.println("Unpacked paths are shortest paths: " + pathsOk);
+    }
+
+    // Length of a path in the original graph, or -1 if consecutive vertices are not joined by an edge.
+    private static long pathLength(CsrGraph graph, int[] path) {
+        long length = 0;
+        for (int i = 0; i + 1 < path.length; i++) {
+            int best = -1;
+            for (int e = graph.edgeStart(path[i]); e < graph.edgeEnd(path[i]); e++) {
+                if (graph.target(e) == path[i + 1] && (best < 0 || graph.intWeight(e) < best)) {
+                    best = graph.intWeight(e);
+                }
+            }
+            if (best < 0) {
+                return -1;
+            }
+            length += best;
+        }
+        return length;
+    }
+}
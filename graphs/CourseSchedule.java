@@ -1,4 +1,4 @@
-import java.util.*;
+import java.util.Arrays;
 
 /**
  * The {@code CourseSchedule} class provides functionality to determine if it's possible
@@ -7,7 +7,8 @@ import java.util.*;
  * <p>The problem is modeled using a directed graph where each course is a node, and
  * prerequisites are represented as directed edges. The class employs Kahn's Algorithm
  * (BFS-based Topological Sort) to detect cycles in the graph. If a cycle is detected,
- * it implies that it's impossible to complete all courses.</p>
+ * it implies that it's impossible to complete all courses. The prerequisite graph is held in a
+ * {@link CsrGraph}, and the BFS queue is a plain {@code int[]}.</p>
  *
  * <p>Example Usage:</p>
  * <pre>{@code
@@ -66,54 +67,77 @@ public class CourseSchedule {
      * @return {@code true} if you can finish all courses, otherwise {@code false}.
      */
     public boolean canFinish(int numCourses, int[][] prerequisites) {
-        // Initialize adjacency list for the graph
-        List<List<Integer>> adj = new ArrayList<>();
-        for (int i = 0; i < numCourses; i++) {
-            adj.add(new ArrayList<>());
-        }
+        // Build the graph with an edge prereq -> course for every pair
+        CsrGraph graph = prerequisiteGraph(numCourses, prerequisites);
         
         // Array to hold the in-degree (number of prerequisites) for each course
-        int[] inDegree = new int[numCourses];
+        int[] inDegree = graph.inDegrees();
         
-        // Build the graph and populate in-degree array
-        for (int[] pair : prerequisites) {
-            int course = pair[0];
-            int prereq = pair[1];
-            adj.get(prereq).add(course);
-            inDegree[course]++;
-        }
-        
-        // Queue to manage courses with no prerequisites
-        Queue<Integer> queue = new LinkedList<>();
+        // Queue to manage courses with no prerequisites; every course is enqueued at most once
+        int[] queue = new int[numCourses];
+        int tail = 0;
         
         // Enqueue all courses with in-degree 0
         for (int i = 0; i < numCourses; i++) {
             if (inDegree[i] == 0) {
-                queue.offer(i);
+                queue[tail++] = i;
             }
         }
         
-        // Counter for the number of courses that have been processed
-        int count = 0;
-        
-        // Perform BFS
-        while (!queue.isEmpty()) {
-            int current = queue.poll();
-            count++;
+        // Perform BFS; head counts the courses that have been processed
+        int head = 0;
+        while (head < tail) {
+            int current = queue[head++];
             
             // Iterate through all courses dependent on the current course
-            for (int neighbor : adj.get(current)) {
-                inDegree[neighbor]--; // Remove the prerequisite
-                if (inDegree[neighbor] == 0) {
-                    queue.offer(neighbor); // If no more prerequisites, enqueue
+            for (int e = graph.edgeStart(current); e < graph.edgeEnd(current); e++) {
+                int neighbor = graph.target(e);
+                if (--inDegree[neighbor] == 0) { // Remove the prerequisite
+                    queue[tail++] = neighbor; // If no more prerequisites, enqueue
                 }
             }
         }
         
         // If all courses have been processed, it's possible to finish
-        return count == numCourses;
+        return head == numCourses;
     }
     
+    /**
+     * Plans the courses into the fewest semesters, taking every course as soon as all of its
+     * prerequisites are done. Semesters are the waves of a parallel Kahn sort of the prerequisite graph.
+     *
+     * @param numCourses    The total number of courses, labeled from 0 to numCourses - 1.
+     * @param prerequisites An array where prerequisites[i] = [ai, bi] indicates that
+     *                      you must take course bi before course ai.
+     * @return The courses of each semester in ascending order, or {@code null} if the
+     *         prerequisites contain a cycle.
+     */
+    public int[][] semesters(int numCourses, int[][] prerequisites) {
+        ParallelTopologicalSort.Waves waves =
+                ParallelTopologicalSort.waves(prerequisiteGraph(numCourses, prerequisites));
+        if (waves == null) {
+            return null;
+        }
+        int[][] semesters = new int[waves.waveCount()][];
+        for (int w = 0; w < semesters.length; w++) {
+            semesters[w] = waves.wave(w);
+            Arrays.sort(semesters[w]);
+        }
+        return semesters;
+    }
+
+    // Turns [course, prereq] pairs into a graph with an edge prereq -> course, going through flat
+    // endpoint arrays so no per-edge pair is allocated.
+    private static CsrGraph prerequisiteGraph(int numCourses, int[][] prerequisites) {
+        int[] prereqs = new int[prerequisites.length];
+        int[] courses = new int[prerequisites.length];
+        for (int i = 0; i < prerequisites.length; i++) {
+            courses[i] = prerequisites[i][0];
+            prereqs[i] = prerequisites[i][1];
+        }
+        return CsrGraph.fromEdges(numCourses, prereqs, courses);
+    }
+
     /**
      * The {@code main} method serves as an entry point to test the {@code CourseSchedule} class.
      *
@@ -155,6 +179,8 @@ public class CourseSchedule {
         int[][] prerequisites4 = { {1, 0}, {2, 0}, {2, 1} };
         boolean canFinish4 = scheduler.canFinish(numCourses4, prerequisites4);
         System.out.println("Example 4 Output: " + canFinish4); // Expected Output: true
+        System.out.println("Example 4 Semesters: "
+                + Arrays.deepToString(scheduler.semesters(numCourses4, prerequisites4))); // [[0], [1], [2]]
         
         // Additional Example 5:
         // Input: numCourses = 5, prerequisites = [[1,0],[2,1],[3,2],[1,3],[4,1]]
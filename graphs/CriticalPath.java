@@ -0,0 +1,436 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The {@code CriticalPath} class computes the timing of a weighted rooted tree given as a parent
+ * array, the general form of {@link InformAllEmployees}: node {@code v} is reached when its parent
+ * finishes, then takes {@code duration[v]} before its own children are reached.
+ *
+ * <p>For every node it gives:</p>
+ * <ul>
+ *     <li>{@code start(v)}, the finish time of its parent (0 for the root), and
+ *     {@code finish(v) = start(v) + duration[v]};</li>
+ *     <li>{@code tail(v)}, the longest time from {@code start(v)} until its whole subtree has
+ *     finished, {@code duration[v]} plus the largest tail among its children;</li>
+ *     <li>{@code slack(v) = makespan - start(v) - tail(v)}, how much {@code v} could be delayed
+ *     without delaying the whole tree; zero exactly on the critical chains.</li>
+ * </ul>
+ * <p>The makespan is the root's tail (the latest finish anywhere), and the critical chain runs from
+ * the root to a leaf through nodes of zero slack.</p>
+ *
+ * <p>No recursion and no object per node:</p>
+ * <ol>
+ *     <li>Children are grouped by a counting sort of the parent array into CSR arrays.</li>
+ *     <li>A BFS from the root lays the nodes out by level in one {@code int[]}. The children of each
+ *     node are then contiguous in it, so the CSR arrays are dropped and each position keeps only the
+ *     position of its first child. A parent array that is not one tree (a cycle, a second root)
+ *     leaves nodes unreached and is rejected.</li>
+ *     <li>Start times are pushed down one level at a time and tails pulled up one level at a time.
+ *     Each node is written by exactly one task, so the nodes of a level run in parallel on a
+ *     {@link ForkJoinPool} with no synchronization. Levels narrower than one grain run inline, so a
+ *     path-like tree millions of levels deep costs no scheduling.</li>
+ * </ol>
+ *
+ * <p>Times are {@code long}. A sum that overflows throws {@link ArithmeticException}.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * int[] manager = {-1, 0, 0, 1};
+ * int[] informTime = {1, 2, 3, 4};
+ * CriticalPath times = CriticalPath.compute(manager, informTime, ForkJoinPool.commonPool());
+ * times.makespan();          // 7: 0 -> 1 -> 3 takes 1 + 2 + 4
+ * times.criticalChain();     // {0, 1, 3}
+ * times.start(3);            // 3
+ * times.slack(2);            // 3: node 2 finishes at 4, three before the makespan
+ * }</pre>
+ *
+ * <p><strong>Time Complexity:</strong> O(n) work, O(n / p + depth) span.</p>
+ * <p><strong>Space Complexity:</strong> 16 bytes per node kept; another 28 bytes per node while building.</p>
+ *
+ * @author
+ */
+public final class CriticalPath {
+    // Nodes handed to one fork-join task within a level.
+    private static final int GRAIN = 1 << 13;
+
+    private final int[] duration;       // the caller's array, not copied
+    private final long[] start;
+    private final long[] tail;
+    private final int[] chain;
+
+    private CriticalPath(int[] duration, long[] start, long[] tail, int[] chain) {
+        this.duration = duration;
+        this.start = start;
+        this.tail = tail;
+        this.chain = chain;
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////             Building            /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Computes the timing in the calling thread.
+     *
+     * @param parent   {@code parent[v]} is the parent of {@code v}, -1 for the one root.
+     * @param duration {@code duration[v] >= 0} is the time {@code v} takes. It is kept, not copied.
+     * @return The timing.
+     * @throws IllegalArgumentException if the arrays differ in length, a duration is negative, or
+     *                                  {@code parent} is not a single tree.
+     */
+    public static CriticalPath compute(int[] parent, int[] duration) {
+        return compute(parent, duration, ForkJoinPool.commonPool(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Computes the timing, the nodes of each wide level in parallel.
+     *
+     * @param parent   {@code parent[v]} is the parent of {@code v}, -1 for the one root.
+     * @param duration {@code duration[v] >= 0} is the time {@code v} takes. It is kept, not copied.
+     * @param pool     The pool to run on.
+     * @return The timing.
+     * @throws IllegalArgumentException if the arrays differ in length, a duration is negative, or
+     *                                  {@code parent} is not a single tree.
+     */
+    public static CriticalPath compute(int[] parent, int[] duration, ForkJoinPool pool) {
+        return compute(parent, duration, pool, GRAIN);
+    }
+
+    private static CriticalPath compute(int[] parent, int[] duration, ForkJoinPool pool, int grain) {
+        int n = parent.length;
+        if (duration.length != n) {
+            throw new IllegalArgumentException(n + " parents but " + duration.length + " durations");
+        }
+        if (n == 0) {
+            throw new IllegalArgumentException("Empty tree");
+        }
+
+        // 1. Children by counting sort: children of v are children[offsets[v] .. offsets[v + 1]].
+        int root = -1;
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            int p = parent[v];
+            if (duration[v] < 0) {
+                throw new IllegalArgumentException("Negative duration at node " + v + ": " + duration[v]);
+            }
+            if (p == -1) {
+                if (root >= 0) {
+                    throw new IllegalArgumentException("Two roots: " + root + " and " + v);
+                }
+                root = v;
+            } else if (p < 0 || p >= n) {
+                throw new IllegalArgumentException("Parent of node " + v + " out of range: " + p);
+            } else {
+                offsets[p + 1]++;
+            }
+        }
+        if (root < 0) {
+            throw new IllegalArgumentException("No root: no node has parent -1");
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] children = new int[n - 1];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int v = 0; v < n; v++) {
+            if (parent[v] >= 0) {
+                children[fill[parent[v]]++] = v;
+            }
+        }
+        fill = null;
+
+        // 2. BFS layout: the children of order[i] are order[firstChild[i] .. firstChild[i + 1]],
+        //    and level l is order[levels[l] .. levels[l + 1]].
+        int[] order = new int[n];
+        int[] firstChild = new int[n + 1];
+        int[] levels = new int[16];
+        int levelCount = 1;
+        order[0] = root;
+        int size = 1;
+        for (int i = 0, levelEnd = 1; i < size; i++) {
+            if (i == levelEnd) {
+                if (levelCount + 1 == levels.length) {
+                    levels = Arrays.copyOf(levels, 2 * levels.length);
+                }
+                levels[levelCount++] = i;
+                levelEnd = size;
+            }
+            int v = order[i];
+            firstChild[i] = size;
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                order[size++] = children[e];
+            }
+        }
+        if (size < n) {
+            throw new IllegalArgumentException("Parent array is not one tree: " + (n - size)
+                    + " nodes are not below root " + root + " (a cycle)");
+        }
+        firstChild[n] = n;
+        levels[levelCount] = n;
+        offsets = null;
+        children = null;
+
+        // 3. Start times down the levels, tails up the levels, indexed by BFS position so that both
+        //    passes read and write memory in order.
+        long[] d = new long[n];
+        long[] startAt = new long[n];
+        long[] tailAt = new long[n];
+        int[] o = order;
+        ParallelRange.forRange(pool, 0, n, grain, (lo, hi) -> {
+            for (int i = lo; i < hi; i++) {
+                d[i] = duration[o[i]];
+            }
+        });
+        for (int l = 0; l < levelCount; ) {
+            int m = narrowRun(levels, levelCount, l, grain);
+            if (m > l) {
+                pushStarts(firstChild, d, startAt, levels[l], levels[m]);
+                l = m;
+            } else {
+                ParallelRange.forRange(pool, levels[l], levels[l + 1], grain,
+                        (lo, hi) -> pushStarts(firstChild, d, startAt, lo, hi));
+                l++;
+            }
+        }
+        for (int l = levelCount; l > 0; ) {
+            int m = narrowRunDown(levels, l, grain);
+            if (m < l) {
+                pullTails(firstChild, d, tailAt, levels[m], levels[l]);
+                l = m;
+            } else {
+                ParallelRange.forRange(pool, levels[l - 1], levels[l], grain,
+                        (lo, hi) -> pullTails(firstChild, d, tailAt, lo, hi));
+                l--;
+            }
+        }
+
+        // 4. The critical chain: from the root, always into the first child whose tail is the rest.
+        int[] chain = new int[levelCount];
+        int length = 0;
+        for (int i = 0; ; ) {
+            chain[length++] = order[i];
+            if (firstChild[i] == firstChild[i + 1]) {
+                break;
+            }
+            long rest = tailAt[i] - d[i];
+            int j = firstChild[i];
+            while (tailAt[j] != rest) {
+                j++;
+            }
+            i = j;
+        }
+
+        // 5. Back to node ids. The durations by position are no longer needed and hold the starts.
+        long[] start = d;
+        long[] tail = new long[n];
+        ParallelRange.forRange(pool, 0, n, grain, (lo, hi) -> {
+            for (int i = lo; i < hi; i++) {
+                tail[o[i]] = tailAt[i];
+            }
+        });
+        ParallelRange.forRange(pool, 0, n, grain, (lo, hi) -> {
+            for (int i = lo; i < hi; i++) {
+                start[o[i]] = startAt[i];
+            }
+        });
+        return new CriticalPath(duration, start, tail, Arrays.copyOf(chain, length));
+    }
+
+    // The end of the run of levels from l on that are each at most one grain wide. Such a run is
+    // swept as one plain loop: in BFS order every parent precedes its children, so there is no
+    // need to stop at level boundaries, and a deep path pays nothing per level.
+    private static int narrowRun(int[] levels, int levelCount, int l, int grain) {
+        int m = l;
+        while (m < levelCount && levels[m + 1] - levels[m] <= grain) {
+            m++;
+        }
+        return m;
+    }
+
+    // The same run taken downwards from the level before l.
+    private static int narrowRunDown(int[] levels, int l, int grain) {
+        int m = l;
+        while (m > 0 && levels[m] - levels[m - 1] <= grain) {
+            m--;
+        }
+        return m;
+    }
+
+    // Start times of the children of positions [lo, hi).
+    private static void pushStarts(int[] firstChild, long[] d, long[] startAt, int lo, int hi) {
+        for (int i = lo; i < hi; i++) {
+            long finish = Math.addExact(startAt[i], d[i]);
+            for (int j = firstChild[i]; j < firstChild[i + 1]; j++) {
+                startAt[j] = finish;
+            }
+        }
+    }
+
+    // Tails of positions [lo, hi), last first so that children are done before their parents.
+    private static void pullTails(int[] firstChild, long[] d, long[] tailAt, int lo, int hi) {
+        for (int i = hi - 1; i >= lo; i--) {
+            long longest = 0;
+            for (int j = firstChild[i]; j < firstChild[i + 1]; j++) {
+                longest = Math.max(longest, tailAt[j]);
+            }
+            tailAt[i] = Math.addExact(d[i], longest);
+        }
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////              Results            /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * @return The time until every node has finished.
+     */
+    public long makespan() {
+        return tail[chain[0]];
+    }
+
+    /**
+     * @return A new array of the nodes of a critical chain, from the root to a leaf.
+     */
+    public int[] criticalChain() {
+        return chain.clone();
+    }
+
+    /**
+     * @param v A node.
+     * @return When {@code v} is reached: its parent's finish time, 0 for the root.
+     */
+    public long start(int v) {
+        return start[v];
+    }
+
+    /**
+     * @param v A node.
+     * @return When {@code v} finishes.
+     */
+    public long finish(int v) {
+        return start[v] + duration[v];
+    }
+
+    /**
+     * @param v A node.
+     * @return The time from {@code v} being reached until its whole subtree has finished.
+     */
+    public long tail(int v) {
+        return tail[v];
+    }
+
+    /**
+     * @param v A node.
+     * @return How long {@code v} could be delayed without delaying the makespan.
+     */
+    public long slack(int v) {
+        return makespan() - start[v] - tail[v];
+    }
+
+    /**
+     * @return The number of nodes.
+     */
+    public int size() {
+        return start.length;
+    }
+
+    /**
+     * The {@code main} method checks both modes against a brute-force walk of parent pointers on
+     * random trees, then times wide and deep trees.
+     *
+     * @param args Optional: node count for the benchmark.
+     */
+    public static void main(String[] args) {
+        int[] manager = {-1, 0, 0, 1};
+        int[] informTime = {1, 2, 3, 4};
+        CriticalPath small = compute(manager, informTime, ForkJoinPool.commonPool());
+        System.out.println("makespan: " + small.makespan());                              // 7
+        System.out.println("critical chain: " + Arrays.toString(small.criticalChain()));  // [0, 1, 3]
+        System.out.println("slack of node 2: " + small.slack(2));                         // 3
+
+        Random random = new Random(49);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        boolean agree = true;
+        for (int round = 0; round < 300 && agree; round++) {
+            int n = 1 + random.nextInt(random.nextBoolean() ? 30 : 3000);
+            int[] parent = randomTree(n, random.nextInt(3), random);
+            int[] duration = new int[n];
+            for (int v = 0; v < n; v++) {
+                duration[v] = random.nextInt(4) == 0 ? 0 : random.nextInt(100);
+            }
+            CriticalPath sequential = compute(parent, duration);
+            CriticalPath parallel = compute(parent, duration, pool, 1 + random.nextInt(8));
+            long[] expectedStart = new long[n];
+            long[] expectedTail = new long[n];
+            long makespan = 0;
+            for (int v = 0; v < n; v++) {
+                for (int u = parent[v]; u >= 0; u = parent[u]) {
+                    expectedStart[v] += duration[u];
+                }
+            }
+            for (int v = 0; v < n; v++) {
+                long finish = expectedStart[v] + duration[v];
+                makespan = Math.max(makespan, finish);
+                for (int u = v; u >= 0; u = parent[u]) {      // v's finish bounds every ancestor's tail
+                    expectedTail[u] = Math.max(expectedTail[u], finish - expectedStart[u]);
+                }
+            }
+            int[] chain = parallel.criticalChain();
+            long chainTime = 0;
+            for (int k = 0; k < chain.length; k++) {
+                chainTime += duration[chain[k]];
+                agree &= k == 0 ? parent[chain[k]] == -1 : parent[chain[k]] == chain[k - 1];
+            }
+            agree &= chainTime == makespan && sequential.makespan() == makespan && parallel.makespan() == makespan
+                    && Arrays.equals(sequential.chain, chain);
+            for (int v = 0; v < n; v++) {
+                agree &= sequential.start(v) == expectedStart[v] && parallel.start(v) == expectedStart[v]
+                        && sequential.tail(v) == expectedTail[v] && parallel.tail(v) == expectedTail[v]
+                        && parallel.slack(v) >= 0;
+            }
+        }
+        System.out.println("Both modes agree with brute force: " + agree);
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int[] duration = new int[n];
+        for (int v = 0; v < n; v++) {
+            duration[v] = random.nextInt(10);
+        }
+        String[] shapes = {"random recursive tree", "path", "broom (path, then a star)"};
+        for (int shape = 0; shape < 3; shape++) {
+            int[] parent = randomTree(n, shape, random);
+            for (int round = 0; round < 2; round++) {
+                long t0 = System.nanoTime();
+                CriticalPath sequential = compute(parent, duration);
+                long t1 = System.nanoTime();
+                CriticalPath parallel = compute(parent, duration, pool);
+                long t2 = System.nanoTime();
+                System.out.printf("%s, %d nodes: makespan %d, chain of %d; sequential %.0f ms, parallel %.0f ms"
+                        + " (same %b)%n", shapes[shape], n, parallel.makespan(), parallel.chain.length,
+                        (t1 - t0) / 1e6, (t2 - t1) / 1e6, sequential.makespan() == parallel.makespan());
+            }
+        }
+        pool.shutdown();
+    }
+
+    // Shape 0: each node under a random earlier one. 1: a path. 2: a path of half the nodes, then
+    // a star. Node ids are shuffled so that parents do not precede children.
+    private static int[] randomTree(int n, int shape, Random random) {
+        int[] label = new int[n];
+        for (int i = 0; i < n; i++) {
+            label[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = label[i];
+            label[i] = label[j];
+            label[j] = t;
+        }
+        int[] parent = new int[n];
+        parent[label[0]] = -1;
+        for (int i = 1; i < n; i++) {
+            int p = shape == 0 ? random.nextInt(i) : shape == 1 || i <= n / 2 ? i - 1 : n / 2;
+            parent[label[i]] = label[p];
+        }
+        return parent;
+    }
+}
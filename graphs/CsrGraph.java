@@ -0,0 +1,499 @@
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.LongStream;
+
+/**
+ * The {@code CsrGraph} class is an immutable directed graph stored in Compressed Sparse Row (CSR)
+ * form, shared by the algorithms in the graphs package.
+ *
+ * <p>Vertices are the integers {@code 0 .. V-1}. The out-edges of vertex {@code v} occupy the
+ * index range {@code [offsets[v], offsets[v + 1])} of {@code targets}, and, when the graph is
+ * weighted, the same range of {@code intWeights} or {@code floatWeights}. Compared to a
+ * {@code List<List<Integer>>} adjacency list this stores 4 bytes per edge and 4 bytes per vertex
+ * instead of a boxed {@code Integer} plus a list slot per edge and a list object per vertex,
+ * which is roughly a 20x reduction, and neighbors are scanned sequentially in memory.</p>
+ *
+ * <p>Edges keep the order in which they were added for each source vertex, so algorithms ported
+ * from list-based adjacency visit neighbors in the same order as before. Algorithms accept the
+ * {@link IntGraph} interface, so they also run on a memory-mapped {@link MappedCsrGraph}.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * CsrGraph g = CsrGraph.builder(4)
+ *         .addEdge(0, 1)
+ *         .addEdge(0, 2)
+ *         .addEdge(2, 3)
+ *         .build();
+ * for (int e = g.edgeStart(0); e < g.edgeEnd(0); e++) {
+ *     System.out.println("0 -> " + g.target(e));
+ * }
+ *
+ * CsrGraph fromArrays = CsrGraph.fromEdges(4, new int[]{0, 0, 2}, new int[]{1, 2, 3});
+ * }</pre>
+ *
+ * <p><strong>Time Complexity:</strong> O(V + E) to build (counting sort by source); O(1) to
+ * locate the neighbors of a vertex.</p>
+ * <p><strong>Space Complexity:</strong> 4(V + 1) + 4E bytes, plus 4E bytes for weights.</p>
+ *
+ * @author
+ */
+public final class CsrGraph implements IntGraph {
+    private final int vertexCount;
+    final int[] offsets;
+    final int[] targets;
+    final int[] intWeights;
+    final float[] floatWeights;
+
+    private CsrGraph(int vertexCount, int[] offsets, int[] targets, int[] intWeights, float[] floatWeights) {
+        this.vertexCount = vertexCount;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.intWeights = intWeights;
+        this.floatWeights = floatWeights;
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////         Factory Functions       /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Creates a builder for an unweighted graph.
+     *
+     * @param vertexCount The number of vertices.
+     * @return A new {@code Builder}.
+     */
+    public static Builder builder(int vertexCount) {
+        return new Builder(vertexCount, Builder.UNWEIGHTED);
+    }
+
+    /**
+     * Creates a builder for a graph with an {@code int} weight on every edge.
+     *
+     * @param vertexCount The number of vertices.
+     * @return A new {@code Builder}.
+     */
+    public static Builder intWeightedBuilder(int vertexCount) {
+        return new Builder(vertexCount, Builder.INT_WEIGHTS);
+    }
+
+    /**
+     * Creates a builder for a graph with a {@code float} weight on every edge.
+     *
+     * @param vertexCount The number of vertices.
+     * @return A new {@code Builder}.
+     */
+    public static Builder floatWeightedBuilder(int vertexCount) {
+        return new Builder(vertexCount, Builder.FLOAT_WEIGHTS);
+    }
+
+    /**
+     * Builds an unweighted graph from parallel source and target arrays without an intermediate builder.
+     *
+     * @param vertexCount The number of vertices.
+     * @param sources     The source vertex of each edge.
+     * @param targets     The target vertex of each edge.
+     * @return The new {@code CsrGraph}.
+     */
+    public static CsrGraph fromEdges(int vertexCount, int[] sources, int[] targets) {
+        requireSameLength(sources.length, targets.length);
+        return fromEdges(vertexCount, sources, targets, sources.length, null, null);
+    }
+
+    /**
+     * Builds a weighted graph from parallel source, target and weight arrays.
+     *
+     * @param vertexCount The number of vertices.
+     * @param sources     The source vertex of each edge.
+     * @param targets     The target vertex of each edge.
+     * @param weights     The weight of each edge.
+     * @return The new {@code CsrGraph}.
+     */
+    public static CsrGraph fromEdges(int vertexCount, int[] sources, int[] targets, int[] weights) {
+        requireSameLength(sources.length, targets.length);
+        requireSameLength(sources.length, weights.length);
+        return fromEdges(vertexCount, sources, targets, sources.length, weights, null);
+    }
+
+    /**
+     * Builds an unweighted graph from {@code {source, target}} pairs.
+     *
+     * @param vertexCount The number of vertices.
+     * @param edges       The edges as {@code {source, target}} pairs.
+     * @return The new {@code CsrGraph}.
+     */
+    public static CsrGraph fromEdgePairs(int vertexCount, int[][] edges) {
+        int[] sources = new int[edges.length];
+        int[] targets = new int[edges.length];
+        for (int i = 0; i < edges.length; i++) {
+            sources[i] = edges[i][0];
+            targets[i] = edges[i][1];
+        }
+        return fromEdges(vertexCount, sources, targets);
+    }
+
+    /**
+     * Packs an edge into one {@code long} for {@link Builder#addEdges(LongStream)}.
+     *
+     * @param source The source vertex.
+     * @param target The target vertex.
+     * @return The packed edge, source in the high 32 bits.
+     */
+    public static long packEdge(int source, int target) {
+        return ((long) source << 32) | (target & 0xFFFFFFFFL);
+    }
+
+    private static void requireSameLength(int a, int b) {
+        if (a != b) {
+            throw new IllegalArgumentException("Edge arrays must have the same length: " + a + " != " + b);
+        }
+    }
+
+    // Counting sort of the first edgeCount edges by source; stable, so per-vertex order is kept.
+    private static CsrGraph fromEdges(int vertexCount, int[] sources, int[] targets, int edgeCount,
+                                      int[] intWeights, float[] floatWeights) {
+        if (vertexCount < 0) {
+            throw new IllegalArgumentException("vertexCount must be non-negative: " + vertexCount);
+        }
+        int[] offsets = new int[vertexCount + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            Objects.checkIndex(sources[i], vertexCount);
+            Objects.checkIndex(targets[i], vertexCount);
+            offsets[sources[i] + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] cursor = Arrays.copyOf(offsets, vertexCount);
+        int[] sortedTargets = new int[edgeCount];
+        int[] sortedInt = intWeights == null ? null : new int[edgeCount];
+        float[] sortedFloat = floatWeights == null ? null : new float[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            int slot = cursor[sources[i]]++;
+            sortedTargets[slot] = targets[i];
+            if (sortedInt != null) sortedInt[slot] = intWeights[i];
+            if (sortedFloat != null) sortedFloat[slot] = floatWeights[i];
+        }
+        return new CsrGraph(vertexCount, offsets, sortedTargets, sortedInt, sortedFloat);
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////          Query Functions        /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * @return The number of vertices.
+     */
+    @Override
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * @return The number of edges.
+     */
+    @Override
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * @param v A vertex.
+     * @return The number of out-edges of {@code v}.
+     */
+    @Override
+    public int outDegree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    /**
+     * @param v A vertex.
+     * @return The index of the first out-edge of {@code v}.
+     */
+    @Override
+    public int edgeStart(int v) {
+        return offsets[v];
+    }
+
+    /**
+     * @param v A vertex.
+     * @return One past the index of the last out-edge of {@code v}.
+     */
+    @Override
+    public int edgeEnd(int v) {
+        return offsets[v + 1];
+    }
+
+    /**
+     * @param edge An edge index.
+     * @return The target vertex of the edge.
+     */
+    @Override
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * @param edge An edge index.
+     * @return The {@code int} weight of the edge.
+     * @throws IllegalStateException if the graph has no {@code int} weights.
+     */
+    @Override
+    public int intWeight(int edge) {
+        if (intWeights == null) {
+            throw new IllegalStateException("Graph has no int weights");
+        }
+        return intWeights[edge];
+    }
+
+    /**
+     * @param edge An edge index.
+     * @return The {@code float} weight of the edge.
+     * @throws IllegalStateException if the graph has no {@code float} weights.
+     */
+    public float floatWeight(int edge) {
+        if (floatWeights == null) {
+            throw new IllegalStateException("Graph has no float weights");
+        }
+        return floatWeights[edge];
+    }
+
+    /**
+     * @return {@code true} if every edge carries an {@code int} weight.
+     */
+    @Override
+    public boolean hasIntWeights() {
+        return intWeights != null;
+    }
+
+    /**
+     * @return {@code true} if every edge carries a {@code float} weight.
+     */
+    public boolean hasFloatWeights() {
+        return floatWeights != null;
+    }
+
+    /**
+     * Computes the in-degree of every vertex.
+     *
+     * @return A new {@code int[]} of length {@code V}.
+     */
+    @Override
+    public int[] inDegrees() {
+        int[] inDegree = new int[vertexCount];
+        for (int target : targets) {
+            inDegree[target]++;
+        }
+        return inDegree;
+    }
+
+    /**
+     * Builds the reverse graph, where every edge {@code u -> v} becomes {@code v -> u}. Weights are kept.
+     *
+     * @return The transposed {@code CsrGraph}.
+     */
+    public CsrGraph transpose() {
+        int edgeCount = targets.length;
+        int[] sources = new int[edgeCount];
+        for (int v = 0; v < vertexCount; v++) {
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                sources[e] = v;
+            }
+        }
+        return fromEdges(vertexCount, targets, sources, edgeCount, intWeights, floatWeights);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int v = 0; v < vertexCount; v++) {
+            sb.append(v).append(" --->");
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                sb.append(' ').append(targets[e]);
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The {@code main} method builds small graphs and checks that weights survive the builder's
+     * array growth: edge {@code i} runs from {@code i % V} to {@code i / V} with weight {@code i},
+     * far past the builder's initial capacity, and every weight is read back from the CSR arrays.
+     *
+     * @param args Command-line arguments (not utilized in this program).
+     */
+    public static void main(String[] args) {
+        CsrGraph g = CsrGraph.builder(4)
+                .addEdge(0, 1)
+                .addEdge(0, 2)
+                .addEdge(2, 3)
+                .build();
+        System.out.print(g);
+
+        int n = 37;
+        int m = 5000;
+        Builder ints = intWeightedBuilder(m / n + 1);
+        Builder floats = floatWeightedBuilder(m / n + 1);
+        for (int i = 0; i < m; i++) {
+            ints.addEdge(i % n, i / n, i);
+            floats.addEdge(i % n, i / n, (float) i);
+        }
+        CsrGraph intGraph = ints.build();
+        CsrGraph floatGraph = floats.build();
+        boolean intact = intGraph.edgeCount() == m && floatGraph.edgeCount() == m;
+        for (int v = 0; v < n; v++) {
+            int expected = v;       // per source, edges keep insertion order
+            for (int e = intGraph.edgeStart(v); e < intGraph.edgeEnd(v); e++, expected += n) {
+                intact &= intGraph.intWeight(e) == expected && intGraph.target(e) == expected / n
+                        && floatGraph.floatWeight(e) == expected && floatGraph.target(e) == expected / n;
+            }
+            intact &= expected - n < m && expected >= m;
+        }
+        System.out.println("All " + m + " int and float weights read back: " + intact);
+    }
+
+    /**
+     * The {@code Builder} class collects edges into growable primitive arrays and converts them
+     * to CSR form in {@link #build()}. A builder is not thread-safe; it may keep growing after
+     * {@code build()}, and later edges do not affect graphs that were already built.
+     */
+    public static final class Builder {
+        static final int UNWEIGHTED = 0;
+        static final int INT_WEIGHTS = 1;
+        static final int FLOAT_WEIGHTS = 2;
+
+        private final int vertexCount;
+        private final int weightKind;
+        private int[] sources = new int[16];
+        private int[] targets = new int[16];
+        private int[] intWeights;
+        private float[] floatWeights;
+        private int size;
+
+        private Builder(int vertexCount, int weightKind) {
+            if (vertexCount < 0) {
+                throw new IllegalArgumentException("vertexCount must be non-negative: " + vertexCount);
+            }
+            this.vertexCount = vertexCount;
+            this.weightKind = weightKind;
+            if (weightKind == INT_WEIGHTS) intWeights = new int[16];
+            if (weightKind == FLOAT_WEIGHTS) floatWeights = new float[16];
+        }
+
+        /**
+         * Adds an unweighted directed edge.
+         *
+         * @param source The source vertex.
+         * @param target The target vertex.
+         * @return This builder.
+         */
+        public Builder addEdge(int source, int target) {
+            requireKind(UNWEIGHTED);
+            append(source, target);
+            return this;
+        }
+
+        /**
+         * Adds a directed edge with an {@code int} weight.
+         *
+         * @param source The source vertex.
+         * @param target The target vertex.
+         * @param weight The edge weight.
+         * @return This builder.
+         */
+        public Builder addEdge(int source, int target, int weight) {
+            requireKind(INT_WEIGHTS);
+            int slot = append(source, target);  // may grow intWeights, so index after the call
+            intWeights[slot] = weight;
+            return this;
+        }
+
+        /**
+         * Adds a directed edge with a {@code float} weight.
+         *
+         * @param source The source vertex.
+         * @param target The target vertex.
+         * @param weight The edge weight.
+         * @return This builder.
+         */
+        public Builder addEdge(int source, int target, float weight) {
+            requireKind(FLOAT_WEIGHTS);
+            int slot = append(source, target);  // may grow floatWeights, so index after the call
+            floatWeights[slot] = weight;
+            return this;
+        }
+
+        /**
+         * Adds an edge in both directions, for undirected graphs.
+         *
+         * @param u One endpoint.
+         * @param v The other endpoint.
+         * @return This builder.
+         */
+        public Builder addUndirectedEdge(int u, int v) {
+            return addEdge(u, v).addEdge(v, u);
+        }
+
+        /**
+         * Adds unweighted edges from parallel source and target arrays.
+         *
+         * @param sources The source vertex of each edge.
+         * @param targets The target vertex of each edge.
+         * @return This builder.
+         */
+        public Builder addEdges(int[] sources, int[] targets) {
+            requireSameLength(sources.length, targets.length);
+            for (int i = 0; i < sources.length; i++) {
+                addEdge(sources[i], targets[i]);
+            }
+            return this;
+        }
+
+        /**
+         * Adds unweighted edges from a stream of edges packed with {@link CsrGraph#packEdge(int, int)}.
+         * The stream is consumed sequentially and never boxed.
+         *
+         * @param packedEdges The packed edges.
+         * @return This builder.
+         */
+        public Builder addEdges(LongStream packedEdges) {
+            packedEdges.sequential().forEachOrdered(e -> addEdge((int) (e >>> 32), (int) e));
+            return this;
+        }
+
+        /**
+         * @return The number of edges added so far.
+         */
+        public int edgeCount() {
+            return size;
+        }
+
+        /**
+         * Converts the collected edges to an immutable {@code CsrGraph}.
+         *
+         * @return The new {@code CsrGraph}.
+         */
+        public CsrGraph build() {
+            return fromEdges(vertexCount, sources, targets, size, intWeights, floatWeights);
+        }
+
+        private void requireKind(int kind) {
+            if (kind != weightKind) {
+                throw new IllegalStateException("Edge weight type does not match this builder");
+            }
+        }
+
+        private int append(int source, int target) {
+            Objects.checkIndex(source, vertexCount);
+            Objects.checkIndex(target, vertexCount);
+            if (size == sources.length) {
+                int capacity = sources.length + (sources.length >> 1);
+                sources = Arrays.copyOf(sources, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+                if (intWeights != null) intWeights = Arrays.copyOf(intWeights, capacity);
+                if (floatWeights != null) floatWeights = Arrays.copyOf(floatWeights, capacity);
+            }
+            sources[size] = source;
+            targets[size] = target;
+            return size++;
+        }
+    }
+}
@@ -7,69 +7,26 @@
 // 0 -> 1, 0 -> 2, 1 -> 2, 2 -> 0, 2 -> 3, 3 -> 3
 // Output: Yes
 
-import java.util.*;
-
 public class Cycle {
-    private final int V;
-    private final List<List<Integer>> adj;
+    // Edges are kept in primitive arrays and compacted to CSR form in isCyclic()
+    private final CsrGraph.Builder edges;
      
         public Cycle(int V)
         {
-            this.V = V;
-            adj = new ArrayList<>(V);
-             
-            for (int i = 0; i < V; i++)
-                adj.add(new LinkedList<>());
+            edges = CsrGraph.builder(V);
         }
 
-    private boolean isCyclicUtil(int i, boolean[] visited,
-                                      boolean[] recStack)
-    {
-         
-        // Mark the current node as visited and
-        // part of recursion stack
-        if (recStack[i])
-            return true;
- 
-        if (visited[i])
-            return false;
-             
-        visited[i] = true;
- 
-        recStack[i] = true;
-        List<Integer> children = adj.get(i);
-         
-        for (Integer c: children)
-            if (isCyclicUtil(c, visited, recStack))
-                return true;
-                 
-        recStack[i] = false;
- 
-        return false;
-    }
- 
     private void addEdge(int source, int dest) {
-        adj.get(source).add(dest);
+        edges.addEdge(source, dest);
     }
  
     // Returns true if the graph contains a
-    // cycle, else false.
+    // cycle, else false. Tarjan's SCC search runs
+    // with an explicit stack, so deep graphs
+    // cannot overflow the call stack.
     private boolean isCyclic()
     {
-         
-        // Mark all the vertices as not visited and
-        // not part of recursion stack
-        boolean[] visited = new boolean[V];
-        boolean[] recStack = new boolean[V];
-         
-         
-        // Call the recursive helper function to
-        // detect cycle in different DFS trees
-        for (int i = 0; i < V; i++)
-            if (isCyclicUtil(i, visited, recStack))
-                return true;
- 
-        return false;
+        return StronglyConnectedComponents.of(edges.build()).hasCycle();
     }
  
     // Driver code
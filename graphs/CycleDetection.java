@@ -1,10 +1,13 @@
-import java.util.*;
+import java.util.Arrays;
 
 /**
  * The {@code CycleDetection} class provides functionality to detect cycles in a directed graph.
  *
- * <p>It uses Depth-First Search (DFS) traversal along with a recursion stack to identify cycles.
- * The class allows adding edges to the graph and checking for the presence of cycles.</p>
+ * <p>It finds the strongly connected components of the graph with an iterative Tarjan DFS
+ * ({@link StronglyConnectedComponents}): the graph has a cycle exactly when some component holds
+ * more than one vertex or a vertex has an edge to itself. The DFS keeps its own stack, so paths
+ * of millions of vertices are fine, and {@link #findCycle()} returns a concrete cycle. Edges are
+ * stored in primitive arrays and compacted into a {@link CsrGraph} when {@code isCyclic} runs.</p>
  *
  * <p>Example Usage:</p>
  * <pre>{@code
@@ -32,8 +35,7 @@ import java.util.*;
  * @author 
  */
 public class CycleDetection {
-    private final int V; // Number of vertices
-    private final List<List<Integer>> adj; // Adjacency list representation
+    private final CsrGraph.Builder edges; // Edge list, compacted to CSR form on demand
 
     /**
      * Constructs a directed graph with the specified number of vertices.
@@ -41,12 +43,7 @@ public class CycleDetection {
      * @param V The number of vertices in the graph.
      */
     public CycleDetection(int V) {
-        this.V = V;
-        adj = new ArrayList<>(V);
-
-        // Initialize adjacency list for each vertex
-        for (int i = 0; i < V; i++)
-            adj.add(new LinkedList<>());
+        edges = CsrGraph.builder(V);
     }
 
     /**
@@ -56,55 +53,40 @@ public class CycleDetection {
      * @param dest   The destination vertex.
      */
     public void addEdge(int source, int dest) {
-        adj.get(source).add(dest);
+        edges.addEdge(source, dest);
     }
 
     /**
-     * Utilizes DFS to detect a cycle in the graph starting from vertex 'i'.
+     * Determines if the graph contains any cycles.
      *
-     * @param i         The current vertex.
-     * @param visited   Boolean array tracking visited vertices.
-     * @param recStack  Boolean array tracking vertices in the current recursion stack.
-     * @return {@code true} if a cycle is detected; {@code false} otherwise.
+     * @return {@code true} if the graph contains at least one cycle; {@code false} otherwise.
      */
-    private boolean isCyclicUtil(int i, boolean[] visited, boolean[] recStack) {
-        // Mark the current node as visited and part of recursion stack
-        if (recStack[i])
-            return true;
-
-        if (visited[i])
-            return false;
-
-        visited[i] = true;
-        recStack[i] = true;
-
-        // Recur for all the vertices adjacent to this vertex
-        List<Integer> children = adj.get(i);
-        for (Integer c : children)
-            if (isCyclicUtil(c, visited, recStack))
-                return true;
-
-        // Remove the vertex from recursion stack
-        recStack[i] = false;
+    public boolean isCyclic() {
+        return StronglyConnectedComponents.of(edges.build()).hasCycle();
+    }
 
-        return false;
+    /**
+     * Finds a concrete cycle in the graph.
+     *
+     * @return The vertices {@code v0, v1, ..., vk} of a cycle {@code v0 -> v1 -> ... -> vk -> v0},
+     *         or {@code null} if the graph is acyclic.
+     */
+    public int[] findCycle() {
+        return StronglyConnectedComponents.of(edges.build()).findCycle();
     }
 
     /**
-     * Determines if the graph contains any cycles.
+     * Determines if a shared graph, on the heap or memory-mapped, contains any cycles.
      *
+     * <p>Runs Kahn's Algorithm: a graph is acyclic exactly when every vertex can be removed in
+     * topological order. Vertices whose in-degree drops to zero are kept in an {@code int[]} queue,
+     * so the check is iterative and uses O(V) extra space whatever the length of the paths.</p>
+     *
+     * @param graph The graph to check.
      * @return {@code true} if the graph contains at least one cycle; {@code false} otherwise.
      */
-    public boolean isCyclic() {
-        boolean[] visited = new boolean[V];
-        boolean[] recStack = new boolean[V];
-
-        // Call the recursive helper function to detect cycle in different DFS trees
-        for (int i = 0; i < V; i++)
-            if (isCyclicUtil(i, visited, recStack))
-                return true;
-
-        return false;
+    public static boolean hasCycle(IntGraph graph) {
+        return TopologicalSortGraph.topologicalOrder(graph) == null;
     }
 
     /**
@@ -133,6 +115,7 @@ public class CycleDetection {
         else
             System.out.println("Graph doesn't contain cycle");
         // Expected Output: Graph contains cycle
+        System.out.println("Cycle: " + Arrays.toString(graph1.findCycle())); // Output: [0, 2]
 
         // Example 2:
         // Input: n = 3, e = 3
@@ -0,0 +1,405 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The {@code DynamicTopologicalOrder} class keeps a topological order of a growing DAG current
+ * as edges are inserted, using the Pearce–Kelly algorithm instead of re-sorting the whole graph.
+ *
+ * <p>Every vertex has a position in the order. Inserting an edge {@code x -> y} that already
+ * agrees with the order ({@code pos[x] < pos[y]}) costs O(1). Otherwise only the affected region
+ * between {@code pos[y]} and {@code pos[x]} is examined:</p>
+ * <ol>
+ *     <li>A forward search from {@code y} collects the vertices reachable from it whose position is
+ *     below {@code pos[x]}. Reaching {@code x} means the edge closes a cycle, and it is rejected
+ *     before anything is changed.</li>
+ *     <li>A backward search from {@code x} collects the vertices that reach it whose position is
+ *     above {@code pos[y]}.</li>
+ *     <li>The positions held by both sets are pooled and handed out again, backward set first, each
+ *     set keeping its relative order. No vertex outside the two sets moves.</li>
+ * </ol>
+ *
+ * <p>The work per insertion is proportional to the edges of the affected region, which for typical
+ * dependency graphs is a tiny fraction of V + E. Adjacency is stored as forward-star linked lists
+ * in primitive arrays (one head per vertex, one {@code next} link per edge, in both directions),
+ * so no per-vertex objects are allocated, and search marks use epoch stamps so they never need
+ * clearing.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * DynamicTopologicalOrder dag = new DynamicTopologicalOrder(4);
+ * dag.addEdge(2, 1);                 // true, order becomes [0, 2, 1, 3]
+ * dag.addEdge(1, 0);                 // true, order becomes [2, 1, 0, 3]
+ * dag.addEdge(0, 2);                 // false, would close 2 -> 1 -> 0 -> 2
+ * int[] order = dag.order();
+ * }</pre>
+ *
+ * <p><strong>Time Complexity:</strong> O(1) for an edge that agrees with the order; otherwise
+ * O(|R| log |R| + edges of R) for the affected region R.</p>
+ * <p><strong>Space Complexity:</strong> O(V + E).</p>
+ *
+ * @author
+ */
+public class DynamicTopologicalOrder {
+    private static final int NONE = -1;
+
+    private int vertexCount;
+    // position[v] is v's index in the order; vertexAt[i] is the vertex at index i.
+    private int[] position;
+    private int[] vertexAt;
+    private int[] outHead;
+    private int[] inHead;
+    // Search marks: forward visits are stamped epoch, backward visits epoch + 1.
+    private int[] mark;
+    private int epoch;
+
+    private int edgeCount;
+    private int[] edgeSource;
+    private int[] edgeTarget;
+    private int[] nextOut;
+    private int[] nextIn;
+
+    // Scratch reused across insertions.
+    private int[] stack = new int[16];
+    private int[] forward = new int[16];
+    private int[] backward = new int[16];
+    private int[] slots = new int[16];
+    private long[] keys = new long[16];
+    private int lastAffected;
+
+    /**
+     * Creates an edgeless graph whose initial order is {@code 0, 1, ..., vertexCount - 1}.
+     *
+     * @param vertexCount The initial number of vertices.
+     */
+    public DynamicTopologicalOrder(int vertexCount) {
+        int capacity = Math.max(vertexCount, 16);
+        position = new int[capacity];
+        vertexAt = new int[capacity];
+        outHead = new int[capacity];
+        inHead = new int[capacity];
+        mark = new int[capacity];
+        edgeSource = new int[16];
+        edgeTarget = new int[16];
+        nextOut = new int[16];
+        nextIn = new int[16];
+        for (int v = 0; v < vertexCount; v++) {
+            addVertex();
+        }
+    }
+
+    /**
+     * Creates an incremental order for an existing DAG, seeded with one full Kahn sort.
+     *
+     * @param graph The DAG to start from.
+     * @return A new {@code DynamicTopologicalOrder}.
+     * @throws IllegalArgumentException if the graph contains a cycle.
+     */
+    public static DynamicTopologicalOrder of(IntGraph graph) {
+        int[] order = TopologicalSortGraph.topologicalOrder(graph);
+        if (order == null) {
+            throw new IllegalArgumentException("Graph contains a cycle");
+        }
+        int n = graph.vertexCount();
+        DynamicTopologicalOrder dag = new DynamicTopologicalOrder(n);
+        for (int i = 0; i < n; i++) {
+            dag.position[order[i]] = i;
+            dag.vertexAt[i] = order[i];
+        }
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                dag.link(u, graph.target(e));
+            }
+        }
+        return dag;
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////          Update Functions      /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Adds a vertex at the end of the order.
+     *
+     * @return The id of the new vertex.
+     */
+    public int addVertex() {
+        int v = vertexCount++;
+        if (v == position.length) {
+            int capacity = v * 2;
+            position = Arrays.copyOf(position, capacity);
+            vertexAt = Arrays.copyOf(vertexAt, capacity);
+            outHead = Arrays.copyOf(outHead, capacity);
+            inHead = Arrays.copyOf(inHead, capacity);
+            mark = Arrays.copyOf(mark, capacity);
+        }
+        position[v] = v;
+        vertexAt[v] = v;
+        outHead[v] = NONE;
+        inHead[v] = NONE;
+        mark[v] = 0;
+        return v;
+    }
+
+    /**
+     * Inserts the edge {@code x -> y} and repairs the order, unless the edge would close a cycle.
+     *
+     * @param x The source vertex.
+     * @param y The target vertex.
+     * @return {@code true} if the edge was added; {@code false} if it would create a cycle, in
+     *         which case the graph and order are unchanged.
+     */
+    public boolean addEdge(int x, int y) {
+        checkVertex(x);
+        checkVertex(y);
+        lastAffected = 0;
+        if (x == y) {
+            return false;
+        }
+        int lower = position[y];
+        int upper = position[x];
+        if (lower > upper) {
+            link(x, y);              // already consistent with the order
+            return true;
+        }
+        nextEpoch();
+        int forwardSize = searchForward(y, upper);
+        if (forwardSize < 0) {
+            return false;            // y reaches x: the edge would close a cycle
+        }
+        int backwardSize = searchBackward(x, lower);
+        lastAffected = forwardSize + backwardSize;
+        reorder(forwardSize, backwardSize);
+        link(x, y);
+        return true;
+    }
+
+    // Collects vertices reachable from start with position < upper; returns -1 on reaching position upper.
+    private int searchForward(int start, int upper) {
+        int size = 0;
+        int top = 0;
+        mark[start] = epoch;
+        stack[top++] = start;
+        while (top > 0) {
+            int u = stack[--top];
+            forward = ensure(forward, size);
+            forward[size++] = u;
+            for (int e = outHead[u]; e != NONE; e = nextOut[e]) {
+                int w = edgeTarget[e];
+                if (position[w] == upper) {
+                    return -1;
+                }
+                if (mark[w] != epoch && position[w] < upper) {
+                    mark[w] = epoch;
+                    stack = ensure(stack, top);
+                    stack[top++] = w;
+                }
+            }
+        }
+        return size;
+    }
+
+    // Collects vertices that reach start with position > lower.
+    private int searchBackward(int start, int lower) {
+        int stamp = epoch + 1;
+        int size = 0;
+        int top = 0;
+        mark[start] = stamp;
+        stack[top++] = start;
+        while (top > 0) {
+            int u = stack[--top];
+            backward = ensure(backward, size);
+            backward[size++] = u;
+            for (int e = inHead[u]; e != NONE; e = nextIn[e]) {
+                int w = edgeSource[e];
+                if (mark[w] != stamp && position[w] > lower) {
+                    mark[w] = stamp;
+                    stack = ensure(stack, top);
+                    stack[top++] = w;
+                }
+            }
+        }
+        return size;
+    }
+
+    // Reassigns the pooled positions of both sets: backward set first, each in its current order.
+    private void reorder(int forwardSize, int backwardSize) {
+        sortByPosition(backward, backwardSize);
+        sortByPosition(forward, forwardSize);
+        int total = backwardSize + forwardSize;
+        if (slots.length < total) {
+            slots = new int[Math.max(total, slots.length * 2)];
+        }
+        // Both sets are sorted by position, so merging their positions yields the pool in order.
+        for (int i = 0, b = 0, f = 0; i < total; i++) {
+            if (f == forwardSize || (b < backwardSize && position[backward[b]] < position[forward[f]])) {
+                slots[i] = position[backward[b++]];
+            } else {
+                slots[i] = position[forward[f++]];
+            }
+        }
+        for (int i = 0; i < total; i++) {
+            int v = i < backwardSize ? backward[i] : forward[i - backwardSize];
+            position[v] = slots[i];
+            vertexAt[slots[i]] = v;
+        }
+    }
+
+    // Sorts vertices by their current position, packing (position, vertex) into longs.
+    private void sortByPosition(int[] vertices, int size) {
+        if (keys.length < size) {
+            keys = new long[Math.max(size, keys.length * 2)];
+        }
+        for (int i = 0; i < size; i++) {
+            keys[i] = (long) position[vertices[i]] << 32 | vertices[i];
+        }
+        Arrays.sort(keys, 0, size);
+        for (int i = 0; i < size; i++) {
+            vertices[i] = (int) keys[i];
+        }
+    }
+
+    private void link(int x, int y) {
+        int e = edgeCount++;
+        if (e == edgeSource.length) {
+            int capacity = e * 2;
+            edgeSource = Arrays.copyOf(edgeSource, capacity);
+            edgeTarget = Arrays.copyOf(edgeTarget, capacity);
+            nextOut = Arrays.copyOf(nextOut, capacity);
+            nextIn = Arrays.copyOf(nextIn, capacity);
+        }
+        edgeSource[e] = x;
+        edgeTarget[e] = y;
+        nextOut[e] = outHead[x];
+        outHead[x] = e;
+        nextIn[e] = inHead[y];
+        inHead[y] = e;
+    }
+
+    private void nextEpoch() {
+        epoch += 2;
+        if (epoch < 0) {             // wrapped after ~1B reorders: reset the stamps
+            Arrays.fill(mark, 0);
+            epoch = 2;
+        }
+    }
+
+    private static int[] ensure(int[] array, int index) {
+        return index < array.length ? array : Arrays.copyOf(array, array.length * 2);
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= vertexCount) {
+            throw new IndexOutOfBoundsException("Vertex " + v + " out of range [0, " + vertexCount + ")");
+        }
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////         Query Functions         /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * @return The number of vertices.
+     */
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * @return The number of edges.
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * @param v A vertex.
+     * @return The index of {@code v} in the current topological order.
+     */
+    public int position(int v) {
+        checkVertex(v);
+        return position[v];
+    }
+
+    /**
+     * @param u A vertex.
+     * @param v A vertex.
+     * @return {@code true} if {@code u} comes before {@code v} in the current order.
+     */
+    public boolean precedes(int u, int v) {
+        return position(u) < position(v);
+    }
+
+    /**
+     * @return A copy of the current topological order.
+     */
+    public int[] order() {
+        return Arrays.copyOf(vertexAt, vertexCount);
+    }
+
+    /**
+     * @return The number of vertices reordered by the last successful {@link #addEdge(int, int)}.
+     */
+    public int lastAffected() {
+        return lastAffected;
+    }
+
+    /**
+     * @return The current graph in CSR form.
+     */
+    public CsrGraph toCsrGraph() {
+        return CsrGraph.fromEdges(vertexCount, Arrays.copyOf(edgeSource, edgeCount), Arrays.copyOf(edgeTarget, edgeCount));
+    }
+
+    /**
+     * The {@code main} method demonstrates incremental maintenance and compares the work per edge
+     * with re-running Kahn's Algorithm on the whole graph.
+     *
+     * @param args Optional: vertex count and number of edges to insert.
+     */
+    public static void main(String[] args) {
+        DynamicTopologicalOrder dag = new DynamicTopologicalOrder(4);
+        System.out.println(dag.addEdge(2, 1) + " " + Arrays.toString(dag.order())); // true [0, 2, 1, 3]
+        System.out.println(dag.addEdge(1, 0) + " " + Arrays.toString(dag.order())); // true [2, 1, 0, 3]
+        System.out.println(dag.addEdge(0, 2) + " " + Arrays.toString(dag.order())); // false [2, 1, 0, 3]
+        System.out.println(dag.addEdge(3, 2) + " " + Arrays.toString(dag.order())); // true [3, 2, 1, 0]
+
+        // Edges respect a hidden ranking and join nearby ranks, as in a build graph. The ranking is
+        // the initial order shuffled within blocks of 256, so many insertions force a local reorder.
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        Random random = new Random(5);
+        int[] byRank = new int[n];
+        for (int i = 0; i < n; i++) {
+            int j = (i & ~255) + random.nextInt((i & 255) + 1);
+            byRank[i] = byRank[j];
+            byRank[j] = i;
+        }
+        DynamicTopologicalOrder big = new DynamicTopologicalOrder(n);
+        long affected = 0;
+        int reorders = 0;
+        long t0 = System.nanoTime();
+        for (int i = 0; i < m; i++) {
+            int a = random.nextInt(n - 1);
+            int b = Math.min(n - 1, a + 1 + random.nextInt(64));
+            big.addEdge(byRank[a], byRank[b]);
+            affected += big.lastAffected();
+            reorders += big.lastAffected() > 0 ? 1 : 0;
+        }
+        long t1 = System.nanoTime();
+        CsrGraph snapshot = big.toCsrGraph();
+        long t2 = System.nanoTime();
+        TopologicalSortGraph.topologicalOrder(snapshot);
+        long t3 = System.nanoTime();
+
+        boolean valid = true;
+        for (int u = 0; u < n && valid; u++) {
+            for (int e = snapshot.edgeStart(u); e < snapshot.edgeEnd(u); e++) {
+                valid &= big.precedes(u, snapshot.target(e));
+            }
+        }
+        double perEdge = (t1 - t0) / 1e3 / m;
+        double fullSort = (t3 - t2) / 1e3;
+        System.out.printf("V=%d, %d edges: %.2f us/edge incremental, %d reorders, %.1f vertices moved per reorder%n",
+                n, m, perEdge, reorders, (double) affected / Math.max(1, reorders));
+        System.out.printf("one full Kahn sort: %.0f us (%.0fx an incremental insert)%n", fullSort, fullSort / perEdge);
+        System.out.println("Order valid for every edge: " + valid); // true
+    }
+}
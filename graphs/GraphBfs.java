@@ -0,0 +1,108 @@
+import java.util.Arrays;
+
+/**
+ * The {@code GraphBfs} class runs breadth-first search over any {@link IntGraph}, on the heap or
+ * memory-mapped, using only primitive arrays.
+ *
+ * <p>The distance array doubles as the visited set ({@code -1} means unreached) and a single
+ * {@code int[]} of length V serves as the FIFO queue, since every vertex is enqueued at most once.
+ * No {@code Integer} boxing or per-node objects are allocated, unlike the {@code Deque<Integer>}
+ * version in {@code InterviewCheatSheet.shortestUnweighted}. {@link ParallelBfs} is the
+ * multi-core, direction-optimizing counterpart for large graphs.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * CsrGraph g = CsrGraph.builder(4).addEdge(0, 1).addEdge(1, 2).addEdge(0, 3).build();
+ * int[] dist = GraphBfs.distances(g, 0);        // [0, 1, 2, 1]
+ * int hops = GraphBfs.shortestPath(g, 0, 2);    // 2
+ * }</pre>
+ *
+ * <p><strong>Time Complexity:</strong> O(V + E).</p>
+ * <p><strong>Space Complexity:</strong> O(V).</p>
+ *
+ * @author
+ */
+public class GraphBfs {
+
+    /**
+     * Computes the hop distance from {@code source} to every vertex.
+     *
+     * @param graph  The graph to search.
+     * @param source The start vertex.
+     * @return An {@code int[]} of length V with the distance of each vertex, or -1 if unreachable.
+     */
+    public static int[] distances(IntGraph graph, int source) {
+        return search(graph, source, -1, null);
+    }
+
+    /**
+     * Computes hop distances and a BFS tree from {@code source}.
+     *
+     * @param graph   The graph to search.
+     * @param source  The start vertex.
+     * @param parents Filled with the BFS parent of each vertex, -1 for the source and unreachable vertices.
+     * @return An {@code int[]} of length V with the distance of each vertex, or -1 if unreachable.
+     */
+    public static int[] distances(IntGraph graph, int source, int[] parents) {
+        return search(graph, source, -1, parents);
+    }
+
+    /**
+     * Finds the number of edges on a shortest path from {@code source} to {@code target},
+     * stopping as soon as {@code target} is dequeued.
+     *
+     * @param graph  The graph to search.
+     * @param source The start vertex.
+     * @param target The destination vertex.
+     * @return The hop distance, or -1 if {@code target} is unreachable.
+     */
+    public static int shortestPath(IntGraph graph, int source, int target) {
+        return search(graph, source, target, null)[target];
+    }
+
+    private static int[] search(IntGraph graph, int source, int stopAt, int[] parents) {
+        int n = graph.vertexCount();
+        int[] dist = new int[n];
+        Arrays.fill(dist, -1);                       // -1 means unvisited
+        if (parents != null) {
+            Arrays.fill(parents, -1);
+        }
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
+        dist[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int u = queue[head++];
+            if (u == stopAt) break;                  // destination reached with its final distance
+            int next = dist[u] + 1;
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                int v = graph.target(e);
+                if (dist[v] == -1) {
+                    dist[v] = next;
+                    if (parents != null) parents[v] = u;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return dist;
+    }
+
+    /**
+     * The {@code main} method demonstrates BFS on a small graph.
+     *
+     * @param args Command-line arguments (not utilized in this program).
+     */
+    public static void main(String[] args) {
+        CsrGraph g = CsrGraph.builder(6)
+                .addUndirectedEdge(0, 1)
+                .addUndirectedEdge(0, 2)
+                .addUndirectedEdge(1, 3)
+                .addUndirectedEdge(2, 4)
+                .build();
+        int[] parents = new int[g.vertexCount()];
+        System.out.println("Distances from 0: " + Arrays.toString(distances(g, 0, parents))); // [0, 1, 1, 2, 2, -1]
+        System.out.println("Parents: " + Arrays.toString(parents));                         // [-1, 0, 0, 1, 2, -1]
+        System.out.println("0 -> 4: " + shortestPath(g, 0, 4));                             // 2
+        System.out.println("0 -> 5: " + shortestPath(g, 0, 5));                             // -1
+    }
+}
@@ -0,0 +1,341 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32C;
+
+/**
+ * The {@code GraphFile} class reads and writes a binary, memory-mappable file format for
+ * {@link CsrGraph}, so a large graph is converted once and then opened in milliseconds.
+ *
+ * <p>The file is little-endian and laid out as a 64-byte header followed by the CSR sections,
+ * each starting on an 8-byte boundary:</p>
+ * <pre>
+ *  offset  size  field
+ *       0     8  magic "CSRGRAPH"
+ *       8     4  format version (1)
+ *      12     4  flags: 1 = int weights, 2 = float weights
+ *      16     4  vertex count V
+ *      20     4  edge count E
+ *      24     8  position of the offsets section   (V + 1 ints)
+ *      32     8  position of the targets section   (E ints)
+ *      40     8  position of the weights section   (E ints or float bits), 0 if unweighted
+ *      48     4  CRC32C of the offsets section
+ *      52     4  CRC32C of the targets section
+ *      56     4  CRC32C of the weights section, 0 if unweighted
+ *      60     4  CRC32C of header bytes 0..59
+ * </pre>
+ *
+ * <p>{@link #open(Path)} maps the file read-only with {@code FileChannel.map} and returns a
+ * {@link MappedCsrGraph} that reads offsets and targets straight from the mapping: nothing is
+ * parsed or copied, so opening costs a header check regardless of graph size, pages are faulted
+ * in on demand, and every JVM that maps the same file shares one copy in the OS page cache. Only
+ * the header checksum is checked on open; {@link MappedCsrGraph#verifyChecksums()} checks the
+ * sections when wanted, at the cost of one sequential read of the file.</p>
+ *
+ * <p>Files are written to a temporary sibling and atomically renamed, so a reader never maps a
+ * partially written file.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * GraphFile.write(graph, Path.of("deps.csr"));          // once, after building the graph
+ *
+ * MappedCsrGraph mapped = GraphFile.open(Path.of("deps.csr"));   // at every job start
+ * int[] order = TopologicalSortGraph.topologicalOrder(mapped);
+ * boolean cyclic = CycleDetection.hasCycle(mapped);
+ * int[] dist = GraphBfs.distances(mapped, 0);
+ * }</pre>
+ *
+ * @author
+ */
+public final class GraphFile {
+    static final long MAGIC = 0x4850415247525343L; // "CSRGRAPH" read as a little-endian long
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final int FLAG_INT_WEIGHTS = 1;
+    static final int FLAG_FLOAT_WEIGHTS = 2;
+
+    // Staging buffer size for writes.
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    private GraphFile() {
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////          Write Function        /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Writes a graph to {@code path}, replacing any existing file atomically.
+     *
+     * @param graph The graph to write.
+     * @param path  The destination file.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(CsrGraph graph, Path path) throws IOException {
+        int vertexCount = graph.vertexCount();
+        int edgeCount = graph.edgeCount();
+        int flags = graph.hasIntWeights() ? FLAG_INT_WEIGHTS : graph.hasFloatWeights() ? FLAG_FLOAT_WEIGHTS : 0;
+
+        long offsetsPos = HEADER_BYTES;
+        long targetsPos = align8(offsetsPos + 4L * (vertexCount + 1));
+        long weightsPos = flags == 0 ? 0 : align8(targetsPos + 4L * edgeCount);
+
+        writeAtomically(path, channel -> {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            int offsetsCrc = writeInts(channel, offsetsPos, graph.offsets, null, buffer);
+            int targetsCrc = writeInts(channel, targetsPos, graph.targets, null, buffer);
+            int weightsCrc = 0;
+            if (flags == FLAG_INT_WEIGHTS) {
+                weightsCrc = writeInts(channel, weightsPos, graph.intWeights, null, buffer);
+            } else if (flags == FLAG_FLOAT_WEIGHTS) {
+                weightsCrc = writeInts(channel, weightsPos, null, graph.floatWeights, buffer);
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putLong(MAGIC).putInt(VERSION).putInt(flags)
+                    .putInt(vertexCount).putInt(edgeCount)
+                    .putLong(offsetsPos).putLong(targetsPos).putLong(weightsPos)
+                    .putInt(offsetsCrc).putInt(targetsCrc).putInt(weightsCrc);
+            header.putInt(headerCrc(header));
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        });
+    }
+
+    // Writes either ints or float bits starting at position and returns the CRC32C of the bytes.
+    private static int writeInts(FileChannel channel, long position, int[] ints, float[] floats,
+                                 ByteBuffer buffer) throws IOException {
+        CRC32C crc = new CRC32C();
+        int length = ints != null ? ints.length : floats.length;
+        int i = 0;
+        while (i < length) {
+            buffer.clear();
+            while (i < length && buffer.remaining() >= 4) {
+                buffer.putInt(ints != null ? ints[i] : Float.floatToRawIntBits(floats[i]));
+                i++;
+            }
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        }
+        return (int) crc.getValue();
+    }
+
+    // Writes ints starting at position, feeding the bytes to crc, and returns the end position. Used by
+    // the other file formats of the package, which checksum several arrays as one section.
+    static long writeIntArray(FileChannel channel, long position, int[] ints, ByteBuffer buffer,
+                              CRC32C crc) throws IOException {
+        int i = 0;
+        while (i < ints.length) {
+            buffer.clear();
+            int chunk = Math.min(ints.length - i, buffer.remaining() >> 2);
+            buffer.asIntBuffer().put(ints, i, chunk);
+            buffer.limit(chunk << 2);
+            i += chunk;
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Writes the contents of a file through a {@link FileChannel}.
+     */
+    @FunctionalInterface
+    interface ChannelWriter {
+        void write(FileChannel channel) throws IOException;
+    }
+
+    /**
+     * Writes a file to a sibling of {@code path}, forces it to disk and renames it over {@code path}
+     * atomically, so a reader sees either the old file or the complete new one. Shared by every file
+     * format of the package.
+     *
+     * <p>The sibling is created with {@code Files.createFile} and no attributes, so the finished
+     * file gets the default permissions of a new file rather than the owner-only mode that
+     * {@code Files.createTempFile} would leave behind after the rename.</p>
+     *
+     * @param path   The destination file.
+     * @param writer Writes the contents through a channel open for writing at position 0.
+     * @throws IOException if the file cannot be written or renamed; the sibling is removed.
+     */
+    static void writeAtomically(Path path, ChannelWriter writer) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        String prefix = path.getFileName() + ".";
+        Path temp;
+        while (true) {
+            temp = parent.resolve(prefix + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36) + ".tmp");
+            try {
+                Files.createFile(temp);
+                break;
+            } catch (FileAlreadyExistsException e) {
+                // Another writer picked the same name; draw again
+            }
+        }
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                writer.write(channel);
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Fills ints from the file starting at position, feeding the bytes to crc, and returns the end position.
+    static long readIntArray(FileChannel channel, long position, int[] ints, ByteBuffer buffer,
+                             CRC32C crc, Path path) throws IOException {
+        int i = 0;
+        while (i < ints.length) {
+            buffer.clear();
+            int chunk = Math.min(ints.length - i, buffer.remaining() >> 2);
+            buffer.limit(chunk << 2);
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new IOException(path + ": unexpected end of file");
+                }
+                position += read;
+            }
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            buffer.asIntBuffer().get(ints, i, chunk);
+            i += chunk;
+        }
+        return position;
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////          Open Function         /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Maps a graph file read-only. Only the header is read and checked.
+     *
+     * @param path The file to open.
+     * @return A {@code MappedCsrGraph} backed by the file.
+     * @throws IOException if the file cannot be read or is not a valid graph file.
+     */
+    public static MappedCsrGraph open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES) {
+                throw new IOException(path + ": too short to be a graph file");
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException(path + ": unexpected end of file in header");
+                }
+            }
+            header.flip();
+            if (header.getLong(0) != MAGIC) {
+                throw new IOException(path + ": not a graph file (bad magic)");
+            }
+            if (header.getInt(8) != VERSION) {
+                throw new IOException(path + ": unsupported format version " + header.getInt(8));
+            }
+            if (headerCrc(header.duplicate().order(ByteOrder.LITTLE_ENDIAN).position(60)) != header.getInt(60)) {
+                throw new IOException(path + ": header checksum mismatch");
+            }
+            int flags = header.getInt(12);
+            int vertexCount = header.getInt(16);
+            int edgeCount = header.getInt(20);
+            long offsetsPos = header.getLong(24);
+            long targetsPos = header.getLong(32);
+            long weightsPos = header.getLong(40);
+            long end = flags == 0 ? targetsPos + 4L * edgeCount : weightsPos + 4L * edgeCount;
+            if (vertexCount < 0 || edgeCount < 0 || end > fileSize
+                    || offsetsPos + 4L * (vertexCount + 1) > targetsPos
+                    || (flags != 0 && targetsPos + 4L * edgeCount > weightsPos) || (offsetsPos & 3) != 0
+                    || (targetsPos & 3) != 0 || (weightsPos & 3) != 0) {
+                throw new IOException(path + ": corrupt section layout");
+            }
+
+            // Map in chunks: a single MappedByteBuffer is limited to 2 GiB.
+            int chunkCount = (int) ((end + MappedCsrGraph.CHUNK_BYTES - 1) / MappedCsrGraph.CHUNK_BYTES);
+            MappedByteBuffer[] chunks = new MappedByteBuffer[chunkCount];
+            for (int c = 0; c < chunkCount; c++) {
+                long start = (long) c * MappedCsrGraph.CHUNK_BYTES;
+                long size = Math.min(MappedCsrGraph.CHUNK_BYTES, end - start);
+                chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+                chunks[c].order(ByteOrder.LITTLE_ENDIAN);
+            }
+            // The mapping stays valid after the channel is closed.
+            return new MappedCsrGraph(chunks, vertexCount, edgeCount, flags, offsetsPos, targetsPos, weightsPos,
+                    header.getInt(48), header.getInt(52), header.getInt(56));
+        }
+    }
+
+    // CRC32C of the header bytes before the buffer's current position (bytes 0..59).
+    private static int headerCrc(ByteBuffer header) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer bytes = header.duplicate();
+        bytes.flip();
+        bytes.limit(60);
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    private static long align8(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    /**
+     * The {@code main} method builds a random DAG, writes it, maps it back and runs topological
+     * sort, cycle detection and BFS on both the heap and the mapped copy.
+     *
+     * @param args Optional: vertex count and average out-degree.
+     */
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+
+        // Edges only go from lower to higher ids, so the graph is a DAG.
+        Random random = new Random(7);
+        CsrGraph.Builder builder = CsrGraph.builder(n);
+        for (int u = 0; u < n - 1; u++) {
+            for (int k = 0; k < degree; k++) {
+                builder.addEdge(u, u + 1 + random.nextInt(Math.min(n - u - 1, 1000)));
+            }
+        }
+        CsrGraph graph = builder.build();
+
+        Path path = Files.createTempFile("graph", ".csr");
+        long t0 = System.nanoTime();
+        write(graph, path);
+        long t1 = System.nanoTime();
+        MappedCsrGraph mapped = open(path);
+        long t2 = System.nanoTime();
+        System.out.printf("V=%d E=%d file=%d MiB%n", n, graph.edgeCount(), Files.size(path) >> 20);
+        System.out.printf("write: %.1f ms, open: %.3f ms%n", (t1 - t0) / 1e6, (t2 - t1) / 1e6);
+
+        long t3 = System.nanoTime();
+        boolean checksumsOk = mapped.verifyChecksums();
+        long t4 = System.nanoTime();
+        System.out.printf("verifyChecksums: %b in %.1f ms%n", checksumsOk, (t4 - t3) / 1e6);
+
+        int[] heapOrder = TopologicalSortGraph.topologicalOrder(graph);
+        int[] mappedOrder = TopologicalSortGraph.topologicalOrder(mapped);
+        System.out.println("Topological order identical: " + Arrays.equals(heapOrder, mappedOrder));
+        System.out.println("Mapped graph has cycle: " + CycleDetection.hasCycle(mapped)); // false
+        System.out.println("BFS distances identical: "
+                + Arrays.equals(GraphBfs.distances(graph, 0), GraphBfs.distances(mapped, 0)));
+        Files.delete(path);
+    }
+}
@@ -1,4 +1,5 @@
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Hashtable;
 
 public class Graphs {
@@ -22,6 +23,30 @@ public class Graphs {
         }
     }
 
+    // Vertex ids in ascending order; index i in the CSR graph stands for vertexIds()[i]
+    public int[] vertexIds() {
+        int[] ids = new int[adjacentList.size()];
+        int i = 0;
+        for (Integer key : adjacentList.keySet()) {
+            ids[i++] = key;
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    // Compacts the graph into a CsrGraph over dense indices, see vertexIds() for the mapping.
+    // Each undirected edge appears in both directions, as it does in adjacentList.
+    public CsrGraph toCsrGraph() {
+        int[] ids = vertexIds();
+        CsrGraph.Builder builder = CsrGraph.builder(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            for (int neighbor : adjacentList.get(ids[i])) {
+                builder.addEdge(i, Arrays.binarySearch(ids, neighbor));
+            }
+        }
+        return builder.build();
+    }
+
     public static void main(String[] args) {
         Graphs graph = new Graphs();
         graph.addVertex(5);
@@ -30,5 +55,7 @@ public class Graphs {
         graph.addEdge(5,54);
         graph.addEdge(5,44);
         graph.showConnections();
+        System.out.println("Vertex ids: " + Arrays.toString(graph.vertexIds()));
+        System.out.print(graph.toCsrGraph());
     }
 }
\ No newline at end of file
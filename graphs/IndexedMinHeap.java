@@ -0,0 +1,145 @@
+import java.util.NoSuchElementException;
+
+/**
+ * The {@code IndexedMinHeap} class is a 4-ary min-heap of vertices keyed by {@code int}
+ * priorities, with decrease-key, for Dijkstra-style searches over vertices {@code 0 .. V-1}.
+ *
+ * <p>Keys are stored next to the vertex ids in the heap array, so sift operations compare
+ * contiguous ints instead of chasing into a distance array. A 4-ary layout halves the depth of a
+ * binary heap, and the four children of a node share a cache line.</p>
+ *
+ * <p>{@link #clear()} is O(1): membership is checked with {@code pos[v] < size && heap[pos[v]] == v},
+ * so stale positions left by earlier searches are never mistaken for live entries and the
+ * position array never needs resetting. This is what lets one heap serve many queries without
+ * touching O(V) memory each time.</p>
+ *
+ * @author
+ */
+final class IndexedMinHeap {
+    private final int[] heap;   // vertex at each heap slot
+    private final int[] keys;   // key of the vertex at each heap slot
+    private final int[] pos;    // heap slot of each vertex, valid only while it is in the heap
+    private int size;
+
+    /**
+     * @param capacity The number of vertices; ids must be in {@code [0, capacity)}.
+     */
+    IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        keys = new int[capacity];
+        pos = new int[capacity];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    boolean contains(int v) {
+        int p = pos[v];
+        return p < size && heap[p] == v;
+    }
+
+    /**
+     * @return The smallest key. The heap must not be empty.
+     */
+    int minKey() {
+        return keys[0];
+    }
+
+    /**
+     * @return The vertex with the smallest key. The heap must not be empty.
+     */
+    int peek() {
+        return heap[0];
+    }
+
+    /**
+     * Inserts {@code v}, or lowers its key if it is already present with a larger key.
+     *
+     * @param v   The vertex.
+     * @param key The new key.
+     * @return {@code true} if the heap changed.
+     */
+    boolean offer(int v, int key) {
+        if (contains(v)) {
+            int p = pos[v];
+            if (key >= keys[p]) {
+                return false;
+            }
+            siftUp(p, v, key);
+            return true;
+        }
+        siftUp(size++, v, key);
+        return true;
+    }
+
+    /**
+     * Removes and returns the vertex with the smallest key.
+     *
+     * @return The removed vertex.
+     * @throws NoSuchElementException if the heap is empty.
+     */
+    int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int min = heap[0];
+        int last = --size;
+        if (last > 0) {
+            siftDown(heap[last], keys[last]);
+        }
+        pos[min] = Integer.MAX_VALUE;   // no longer contained, even after later inserts
+        return min;
+    }
+
+    private void siftUp(int slot, int v, int key) {
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 2;
+            if (keys[parent] <= key) {
+                break;
+            }
+            place(slot, heap[parent], keys[parent]);
+            slot = parent;
+        }
+        place(slot, v, key);
+    }
+
+    // Moves (v, key) from the root down to its place among the first `size` slots.
+    private void siftDown(int v, int key) {
+        int slot = 0;
+        while (true) {
+            int first = (slot << 2) + 1;
+            if (first >= size) {
+                break;
+            }
+            int best = first;
+            int bestKey = keys[first];
+            for (int c = first + 1, end = Math.min(first + 4, size); c < end; c++) {
+                if (keys[c] < bestKey) {
+                    best = c;
+                    bestKey = keys[c];
+                }
+            }
+            if (bestKey >= key) {
+                break;
+            }
+            place(slot, heap[best], bestKey);
+            slot = best;
+        }
+        place(slot, v, key);
+    }
+
+    private void place(int slot, int v, int key) {
+        heap[slot] = v;
+        keys[slot] = key;
+        pos[v] = slot;
+    }
+}
@@ -1,5 +1,3 @@
-import java.util.*;
-
 /**
  * The {@code InformAllEmployees} class provides a method to determine the minimum number of minutes
  * needed to inform all employees in a company about an urgent piece of news.
@@ -8,6 +6,9 @@ import java.util.*;
  * of the company initiates the information spread, and each employee takes a certain amount of
  * time to inform their direct subordinates.</p>
  *
+ * <p>For very large hierarchies, per-employee finish times and the critical chain of managers, see
+ * {@link CriticalPath}.</p>
+ *
  * <p>Example Usage:</p>
  * <pre>{@code
  * InformAllEmployees solver = new InformAllEmployees();
@@ -31,57 +32,29 @@ public class InformAllEmployees {
      * @param manager     An array where manager[i] is the direct manager of the i-th employee.
      * @param informTime  An array where informTime[i] is the time needed by the i-th employee to inform all their direct subordinates.
      * @return The minimum number of minutes needed to inform all employees, or 0 if no employees need to be informed.
+     * @throws IllegalArgumentException if {@code n} does not match the arrays, {@code manager[headID]} is not -1,
+     *                                  or {@code manager} is not a single tree rooted at {@code headID}.
      */
     public int numOfMinutes(int n, int headID, int[] manager, int[] informTime) {
-        // Edge case: Only the head exists
-        if (n == 1) return 0;
-        
-        // Build the adjacency list representing the tree
-        List<List<Integer>> adj = new ArrayList<>();
-        for (int i = 0; i < n; i++) {
-            adj.add(new ArrayList<>());
+        if (manager.length != n || informTime.length != n) {
+            throw new IllegalArgumentException("n is " + n + " but there are " + manager.length + " managers and "
+                    + informTime.length + " inform times");
         }
-        for (int i = 0; i < n; i++) {
-            if (manager[i] != -1) {
-                adj.get(manager[i]).add(i);
-            }
-        }
-        
-        // Initialize BFS
-        Queue<EmployeeInfo> queue = new LinkedList<>();
-        queue.offer(new EmployeeInfo(headID, 0));
-        
-        int totalTime = 0;
-        
-        while (!queue.isEmpty()) {
-            EmployeeInfo current = queue.poll();
-            int currentID = current.id;
-            int currentTime = current.time;
-            
-            // Update the total time if current path is longer
-            totalTime = Math.max(totalTime, currentTime);
-            
-            // Iterate through all direct subordinates
-            for (int subordinate : adj.get(currentID)) {
-                // The time to inform the subordinate is currentTime + informTime[currentID]
-                queue.offer(new EmployeeInfo(subordinate, currentTime + informTime[currentID]));
-            }
+        if (headID < 0 || headID >= n || manager[headID] != -1) {
+            throw new IllegalArgumentException("Head " + headID + " does not have manager -1");
         }
         
-        return totalTime;
-    }
-    
-    /**
-     * A helper class to store employee information during BFS traversal.
-     */
-    private static class EmployeeInfo {
-        int id;     // Employee ID
-        int time;   // Time taken to reach this employee
+        // Edge case: Only the head exists
+        if (n == 1) return 0;
         
-        EmployeeInfo(int id, int time) {
-            this.id = id;
-            this.time = time;
+        // Start times come from the primitive, non-recursive tree engine, which rejects a second
+        // employee with manager -1; the answer is the latest moment any employee hears the news
+        CriticalPath times = CriticalPath.compute(manager, informTime);
+        long totalTime = 0;
+        for (int i = 0; i < n; i++) {
+            totalTime = Math.max(totalTime, times.start(i));
         }
+        return Math.toIntExact(totalTime);
     }
     
     /**
@@ -116,6 +89,14 @@ public class InformAllEmployees {
         int[] manager3 = {-1, 0, 0, 1};
         int[] informTime3 = {1, 2, 3, 4};
         int totalTime3 = solver.numOfMinutes(n3, headID3, manager3, informTime3);
-        System.out.println("Example 3 Output: " + totalTime3); // Expected Output: 7 (0->1->3: 1+2+4=7)
+        System.out.println("Example 3 Output: " + totalTime3); // Expected Output: 3 (0 informs 1 at 1, 1 informs 3 at 1+2=3)
+        
+        // A headID that is not the employee without a manager is rejected
+        try {
+            solver.numOfMinutes(n3, 1, manager3, informTime3);
+            System.out.println("Wrong headID accepted");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Wrong headID rejected: " + e.getMessage());
+        }
     }
 }
@@ -0,0 +1,85 @@
+/**
+ * The {@code IntGraph} interface is the read-only view of a directed graph that the algorithms in
+ * the graphs package run on.
+ *
+ * <p>Vertices are the integers {@code 0 .. V-1}, and the out-edges of a vertex {@code v} are the
+ * edge indices {@code edgeStart(v) .. edgeEnd(v) - 1}, as in Compressed Sparse Row (CSR) form.
+ * {@link CsrGraph} implements it over heap arrays and {@link MappedCsrGraph} over a memory-mapped
+ * {@link GraphFile}, so the same algorithm code runs on either.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * IntGraph g = ...;
+ * for (int e = g.edgeStart(v); e < g.edgeEnd(v); e++) {
+ *     int w = g.target(e);
+ * }
+ * }</pre>
+ *
+ * @author
+ */
+public interface IntGraph {
+    /**
+     * @return The number of vertices.
+     */
+    int vertexCount();
+
+    /**
+     * @return The number of edges.
+     */
+    int edgeCount();
+
+    /**
+     * @param v A vertex.
+     * @return The index of the first out-edge of {@code v}.
+     */
+    int edgeStart(int v);
+
+    /**
+     * @param v A vertex.
+     * @return One past the index of the last out-edge of {@code v}.
+     */
+    int edgeEnd(int v);
+
+    /**
+     * @param edge An edge index.
+     * @return The target vertex of the edge.
+     */
+    int target(int edge);
+
+    /**
+     * @return {@code true} if every edge carries an {@code int} weight.
+     */
+    default boolean hasIntWeights() {
+        return false;
+    }
+
+    /**
+     * @param edge An edge index.
+     * @return The {@code int} weight of the edge.
+     * @throws IllegalStateException if the graph has no {@code int} weights.
+     */
+    default int intWeight(int edge) {
+        throw new IllegalStateException("Graph has no int weights");
+    }
+
+    /**
+     * @param v A vertex.
+     * @return The number of out-edges of {@code v}.
+     */
+    default int outDegree(int v) {
+        return edgeEnd(v) - edgeStart(v);
+    }
+
+    /**
+     * Computes the in-degree of every vertex.
+     *
+     * @return A new {@code int[]} of length {@code V}.
+     */
+    default int[] inDegrees() {
+        int[] inDegree = new int[vertexCount()];
+        for (int e = 0, m = edgeCount(); e < m; e++) {
+            inDegree[target(e)]++;
+        }
+        return inDegree;
+    }
+}
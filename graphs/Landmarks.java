@@ -0,0 +1,320 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.CRC32C;
+
+/**
+ * The {@code Landmarks} class is the preprocessing for ALT (A*, Landmarks, Triangle inequality)
+ * queries: a few landmark vertices with their exact distances to and from every vertex, giving a
+ * lower bound on the distance between any two vertices.
+ *
+ * <p>By the triangle inequality, for any landmark {@code L},
+ * {@code d(v, t) >= d(L, t) - d(L, v)} and {@code d(v, t) >= d(v, L) - d(t, L)}. The maximum over
+ * all landmarks is a consistent heuristic for {@link AStar} and gives the potentials of
+ * {@link BidirectionalDijkstra}. The tables also prove some pairs unreachable: if {@code L}
+ * reaches {@code v} but not {@code t}, then {@code v} cannot reach {@code t} either.</p>
+ *
+ * <p>Landmarks are chosen by <em>farthest selection</em>: each new landmark is the vertex farthest
+ * (by round-trip distance) from the landmarks chosen so far, so they spread to the edges of the
+ * graph, where they bound the most pairs tightly. Selection runs {@code 2k} full Dijkstra searches,
+ * once per graph, so the tables can be saved with {@link #save(Path)} and loaded at service start
+ * with {@link #load(Path, IntGraph)}.</p>
+ *
+ * <p>The table is vertex-major: the {@code 2k} distances of a vertex are contiguous, so one bound
+ * reads two short runs of memory (for {@code v} and for {@code t}) instead of {@code 2k} scattered
+ * ints. With {@code k = 16} a vertex's entries span two cache lines.</p>
+ *
+ * <p>The file is little-endian: a 32-byte header, the landmark ids, then the table.</p>
+ * <pre>
+ *  offset  size  field
+ *       0     8  magic "LANDMARK"
+ *       8     4  format version (1)
+ *      12     4  vertex count V of the graph
+ *      16     4  edge count E of the graph
+ *      20     4  landmark count k
+ *      24     4  CRC32C of everything after the header
+ *      28     4  CRC32C of header bytes 0..27
+ *      32    4k  landmark ids
+ *  32+4k  8kV  table: for each vertex, for each landmark, d(L, v) then d(v, L); -1 if unreachable
+ * </pre>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * Landmarks landmarks = Landmarks.select(graph, 16);     // offline
+ * landmarks.save(Path.of("roads.alt"));
+ *
+ * Landmarks loaded = Landmarks.load(Path.of("roads.alt"), graph);   // at service start
+ * AStar astar = new AStar(graph, loaded.heuristic());
+ * }</pre>
+ *
+ * <p><strong>Time Complexity:</strong> O(k (V + E) log V) to select; O(k) per bound.</p>
+ * <p><strong>Space Complexity:</strong> O(kV).</p>
+ *
+ * @author
+ */
+public final class Landmarks {
+    static final long MAGIC = 0x4B52414D444E414CL; // "LANDMARK" read as a little-endian long
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+
+    // Staging buffer size for reads and writes.
+    private static final int IO_BUFFER_BYTES = 1 << 20;
+
+    private final int vertexCount;
+    private final int edgeCount;
+    private final int[] landmarks;
+    // table[v * stride + 2 * i] = d(landmarks[i], v), table[v * stride + 2 * i + 1] = d(v, landmarks[i]).
+    private final int[] table;
+    private final int stride;
+
+    private Landmarks(int vertexCount, int edgeCount, int[] landmarks, int[] table) {
+        this.vertexCount = vertexCount;
+        this.edgeCount = edgeCount;
+        this.landmarks = landmarks;
+        this.table = table;
+        this.stride = 2 * landmarks.length;
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////         Selection Functions     /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Selects landmarks for a graph, computing its transpose for the distances to each landmark.
+     *
+     * @param graph An {@code int}-weighted graph with non-negative weights.
+     * @param count The number of landmarks; 8 to 16 is typical for road networks.
+     * @return The landmarks and their distance tables.
+     */
+    public static Landmarks select(CsrGraph graph, int count) {
+        return select(graph, graph.transpose(), count);
+    }
+
+    /**
+     * Selects landmarks for a graph.
+     *
+     * @param graph   An {@code int}-weighted graph with non-negative weights.
+     * @param reverse The transpose of {@code graph}, with the same weights.
+     * @param count   The number of landmarks, capped at V.
+     * @return The landmarks and their distance tables.
+     * @throws IllegalArgumentException if {@code count} is not positive or the table would not fit
+     *                                  in an array.
+     */
+    public static Landmarks select(IntGraph graph, IntGraph reverse, int count) {
+        int n = graph.vertexCount();
+        if (count <= 0) {
+            throw new IllegalArgumentException("Landmark count must be positive: " + count);
+        }
+        count = Math.min(count, n);
+        if ((long) n * 2 * count > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Table for " + count + " landmarks on " + n + " vertices is too large");
+        }
+        int stride = 2 * count;
+        int[] landmarks = new int[count];
+        int[] table = new int[n * stride];
+        if (n == 0) {
+            return new Landmarks(n, graph.edgeCount(), new int[0], table);
+        }
+        Dijkstra forward = new Dijkstra(graph);
+        Dijkstra backward = new Dijkstra(reverse);
+
+        // The first landmark is the vertex farthest from an arbitrary start.
+        int next = farthest(forward.distances(new Random(n).nextInt(n)));
+        // Round-trip distance to the nearest landmark; MAX_VALUE while no landmark reaches v both ways.
+        int[] nearest = new int[n];
+        Arrays.fill(nearest, Integer.MAX_VALUE);
+        for (int i = 0; i < count; i++) {
+            int landmark = next;
+            landmarks[i] = landmark;
+            int[] from = forward.distances(landmark);
+            int[] to = backward.distances(landmark);
+            next = -1;
+            for (int v = 0; v < n; v++) {
+                table[v * stride + 2 * i] = from[v];
+                table[v * stride + 2 * i + 1] = to[v];
+                if (from[v] >= 0 && to[v] >= 0) {
+                    nearest[v] = (int) Math.min(nearest[v], (long) from[v] + to[v]);
+                }
+                if (next < 0 || nearest[v] > nearest[next]) {
+                    next = v;
+                }
+            }
+        }
+        return new Landmarks(n, graph.edgeCount(), landmarks, table);
+    }
+
+    private static int farthest(int[] distances) {
+        int best = 0;
+        for (int v = 1; v < distances.length; v++) {
+            if (distances[v] > distances[best]) {
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////          Query Functions        /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Computes the landmark lower bound on the distance from {@code v} to {@code t}. The bound is
+     * consistent in both arguments, so it serves as an A* heuristic towards {@code t} and, with the
+     * arguments swapped, as one back towards a source.
+     *
+     * @param v A vertex.
+     * @param t A vertex.
+     * @return A lower bound on {@code d(v, t)}, or {@link AStar.Heuristic#NO_PATH} if the tables
+     *         prove {@code t} unreachable from {@code v}.
+     */
+    public int lowerBound(int v, int t) {
+        int[] table = this.table;
+        int bv = v * stride;
+        int bt = t * stride;
+        int best = 0;
+        for (int j = 0; j < stride; j += 2) {
+            int fromLtoV = table[bv + j];
+            int fromLtoT = table[bt + j];
+            if (fromLtoV >= 0) {
+                if (fromLtoT < 0) {
+                    return AStar.Heuristic.NO_PATH;     // L reaches v but not t
+                }
+                best = Math.max(best, fromLtoT - fromLtoV);
+            }
+            int fromVtoL = table[bv + j + 1];
+            int fromTtoL = table[bt + j + 1];
+            if (fromTtoL >= 0) {
+                if (fromVtoL < 0) {
+                    return AStar.Heuristic.NO_PATH;     // t reaches L but v does not
+                }
+                best = Math.max(best, fromVtoL - fromTtoL);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return An {@link AStar} heuristic backed by {@link #lowerBound(int, int)}.
+     */
+    public AStar.Heuristic heuristic() {
+        return this::lowerBound;
+    }
+
+    /**
+     * @return The number of landmarks.
+     */
+    public int count() {
+        return landmarks.length;
+    }
+
+    /**
+     * @return The landmark vertices, in selection order.
+     */
+    public int[] landmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * @return The number of vertices of the graph the tables were built for.
+     */
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////          File Functions         /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Writes the landmarks and tables to {@code path}, replacing any existing file atomically.
+     *
+     * @param path The destination file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(Path path) throws IOException {
+        GraphFile.writeAtomically(path, channel -> {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32C crc = new CRC32C();
+            long position = GraphFile.writeIntArray(channel, HEADER_BYTES, landmarks, buffer, crc);
+            GraphFile.writeIntArray(channel, position, table, buffer, crc);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putLong(MAGIC).putInt(VERSION).putInt(vertexCount).putInt(edgeCount)
+                    .putInt(landmarks.length).putInt((int) crc.getValue());
+            header.putInt(headerCrc(header));
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        });
+    }
+
+    /**
+     * Reads landmarks and tables written by {@link #save(Path)} and checks them against the graph
+     * they will be used with and against the stored checksums.
+     *
+     * @param path  The file to read.
+     * @param graph The graph the tables must belong to.
+     * @return The loaded landmarks.
+     * @throws IOException if the file cannot be read, is corrupt, or was built for a graph with a
+     *                     different vertex or edge count.
+     */
+    public static Landmarks load(Path path, IntGraph graph) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException(path + ": unexpected end of file in header");
+                }
+            }
+            if (header.getLong(0) != MAGIC) {
+                throw new IOException(path + ": not a landmark file (bad magic)");
+            }
+            if (header.getInt(8) != VERSION) {
+                throw new IOException(path + ": unsupported format version " + header.getInt(8));
+            }
+            if (headerCrc(header.duplicate().order(ByteOrder.LITTLE_ENDIAN).position(28)) != header.getInt(28)) {
+                throw new IOException(path + ": header checksum mismatch");
+            }
+            int vertexCount = header.getInt(12);
+            int edgeCount = header.getInt(16);
+            int count = header.getInt(20);
+            if (vertexCount != graph.vertexCount() || edgeCount != graph.edgeCount()) {
+                throw new IOException(path + ": built for a graph with V=" + vertexCount + " E=" + edgeCount
+                        + ", not V=" + graph.vertexCount() + " E=" + graph.edgeCount());
+            }
+            long tableInts = (long) vertexCount * 2 * count;
+            if (count < 0 || count > vertexCount || tableInts > Integer.MAX_VALUE - 8
+                    || channel.size() != HEADER_BYTES + 4L * (count + tableInts)) {
+                throw new IOException(path + ": corrupt size");
+            }
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32C crc = new CRC32C();
+            int[] landmarks = new int[count];
+            int[] table = new int[(int) tableInts];
+            long position = GraphFile.readIntArray(channel, HEADER_BYTES, landmarks, buffer, crc, path);
+            GraphFile.readIntArray(channel, position, table, buffer, crc, path);
+            if ((int) crc.getValue() != header.getInt(24)) {
+                throw new IOException(path + ": table checksum mismatch");
+            }
+            for (int landmark : landmarks) {
+                if (landmark < 0 || landmark >= vertexCount) {
+                    throw new IOException(path + ": landmark " + landmark + " out of range");
+                }
+            }
+            return new Landmarks(vertexCount, edgeCount, landmarks, table);
+        }
+    }
+
+    // CRC32C of the header bytes 0..27.
+    private static int headerCrc(ByteBuffer header) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer bytes = header.duplicate();
+        bytes.flip();
+        bytes.limit(28);
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
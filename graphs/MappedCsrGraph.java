@@ -0,0 +1,155 @@
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * The {@code MappedCsrGraph} class is an {@link IntGraph} whose CSR arrays live in a memory-mapped
+ * {@link GraphFile} instead of on the Java heap.
+ *
+ * <p>The file is mapped in 1 GiB chunks, because one {@code MappedByteBuffer} cannot exceed 2 GiB.
+ * Every section starts on an 8-byte boundary and chunks are a multiple of 4 bytes, so an int never
+ * straddles two chunks and element {@code i} of the file is found with a shift and a mask. The
+ * mapping is read-only and shared with every other process that maps the same file.</p>
+ *
+ * <p>Instances are created by {@link GraphFile#open(java.nio.file.Path)}, are immutable and may be
+ * read from many threads. The mapping is released when the instance is garbage collected.</p>
+ *
+ * @author
+ */
+public final class MappedCsrGraph implements IntGraph {
+    // 2^30 bytes per chunk = 2^28 ints.
+    static final long CHUNK_BYTES = 1L << 30;
+    private static final int CHUNK_INT_SHIFT = 28;
+    private static final int CHUNK_INT_MASK = (1 << CHUNK_INT_SHIFT) - 1;
+
+    private final MappedByteBuffer[] chunks;
+    private final IntBuffer[] ints;
+    private final int vertexCount;
+    private final int edgeCount;
+    private final int flags;
+    private final long offsetsPos;
+    private final long targetsPos;
+    private final long weightsPos;
+    private final int offsetsCrc;
+    private final int targetsCrc;
+    private final int weightsCrc;
+
+    // Section starts in int units, for intAt().
+    private final long offsetsBase;
+    private final long targetsBase;
+    private final long weightsBase;
+
+    MappedCsrGraph(MappedByteBuffer[] chunks, int vertexCount, int edgeCount, int flags,
+                   long offsetsPos, long targetsPos, long weightsPos,
+                   int offsetsCrc, int targetsCrc, int weightsCrc) {
+        this.chunks = chunks;
+        this.ints = new IntBuffer[chunks.length];
+        for (int c = 0; c < chunks.length; c++) {
+            ints[c] = chunks[c].asIntBuffer();
+        }
+        this.vertexCount = vertexCount;
+        this.edgeCount = edgeCount;
+        this.flags = flags;
+        this.offsetsPos = offsetsPos;
+        this.targetsPos = targetsPos;
+        this.weightsPos = weightsPos;
+        this.offsetsCrc = offsetsCrc;
+        this.targetsCrc = targetsCrc;
+        this.weightsCrc = weightsCrc;
+        this.offsetsBase = offsetsPos >>> 2;
+        this.targetsBase = targetsPos >>> 2;
+        this.weightsBase = weightsPos >>> 2;
+    }
+
+    private int intAt(long index) {
+        return ints[(int) (index >>> CHUNK_INT_SHIFT)].get((int) (index & CHUNK_INT_MASK));
+    }
+
+    @Override
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    @Override
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public int edgeStart(int v) {
+        return intAt(offsetsBase + v);
+    }
+
+    @Override
+    public int edgeEnd(int v) {
+        return intAt(offsetsBase + v + 1);
+    }
+
+    @Override
+    public int target(int edge) {
+        return intAt(targetsBase + edge);
+    }
+
+    @Override
+    public boolean hasIntWeights() {
+        return (flags & GraphFile.FLAG_INT_WEIGHTS) != 0;
+    }
+
+    /**
+     * @param edge An edge index.
+     * @return The {@code int} weight of the edge.
+     * @throws IllegalStateException if the file has no {@code int} weights.
+     */
+    @Override
+    public int intWeight(int edge) {
+        if ((flags & GraphFile.FLAG_INT_WEIGHTS) == 0) {
+            throw new IllegalStateException("Graph has no int weights");
+        }
+        return intAt(weightsBase + edge);
+    }
+
+    /**
+     * @param edge An edge index.
+     * @return The {@code float} weight of the edge.
+     * @throws IllegalStateException if the file has no {@code float} weights.
+     */
+    public float floatWeight(int edge) {
+        if ((flags & GraphFile.FLAG_FLOAT_WEIGHTS) == 0) {
+            throw new IllegalStateException("Graph has no float weights");
+        }
+        return Float.intBitsToFloat(intAt(weightsBase + edge));
+    }
+
+    /**
+     * Recomputes the CRC32C of every section and compares it with the header. This reads the
+     * whole file once, so it is not done by {@code GraphFile.open}.
+     *
+     * @return {@code true} if every section matches its stored checksum.
+     */
+    public boolean verifyChecksums() {
+        boolean ok = crc(offsetsPos, 4L * (vertexCount + 1)) == offsetsCrc
+                && crc(targetsPos, 4L * edgeCount) == targetsCrc;
+        if (flags != 0) {
+            ok &= crc(weightsPos, 4L * edgeCount) == weightsCrc;
+        }
+        return ok;
+    }
+
+    // CRC32C of length bytes starting at file position start, possibly spanning chunks.
+    private int crc(long start, long length) {
+        CRC32C crc = new CRC32C();
+        long position = start;
+        long end = start + length;
+        while (position < end) {
+            int chunk = (int) (position / CHUNK_BYTES);
+            int from = (int) (position % CHUNK_BYTES);
+            int to = (int) Math.min(CHUNK_BYTES, end - (long) chunk * CHUNK_BYTES);
+            ByteBuffer slice = chunks[chunk].duplicate();
+            slice.limit(to).position(from);
+            crc.update(slice);
+            position = (long) chunk * CHUNK_BYTES + to;
+        }
+        return (int) crc.getValue();
+    }
+}
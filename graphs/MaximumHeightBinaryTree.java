@@ -1,5 +1,7 @@
 import java.util.*;
 
+import trees.ParallelTreeReducer;
+
 /**
  * The {@code MaximumHeightBinaryTree} class provides functionality to determine
  * the maximum height (or depth) of a binary tree.
@@ -94,6 +96,20 @@ public class MaximumHeightBinaryTree {
         return 1 + Math.max(leftHeight, rightHeight);
     }
 
+    /**
+     * Calculates the maximum height of the binary tree with a fork-join reduction.
+     *
+     * <p>Unlike {@link #maxHeight(TreeNode)} this walks the tree iteratively, so it cannot overflow
+     * the stack on skewed trees, and large subtrees are reduced on separate workers. See
+     * {@code trees.ParallelTreeReducer} for the splitting policy.</p>
+     *
+     * @param root The root node of the binary tree.
+     * @return The maximum height of the binary tree. Returns -1 if the tree is empty.
+     */
+    public int maxHeightParallel(TreeNode root) {
+        return new ParallelTreeReducer<TreeNode>(n -> n.left, n -> n.right, n -> n.val).height(root);
+    }
+
     /**
      * The {@code main} method serves as an entry point to test the {@code MaximumHeightBinaryTree} class.
      *
@@ -158,5 +174,10 @@ public class MaximumHeightBinaryTree {
         TreeNode root4 = null;
         int height4 = solver.maxHeight(root4);
         System.out.println("Example 4 Output: " + height4); // Expected Output: -1
+
+        // Parallel variant on the same trees.
+        System.out.println("Parallel Outputs: " + solver.maxHeightParallel(root1) + ", "
+                + solver.maxHeightParallel(root2) + ", " + solver.maxHeightParallel(root3) + ", "
+                + solver.maxHeightParallel(root4)); // Expected Output: 2, 3, 1, -1
     }
 }
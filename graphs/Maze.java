@@ -24,36 +24,38 @@
 
 
 public class Maze {
+    // Iterative, through RollingMaze: the recursive search this replaces could overflow the
+    // stack on large mazes. As before, a start equal to the destination is reachable, and a start
+    // or destination that is a wall or outside the maze is not.
     public static boolean hasPath(int[][] maze, int[] start, int[] destination) {
-        boolean[][] visited = new boolean[maze.length][maze[0].length];
-        return reach(maze, start[0], start[1] , destination, visited);
+        return hasPath(BitGrid.of(maze), start, destination);
     }
-    private static boolean reach(int[][] maze, int i, int j, int[] dest, boolean[][] visited) {
-        if (i == dest[0] && j == dest[1]) {
+
+    // The same question on a bit-packed maze, set cells being walls. Build one RollingMaze and
+    // reuse it to ask many questions about the same maze.
+    public static boolean hasPath(BitGrid maze, int[] start, int[] destination) {
+        if (start[0] == destination[0] && start[1] == destination[1]) {
             return true;
         }
-        if (visited[i][j] == true) {
+        if (!isOpen(maze, start) || !isOpen(maze, destination)) {
             return false;
         }
-        visited[i][j] = true;
-        int[][] dirs = new int[4][2];
-        dirs[0] = new int[]{0, 1};
-        dirs[1] = new int[]{1, 0};
-        dirs[2] = new int[]{0, -1};
-        dirs[3] = new int[]{-1, 0};
-        for (int k = 0; k < dirs.length; k ++) {
-            int x = i, y = j;
-            while (x >= 0 && x < maze.length && y >= 0 && y < maze[0].length && maze[x][y] == 0) {
-                x = x + dirs[k][0];
-                y = y + dirs[k][1];
-            }
-            x = x - dirs[k][0];
-            y = y - dirs[k][1];
-            if (!visited[x][y] && reach(maze, x, y, dest, visited)) {
-                return true;
-            }
+        return new RollingMaze(maze).reachable(start[0], start[1], destination[0], destination[1]);
+    }
+
+    // The Maze II: the fewest empty cells the ball passes to stop at the destination, or -1,
+    // also when the start or destination is a wall or outside the maze.
+    public static int shortestDistance(int[][] maze, int[] start, int[] destination) {
+        BitGrid walls = BitGrid.of(maze);
+        if (!isOpen(walls, start) || !isOpen(walls, destination)) {
+            return RollingMaze.UNREACHABLE;
         }
-        return false;
+        return new RollingMaze(walls).distance(start[0], start[1], destination[0], destination[1]);
+    }
+
+    private static boolean isOpen(BitGrid maze, int[] cell) {
+        int r = cell[0], c = cell[1];
+        return r >= 0 && r < maze.rows() && c >= 0 && c < maze.cols() && !maze.get(r, c);
     }
 
     public static void main(String args[]) {
@@ -67,6 +69,13 @@ public class Maze {
         
         System.out.println(hasPath(arr, start, dest1));
         System.out.println(hasPath(arr, start, dest2));
+        System.out.println(hasPath(BitGrid.of(arr), start, dest1));
+        System.out.println(hasPath(BitGrid.of(arr), start, dest2));
+        System.out.println(shortestDistance(arr, start, dest1));     // 12
+        System.out.println(shortestDistance(arr, start, dest2));     // -1
+        System.out.println(hasPath(arr, start, new int[]{0, 2}));    // false: a wall
+        System.out.println(hasPath(arr, start, new int[]{5, 0}));    // false: outside the maze
+        System.out.println(hasPath(arr, new int[]{0, 2}, new int[]{0, 2}));   // true: already there
 
 
     }
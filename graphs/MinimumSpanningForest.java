@@ -0,0 +1,488 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The {@code MinimumSpanningForest} class computes a minimum spanning forest of an undirected
+ * weighted graph given as flat edge arrays: edge {@code i} joins {@code sources[i]} and
+ * {@code targets[i]} with weight {@code weights[i]}. The result lists the chosen edge indices, so
+ * callers get the tree itself, not only its weight, and a disconnected graph yields one tree per
+ * component.
+ *
+ * <p>{@code InterviewCheatSheet.minimumSpanningTreeKruskal} sorts an {@code int[][]} (an object per
+ * edge) with a boxed comparator and returns -1 unless the graph is connected. Three engines replace
+ * it here, all working on primitive arrays:</p>
+ * <ul>
+ *     <li>{@link #filterKruskal} partitions the edges quicksort-style around a pivot weight, solves
+ *     the light half first, then drops every heavy edge whose endpoints the light half already
+ *     connected before recursing on what is left. On dense graphs most heavy edges are discarded
+ *     this way without ever being sorted.</li>
+ *     <li>{@link #boruvka} runs in rounds on a {@link ForkJoinPool}: every component picks its
+ *     lightest outgoing edge in parallel (an atomic min per component), the picks are united in a
+ *     {@link ConcurrentUnionFind}, and edges inside one component are filtered out. The number of
+ *     components at least halves each round.</li>
+ *     <li>{@link #prim} grows each tree from a start vertex with an {@link IndexedMinHeap} keyed by
+ *     the lightest edge into each vertex, restarting at the next unvisited vertex for a forest.</li>
+ * </ul>
+ *
+ * <p>Ties between equal weights are broken by edge index, so the minimum spanning forest is unique
+ * and {@code filterKruskal} and {@code boruvka} return the same edges. Borůvka needs the tie-break
+ * for correctness: without a strict order two components could pick different equal edges and
+ * close a cycle. {@code prim} breaks ties arbitrarily and returns a forest of the same weight.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * int[] u = {0, 1, 0, 3};
+ * int[] v = {1, 2, 2, 4};
+ * int[] w = {1, 2, 5, 7};
+ * MinimumSpanningForest.Forest f = MinimumSpanningForest.filterKruskal(5, u, v, w);
+ * f.edges();         // [0, 1, 3]
+ * f.totalWeight();   // 10
+ * f.treeCount();     // 2
+ * }</pre>
+ *
+ * <p><strong>Time Complexity:</strong> filter-Kruskal O(E + V log V log(E / V)) expected;
+ * Borůvka O(E log V) work in O(log V) rounds; Prim O(E log V).</p>
+ * <p><strong>Space Complexity:</strong> O(V + E).</p>
+ *
+ * @author
+ */
+public final class MinimumSpanningForest {
+    // Ranges this short are sorted outright by filter-Kruskal.
+    private static final int SORT_THRESHOLD = 1 << 12;
+    // Edges or vertices handed to one fork-join task in Borůvka.
+    private static final int GRAIN = 1 << 14;
+    private static final long NONE = Long.MAX_VALUE;
+
+    private MinimumSpanningForest() {
+    }
+
+    /**
+     * A minimum spanning forest: the chosen edges, in ascending index order, and their total weight.
+     */
+    public static final class Forest {
+        private final int[] edges;
+        private final long totalWeight;
+        private final int vertexCount;
+
+        Forest(int[] edges, int count, int[] weights, int vertexCount) {
+            this.edges = Arrays.copyOf(edges, count);
+            Arrays.sort(this.edges);
+            long total = 0;
+            for (int e : this.edges) {
+                total += weights[e];
+            }
+            this.totalWeight = total;
+            this.vertexCount = vertexCount;
+        }
+
+        /**
+         * @return The indices of the forest's edges, ascending.
+         */
+        public int[] edges() {
+            return edges.clone();
+        }
+
+        /**
+         * @return The number of edges, {@code V - treeCount()}.
+         */
+        public int edgeCount() {
+            return edges.length;
+        }
+
+        /**
+         * @return The sum of the edge weights.
+         */
+        public long totalWeight() {
+            return totalWeight;
+        }
+
+        /**
+         * @return The number of trees, one per connected component (isolated vertices included).
+         */
+        public int treeCount() {
+            return vertexCount - edges.length;
+        }
+
+        /**
+         * @return {@code true} if the forest is a single spanning tree.
+         */
+        public boolean isSpanningTree() {
+            return treeCount() <= 1;
+        }
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////          Filter-Kruskal         /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Computes the minimum spanning forest with filter-Kruskal.
+     *
+     * @param n       The number of vertices.
+     * @param sources The first endpoint of each edge.
+     * @param targets The second endpoint of each edge.
+     * @param weights The weight of each edge.
+     * @return The minimum spanning forest.
+     */
+    public static Forest filterKruskal(int n, int[] sources, int[] targets, int[] weights) {
+        int m = validate(n, sources, targets, weights);
+        int[] order = new int[m];
+        for (int i = 0; i < m; i++) {
+            order[i] = i;
+        }
+        FilterKruskal state = new FilterKruskal(n, sources, targets, weights, order);
+        state.solve(0, m);
+        return new Forest(state.forest, state.count, weights, n);
+    }
+
+    private static final class FilterKruskal {
+        final int[] sources;
+        final int[] targets;
+        final int[] weights;
+        final int[] order;      // edge indices, partitioned in place
+        final UnionFind sets;
+        final int[] forest;
+        int count;
+        final Random random = new Random(42);
+
+        FilterKruskal(int n, int[] sources, int[] targets, int[] weights, int[] order) {
+            this.sources = sources;
+            this.targets = targets;
+            this.weights = weights;
+            this.order = order;
+            this.sets = new UnionFind(n);
+            this.forest = new int[Math.max(0, n - 1)];
+        }
+
+        // Adds the forest edges among order[lo, hi) to the forest, in ascending key order.
+        void solve(int lo, int hi) {
+            while (hi - lo > SORT_THRESHOLD && count < forest.length) {
+                long pivot = key(order[lo + random.nextInt(hi - lo)], weights);
+                int mid = partition(lo, hi, pivot);
+                if (mid == hi) {
+                    break;      // pivot was the maximum: nothing to split off, sort the range
+                }
+                solve(lo, mid);
+                lo = filter(mid, hi);
+            }
+            if (count < forest.length) {
+                kruskal(lo, hi);
+            }
+        }
+
+        // Moves the edges with key <= pivot to the front of the range and returns where they end.
+        private int partition(int lo, int hi, long pivot) {
+            int i = lo;
+            int j = hi - 1;
+            while (true) {
+                while (i <= j && key(order[i], weights) <= pivot) {
+                    i++;
+                }
+                while (i <= j && key(order[j], weights) > pivot) {
+                    j--;
+                }
+                if (i >= j) {
+                    return i;
+                }
+                int t = order[i];
+                order[i] = order[j];
+                order[j] = t;
+            }
+        }
+
+        // Keeps only the edges of the range that join two different trees, at its end; returns the new start.
+        private int filter(int lo, int hi) {
+            int kept = hi;
+            for (int i = hi - 1; i >= lo; i--) {
+                int e = order[i];
+                if (sets.find(sources[e]) != sets.find(targets[e])) {
+                    order[--kept] = e;
+                }
+            }
+            return kept;
+        }
+
+        private void kruskal(int lo, int hi) {
+            long[] keys = new long[hi - lo];
+            for (int i = lo; i < hi; i++) {
+                keys[i - lo] = key(order[i], weights);
+            }
+            Arrays.sort(keys);
+            for (long k : keys) {
+                int e = (int) k;
+                if (sets.unite(sources[e], targets[e])) {
+                    forest[count++] = e;
+                    if (count == forest.length) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////          Parallel Borůvka       /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Computes the minimum spanning forest with Borůvka on the common pool.
+     *
+     * @param n       The number of vertices.
+     * @param sources The first endpoint of each edge.
+     * @param targets The second endpoint of each edge.
+     * @param weights The weight of each edge.
+     * @return The minimum spanning forest.
+     */
+    public static Forest boruvka(int n, int[] sources, int[] targets, int[] weights) {
+        return boruvka(n, sources, targets, weights, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the minimum spanning forest with Borůvka.
+     *
+     * @param n       The number of vertices.
+     * @param sources The first endpoint of each edge.
+     * @param targets The second endpoint of each edge.
+     * @param weights The weight of each edge.
+     * @param pool    The pool to run on.
+     * @return The minimum spanning forest.
+     */
+    public static Forest boruvka(int n, int[] sources, int[] targets, int[] weights, ForkJoinPool pool) {
+        int m = validate(n, sources, targets, weights);
+        ConcurrentUnionFind sets = new ConcurrentUnionFind(n);
+        int[] component = new int[n];
+        AtomicLongArray lightest = new AtomicLongArray(n);
+        int[] forest = new int[Math.max(0, n - 1)];
+        AtomicInteger forestSize = new AtomicInteger();
+
+        // Edges that may still cross components, compacted each round.
+        int[] live = new int[m];
+        for (int i = 0; i < m; i++) {
+            live[i] = i;
+        }
+        int liveCount = m;
+        int[] next = new int[m];
+        while (liveCount > 0) {
+            int[] edges = live;
+            int edgeCount = liveCount;
+            ParallelRange.forRange(pool, 0, n, GRAIN, (lo, hi) -> {
+                for (int v = lo; v < hi; v++) {
+                    component[v] = sets.find(v);
+                    lightest.setPlain(v, NONE);
+                }
+            });
+            // Every crossing edge bids for both of its components; dead edges are dropped.
+            AtomicInteger tail = new AtomicInteger();
+            int[] survivors = next;
+            ParallelRange.forRange(pool, 0, edgeCount, GRAIN, (lo, hi) -> {
+                ParallelRange.Appender kept = new ParallelRange.Appender(survivors, tail, 256);
+                for (int i = lo; i < hi; i++) {
+                    int e = edges[i];
+                    int cu = component[sources[e]];
+                    int cv = component[targets[e]];
+                    if (cu == cv) {
+                        continue;
+                    }
+                    kept.add(e);
+                    long k = key(e, weights);
+                    bid(lightest, cu, k);
+                    bid(lightest, cv, k);
+                }
+                kept.flush();
+            });
+            liveCount = tail.get();
+            next = live;
+            live = survivors;
+            if (liveCount == 0) {
+                break;
+            }
+            // Each component's lightest edge is in the forest; two components may pick the same one.
+            ParallelRange.forRange(pool, 0, n, GRAIN, (lo, hi) -> {
+                for (int c = lo; c < hi; c++) {
+                    long k = lightest.getPlain(c);
+                    if (k != NONE) {
+                        int e = (int) k;
+                        if (sets.unite(sources[e], targets[e])) {
+                            forest[forestSize.getAndIncrement()] = e;
+                        }
+                    }
+                }
+            });
+        }
+        return new Forest(forest, forestSize.get(), weights, n);
+    }
+
+    private static void bid(AtomicLongArray lightest, int component, long key) {
+        long current = lightest.get(component);
+        while (key < current && !lightest.weakCompareAndSetVolatile(component, current, key)) {
+            current = lightest.get(component);
+        }
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////               Prim              /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Computes a minimum spanning forest with Prim, growing one tree per component.
+     *
+     * @param n       The number of vertices.
+     * @param sources The first endpoint of each edge.
+     * @param targets The second endpoint of each edge.
+     * @param weights The weight of each edge.
+     * @return A minimum spanning forest.
+     */
+    public static Forest prim(int n, int[] sources, int[] targets, int[] weights) {
+        int m = validate(n, sources, targets, weights);
+        // Undirected CSR adjacency holding edge indices, so a heap entry can name its edge.
+        int[] offsets = new int[n + 1];
+        for (int e = 0; e < m; e++) {
+            offsets[sources[e] + 1]++;
+            offsets[targets[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] incident = new int[2 * m];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int e = 0; e < m; e++) {
+            incident[fill[sources[e]]++] = e;
+            incident[fill[targets[e]]++] = e;
+        }
+
+        boolean[] inTree = new boolean[n];
+        int[] bestEdge = new int[n];
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        int[] forest = new int[Math.max(0, n - 1)];
+        int count = 0;
+        for (int root = 0; root < n; root++) {
+            if (inTree[root]) {
+                continue;
+            }
+            heap.offer(root, Integer.MIN_VALUE);
+            bestEdge[root] = -1;
+            while (!heap.isEmpty()) {
+                int u = heap.poll();
+                inTree[u] = true;
+                if (bestEdge[u] >= 0) {
+                    forest[count++] = bestEdge[u];
+                }
+                for (int i = offsets[u], end = offsets[u + 1]; i < end; i++) {
+                    int e = incident[i];
+                    int v = sources[e] == u ? targets[e] : sources[e];
+                    if (!inTree[v] && heap.offer(v, weights[e])) {
+                        bestEdge[v] = e;
+                    }
+                }
+            }
+        }
+        return new Forest(forest, count, weights, n);
+    }
+
+    // Weight in the high half and index in the low half: a strict total order on edges.
+    private static long key(int edge, int[] weights) {
+        return ((long) weights[edge] << 32) | edge;
+    }
+
+    private static int validate(int n, int[] sources, int[] targets, int[] weights) {
+        int m = sources.length;
+        if (targets.length != m || weights.length != m) {
+            throw new IllegalArgumentException("Edge arrays differ in length");
+        }
+        for (int e = 0; e < m; e++) {
+            if (sources[e] < 0 || sources[e] >= n || targets[e] < 0 || targets[e] >= n) {
+                throw new IndexOutOfBoundsException("Edge " + e + " has an endpoint outside [0, " + n + ")");
+            }
+        }
+        return m;
+    }
+
+    /**
+     * The {@code main} method checks the three engines against each other on random graphs and
+     * forests, then times them and the {@code int[][]} Kruskal of {@code InterviewCheatSheet} on a
+     * large random graph.
+     *
+     * @param args Optional: vertex count and average degree for the benchmark.
+     */
+    public static void main(String[] args) {
+        int[] u = {0, 1, 0, 3};
+        int[] v = {1, 2, 2, 4};
+        int[] w = {1, 2, 5, 7};
+        Forest small = filterKruskal(5, u, v, w);
+        System.out.println("Edges: " + Arrays.toString(small.edges()));     // [0, 1, 3]
+        System.out.println("Weight: " + small.totalWeight());                // 10
+        System.out.println("Trees: " + small.treeCount());                   // 2
+
+        Random random = new Random(42);
+        boolean agree = true;
+        for (int round = 0; round < 300 && agree; round++) {
+            int n = 1 + random.nextInt(3000);
+            int m = random.nextInt(3 * n);      // sparse enough to be disconnected often
+            int[][] edges = randomEdges(n, m, 1 + random.nextInt(50), random);
+            Forest kruskal = filterKruskal(n, edges[0], edges[1], edges[2]);
+            Forest boruvka = boruvka(n, edges[0], edges[1], edges[2]);
+            Forest prim = prim(n, edges[0], edges[1], edges[2]);
+            agree = Arrays.equals(kruskal.edges(), boruvka.edges())
+                    && prim.totalWeight() == kruskal.totalWeight() && prim.treeCount() == kruskal.treeCount()
+                    && kruskal.treeCount() == components(n, edges);
+        }
+        System.out.println("Engines agree on random graphs and forests: " + agree);
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int m = n / 2 * degree;
+        int[][] edges = randomEdges(n, m, 1_000_000, random);
+        for (int round = 0; round < 2; round++) {
+            int[][] boxed = new int[m][];
+            for (int e = 0; e < m; e++) {
+                boxed[e] = new int[]{edges[0][e], edges[1][e], edges[2][e]};
+            }
+            long t0 = System.nanoTime();
+            long baseline = cheatSheetKruskal(n, boxed);
+            long t1 = System.nanoTime();
+            Forest kruskal = filterKruskal(n, edges[0], edges[1], edges[2]);
+            long t2 = System.nanoTime();
+            Forest boruvka = boruvka(n, edges[0], edges[1], edges[2]);
+            long t3 = System.nanoTime();
+            Forest prim = prim(n, edges[0], edges[1], edges[2]);
+            long t4 = System.nanoTime();
+            System.out.printf("V=%d E=%d: int[][] Kruskal %.0f ms, filter-Kruskal %.0f ms, Boruvka %.0f ms (%d threads), "
+                            + "Prim %.0f ms, same weight %b%n", n, m, (t1 - t0) / 1e6, (t2 - t1) / 1e6, (t3 - t2) / 1e6,
+                    ForkJoinPool.commonPool().getParallelism(), (t4 - t3) / 1e6,
+                    baseline == kruskal.totalWeight() && kruskal.totalWeight() == boruvka.totalWeight()
+                            && boruvka.totalWeight() == prim.totalWeight());
+        }
+    }
+
+    private static int[][] randomEdges(int n, int m, int maxWeight, Random random) {
+        int[][] edges = new int[3][m];
+        for (int e = 0; e < m; e++) {
+            edges[0][e] = random.nextInt(n);
+            edges[1][e] = random.nextInt(n);
+            edges[2][e] = random.nextInt(maxWeight);
+        }
+        return edges;
+    }
+
+    private static int components(int n, int[][] edges) {
+        UnionFind sets = new UnionFind(n);
+        for (int e = 0; e < edges[0].length; e++) {
+            sets.unite(edges[0][e], edges[1][e]);
+        }
+        return sets.setCount();
+    }
+
+    // InterviewCheatSheet.minimumSpanningTreeKruskal, returning the forest weight instead of -1.
+    private static long cheatSheetKruskal(int n, int[][] edges) {
+        Arrays.sort(edges, Comparator.comparingInt(e -> e[2]));
+        UnionFind d = new UnionFind(n);
+        long total = 0;
+        for (int[] e : edges) {
+            if (d.unite(e[0], e[1])) {
+                total += e[2];
+            }
+        }
+        return total;
+    }
+}
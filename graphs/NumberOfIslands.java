@@ -1,4 +1,4 @@
-import java.util.Stack;
+import java.util.Arrays;
 
 /**
  * The {@code NumberOfIslands} class provides functionality to determine the number
@@ -9,6 +9,9 @@ import java.util.Stack;
  * <ul>
  *     <li><strong>DFS Recursive Approach:</strong> Utilizes recursion to traverse and mark connected lands.</li>
  *     <li><strong>DFS Iterative Approach:</strong> Uses a stack to traverse and mark connected lands without recursion.</li>
+ *     <li><strong>Tiled Approach:</strong> Labels the grid tile by tile in parallel through
+ *     {@link IslandLabeling}, without modifying it, for grids too large for one flood fill. It also
+ *     accepts a bit-packed {@link BitGrid}.</li>
  * </ul>
  * </p>
  *
@@ -163,7 +166,8 @@ public class NumberOfIslands {
      * Helper method to perform DFS iteratively using a stack.
      *
      * <p>This method marks the current cell as visited and uses a stack to explore all
-     * adjacent (up, down, left, right) cells that are part of the island.</p>
+     * adjacent (up, down, left, right) cells that are part of the island. The stack is a
+     * growable {@code int[]} of (row, column) pairs, so no object is allocated per cell.</p>
      *
      * @param grid The grid map.
      * @param i The starting row index.
@@ -173,8 +177,10 @@ public class NumberOfIslands {
      */
     private void dfsIterative(char[][] grid, int i, int j, int m, int n) {
         // Initialize a stack for DFS
-        Stack<int[]> stack = new Stack<>();
-        stack.push(new int[]{i, j});
+        int[] stack = new int[32];
+        int top = 0;
+        stack[top++] = i;
+        stack[top++] = j;
         
         // Mark the starting cell as visited
         grid[i][j] = '0';
@@ -183,10 +189,9 @@ public class NumberOfIslands {
         int[][] directions = {{-1,0}, {1,0}, {0,-1}, {0,1}};
         
         // Iterate until the stack is empty
-        while (!stack.isEmpty()) {
-            int[] current = stack.pop();
-            int row = current[0];
-            int col = current[1];
+        while (top > 0) {
+            int col = stack[--top];
+            int row = stack[--top];
             
             // Explore all adjacent directions
             for (int[] dir : directions) {
@@ -195,13 +200,40 @@ public class NumberOfIslands {
                 
                 // Check boundaries and if the cell is land
                 if (newRow >= 0 && newRow < m && newCol >= 0 && newCol < n && grid[newRow][newCol] == '1') {
-                    stack.push(new int[]{newRow, newCol});
+                    if (top + 2 > stack.length) {
+                        stack = Arrays.copyOf(stack, 2 * stack.length);
+                    }
+                    stack[top++] = newRow;
+                    stack[top++] = newCol;
                     grid[newRow][newCol] = '0'; // Mark as visited
                 }
             }
         }
     }
     
+    /**
+     * Finds the number of islands in the grid by tiled parallel labeling.
+     *
+     * <p>Unlike the DFS methods, this leaves the grid unchanged. Use {@link IslandLabeling}
+     * directly for the size and bounding box of each island.</p>
+     *
+     * @param grid A rectangular 2D array representing the grid map where '1' is land and '0' is water.
+     * @return The number of distinct islands.
+     */
+    public int numIslandsTiled(char[][] grid) {
+        return IslandLabeling.label(grid).count();
+    }
+    
+    /**
+     * Finds the number of islands in a bit-packed grid by tiled parallel labeling.
+     *
+     * @param grid A grid where set cells are land. It is not modified.
+     * @return The number of distinct islands.
+     */
+    public int numIslandsTiled(BitGrid grid) {
+        return IslandLabeling.label(grid).count();
+    }
+    
     /**
      * The {@code main} method serves as an entry point to test the {@code NumberOfIslands} class.
      *
@@ -229,6 +261,7 @@ public class NumberOfIslands {
         };
         System.out.println("DFS Recursive Output (Example 1): " + solver.numIslandsDFSRecursive(cloneGrid(grid1))); // Output: 1
         System.out.println("DFS Iterative Output (Example 1): " + solver.numIslandsDFSIterative(cloneGrid(grid1))); // Output: 1
+        System.out.println("Tiled Output (Example 1): " + solver.numIslandsTiled(grid1)); // Output: 1
         
         // Example 2:
         // Input:
@@ -246,6 +279,8 @@ public class NumberOfIslands {
         };
         System.out.println("DFS Recursive Output (Example 2): " + solver.numIslandsDFSRecursive(cloneGrid(grid2))); // Output: 3
         System.out.println("DFS Iterative Output (Example 2): " + solver.numIslandsDFSIterative(cloneGrid(grid2))); // Output: 3
+        System.out.println("Tiled Output (Example 2): " + solver.numIslandsTiled(grid2)); // Output: 3
+        System.out.println("BitGrid Output (Example 2): " + solver.numIslandsTiled(BitGrid.of(grid2))); // Output: 3
         
         // Additional Example 3:
         // Input:
@@ -261,12 +296,14 @@ public class NumberOfIslands {
         };
         System.out.println("DFS Recursive Output (Example 3): " + solver.numIslandsDFSRecursive(cloneGrid(grid3))); // Output: 2
         System.out.println("DFS Iterative Output (Example 3): " + solver.numIslandsDFSIterative(cloneGrid(grid3))); // Output: 2
+        System.out.println("Tiled Output (Example 3): " + solver.numIslandsTiled(grid3)); // Output: 2
         
         // Edge Case Example 4:
         // Input: []
         char[][] grid4 = {};
         System.out.println("DFS Recursive Output (Example 4): " + solver.numIslandsDFSRecursive(cloneGrid(grid4))); // Output: 0
         System.out.println("DFS Iterative Output (Example 4): " + solver.numIslandsDFSIterative(cloneGrid(grid4))); // Output: 0
+        System.out.println("Tiled Output (Example 4): " + solver.numIslandsTiled(grid4)); // Output: 0
         
         // Edge Case Example 5:
         // Input:
@@ -278,6 +315,7 @@ public class NumberOfIslands {
         };
         System.out.println("DFS Recursive Output (Example 5): " + solver.numIslandsDFSRecursive(cloneGrid(grid5))); // Output: 0
         System.out.println("DFS Iterative Output (Example 5): " + solver.numIslandsDFSIterative(cloneGrid(grid5))); // Output: 0
+        System.out.println("Tiled Output (Example 5): " + solver.numIslandsTiled(grid5)); // Output: 0
         
         // Edge Case Example 6:
         // Input:
@@ -289,6 +327,7 @@ public class NumberOfIslands {
         };
         System.out.println("DFS Recursive Output (Example 6): " + solver.numIslandsDFSRecursive(cloneGrid(grid6))); // Output: 1
         System.out.println("DFS Iterative Output (Example 6): " + solver.numIslandsDFSIterative(cloneGrid(grid6))); // Output: 1
+        System.out.println("Tiled Output (Example 6): " + solver.numIslandsTiled(grid6)); // Output: 1
     }
     
     /**
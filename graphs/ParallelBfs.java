@@ -0,0 +1,339 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code ParallelBfs} class is a level-synchronous, direction-optimizing breadth-first search
+ * (Beamer, Asanović and Patterson) that runs each level on a {@link ForkJoinPool}.
+ *
+ * <p>Each level is expanded in one of two directions:</p>
+ * <ul>
+ *     <li><b>Top-down</b>: the frontier is a packed {@code int[]} queue split across workers. Every
+ *     worker scans the out-edges of its frontier vertices and claims unvisited neighbors with an
+ *     atomic OR on a shared visited bitset, so each vertex joins the next frontier exactly once.
+ *     Claimed vertices are buffered per task and appended to the next queue in blocks.</li>
+ *     <li><b>Bottom-up</b>: the frontier is a bitmap. Every worker owns a range of 64-vertex
+ *     bitset words and, for each unvisited vertex in it, scans its in-edges until it finds a
+ *     parent in the frontier. A vertex stops at its first hit, and because a worker owns whole
+ *     words no atomics are needed.</li>
+ * </ul>
+ *
+ * <p>Top-down is cheap while the frontier is small; once the edges leaving the frontier exceed
+ * 1/{@value #ALPHA} of the edges still unexplored, bottom-up touches far fewer edges, because most
+ * unvisited vertices find a parent after a few checks. The search switches back to top-down once
+ * the frontier is shrinking and holds fewer than V/{@value #BETA} vertices.</p>
+ *
+ * <p>Bottom-up steps need in-edges, so the engine takes the graph together with its transpose.
+ * For an undirected graph stored with both edge directions, the graph is its own transpose. An
+ * engine is immutable and may run many searches concurrently.</p>
+ *
+ * <p>Distances are identical to {@link GraphBfs}. Parents always form a valid BFS tree, but which
+ * of several equally short parents is chosen depends on scheduling.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * ParallelBfs bfs = new ParallelBfs(graph);          // computes graph.transpose() once
+ * int[] parents = new int[graph.vertexCount()];
+ * int[] dist = bfs.distances(0, parents);
+ * }</pre>
+ *
+ * <p><strong>Time Complexity:</strong> O(V + E) work, O(D) synchronized levels for diameter D.</p>
+ * <p><strong>Space Complexity:</strong> O(V) beyond the graph and its transpose.</p>
+ *
+ * @author
+ */
+public final class ParallelBfs {
+    // Switch to bottom-up when frontier edges exceed unexplored edges / ALPHA.
+    private static final int ALPHA = 14;
+    // Switch back to top-down when a shrinking frontier falls below V / BETA vertices.
+    private static final int BETA = 24;
+    // Frontier vertices per top-down task.
+    private static final int TOP_DOWN_GRAIN = 256;
+    // Bitset words (64 vertices each) per bottom-up task.
+    private static final int BOTTOM_UP_GRAIN = 64;
+    // Per-task buffer of newly claimed vertices, appended to the next frontier when full.
+    private static final int BLOCK = 1024;
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final IntGraph graph;
+    private final IntGraph incoming;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates an engine for a heap graph, building its transpose once.
+     *
+     * @param graph The graph to search.
+     */
+    public ParallelBfs(CsrGraph graph) {
+        this(graph, graph.transpose(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an engine that runs on the common pool.
+     *
+     * @param graph    The graph to search.
+     * @param incoming The transpose of {@code graph}; {@code graph} itself if it is undirected.
+     */
+    public ParallelBfs(IntGraph graph, IntGraph incoming) {
+        this(graph, incoming, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an engine.
+     *
+     * @param graph    The graph to search.
+     * @param incoming The transpose of {@code graph}; {@code graph} itself if it is undirected.
+     * @param pool     The pool that runs each level.
+     */
+    public ParallelBfs(IntGraph graph, IntGraph incoming, ForkJoinPool pool) {
+        if (graph.vertexCount() != incoming.vertexCount() || graph.edgeCount() != incoming.edgeCount()) {
+            throw new IllegalArgumentException("incoming is not the transpose of graph");
+        }
+        this.graph = graph;
+        this.incoming = incoming;
+        this.pool = Objects.requireNonNull(pool);
+    }
+
+    /**
+     * Computes the hop distance from {@code source} to every vertex.
+     *
+     * @param source The start vertex.
+     * @return An {@code int[]} of length V with the distance of each vertex, or -1 if unreachable.
+     */
+    public int[] distances(int source) {
+        return new Search(source, null).run();
+    }
+
+    /**
+     * Computes hop distances and a BFS tree from {@code source}.
+     *
+     * @param source  The start vertex.
+     * @param parents Filled with a BFS parent of each vertex, -1 for the source and unreachable vertices.
+     * @return An {@code int[]} of length V with the distance of each vertex, or -1 if unreachable.
+     */
+    public int[] distances(int source, int[] parents) {
+        if (parents.length < graph.vertexCount()) {
+            throw new IllegalArgumentException("parents is shorter than the vertex count");
+        }
+        return new Search(source, parents).run();
+    }
+
+    /**
+     * The state of one search. Arrays are written by tasks of the current level only, and the
+     * join at the end of each level publishes them to the next.
+     */
+    private final class Search {
+        final int n;
+        final int words;
+        final int[] dist;
+        final int[] parents;
+        final long[] visited;
+        int level;
+
+        // Top-down frontier and the next frontier being filled.
+        int[] queue;
+        int[] nextQueue;
+        int queueSize;
+        final AtomicInteger nextQueueSize = new AtomicInteger();
+
+        // Bottom-up frontier and the next frontier being filled; allocated on first use.
+        long[] bitmap;
+        long[] nextBitmap;
+
+        // Totals reported by the tasks of the current level.
+        final AtomicInteger nextCount = new AtomicInteger();
+        final AtomicLong nextEdges = new AtomicLong();
+
+        Search(int source, int[] parents) {
+            n = graph.vertexCount();
+            Objects.checkIndex(source, n);
+            words = (n + 63) >>> 6;
+            dist = new int[n];
+            Arrays.fill(dist, -1);                       // -1 means unreached
+            this.parents = parents;
+            if (parents != null) {
+                Arrays.fill(parents, 0, n, -1);
+            }
+            visited = new long[words];
+            if ((n & 63) != 0) {
+                visited[words - 1] = -1L << (n & 63);    // bits past V count as visited
+            }
+            queue = new int[n];
+            nextQueue = new int[n];
+            dist[source] = 0;
+            visited[source >>> 6] |= 1L << source;
+            queue[0] = source;
+            queueSize = 1;
+        }
+
+        int[] run() {
+            long frontierEdges = graph.edgeEnd(queue[0]) - graph.edgeStart(queue[0]);
+            long unexploredEdges = graph.edgeCount() - frontierEdges;
+            int frontierCount = 1;
+            boolean bottomUp = false;
+            while (frontierCount > 0) {
+                int previousCount = frontierCount;
+                if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+                    queueToBitmap();
+                    bottomUp = true;
+                }
+                nextCount.set(0);
+                nextEdges.set(0);
+                if (bottomUp) {
+                    ParallelRange.forRange(pool, 0, words, BOTTOM_UP_GRAIN, this::bottomUp);
+                    long[] swap = bitmap;
+                    bitmap = nextBitmap;
+                    nextBitmap = swap;
+                } else {
+                    nextQueueSize.set(0);
+                    ParallelRange.forRange(pool, 0, queueSize, TOP_DOWN_GRAIN, this::topDown);
+                    int[] swap = queue;
+                    queue = nextQueue;
+                    nextQueue = swap;
+                    queueSize = nextQueueSize.get();
+                }
+                level++;
+                frontierCount = nextCount.get();
+                frontierEdges = nextEdges.get();
+                unexploredEdges -= frontierEdges;
+                if (bottomUp && frontierCount < previousCount && frontierCount < n / BETA) {
+                    bitmapToQueue();
+                    bottomUp = false;
+                }
+            }
+            return dist;
+        }
+
+        // Expands frontier entries queue[lo..hi), claiming neighbors in the visited bitset.
+        void topDown(int lo, int hi) {
+            ParallelRange.Appender next = new ParallelRange.Appender(nextQueue, nextQueueSize, Math.min(BLOCK, n));
+            int count = 0;
+            long edges = 0;
+            int nextLevel = level + 1;
+            for (int i = lo; i < hi; i++) {
+                int u = queue[i];
+                for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    int v = graph.target(e);
+                    long bit = 1L << v;
+                    // Plain read first: most neighbors are already visited and need no atomic.
+                    if ((visited[v >>> 6] & bit) != 0
+                            || ((long) WORDS.getAndBitwiseOr(visited, v >>> 6, bit) & bit) != 0) {
+                        continue;
+                    }
+                    dist[v] = nextLevel;
+                    if (parents != null) parents[v] = u;
+                    edges += graph.edgeEnd(v) - graph.edgeStart(v);
+                    next.add(v);
+                    count++;
+                }
+            }
+            next.flush();
+            nextCount.addAndGet(count);
+            nextEdges.addAndGet(edges);
+        }
+
+        // Finds parents in the frontier bitmap for unvisited vertices in bitset words [lo, hi).
+        void bottomUp(int lo, int hi) {
+            int count = 0;
+            long edges = 0;
+            int nextLevel = level + 1;
+            for (int w = lo; w < hi; w++) {
+                long found = 0;
+                long unvisited = ~visited[w];
+                while (unvisited != 0) {
+                    int bit = Long.numberOfTrailingZeros(unvisited);
+                    unvisited &= unvisited - 1;
+                    int v = (w << 6) + bit;
+                    for (int e = incoming.edgeStart(v), end = incoming.edgeEnd(v); e < end; e++) {
+                        int u = incoming.target(e);
+                        if ((bitmap[u >>> 6] & (1L << u)) != 0) {
+                            dist[v] = nextLevel;
+                            if (parents != null) parents[v] = u;
+                            found |= 1L << bit;
+                            count++;
+                            edges += graph.edgeEnd(v) - graph.edgeStart(v);
+                            break;
+                        }
+                    }
+                }
+                // This task owns word w of both bitsets, so plain writes are safe.
+                visited[w] |= found;
+                nextBitmap[w] = found;
+            }
+            nextCount.addAndGet(count);
+            nextEdges.addAndGet(edges);
+        }
+
+        private void queueToBitmap() {
+            if (bitmap == null) {
+                bitmap = new long[words];
+                nextBitmap = new long[words];
+            } else {
+                Arrays.fill(bitmap, 0);
+            }
+            for (int i = 0; i < queueSize; i++) {
+                int v = queue[i];
+                bitmap[v >>> 6] |= 1L << v;
+            }
+        }
+
+        private void bitmapToQueue() {
+            int size = 0;
+            for (int w = 0; w < words; w++) {
+                for (long bits = bitmap[w]; bits != 0; bits &= bits - 1) {
+                    queue[size++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                }
+            }
+            queueSize = size;
+        }
+    }
+
+    /**
+     * The {@code main} method compares {@code ParallelBfs} with the sequential {@link GraphBfs} on
+     * a random undirected graph and checks that distances match and parents form a BFS tree.
+     *
+     * @param args Optional: vertex count and average degree.
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 20;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+
+        Random random = new Random(11);
+        CsrGraph.Builder builder = CsrGraph.builder(n);
+        for (long i = 0, m = (long) n * degree / 2; i < m; i++) {
+            builder.addUndirectedEdge(random.nextInt(n), random.nextInt(n));
+        }
+        CsrGraph graph = builder.build();
+        ParallelBfs bfs = new ParallelBfs(graph, graph);  // undirected: its own transpose
+        System.out.printf("V=%d E=%d, %d workers%n", n, graph.edgeCount(), ForkJoinPool.commonPool().getParallelism());
+
+        int[] expected = null;
+        int[] actual = null;
+        int[] parents = new int[n];
+        for (int round = 0; round < 5; round++) {
+            long t0 = System.nanoTime();
+            expected = GraphBfs.distances(graph, 0);
+            long t1 = System.nanoTime();
+            actual = bfs.distances(0, parents);
+            long t2 = System.nanoTime();
+            System.out.printf("sequential %.1f ms, parallel %.1f ms%n", (t1 - t0) / 1e6, (t2 - t1) / 1e6);
+        }
+
+        boolean treeOk = parents[0] == -1;
+        for (int v = 1; v < n && treeOk; v++) {
+            int p = parents[v];
+            treeOk = actual[v] == -1 ? p == -1 : p >= 0 && actual[p] == actual[v] - 1;
+        }
+        System.out.println("Distances match: " + Arrays.equals(expected, actual)); // true
+        System.out.println("Parents form a BFS tree: " + treeOk);                  // true
+
+        CsrGraph small = CsrGraph.builder(5).addEdge(0, 1).addEdge(1, 2).addEdge(0, 3).addEdge(4, 0).build();
+        System.out.println("Directed: " + Arrays.toString(new ParallelBfs(small).distances(0))); // [0, 1, 2, 1, -1]
+    }
+}
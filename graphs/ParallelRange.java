@@ -0,0 +1,114 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code ParallelRange} class runs a loop body over an index range on a {@link ForkJoinPool},
+ * splitting the range in halves until each piece is at most {@code grain} long. It is the shared
+ * fork-join driver for the level-synchronous graph algorithms in this package.
+ *
+ * <p>A range no longer than one grain runs directly in the calling thread, so the small levels
+ * that dominate the start and end of a BFS or Kahn sweep pay no scheduling cost. When called from
+ * a task already running in the pool, the range is forked in place instead of being submitted, so
+ * recursive algorithms can nest parallel loops.</p>
+ *
+ * @author
+ */
+final class ParallelRange {
+
+    private ParallelRange() {
+    }
+
+    /**
+     * A loop body over the half-open range {@code [lo, hi)}.
+     */
+    @FunctionalInterface
+    interface Body {
+        void run(int lo, int hi);
+    }
+
+    /**
+     * Runs {@code body} over {@code [lo, hi)} and returns when every piece has finished. Writes made
+     * by the pieces are visible to the caller afterwards.
+     *
+     * @param pool  The pool that runs the pieces.
+     * @param lo    The first index.
+     * @param hi    One past the last index.
+     * @param grain The largest piece run as one task.
+     * @param body  The loop body.
+     */
+    static void forRange(ForkJoinPool pool, int lo, int hi, int grain, Body body) {
+        if (hi - lo <= grain) {
+            body.run(lo, hi);
+            return;
+        }
+        RangeTask task = new RangeTask(lo, hi, grain, body);
+        Thread current = Thread.currentThread();
+        if (current instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) current).getPool() == pool) {
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    /**
+     * The {@code Appender} class collects the output of one task and reserves space in a shared
+     * array a block at a time, so the shared tail counter is touched once per block rather than
+     * once per element. The order of elements from different tasks is unspecified.
+     */
+    static final class Appender {
+        private final int[] target;
+        private final AtomicInteger tail;
+        private final int[] block;
+        private int size;
+
+        Appender(int[] target, AtomicInteger tail, int blockSize) {
+            this.target = target;
+            this.tail = tail;
+            this.block = new int[blockSize];
+        }
+
+        void add(int value) {
+            block[size++] = value;
+            if (size == block.length) {
+                flush();
+            }
+        }
+
+        /**
+         * Copies any buffered elements to the shared array. Must be called before the task ends.
+         */
+        void flush() {
+            if (size > 0) {
+                System.arraycopy(block, 0, target, tail.getAndAdd(size), size);
+                size = 0;
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class RangeTask extends RecursiveAction {
+        private final int lo;
+        private final int hi;
+        private final int grain;
+        private final Body body;
+
+        RangeTask(int lo, int hi, int grain, Body body) {
+            this.lo = lo;
+            this.hi = hi;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= grain) {
+                body.run(lo, hi);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new RangeTask(lo, mid, grain, body), new RangeTask(mid, hi, grain, body));
+        }
+    }
+}
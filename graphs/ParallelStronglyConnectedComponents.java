@@ -0,0 +1,450 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * The {@code ParallelStronglyConnectedComponents} class decomposes a directed graph into strongly
+ * connected components on a {@link ForkJoinPool}, for graphs too large for the sequential
+ * {@link StronglyConnectedComponents}.
+ *
+ * <p>The decomposition runs in three phases:</p>
+ * <ol>
+ *     <li><b>Trim-1</b>: a vertex with no remaining in-edges or no remaining out-edges is a
+ *     component by itself. Remaining in- and out-degrees are kept in {@link AtomicIntegerArray}s
+ *     and trimming is propagated level by level like a parallel Kahn sweep, so whole chains and
+ *     trees are peeled off in O(V + E) work. In typical sparse graphs this removes most vertices.</li>
+ *     <li><b>Trim-2</b>: two vertices that are each other's only remaining in-neighbor (or only
+ *     out-neighbor) form a component of size two.</li>
+ *     <li><b>Forward-backward</b>: pick a pivot, mark everything it reaches (forward) and everything
+ *     that reaches it (backward) with two parallel BFS sweeps. The intersection is the pivot's
+ *     component, and the three remaining sets (forward only, backward only, neither) cannot share a
+ *     component, so they are processed recursively as independent fork-join tasks. Sets no larger
+ *     than {@value #SEQUENTIAL_LIMIT} vertices finish with an iterative Tarjan pass restricted to
+ *     the set.</li>
+ * </ol>
+ *
+ * <p>Sets are told apart by a color per vertex, claimed with compare-and-set during the sweeps.
+ * Each component is labeled with its smallest vertex, so the result is deterministic and equals
+ * {@link StronglyConnectedComponents#representatives()} for the same graph.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * int[] labels = ParallelStronglyConnectedComponents.representatives(graph);
+ * boolean sameComponent = labels[u] == labels[v];
+ * }</pre>
+ *
+ * <p><strong>Time Complexity:</strong> O(V + E) for the trims; forward-backward is O((V + E) log V)
+ * expected work with a random-like pivot choice.</p>
+ * <p><strong>Space Complexity:</strong> O(V) beyond the graph and its transpose.</p>
+ *
+ * @author
+ */
+public final class ParallelStronglyConnectedComponents {
+    // Sets at most this large are finished with a sequential Tarjan pass.
+    static final int SEQUENTIAL_LIMIT = 1 << 14;
+    // Vertices per task in parallel loops.
+    private static final int GRAIN = 1024;
+    // Per-task output buffer size.
+    private static final int BLOCK = 1024;
+    private static final int UNASSIGNED = -1;
+    // Trimmed vertices keep color 0; the set left after trimming starts with this color.
+    private static final int FIRST_COLOR = 1;
+
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final IntGraph graph;
+    private final IntGraph incoming;
+    private final ForkJoinPool pool;
+    private final int n;
+    // Result: the smallest vertex of each vertex's component, or UNASSIGNED.
+    private final int[] label;
+    // Set membership during forward-backward.
+    private final int[] color;
+    private final AtomicInteger nextColor = new AtomicInteger(FIRST_COLOR + 1);
+    // Tarjan scratch, shared because every vertex belongs to at most one set at a time.
+    private final int[] index;
+    private final int[] low;
+    private final int[] cursor;
+
+    private ParallelStronglyConnectedComponents(IntGraph graph, IntGraph incoming, ForkJoinPool pool) {
+        if (graph.vertexCount() != incoming.vertexCount() || graph.edgeCount() != incoming.edgeCount()) {
+            throw new IllegalArgumentException("incoming is not the transpose of graph");
+        }
+        this.graph = graph;
+        this.incoming = incoming;
+        this.pool = Objects.requireNonNull(pool);
+        this.n = graph.vertexCount();
+        this.label = new int[n];
+        Arrays.fill(label, UNASSIGNED);
+        this.color = new int[n];
+        this.index = new int[n];
+        this.low = new int[n];
+        this.cursor = new int[n];
+    }
+
+    /**
+     * Computes the components of a heap graph on the common pool, building its transpose first.
+     *
+     * @param graph The graph.
+     * @return An {@code int[]} of length V with the smallest vertex of each vertex's component.
+     */
+    public static int[] representatives(CsrGraph graph) {
+        return representatives(graph, graph.transpose(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the components of a graph.
+     *
+     * @param graph    The graph, on the heap or memory-mapped.
+     * @param incoming The transpose of {@code graph}.
+     * @param pool     The pool to run on.
+     * @return An {@code int[]} of length V with the smallest vertex of each vertex's component.
+     */
+    public static int[] representatives(IntGraph graph, IntGraph incoming, ForkJoinPool pool) {
+        ParallelStronglyConnectedComponents scc = new ParallelStronglyConnectedComponents(graph, incoming, pool);
+        scc.trim1();
+        scc.trim2();
+        int[] rest = scc.unassigned();
+        if (rest.length > 0) {
+            pool.invoke(scc.new ForwardBackward(FIRST_COLOR, rest));
+        }
+        return scc.label;
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////             Trimming            /////////////
+    ///////////////////////////////////////////////////////
+    // Peels off vertices without remaining in-edges or out-edges until none are left.
+    private void trim1() {
+        AtomicIntegerArray inDegree = new AtomicIntegerArray(n);
+        AtomicIntegerArray outDegree = new AtomicIntegerArray(n);
+        ParallelRange.forRange(pool, 0, n, GRAIN, (lo, hi) -> {
+            for (int v = lo; v < hi; v++) {
+                inDegree.set(v, incoming.edgeEnd(v) - incoming.edgeStart(v));
+                outDegree.set(v, graph.edgeEnd(v) - graph.edgeStart(v));
+            }
+        });
+        int[] seeds = new int[n];
+        AtomicInteger tail = new AtomicInteger();
+        ParallelRange.forRange(pool, 0, n, GRAIN, (lo, hi) -> {
+            ParallelRange.Appender out = new ParallelRange.Appender(seeds, tail, BLOCK);
+            for (int v = lo; v < hi; v++) {
+                if ((inDegree.get(v) == 0 || outDegree.get(v) == 0) && claim(v)) {
+                    out.add(v);
+                }
+            }
+            out.flush();
+        });
+        int[] frontier = seeds;
+        int[] next = new int[n];
+        int size = tail.get();
+        while (size > 0) {
+            tail.set(0);
+            int[] from = frontier;
+            int[] to = next;
+            ParallelRange.forRange(pool, 0, size, GRAIN, (lo, hi) -> {
+                ParallelRange.Appender out = new ParallelRange.Appender(to, tail, BLOCK);
+                for (int i = lo; i < hi; i++) {
+                    int v = from[i];
+                    // v is gone: its out-neighbors lose an in-edge and its in-neighbors an out-edge.
+                    for (int e = graph.edgeStart(v), end = graph.edgeEnd(v); e < end; e++) {
+                        int w = graph.target(e);
+                        if (inDegree.decrementAndGet(w) == 0 && claim(w)) {
+                            out.add(w);
+                        }
+                    }
+                    for (int e = incoming.edgeStart(v), end = incoming.edgeEnd(v); e < end; e++) {
+                        int u = incoming.target(e);
+                        if (outDegree.decrementAndGet(u) == 0 && claim(u)) {
+                            out.add(u);
+                        }
+                    }
+                }
+                out.flush();
+            });
+            size = tail.get();
+            frontier = to;
+            next = from;
+        }
+    }
+
+    // Labels v as a singleton component unless another task already has.
+    private boolean claim(int v) {
+        return INTS.compareAndSet(label, v, UNASSIGNED, v);
+    }
+
+    // Finds pairs that are each other's only remaining in-neighbor or only remaining out-neighbor.
+    private void trim2() {
+        ParallelRange.forRange(pool, 0, n, GRAIN, (lo, hi) -> {
+            for (int v = lo; v < hi; v++) {
+                if (label[v] != UNASSIGNED) {
+                    continue;
+                }
+                int w = soleNeighbor(incoming, v);
+                if (w > v && soleNeighbor(incoming, w) == v) {
+                    label[v] = v;
+                    label[w] = v;
+                    continue;
+                }
+                w = soleNeighbor(graph, v);
+                if (w > v && soleNeighbor(graph, w) == v) {
+                    label[v] = v;
+                    label[w] = v;
+                }
+            }
+        });
+    }
+
+    // The only unassigned neighbor of v other than v itself, or -1 if there are none or several.
+    private int soleNeighbor(IntGraph g, int v) {
+        int found = -1;
+        for (int e = g.edgeStart(v), end = g.edgeEnd(v); e < end; e++) {
+            int w = g.target(e);
+            if (label[w] != UNASSIGNED || w == found) {
+                continue;
+            }
+            if (found != -1 || w == v) {
+                return -1;          // a second neighbor, or a self-loop that keeps v apart
+            }
+            found = w;
+        }
+        return found;
+    }
+
+    // Collects the vertices left after trimming and gives them the first set color.
+    private int[] unassigned() {
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            if (label[v] == UNASSIGNED) count++;
+        }
+        int[] rest = new int[count];
+        for (int v = 0, i = 0; v < n; v++) {
+            if (label[v] == UNASSIGNED) {
+                rest[i++] = v;
+                color[v] = FIRST_COLOR;
+            }
+        }
+        return rest;
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////         Forward-Backward        /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Splits one set of vertices, all colored {@code setColor}, around a pivot's component.
+     */
+    @SuppressWarnings("serial")
+    private final class ForwardBackward extends RecursiveAction {
+        private final int setColor;
+        private final int[] members;
+
+        ForwardBackward(int setColor, int[] members) {
+            this.setColor = setColor;
+            this.members = members;
+        }
+
+        @Override
+        protected void compute() {
+            if (members.length <= SEQUENTIAL_LIMIT) {
+                tarjan(setColor, members);
+                return;
+            }
+            int pivot = pivot();
+            int forward = nextColor.getAndIncrement();
+            int backward = nextColor.getAndIncrement();
+            int both = nextColor.getAndIncrement();
+
+            // Forward sweep: setColor -> forward for everything the pivot reaches.
+            color[pivot] = forward;
+            sweep(graph, pivot, setColor, forward, -1, -1);
+            // Backward sweep: forward -> both (the pivot's component), setColor -> backward.
+            color[pivot] = both;
+            sweep(incoming, pivot, setColor, backward, forward, both);
+
+            int forwardCount = 0, backwardCount = 0, restCount = 0, componentMin = Integer.MAX_VALUE;
+            for (int v : members) {
+                int c = color[v];
+                if (c == forward) forwardCount++;
+                else if (c == backward) backwardCount++;
+                else if (c == setColor) restCount++;
+                else componentMin = Math.min(componentMin, v);
+            }
+            int[] forwardSet = new int[forwardCount];
+            int[] backwardSet = new int[backwardCount];
+            int[] restSet = new int[restCount];
+            forwardCount = backwardCount = restCount = 0;
+            for (int v : members) {
+                int c = color[v];
+                if (c == forward) forwardSet[forwardCount++] = v;
+                else if (c == backward) backwardSet[backwardCount++] = v;
+                else if (c == setColor) restSet[restCount++] = v;
+                else label[v] = componentMin;
+            }
+            invokeAll(new ForwardBackward(forward, forwardSet),
+                    new ForwardBackward(backward, backwardSet),
+                    new ForwardBackward(setColor, restSet));
+        }
+
+        // The member with the largest in-degree x out-degree is likely in a large component.
+        private int pivot() {
+            int best = members[0];
+            long bestScore = -1;
+            for (int v : members) {
+                long score = (long) (graph.edgeEnd(v) - graph.edgeStart(v)) * (incoming.edgeEnd(v) - incoming.edgeStart(v));
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = v;
+                }
+            }
+            return best;
+        }
+
+        // Level-synchronous BFS over g from source that recolors `from` to `to` and, if `from2`
+        // is not -1, also `from2` to `to2`. Every recolored vertex is expanded.
+        private void sweep(IntGraph g, int source, int from, int to, int from2, int to2) {
+            int[] frontier = new int[members.length];
+            int[] next = new int[members.length];
+            AtomicInteger tail = new AtomicInteger();
+            frontier[0] = source;
+            int size = 1;
+            while (size > 0) {
+                tail.set(0);
+                int[] current = frontier;
+                int[] output = next;
+                ParallelRange.forRange(pool, 0, size, GRAIN, (lo, hi) -> {
+                    ParallelRange.Appender out = new ParallelRange.Appender(output, tail, BLOCK);
+                    for (int i = lo; i < hi; i++) {
+                        int u = current[i];
+                        for (int e = g.edgeStart(u), end = g.edgeEnd(u); e < end; e++) {
+                            int w = g.target(e);
+                            int c = color[w];
+                            if ((c == from && INTS.compareAndSet(color, w, from, to))
+                                    || (c == from2 && INTS.compareAndSet(color, w, from2, to2))) {
+                                out.add(w);
+                            }
+                        }
+                    }
+                    out.flush();
+                });
+                size = tail.get();
+                frontier = output;
+                next = current;
+            }
+        }
+    }
+
+    // Iterative Tarjan restricted to the vertices colored setColor; see StronglyConnectedComponents.
+    private void tarjan(int setColor, int[] members) {
+        int[] stack = new int[members.length];
+        int[] callStack = new int[members.length];
+        int sp = 0;
+        int counter = 0;
+        for (int v : members) {
+            index[v] = 0;
+        }
+        for (int root : members) {
+            if (index[root] != 0) {
+                continue;
+            }
+            int csp = 0;
+            index[root] = low[root] = ++counter;
+            cursor[root] = graph.edgeStart(root);
+            stack[sp++] = root;
+            callStack[csp++] = root;
+            while (csp > 0) {
+                int v = callStack[csp - 1];
+                if (cursor[v] < graph.edgeEnd(v)) {
+                    int w = graph.target(cursor[v]++);
+                    if (color[w] != setColor) {
+                        continue;       // outside this set
+                    }
+                    if (index[w] == 0) {
+                        index[w] = low[w] = ++counter;
+                        cursor[w] = graph.edgeStart(w);
+                        stack[sp++] = w;
+                        callStack[csp++] = w;
+                    } else if (label[w] == UNASSIGNED) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+                csp--;
+                if (low[v] == index[v]) {
+                    int min = v;
+                    for (int i = sp - 1; stack[i] != v; i--) {
+                        min = Math.min(min, stack[i]);
+                    }
+                    int w;
+                    do {
+                        w = stack[--sp];
+                        label[w] = min;
+                    } while (w != v);
+                }
+                if (csp > 0) {
+                    int parent = callStack[csp - 1];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+            }
+        }
+    }
+
+    /**
+     * The {@code main} method checks the parallel decomposition against the sequential Tarjan
+     * reference on random graphs of several shapes and reports timings.
+     *
+     * @param args Optional: vertex count and average out-degree for the large run.
+     */
+    public static void main(String[] args) {
+        CsrGraph small = CsrGraph.builder(8)
+                .addEdge(0, 1).addEdge(1, 2).addEdge(2, 0)
+                .addEdge(2, 3).addEdge(3, 4).addEdge(4, 3)
+                .addEdge(4, 5).addEdge(6, 5).addEdge(5, 7)
+                .build();
+        System.out.println("Small: " + Arrays.toString(representatives(small))); // [0, 0, 0, 3, 3, 5, 6, 7]
+
+        boolean allMatch = true;
+        Random random = new Random(17);
+        for (int trial = 0; trial < 20; trial++) {
+            int n = 1 + random.nextInt(50_000);
+            double degree = 0.5 + random.nextDouble() * 3;
+            CsrGraph g = randomGraph(n, (long) (n * degree), random);
+            allMatch &= Arrays.equals(StronglyConnectedComponents.of(g).representatives(), representatives(g));
+        }
+        System.out.println("20 random graphs match sequential Tarjan: " + allMatch); // true
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        CsrGraph g = randomGraph(n, (long) n * degree, random);
+        CsrGraph transpose = g.transpose();
+        for (int round = 0; round < 3; round++) {
+            long t0 = System.nanoTime();
+            int[] expected = StronglyConnectedComponents.of(g).representatives();
+            long t1 = System.nanoTime();
+            int[] actual = representatives(g, transpose, ForkJoinPool.commonPool());
+            long t2 = System.nanoTime();
+            System.out.printf("V=%d E=%d: sequential %.1f ms, parallel %.1f ms, match %b%n",
+                    n, g.edgeCount(), (t1 - t0) / 1e6, (t2 - t1) / 1e6, Arrays.equals(expected, actual));
+        }
+    }
+
+    // A random graph with a power-law-ish degree skew plus some planted short cycles.
+    private static CsrGraph randomGraph(int n, long m, Random random) {
+        CsrGraph.Builder builder = CsrGraph.builder(n);
+        for (long i = 0; i < m; i++) {
+            int u = (int) (n * Math.pow(random.nextDouble(), 2));
+            builder.addEdge(u, random.nextInt(n));
+        }
+        for (int i = 0; i < n / 20; i++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            builder.addEdge(u, v).addEdge(v, u);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,236 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * The {@code ParallelTopologicalSort} class runs Kahn's Algorithm one wave at a time on a
+ * {@link ForkJoinPool}, producing a topological order together with the wave of every vertex.
+ *
+ * <p>Wave 0 holds the vertices with no incoming edges; wave {@code k + 1} holds the vertices whose
+ * last remaining predecessor is in wave {@code k}, so a vertex's wave is the length of the longest
+ * path that ends at it. All vertices of one wave are independent of each other, which is exactly
+ * the schedule a parallel executor needs: run wave 0, then wave 1, and so on.</p>
+ *
+ * <p>In-degrees are held in an {@link AtomicIntegerArray}. The vertices of the current wave are
+ * split across fork-join tasks; each task decrements the in-degrees of its out-neighbors, and the
+ * task whose decrement reaches zero appends that vertex to the next wave. Appends are buffered
+ * per task and reserved in blocks, so the shared tail counter is touched once per block rather
+ * than once per vertex.</p>
+ *
+ * <p>The order is grouped by wave. Within a wave, vertices appear in scheduling order, which may
+ * differ between runs; the waves themselves are deterministic.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * ParallelTopologicalSort.Waves waves = ParallelTopologicalSort.waves(graph);
+ * if (waves == null) { ... cycle ... }
+ * for (int w = 0; w < waves.waveCount(); w++) {
+ *     for (int i = waves.waveStart(w); i < waves.waveEnd(w); i++) {
+ *         submit(waves.order()[i]);              // every task in wave w can run concurrently
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p><strong>Time Complexity:</strong> O(V + E) work, O(L) synchronized waves for L waves.</p>
+ * <p><strong>Space Complexity:</strong> O(V).</p>
+ *
+ * @author
+ */
+public final class ParallelTopologicalSort {
+    // Vertices per task when scanning all vertices or processing a wave.
+    private static final int GRAIN = 1024;
+    // Per-task buffer of ready vertices, appended to the order when full.
+    private static final int BLOCK = 1024;
+
+    private ParallelTopologicalSort() {
+    }
+
+    /**
+     * Computes the waves of a DAG on the common pool.
+     *
+     * @param graph The graph to sort, on the heap or memory-mapped.
+     * @return The waves, or {@code null} if the graph contains a cycle.
+     */
+    public static Waves waves(IntGraph graph) {
+        return waves(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the waves of a DAG.
+     *
+     * @param graph The graph to sort, on the heap or memory-mapped.
+     * @param pool  The pool that runs each wave.
+     * @return The waves, or {@code null} if the graph contains a cycle.
+     */
+    public static Waves waves(IntGraph graph, ForkJoinPool pool) {
+        int n = graph.vertexCount();
+        AtomicIntegerArray inDegree = new AtomicIntegerArray(n);
+        ParallelRange.forRange(pool, 0, n, GRAIN, (lo, hi) -> {
+            for (int u = lo; u < hi; u++) {
+                for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    inDegree.incrementAndGet(graph.target(e));
+                }
+            }
+        });
+
+        int[] order = new int[n];
+        int[] level = new int[n];
+        AtomicInteger tail = new AtomicInteger();
+        int[] starts = new int[16];
+
+        // Wave 0: every vertex with in-degree 0.
+        ParallelRange.forRange(pool, 0, n, GRAIN, (lo, hi) -> {
+            ParallelRange.Appender ready = new ParallelRange.Appender(order, tail, BLOCK);
+            for (int v = lo; v < hi; v++) {
+                if (inDegree.get(v) == 0) {
+                    ready.add(v);
+                }
+            }
+            ready.flush();
+        });
+
+        int waveCount = 0;
+        int head = 0;
+        while (head < tail.get()) {
+            int waveEnd = tail.get();
+            int nextWave = waveCount + 1;
+            if (waveCount + 1 >= starts.length) {
+                starts = Arrays.copyOf(starts, starts.length * 2);
+            }
+            starts[waveCount++] = head;
+            ParallelRange.forRange(pool, head, waveEnd, GRAIN, (lo, hi) -> {
+                ParallelRange.Appender ready = new ParallelRange.Appender(order, tail, BLOCK);
+                for (int i = lo; i < hi; i++) {
+                    int u = order[i];
+                    for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                        int v = graph.target(e);
+                        // Exactly one task sees the count reach zero and owns v from then on.
+                        if (inDegree.decrementAndGet(v) == 0) {
+                            level[v] = nextWave;
+                            ready.add(v);
+                        }
+                    }
+                }
+                ready.flush();
+            });
+            head = waveEnd;
+        }
+        starts[waveCount] = head;
+
+        // Vertices never appended lie on or behind a cycle.
+        return head == n ? new Waves(order, level, Arrays.copyOf(starts, waveCount + 1)) : null;
+    }
+
+    /**
+     * The {@code Waves} class is a topological order grouped into waves of mutually independent
+     * vertices. Wave {@code w} occupies {@code order()[waveStart(w) .. waveEnd(w))}.
+     */
+    public static final class Waves {
+        private final int[] order;
+        private final int[] level;
+        private final int[] starts;
+
+        Waves(int[] order, int[] level, int[] starts) {
+            this.order = order;
+            this.level = level;
+            this.starts = starts;
+        }
+
+        /**
+         * @return All vertices in topological order, grouped by wave. The array is not copied.
+         */
+        public int[] order() {
+            return order;
+        }
+
+        /**
+         * @param v A vertex.
+         * @return The wave of {@code v}: the number of edges on the longest path ending at it.
+         */
+        public int level(int v) {
+            return level[v];
+        }
+
+        /**
+         * @return The number of waves, which is the number of vertices on the longest path.
+         */
+        public int waveCount() {
+            return starts.length - 1;
+        }
+
+        /**
+         * @param wave A wave index.
+         * @return The index in {@link #order()} of the first vertex of the wave.
+         */
+        public int waveStart(int wave) {
+            return starts[wave];
+        }
+
+        /**
+         * @param wave A wave index.
+         * @return One past the index in {@link #order()} of the last vertex of the wave.
+         */
+        public int waveEnd(int wave) {
+            return starts[wave + 1];
+        }
+
+        /**
+         * @param wave A wave index.
+         * @return A copy of the vertices in the wave.
+         */
+        public int[] wave(int wave) {
+            return Arrays.copyOfRange(order, starts[wave], starts[wave + 1]);
+        }
+    }
+
+    /**
+     * The {@code main} method prints the waves of a small DAG and compares the parallel sort with
+     * the sequential {@link TopologicalSortGraph#topologicalOrder(IntGraph)} on a large random DAG.
+     *
+     * @param args Optional: vertex count and average out-degree.
+     */
+    public static void main(String[] args) {
+        CsrGraph small = CsrGraph.builder(6)
+                .addEdge(5, 2).addEdge(5, 0).addEdge(4, 0).addEdge(4, 1).addEdge(2, 3).addEdge(3, 1)
+                .build();
+        Waves smallWaves = waves(small);
+        for (int w = 0; w < smallWaves.waveCount(); w++) {
+            int[] wave = smallWaves.wave(w);
+            Arrays.sort(wave);
+            System.out.println("Wave " + w + ": " + Arrays.toString(wave)); // [4, 5], [0, 2], [3], [1]
+        }
+        CsrGraph cyclic = CsrGraph.builder(3).addEdge(0, 1).addEdge(1, 2).addEdge(2, 0).build();
+        System.out.println("Cyclic graph: " + waves(cyclic)); // null
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        Random random = new Random(3);
+        CsrGraph.Builder builder = CsrGraph.builder(n);
+        for (int u = 0; u < n - 1; u++) {
+            for (int k = 0; k < degree; k++) {
+                builder.addEdge(u, u + 1 + random.nextInt(Math.min(n - u - 1, 100_000)));
+            }
+        }
+        CsrGraph graph = builder.build();
+
+        Waves waves = null;
+        for (int round = 0; round < 5; round++) {
+            long t0 = System.nanoTime();
+            TopologicalSortGraph.topologicalOrder(graph);
+            long t1 = System.nanoTime();
+            waves = waves(graph);
+            long t2 = System.nanoTime();
+            System.out.printf("sequential %.1f ms, parallel %.1f ms%n", (t1 - t0) / 1e6, (t2 - t1) / 1e6);
+        }
+
+        boolean valid = true;
+        for (int u = 0; u < n && valid; u++) {
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                valid &= waves.level(u) < waves.level(graph.target(e));
+            }
+        }
+        System.out.println(waves.waveCount() + " waves, every edge goes to a later wave: " + valid); // true
+    }
+}
@@ -0,0 +1,575 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The {@code RollingMaze} class answers many queries about a ball rolling in one maze (see
+ * {@link Maze}): whether it can stop at a destination, in how few rolls, and the shortest total
+ * rolling distance with the stops along the way.
+ *
+ * <p>The maze is a {@link BitGrid} with walls set, and the engine is built once per maze:</p>
+ * <ul>
+ *     <li><strong>Rolls are word scans.</strong> Rolling east or west finds the next wall in the
+ *     row with {@link BitGrid#nextSetInRow(int, int)}/{@link BitGrid#previousSetInRow(int, int)},
+ *     skipping 64 open cells per step; rolling north or south does the same in a transposed copy of
+ *     the maze.</li>
+ *     <li><strong>Stop cells get compact ids.</strong> A ball only ever stops on an open cell with a
+ *     wall or the border on some side, the open cells minus the erosion of the open cells. Those
+ *     are ranked by a prefix popcount per word, so the Dijkstra arrays hold one slot per stop cell
+ *     (plus one for the start) rather than one per cell.</li>
+ * </ul>
+ *
+ * <p>Per query, nothing proportional to the maze is touched or allocated:</p>
+ * <ul>
+ *     <li>{@link #rolls(int, int, int, int)} is a bidirectional, level-by-level BFS. Each side has a
+ *     primitive ring-buffer queue of cell ids and a flat visited bitset, and only the span of
+ *     bitset words a side touched is cleared afterwards. The backward side reverses a roll by
+ *     taking the stop cells of the open run behind a cell that has a wall ahead, one word scan of
+ *     {@code stops} or its transpose. Expanding the smaller frontier matters most when the
+ *     destination is unreachable: a cell few rolls can end on exhausts its side within a few
+ *     levels, where a one-sided search would sweep the whole component.</li>
+ *     <li>{@link #distance(int, int, int, int)} and {@link #path(int, int, int, int)} first ask the
+ *     BFS whether the destination is reachable, then run Dijkstra over stop cells with an
+ *     {@link IndexedMinHeap}, epoch-stamped distances and parents, and edges of roll length, its
+ *     keys raised by the Manhattan distance to the destination (a consistent lower bound, so this
+ *     is A*). They stop once the destination is settled.</li>
+ * </ul>
+ *
+ * <p>The arrays for Dijkstra are allocated on its first use. An engine is not thread-safe;
+ * use one per thread, and they may share the {@code BitGrid}.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * RollingMaze maze = new RollingMaze(BitGrid.of(grid));   // 1 = wall
+ * maze.reachable(0, 4, 4, 4);      // true
+ * maze.rolls(0, 4, 4, 4);          // fewest rolls
+ * maze.distance(0, 4, 4, 4);       // 12, open cells passed
+ * maze.path(0, 4, 4, 4);           // {{0,4}, {0,3}, {1,3}, ...}: where the ball stops
+ * }</pre>
+ *
+ * <p><strong>Time Complexity:</strong> O(R * C / 64) to build; per query O(S) rolls for BFS and
+ * O(S log S) for Dijkstra over the S stop cells reached, each roll O(1 + length / 64), with S far
+ * below the component size in practice.</p>
+ * <p><strong>Space Complexity:</strong> O(R * C / 64) words plus 28 bytes per stop cell for Dijkstra.</p>
+ *
+ * @author
+ */
+public final class RollingMaze {
+    /** Returned by {@link #rolls} and {@link #distance} when the ball cannot stop at the destination. */
+    public static final int UNREACHABLE = -1;
+
+    private final BitGrid walls;
+    private final BitGrid columns;      // walls transposed: column c of the maze is row c here
+    private final BitGrid stops;
+    private final int rows;
+    private final int cols;
+    private final int stride;
+    private final int[] rankBase;       // stop cells before each word of stops
+    private final int stopCount;
+
+    private final BitGrid stopsByColumn;    // stops transposed
+
+    // Breadth-first search state.
+    private final Side forward;
+    private final Side backward;
+
+    // Dijkstra state over compact ids; slot stopCount is the start cell when it is not a stop.
+    private int[] cellOf;
+    private int[] dist;
+    private int[] parent;
+    private int[] stamp;
+    private int epoch;
+    private IndexedMinHeap heap;
+    private int settledCount;
+
+    /**
+     * Prepares a maze for queries.
+     *
+     * @param walls The maze, set cells being walls. It must not change while the engine is used.
+     * @throws IllegalArgumentException if the maze has more than 2^31 - 1 cells.
+     */
+    public RollingMaze(BitGrid walls) {
+        this.walls = walls;
+        this.rows = walls.rows();
+        this.cols = walls.cols();
+        if ((long) rows * cols > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Maze too large: " + rows + " x " + cols);
+        }
+        this.stride = (cols + 63) >>> 6;
+        this.columns = walls.transpose();
+        BitGrid open = walls.complement();
+        this.stops = open.andNot(open.erode());
+        this.rankBase = new int[rows * stride];
+        int count = 0;
+        for (int r = 0, w = 0; r < rows; r++) {
+            for (int k = 0; k < stride; k++, w++) {
+                rankBase[w] = count;
+                count += Long.bitCount(stops.word(r, k));
+            }
+        }
+        this.stopCount = count;
+        this.stopsByColumn = stops.transpose();
+        this.forward = new Side((long) rows * cols);
+        this.backward = new Side((long) rows * cols);
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////         Breadth-First Search    /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * @param startRow The ball's row.
+     * @param startCol The ball's column.
+     * @param destRow  The destination row.
+     * @param destCol  The destination column.
+     * @return {@code true} if the ball can come to rest on the destination.
+     * @throws IllegalArgumentException if either cell is a wall or outside the maze.
+     */
+    public boolean reachable(int startRow, int startCol, int destRow, int destCol) {
+        return rolls(startRow, startCol, destRow, destCol) != UNREACHABLE;
+    }
+
+    /**
+     * Finds the fewest rolls that bring the ball to rest on the destination.
+     *
+     * @param startRow The ball's row.
+     * @param startCol The ball's column.
+     * @param destRow  The destination row.
+     * @param destCol  The destination column.
+     * @return The number of rolls, or {@link #UNREACHABLE}.
+     * @throws IllegalArgumentException if either cell is a wall or outside the maze.
+     */
+    public int rolls(int startRow, int startCol, int destRow, int destCol) {
+        int start = cell(startRow, startCol);
+        int target = cell(destRow, destCol);
+        if (start == target) {
+            return 0;
+        }
+        if (!isStop(target)) {
+            return UNREACHABLE;
+        }
+        forward.reset(start);
+        backward.reset(target);
+        try {
+            // Expand a whole level of the smaller frontier; the first cell seen by both sides lies
+            // on a path with the fewest rolls, which is every level expanded so far.
+            for (int levels = 1; forward.size > 0 && backward.size > 0; levels++) {
+                if (forward.size <= backward.size ? expandForward() : expandBackward(start)) {
+                    return levels;
+                }
+            }
+            return UNREACHABLE;
+        } finally {
+            forward.clear();
+            backward.clear();
+        }
+    }
+
+    // Rolls every cell of the forward frontier in all four directions.
+    private boolean expandForward() {
+        for (int remaining = forward.size; remaining > 0; remaining--) {
+            int cell = forward.poll();
+            int i = cell / cols, j = cell - i * cols;
+            for (int d = 0; d < 4; d++) {
+                int stop = roll(i, j, d);
+                if (stop != cell) {
+                    if (backward.contains(stop)) {
+                        return true;
+                    }
+                    forward.add(stop);
+                }
+            }
+        }
+        return false;
+    }
+
+    // Finds, for every cell of the backward frontier, the cells a roll from which ends there: the
+    // resting cells of the open run behind it, in each direction where it has a wall ahead.
+    private boolean expandBackward(int start) {
+        for (int remaining = backward.size; remaining > 0; remaining--) {
+            int cell = backward.poll();
+            int i = cell / cols, j = cell - i * cols;
+            if ((j + 1 == cols || walls.get(i, j + 1))
+                    && backwardRun(false, i, walls.previousSetInRow(i, j - 1) + 1, j, start)) {
+                return true;
+            }
+            if ((j == 0 || walls.get(i, j - 1))
+                    && backwardRun(false, i, j + 1, walls.nextSetInRow(i, j + 1), start)) {
+                return true;
+            }
+            if ((i + 1 == rows || walls.get(i + 1, j))
+                    && backwardRun(true, j, columns.previousSetInRow(j, i - 1) + 1, i, start)) {
+                return true;
+            }
+            if ((i == 0 || walls.get(i - 1, j))
+                    && backwardRun(true, j, i + 1, columns.nextSetInRow(j, i + 1), start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Queues the stop cells at positions lo .. hi-1 of a row (or of a column, when vertical) for
+    // the backward side; true if one of them, or the start, was already reached forward.
+    private boolean backwardRun(boolean vertical, int line, int lo, int hi, int start) {
+        int along = vertical ? start / cols : start % cols;
+        int across = vertical ? start % cols : start / cols;
+        if (across == line && lo <= along && along < hi) {
+            return true;
+        }
+        BitGrid run = vertical ? stopsByColumn : stops;
+        for (int x = run.nextSetInRow(line, lo); x < hi; x = run.nextSetInRow(line, x + 1)) {
+            int cell = vertical ? x * cols + line : line * cols + x;
+            if (forward.contains(cell)) {
+                return true;
+            }
+            backward.add(cell);
+        }
+        return false;
+    }
+
+    // One side of the bidirectional search: a ring-buffer queue of cells and a visited bitset,
+    // cleared afterwards over just the span of words it touched.
+    private static final class Side {
+        final long[] visited;
+        int[] queue = new int[1024];    // capacity a power of two
+        int head;
+        int size;
+        int lowWord;
+        int highWord;
+
+        Side(long cells) {
+            visited = new long[(int) ((cells + 63) >>> 6)];
+        }
+
+        void reset(int cell) {
+            head = 0;
+            size = 0;
+            lowWord = Integer.MAX_VALUE;
+            highWord = -1;
+            add(cell);
+        }
+
+        boolean contains(int cell) {
+            return (visited[cell >>> 6] & (1L << cell)) != 0;
+        }
+
+        void add(int cell) {
+            int word = cell >>> 6;
+            if ((visited[word] & (1L << cell)) != 0) {
+                return;
+            }
+            visited[word] |= 1L << cell;
+            lowWord = Math.min(lowWord, word);
+            highWord = Math.max(highWord, word);
+            if (size == queue.length) {
+                queue = unwrap(queue, head, size);
+                head = 0;
+            }
+            queue[(head + size) & (queue.length - 1)] = cell;
+            size++;
+        }
+
+        int poll() {
+            int cell = queue[head];
+            head = (head + 1) & (queue.length - 1);
+            size--;
+            return cell;
+        }
+
+        void clear() {
+            if (lowWord <= highWord) {
+                Arrays.fill(visited, lowWord, highWord + 1, 0L);
+            }
+        }
+
+        // Copies a full ring buffer into one twice the size, oldest entry first.
+        private static int[] unwrap(int[] ring, int head, int size) {
+            int[] grown = new int[2 * ring.length];
+            int first = Math.min(size, ring.length - head);
+            System.arraycopy(ring, head, grown, 0, first);
+            System.arraycopy(ring, 0, grown, first, size - first);
+            return grown;
+        }
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////      Shortest Rolling Distance  /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Finds the shortest rolling distance, counted in cells moved, from the start to a rest on the
+     * destination.
+     *
+     * @param startRow The ball's row.
+     * @param startCol The ball's column.
+     * @param destRow  The destination row.
+     * @param destCol  The destination column.
+     * @return The distance, or {@link #UNREACHABLE}.
+     * @throws IllegalArgumentException if either cell is a wall or outside the maze.
+     */
+    public int distance(int startRow, int startCol, int destRow, int destCol) {
+        int target = search(startRow, startCol, destRow, destCol);
+        return target < 0 ? UNREACHABLE : dist[target];
+    }
+
+    /**
+     * Finds a shortest rolling route.
+     *
+     * @param startRow The ball's row.
+     * @param startCol The ball's column.
+     * @param destRow  The destination row.
+     * @param destCol  The destination column.
+     * @return The cells {@code {row, col}} where the ball rests, from the start to the destination,
+     *         or {@code null} if it cannot rest on the destination.
+     * @throws IllegalArgumentException if either cell is a wall or outside the maze.
+     */
+    public int[][] path(int startRow, int startCol, int destRow, int destCol) {
+        int target = search(startRow, startCol, destRow, destCol);
+        if (target < 0) {
+            return null;
+        }
+        int length = 1;
+        for (int v = target; parent[v] >= 0; v = parent[v]) {
+            length++;
+        }
+        int[][] path = new int[length][];
+        for (int v = target, i = length - 1; i >= 0; v = parent[v], i--) {
+            path[i] = new int[]{cellOf[v] / cols, cellOf[v] % cols};
+        }
+        return path;
+    }
+
+    /**
+     * @return The number of stop cells settled by the last Dijkstra query.
+     */
+    public int settledCount() {
+        return settledCount;
+    }
+
+    // Runs Dijkstra until the destination is settled; returns its compact id, or -1. Keys add the
+    // Manhattan distance to the destination, a lower bound that no roll can beat by more than its
+    // own length, so the potentials are consistent and each stop cell is still settled once.
+    private int search(int startRow, int startCol, int destRow, int destCol) {
+        int start = cell(startRow, startCol);
+        int target = cell(destRow, destCol);
+        if (heap == null) {
+            cellOf = new int[stopCount + 1];
+            dist = new int[stopCount + 1];
+            parent = new int[stopCount + 1];
+            stamp = new int[stopCount + 1];
+            heap = new IndexedMinHeap(stopCount + 1);
+            for (int r = 0; r < rows; r++) {
+                for (int k = 0; k < stride; k++) {
+                    for (long word = stops.word(r, k); word != 0; word &= word - 1) {
+                        int c = (k << 6) + Long.numberOfTrailingZeros(word);
+                        cellOf[id(r, c)] = r * cols + c;
+                    }
+                }
+            }
+        }
+        if (++epoch == 0) {
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+        heap.clear();
+        settledCount = 0;
+        if (rolls(startRow, startCol, destRow, destCol) == UNREACHABLE) {
+            return -1;      // the bidirectional BFS proves this far more cheaply than Dijkstra
+        }
+        int source = id(startRow, startCol);
+        cellOf[stopCount] = source == stopCount ? start : -1;
+        stamp[source] = epoch;
+        dist[source] = 0;
+        parent[source] = -1;
+        heap.offer(source, Math.abs(startRow - destRow) + Math.abs(startCol - destCol));
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            int d = dist[u];
+            settledCount++;
+            int cell = cellOf[u];
+            if (cell == target) {
+                return u;
+            }
+            int i = cell / cols, j = cell - i * cols;
+            for (int dir = 0; dir < 4; dir++) {
+                int stop = roll(i, j, dir);
+                if (stop == cell) {
+                    continue;
+                }
+                int si = stop / cols, sj = stop - si * cols;
+                int v = id(si, sj);
+                int nd = Math.addExact(d, Math.abs(si - i) + Math.abs(sj - j));
+                if (stamp[v] != epoch || nd < dist[v]) {
+                    stamp[v] = epoch;
+                    dist[v] = nd;
+                    parent[v] = u;
+                    heap.offer(v, Math.addExact(nd, Math.abs(si - destRow) + Math.abs(sj - destCol)));
+                }
+            }
+        }
+        return -1;
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////              Helpers            /////////////
+    ///////////////////////////////////////////////////////
+    // The cell where a ball at (i, j) comes to rest rolling east, south, west or north.
+    private int roll(int i, int j, int direction) {
+        switch (direction) {
+            case 0:
+                return i * cols + walls.nextSetInRow(i, j + 1) - 1;
+            case 1:
+                return (columns.nextSetInRow(j, i + 1) - 1) * cols + j;
+            case 2:
+                return i * cols + walls.previousSetInRow(i, j - 1) + 1;
+            default:
+                return (columns.previousSetInRow(j, i - 1) + 1) * cols + j;
+        }
+    }
+
+    // A ball can only come to rest on an open cell next to a wall or the border.
+    private boolean isStop(int cell) {
+        int r = cell / cols, c = cell - r * cols;
+        return stops.get(r, c);
+    }
+
+    // Compact id of a stop cell by rank; any other cell is the start, in the extra slot.
+    private int id(int r, int c) {
+        long word = stops.word(r, c >>> 6);
+        if ((word & (1L << c)) == 0) {
+            return stopCount;
+        }
+        return rankBase[r * stride + (c >>> 6)] + Long.bitCount(word & ((1L << c) - 1));
+    }
+
+    private int cell(int r, int c) {
+        if (r < 0 || r >= rows || c < 0 || c >= cols || walls.get(r, c)) {
+            throw new IllegalArgumentException("Cell (" + r + ", " + c + ") is a wall or outside the maze");
+        }
+        return r * cols + c;
+    }
+
+    /**
+     * The {@code main} method checks the engine against {@link Dijkstra} on the explicit roll graph
+     * of random mazes, then measures query throughput on a large maze.
+     *
+     * @param args Optional: maze side length and wall probability.
+     */
+    public static void main(String[] args) {
+        int[][] example = {
+                {0, 0, 1, 0, 0},
+                {0, 0, 0, 0, 0},
+                {0, 0, 0, 1, 0},
+                {1, 1, 0, 1, 1},
+                {0, 0, 0, 0, 0}
+        };
+        RollingMaze small = new RollingMaze(BitGrid.of(example));
+        System.out.println("reachable (4,4): " + small.reachable(0, 4, 4, 4));     // true
+        System.out.println("reachable (3,2): " + small.reachable(0, 4, 3, 2));     // false
+        System.out.println("rolls (4,4): " + small.rolls(0, 4, 4, 4));
+        System.out.println("distance (4,4): " + small.distance(0, 4, 4, 4));       // 12
+        System.out.println("path (4,4): " + Arrays.deepToString(small.path(0, 4, 4, 4)));
+
+        Random random = new Random(46);
+        boolean agree = true;
+        for (int round = 0; round < 300 && agree; round++) {
+            int rows = 1 + random.nextInt(40);
+            int cols = 1 + random.nextInt(140);
+            BitGrid walls = randomMaze(rows, cols, 0.1 + 0.4 * random.nextDouble(), random);
+            RollingMaze maze = new RollingMaze(walls);
+            CsrGraph.Builder builder = CsrGraph.intWeightedBuilder(rows * cols);
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    if (walls.get(i, j)) {
+                        continue;
+                    }
+                    int[][] moves = {{0, 1}, {1, 0}, {0, -1}, {-1, 0}};
+                    for (int[] move : moves) {
+                        int x = i, y = j;
+                        while (x + move[0] >= 0 && x + move[0] < rows && y + move[1] >= 0 && y + move[1] < cols
+                                && !walls.get(x + move[0], y + move[1])) {
+                            x += move[0];
+                            y += move[1];
+                        }
+                        if (x != i || y != j) {
+                            builder.addEdge(i * cols + j, x * cols + y, Math.abs(x - i) + Math.abs(y - j));
+                        }
+                    }
+                }
+            }
+            CsrGraph rollGraph = builder.build();
+            Dijkstra reference = new Dijkstra(rollGraph);
+            for (int q = 0; q < 20 && agree; q++) {
+                int s = random.nextInt(rows * cols), t = random.nextInt(rows * cols);
+                if (walls.get(s / cols, s % cols) || walls.get(t / cols, t % cols)) {
+                    continue;
+                }
+                int expected = reference.distance(s, t);
+                int distance = maze.distance(s / cols, s % cols, t / cols, t % cols);
+                int[][] path = maze.path(s / cols, s % cols, t / cols, t % cols);
+                agree = distance == expected && (path == null) == (expected == Dijkstra.UNREACHABLE)
+                        && maze.reachable(s / cols, s % cols, t / cols, t % cols) == (expected != Dijkstra.UNREACHABLE);
+                if (agree && path != null) {
+                    int length = 0;
+                    for (int k = 1; k < path.length; k++) {
+                        length += Math.abs(path[k][0] - path[k - 1][0]) + Math.abs(path[k][1] - path[k - 1][1]);
+                    }
+                    agree = length == expected && path[0][0] * cols + path[0][1] == s
+                            && path[path.length - 1][0] * cols + path[path.length - 1][1] == t;
+                }
+                if (agree) {
+                    agree = maze.rolls(s / cols, s % cols, t / cols, t % cols) == GraphBfs.distances(rollGraph, s)[t];
+                }
+            }
+        }
+        System.out.println("Distances, paths and rolls agree with Dijkstra/BFS on the roll graph: " + agree);
+
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 4000;
+        double density = args.length > 1 ? Double.parseDouble(args[1]) : 0.3;
+        BitGrid walls = randomMaze(side, side, density, random);
+        long t0 = System.nanoTime();
+        RollingMaze maze = new RollingMaze(walls);
+        long t1 = System.nanoTime();
+        System.out.printf("%d x %d maze, %.0f%% walls: built in %.0f ms, %d stop cells%n", side, side, 100 * density,
+                (t1 - t0) / 1e6, maze.stopCount);
+        for (int round = 0; round < 3; round++) {
+            int queries = 200, found = 0;
+            boolean consistent = true;
+            long settled = 0, bfsNanos = 0, dijkstraNanos = 0;
+            for (int q = 0; q < queries; q++) {
+                int si, sj, ti, tj;
+                do {
+                    si = random.nextInt(side);
+                    sj = random.nextInt(side);
+                } while (walls.get(si, sj));
+                do {        // destinations near the start, as in the simulation's local moves
+                    ti = Math.min(side - 1, Math.max(0, si + random.nextInt(201) - 100));
+                    tj = Math.min(side - 1, Math.max(0, sj + random.nextInt(201) - 100));
+                } while (walls.get(ti, tj));
+                long a = System.nanoTime();
+                boolean reachable = maze.reachable(si, sj, ti, tj);
+                long b = System.nanoTime();
+                int distance = maze.distance(si, sj, ti, tj);
+                long c = System.nanoTime();
+                bfsNanos += b - a;
+                dijkstraNanos += c - b;
+                settled += maze.settledCount();
+                consistent &= reachable == (distance != UNREACHABLE);
+                found += reachable ? 1 : 0;
+            }
+            System.out.printf("  %d queries (%d reachable, modes agree %b): BFS %.3f ms/query, Dijkstra %.3f ms/query,"
+                    + " %d settled/query%n", queries, found, consistent, bfsNanos / 1e6 / queries,
+                    dijkstraNanos / 1e6 / queries, settled / queries);
+        }
+    }
+
+    private static BitGrid randomMaze(int rows, int cols, double density, Random random) {
+        BitGrid walls = new BitGrid(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (random.nextDouble() < density) {
+                    walls.set(i, j);
+                }
+            }
+        }
+        return walls;
+    }
+}
@@ -1,15 +1,14 @@
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Queue;
-
 /**
  * The {@code TopologicalSortGraph} class provides functionality to perform a topological sort on a Directed Acyclic Graph (DAG).
  *
  * <p>Topological sorting of a graph is a linear ordering of its vertices such that for every directed edge \( uv \),
  * vertex \( u \) comes before vertex \( v \) in the ordering.</p>
  *
- * <p>This class implements Kahn's Algorithm (BFS Approach) to achieve topological sorting.</p>
+ * <p>This class implements Kahn's Algorithm (BFS Approach) to achieve topological sorting.
+ * Edges are collected into primitive arrays and compacted into a {@link CsrGraph} before sorting,
+ * and {@link #topologicalOrder(IntGraph)} can be called directly on any shared CSR graph. Each call
+ * sorts the whole graph; when edges keep arriving, {@link DynamicTopologicalOrder} keeps the order
+ * current by reordering only the region an insertion affects.</p>
  *
  * <p>Example Usage:</p>
  * <pre>{@code
@@ -26,7 +25,7 @@ import java.util.Queue;
  * }</pre>
  *
  * <p><strong>Time Complexity:</strong> O(V + E), where V is the number of vertices and E is the number of edges.</p>
- * <p><strong>Space Complexity:</strong> O(V + E), due to storage of the adjacency list and in-degree counts.</p>
+ * <p><strong>Space Complexity:</strong> O(V + E), due to storage of the CSR graph and in-degree counts.</p>
  *
  * Time and Space Complexity Analysis
     Understanding the efficiency of the implemented algorithms is crucial for optimizing performance, especially with large input sizes.
@@ -53,11 +52,8 @@ import java.util.Queue;
  * @author 
  */
 public class TopologicalSortGraph {
-    // Number of vertices
-    private int V;
-
-    // Adjacency List representation
-    private List<List<Integer>> adj;
+    // Edge list, compacted to CSR form when the graph is sorted
+    private final CsrGraph.Builder edges;
 
     /**
      * Constructor to initialize the graph with a specified number of vertices.
@@ -65,10 +61,7 @@ public class TopologicalSortGraph {
      * @param v The number of vertices in the graph.
      */
     public TopologicalSortGraph(int v) {
-        V = v;
-        adj = new ArrayList<>(v);
-        for (int i = 0; i < v; ++i)
-            adj.add(new ArrayList<>());
+        edges = CsrGraph.builder(v);
     }
 
     /**
@@ -78,7 +71,7 @@ public class TopologicalSortGraph {
      * @param w The ending vertex of the edge.
      */
     public void addEdge(int v, int w) {
-        adj.get(v).add(w);
+        edges.addEdge(v, w);
     }
 
     /**
@@ -92,51 +85,64 @@ public class TopologicalSortGraph {
      * sort is not possible.</p>
      */
     public void topologicalSort() {
-        // Initialize in-degree array
-        int[] inDegree = new int[V];
+        int[] topoOrder = topologicalOrder(edges.build());
 
-        // Compute in-degree of each vertex
-        for (int u = 0; u < V; u++) {
-            for (int v : adj.get(u)) {
-                inDegree[v]++;
-            }
+        // Check if topological sort is possible (i.e., graph has no cycles)
+        if (topoOrder == null) {
+            System.out.println("Cycle detected. Topological sort not possible.");
+            return;
         }
 
-        // Initialize queue and enqueue all vertices with in-degree 0
-        Queue<Integer> queue = new LinkedList<>();
-        for (int i = 0; i < V; i++) {
+        // Print the topological order
+        for (int vertex : topoOrder)
+            System.out.print(vertex + " ");
+    }
+
+    /**
+     * Groups the vertices into waves with the parallel, level-by-level variant of Kahn's Algorithm.
+     * Vertices in the same wave have no path between them and can be processed concurrently.
+     *
+     * @return The waves, or {@code null} if the graph contains a cycle.
+     * @see ParallelTopologicalSort
+     */
+    public ParallelTopologicalSort.Waves topologicalWaves() {
+        return ParallelTopologicalSort.waves(edges.build());
+    }
+
+    /**
+     * Computes a topological order of a CSR graph with Kahn's Algorithm.
+     *
+     * <p>The output array doubles as the FIFO queue: vertices are appended at {@code tail} when their
+     * in-degree drops to zero and consumed from {@code head}, so no queue or boxed values are needed.</p>
+     *
+     * @param graph The graph to sort, on the heap or memory-mapped.
+     * @return The vertices in topological order, or {@code null} if the graph contains a cycle.
+     */
+    public static int[] topologicalOrder(IntGraph graph) {
+        int n = graph.vertexCount();
+        int[] inDegree = graph.inDegrees();
+        int[] order = new int[n];
+        int tail = 0;
+
+        // Enqueue all vertices with in-degree 0
+        for (int i = 0; i < n; i++) {
             if (inDegree[i] == 0)
-                queue.offer(i);
+                order[tail++] = i;
         }
 
-        // List to store the topological order
-        List<Integer> topoOrder = new ArrayList<>();
-
         // Process until the queue is empty
-        while (!queue.isEmpty()) {
-            int u = queue.poll();
-            topoOrder.add(u);
-
-            // Iterate through all the neighbors of dequeued vertex u
-            for (int v : adj.get(u)) {
-                // Decrement in-degree by 1
-                inDegree[v]--;
-
+        for (int head = 0; head < tail; head++) {
+            int u = order[head];
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+                int v = graph.target(e);
                 // If in-degree becomes 0, enqueue it
-                if (inDegree[v] == 0)
-                    queue.offer(v);
+                if (--inDegree[v] == 0)
+                    order[tail++] = v;
             }
         }
 
-        // Check if topological sort is possible (i.e., graph has no cycles)
-        if (topoOrder.size() != V) {
-            System.out.println("Cycle detected. Topological sort not possible.");
-            return;
-        }
-
-        // Print the topological order
-        for (int vertex : topoOrder)
-            System.out.print(vertex + " ");
+        // Vertices left with a positive in-degree lie on or behind a cycle
+        return tail == n ? order : null;
     }
 
     /**
@@ -166,7 +172,9 @@ public class TopologicalSortGraph {
 
         System.out.println("Example 1 Topological Sort:");
         g1.topologicalSort(); // Possible Output: 4, 5, 0, 1, 2, 3
-        System.out.println("\n");
+        System.out.println();
+        System.out.println("Example 1 Waves: " + g1.topologicalWaves().waveCount()); // Output: 4
+        System.out.println();
 
         // Example 2:
         // Input:
@@ -1,7 +1,3 @@
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Stack;
-
 /**
  * The {@code TopologicalSortGraphDFS} class provides functionality to perform a topological sort on a Directed Acyclic Graph (DAG)
  * using an iterative Depth-First Search (DFS) approach with an explicit stack.
@@ -10,7 +6,9 @@ import java.util.Stack;
  * vertex \( u \) comes before vertex \( v \) in the ordering.</p>
  *
  * <p>This class implements an iterative DFS-based method to achieve topological sorting, avoiding the limitations
- * of recursive approaches.</p>
+ * of recursive approaches. Vertices are emitted in reverse post-order, and a vertex reached again while it is
+ * still on the DFS stack reveals a cycle. The traversal runs on a {@link CsrGraph} with primitive stacks, and
+ * {@link #topologicalOrder(IntGraph)} can be called directly on any shared CSR graph.</p>
  *
  * <p>Example Usage:</p>
  * <pre>{@code
@@ -27,7 +25,7 @@ import java.util.Stack;
  * }</pre>
  *
  * <p><strong>Time Complexity:</strong> O(V + E), where V is the number of vertices and E is the number of edges.</p>
- * <p><strong>Space Complexity:</strong> O(V + E), due to storage of the adjacency list and stacks.</p>
+ * <p><strong>Space Complexity:</strong> O(V + E), due to storage of the CSR graph and primitive stacks.</p>
  *
  * 
  * Depth-First Search (DFS) with Explicit Stack Approach (topologicalSort)
@@ -36,14 +34,14 @@ import java.util.Stack;
     Explanation:
     Each vertex is visited exactly once.
     All edges are explored exactly once.
-    The use of stacks for traversal and ordering does not add extra time complexity.
+    The per-vertex edge cursor means no edge is examined twice.
     Thus, the total time complexity is linear relative to the size of the graph.
     Space Complexity: O(V + E)
 
     Explanation:
-    The adjacency list consumes O(V + E) space.
-    The visited array consumes O(V) space.
-    The traversalStack, tempStack, and topoStack can each hold up to O(V) elements.
+    The CSR graph consumes O(V + E) space.
+    The state and cursor arrays consume O(V) space.
+    The DFS stack and the output order can each hold up to O(V) elements.
     Thus, the overall space complexity is linear.
     Summary
     Time Efficiency: The iterative DFS approach operates in linear time, making it highly efficient for large graphs.
@@ -55,8 +53,13 @@ public class TopologicalSortGraphDFS {
     // Number of vertices
     private int V;
 
-    // Adjacency List representation
-    private List<List<Integer>> adj;
+    // Edge list, compacted to CSR form when the graph is sorted
+    private final CsrGraph.Builder edges;
+
+    // DFS vertex states
+    private static final byte UNVISITED = 0;
+    private static final byte ON_STACK = 1;
+    private static final byte DONE = 2;
 
     /**
      * Constructor to initialize the graph with a specified number of vertices.
@@ -65,9 +68,7 @@ public class TopologicalSortGraphDFS {
      */
     public TopologicalSortGraphDFS(int v) {
         V = v;
-        adj = new ArrayList<>(v);
-        for (int i = 0; i < v; ++i)
-            adj.add(new ArrayList<>());
+        edges = CsrGraph.builder(v);
     }
 
     /**
@@ -77,82 +78,79 @@ public class TopologicalSortGraphDFS {
      * @param w The ending vertex of the edge.
      */
     public void addEdge(int v, int w) {
-        adj.get(v).add(w);
+        edges.addEdge(v, w);
     }
 
     /**
      * Performs a topological sort of the graph using an iterative Depth-First Search (DFS) approach with an explicit stack.
      *
      * <p>The method traverses each vertex, and for each unvisited vertex, it performs DFS using a stack.
-     * As vertices finish processing, they are added to an ordering stack. Finally, the ordering stack
-     * is used to print the topological order.</p>
+     * As vertices finish processing, they are added to the ordering in reverse. Finally, the ordering
+     * is printed.</p>
      *
      * <p>If the graph contains a cycle, topological sort is not possible.</p>
      */
     public void topologicalSort() {
-        // Stack to store the topological order
-        Stack<Integer> topoStack = new Stack<>();
-
-        // Visited array to keep track of visited vertices
-        boolean[] visited = new boolean[V];
-        for (int i = 0; i < V; i++)
-            visited[i] = false;
-
-        // Iterate through all vertices
-        for (int i = 0; i < V; i++) {
-            if (!visited[i]) {
-                // Perform iterative DFS from vertex i
-                iterativeDFS(i, visited, topoStack);
-            }
-        }
+        int[] topoOrder = topologicalOrder(edges.build());
 
-        // Check for cycles by ensuring all vertices are in topoStack
-        if (topoStack.size() != V) {
+        // Check for cycles
+        if (topoOrder == null) {
             System.out.println("Cycle detected. Topological sort not possible.");
             return;
         }
 
         // Print the topological order
-        while (!topoStack.isEmpty())
-            System.out.print(topoStack.pop() + " ");
+        for (int vertex : topoOrder)
+            System.out.print(vertex + " ");
     }
 
     /**
-     * Helper method to perform iterative Depth-First Search (DFS) starting from a given vertex.
+     * Computes a topological order of a CSR graph with an iterative post-order DFS.
      *
-     * <p>This method uses an explicit stack to manage the traversal process, marking vertices as visited
-     * and adding them to the topological order stack once all their adjacent vertices have been processed.</p>
+     * <p>The DFS stack holds vertices, and {@code cursor[v]} remembers the next out-edge of {@code v}
+     * to explore, so each edge is examined once and no recursion is used. A vertex is written to the
+     * output, filling it from the back, once all its out-edges are explored.</p>
      *
-     * @param startVertex The vertex to start DFS from.
-     * @param visited     The array tracking visited vertices.
-     * @param topoStack   The stack storing the topological order.
+     * @param graph The graph to sort, on the heap or memory-mapped.
+     * @return The vertices in topological order, or {@code null} if the graph contains a cycle.
      */
-    private void iterativeDFS(int startVertex, boolean[] visited, Stack<Integer> topoStack) {
-        // Stack to manage the DFS traversal
-        Stack<Integer> traversalStack = new Stack<>();
-        traversalStack.push(startVertex);
-
-        // Temporary stack to manage post-order processing
-        Stack<Integer> tempStack = new Stack<>();
-
-        while (!traversalStack.isEmpty()) {
-            int current = traversalStack.pop();
+    public static int[] topologicalOrder(IntGraph graph) {
+        int n = graph.vertexCount();
+        byte[] state = new byte[n];
+        int[] cursor = new int[n];
+        int[] stack = new int[n];
+        int[] order = new int[n];
+        int next = n;
 
-            if (!visited[current]) {
-                visited[current] = true;
-                tempStack.push(current);
-
-                // Push all adjacent vertices to the traversal stack
-                for (int neighbor : adj.get(current)) {
-                    if (!visited[neighbor])
-                        traversalStack.push(neighbor);
+        // Iterate through all vertices
+        for (int start = 0; start < n; start++) {
+            if (state[start] != UNVISITED)
+                continue;
+            int top = 0;
+            stack[top++] = start;
+            state[start] = ON_STACK;
+            cursor[start] = graph.edgeStart(start);
+
+            while (top > 0) {
+                int current = stack[top - 1];
+                if (cursor[current] < graph.edgeEnd(current)) {
+                    int neighbor = graph.target(cursor[current]++);
+                    if (state[neighbor] == ON_STACK)
+                        return null; // Back edge: cycle detected
+                    if (state[neighbor] == UNVISITED) {
+                        state[neighbor] = ON_STACK;
+                        cursor[neighbor] = graph.edgeStart(neighbor);
+                        stack[top++] = neighbor;
+                    }
+                } else {
+                    // All neighbors finished: current goes before everything already placed
+                    top--;
+                    state[current] = DONE;
+                    order[--next] = current;
                 }
             }
         }
-
-        // Transfer from tempStack to topoStack to maintain correct order
-        while (!tempStack.isEmpty())
-            topoStack.push(tempStack.pop());
+        return order;
     }
 
     /**
@@ -7,6 +7,9 @@ import java.util.*;
  * <p>It utilizes Breadth-First Search (BFS) to explore all possible one-letter transformations
  * efficiently.</p>
  *
+ * <p>For many queries against one dictionary, {@link WordLadderIndex} precomputes wildcard
+ * buckets once and answers each query with a BFS over int word ids.</p>
+ *
  * <p>Example Usage:</p>
  * <pre>{@code
  * WordLadder solver = new WordLadder();
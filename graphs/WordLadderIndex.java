@@ -0,0 +1,954 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The {@code WordLadderIndex} class precomputes the one-letter-change structure of a fixed
+ * dictionary, so that many word ladder queries (see {@link WordLadder}) run as BFS over int ids
+ * instead of generating 25 candidate {@code String}s per letter of every word reached.
+ *
+ * <p>Each distinct word gets an int id. Two words of the same length are neighbors exactly when
+ * they match a common <em>wildcard pattern</em>, the word with one position blanked
+ * ({@code "hot"} and {@code "hit"} both match {@code "h*t"}), and they then share exactly one
+ * pattern. The index keeps each pattern as a <em>bucket</em> of word ids, in CSR arrays, with the
+ * bucket of every (word, position) pair:</p>
+ * <ul>
+ *     <li>Buckets are found once per position by sorting {@code long}s that pack a hash of the
+ *     word with that position skipped above the word id; runs of equal hashes are then split by
+ *     comparing the words themselves, so no pattern {@code String} is ever built.</li>
+ *     <li>Buckets with one word connect nothing and are dropped; their position gets bucket -1.</li>
+ * </ul>
+ *
+ * <p>A {@link Query} runs a bidirectional BFS that always expands the smaller frontier, with
+ * epoch-stamped visit marks. Once a bucket has been expanded, every word in it has been reached,
+ * so a bucket is expanded at most once per query. That bounds the work by the buckets reached
+ * rather than by pairs of neighbors, which matters in dense dictionaries where a bucket of
+ * {@code k} words holds {@code k^2} neighbor pairs. A begin word outside the dictionary (a
+ * misspelling, say) is looked up once through the word-to-id map, one candidate per letter of the
+ * dictionary's alphabet and position; everything after that is ids.</p>
+ *
+ * <p>{@link Query#allLadders(String, String)} returns every shortest sequence as {@link Ladders}:
+ * after the search meets, the edges between the two meeting frontiers are collected, and each side
+ * is walked back to its end word keeping only the edges that step one BFS depth. That DAG is the
+ * union of all shortest sequences and is polynomial in size, while the sequences can be
+ * exponentially many; they are enumerated lazily by a depth-first walk, O(length) per sequence,
+ * and counted by dynamic programming without enumeration.</p>
+ *
+ * <p>The index is immutable and may be shared; queries run on per-thread engines from
+ * {@link #newQuery()}. {@link #ladderLengths} and {@link #allLadders} answer a batch of
+ * (begin, end) pairs in parallel on a {@link ForkJoinPool}, each leaf task with its own engine.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * WordLadderIndex index = new WordLadderIndex(dictionary);   // once
+ * WordLadderIndex.Query query = index.newQuery();            // one per thread
+ * query.ladderLength("hit", "cog");                          // 5
+ * for (List<String> ladder : query.allLadders("hit", "cog")) {
+ *     ...                                                    // [hit, hot, dot, dog, cog], [hit, hot, lot, log, cog]
+ * }
+ * int[] lengths = index.ladderLengths(begins, ends, ForkJoinPool.commonPool());
+ * }</pre>
+ *
+ * <p><strong>Time Complexity:</strong> O(L * N log N) to build, for N words of length up to L;
+ * per query O(L) per word reached plus the size of each bucket expanded.</p>
+ * <p><strong>Space Complexity:</strong> O(N * L) ints.</p>
+ *
+ * @author
+ */
+public final class WordLadderIndex {
+    // The fewest queries handed to one fork-join task in the batch methods. Each task allocates its
+    // own Query of O(N) arrays, so batches are also cut into no more than BATCH_TASKS tasks per worker.
+    private static final int BATCH_GRAIN = 16;
+    private static final int BATCH_TASKS = 4;
+
+    private final String[] words;
+    private final Map<String, Integer> ids;
+    private final char[] alphabet;          // every character used, for words outside the dictionary
+    private final int[] patternStart;       // word w's patterns are patternStart[w] .. patternStart[w + 1]
+    private final int[] bucketOf;           // bucket of each (word, position), or -1
+    private final int[] bucketStart;        // bucket b's words are bucketWords[bucketStart[b] .. bucketStart[b + 1]]
+    private final int[] bucketWords;
+
+    /**
+     * Builds the index. Duplicate words are kept once.
+     *
+     * @param dictionary The allowed words.
+     * @throws IllegalArgumentException if the dictionary has more than 2^31 letters in total.
+     */
+    public WordLadderIndex(Collection<String> dictionary) {
+        ids = new HashMap<>(dictionary.size() * 2);
+        List<String> distinct = new ArrayList<>(dictionary.size());
+        TreeSet<Character> letters = new TreeSet<>();
+        for (String word : dictionary) {
+            if (ids.putIfAbsent(word, distinct.size()) == null) {
+                distinct.add(word);
+                for (int i = 0; i < word.length(); i++) {
+                    letters.add(word.charAt(i));
+                }
+            }
+        }
+        words = distinct.toArray(new String[0]);
+        alphabet = new char[letters.size()];
+        int letter = 0;
+        for (char c : letters) {
+            alphabet[letter++] = c;
+        }
+
+        int n = words.length;
+        int maxLength = 0;
+        patternStart = new int[n + 1];
+        for (int w = 0; w < n; w++) {
+            maxLength = Math.max(maxLength, words[w].length());
+            try {
+                patternStart[w + 1] = Math.addExact(patternStart[w], words[w].length());
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Dictionary too large: over 2^31 letters");
+            }
+        }
+        bucketOf = new int[patternStart[n]];
+        Arrays.fill(bucketOf, -1);
+
+        int[] starts = new int[16];
+        int[] members = new int[16];
+        int buckets = 0, memberCount = 0;
+        long[] keys = new long[n];
+        int[] run = new int[16];
+        long[] runKeys = new long[16];
+        int[] patterns = new int[16];
+        for (int position = 0; position < maxLength; position++) {
+            // Sort (pattern hash, id) pairs as primitive longs; equal patterns become adjacent.
+            int count = 0;
+            for (int w = 0; w < n; w++) {
+                if (words[w].length() > position) {
+                    keys[count++] = ((long) patternHash(words[w], position) << 32) | w;
+                }
+            }
+            Arrays.sort(keys, 0, count);
+            for (int lo = 0, hi; lo < count; lo = hi) {
+                hi = lo + 1;
+                while (hi < count && (keys[hi] >>> 32) == (keys[lo] >>> 32)) {
+                    hi++;
+                }
+                if (hi - lo < 2) {
+                    continue;
+                }
+                // Words with equal hashes: number each distinct pattern in the run (one unless the hash
+                // collided), then sort (pattern number, id) pairs so each pattern's words are adjacent.
+                if (hi - lo > run.length) {
+                    run = new int[2 * (hi - lo)];
+                    runKeys = new long[2 * (hi - lo)];
+                    patterns = new int[2 * (hi - lo)];
+                }
+                int size = 0, patternCount = 0;
+                for (int k = lo; k < hi; k++) {
+                    int w = (int) keys[k];
+                    int p = 0;
+                    while (p < patternCount && compareSkipping(words[patterns[p]], words[w], position) != 0) {
+                        p++;
+                    }
+                    if (p == patternCount) {
+                        patterns[patternCount++] = w;
+                    }
+                    runKeys[size++] = ((long) p << 32) | w;
+                }
+                Arrays.sort(runKeys, 0, size);
+                for (int k = 0; k < size; k++) {
+                    run[k] = (int) runKeys[k];
+                }
+                for (int a = 0, b; a < size; a = b) {
+                    b = a + 1;
+                    while (b < size && (runKeys[b] >>> 32) == (runKeys[a] >>> 32)) {
+                        b++;
+                    }
+                    if (b - a < 2) {
+                        continue;
+                    }
+                    if (buckets + 2 > starts.length) {
+                        starts = Arrays.copyOf(starts, 2 * starts.length);
+                    }
+                    if (memberCount + (b - a) > members.length) {
+                        members = Arrays.copyOf(members, Math.max(2 * members.length, memberCount + (b - a)));
+                    }
+                    starts[buckets] = memberCount;
+                    for (int k = a; k < b; k++) {
+                        members[memberCount++] = run[k];
+                        bucketOf[patternStart[run[k]] + position] = buckets;
+                    }
+                    buckets++;
+                }
+            }
+        }
+        starts[buckets] = memberCount;
+        bucketStart = Arrays.copyOf(starts, buckets + 1);
+        bucketWords = Arrays.copyOf(members, memberCount);
+    }
+
+    // Hashes a word's length and characters with one position ignored.
+    private static int patternHash(String word, int skip) {
+        int h = word.length();
+        for (int i = 0; i < word.length(); i++) {
+            if (i != skip) {
+                h = h * 31 + word.charAt(i);
+            }
+        }
+        h ^= h >>> 16;      // spread the low bits, which differ least between similar words
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    // Orders words by length, then by their characters with one position ignored.
+    private static int compareSkipping(String x, String y, int skip) {
+        if (x.length() != y.length()) {
+            return Integer.compare(x.length(), y.length());
+        }
+        for (int i = 0; i < x.length(); i++) {
+            if (i != skip && x.charAt(i) != y.charAt(i)) {
+                return Character.compare(x.charAt(i), y.charAt(i));
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return The number of distinct words.
+     */
+    public int size() {
+        return words.length;
+    }
+
+    /**
+     * @param word A word.
+     * @return Its id, or -1 if it is not in the dictionary.
+     */
+    public int id(String word) {
+        Integer id = ids.get(word);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @param id A word id.
+     * @return The word.
+     */
+    public String word(int id) {
+        return words[id];
+    }
+
+    /**
+     * @return The number of wildcard buckets holding two or more words.
+     */
+    public int bucketCount() {
+        return bucketStart.length - 1;
+    }
+
+    /**
+     * @return A new query engine over this index. Engines are not thread-safe; the index is.
+     */
+    public Query newQuery() {
+        return new Query();
+    }
+
+    /**
+     * Answers many ladder length queries in parallel, each leaf task with its own {@link Query}.
+     *
+     * @param begins The begin word of each query.
+     * @param ends   The end word of each query.
+     * @param pool   The pool to run on.
+     * @return The ladder length of each query, 0 where there is none.
+     * @throws IllegalArgumentException if the lists differ in size.
+     */
+    public int[] ladderLengths(List<String> begins, List<String> ends, ForkJoinPool pool) {
+        checkSameSize(begins, ends);
+        int[] lengths = new int[begins.size()];
+        ParallelRange.forRange(pool, 0, lengths.length, batchGrain(lengths.length, pool), (lo, hi) -> {
+            Query query = newQuery();
+            for (int i = lo; i < hi; i++) {
+                lengths[i] = query.ladderLength(begins.get(i), ends.get(i));
+            }
+        });
+        return lengths;
+    }
+
+    /**
+     * Finds all shortest ladders for many queries in parallel. Each result is the compact DAG of
+     * {@link Ladders}, so no query's sequences are listed until they are iterated.
+     *
+     * @param begins The begin word of each query.
+     * @param ends   The end word of each query.
+     * @param pool   The pool to run on.
+     * @return The ladders of each query.
+     * @throws IllegalArgumentException if the lists differ in size.
+     */
+    public Ladders[] allLadders(List<String> begins, List<String> ends, ForkJoinPool pool) {
+        checkSameSize(begins, ends);
+        Ladders[] ladders = new Ladders[begins.size()];
+        ParallelRange.forRange(pool, 0, ladders.length, batchGrain(ladders.length, pool), (lo, hi) -> {
+            Query query = newQuery();
+            for (int i = lo; i < hi; i++) {
+                ladders[i] = query.allLadders(begins.get(i), ends.get(i));
+            }
+        });
+        return ladders;
+    }
+
+    // Queries per task: enough that each task's Query allocation is spread over many queries.
+    private static int batchGrain(int count, ForkJoinPool pool) {
+        return Math.max(BATCH_GRAIN, count / (BATCH_TASKS * pool.getParallelism()));
+    }
+
+    private static void checkSameSize(List<String> begins, List<String> ends) {
+        if (begins.size() != ends.size()) {
+            throw new IllegalArgumentException(begins.size() + " begin words but " + ends.size() + " end words");
+        }
+    }
+
+    // The ids of dictionary words one letter away from a word that is not in the dictionary.
+    int[] outsideNeighbors(String word) {
+        int[] found = new int[8];
+        int count = 0;
+        char[] chars = word.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            char original = chars[i];
+            for (char c : alphabet) {
+                if (c == original) {
+                    continue;
+                }
+                chars[i] = c;
+                Integer id = ids.get(String.valueOf(chars));
+                if (id != null) {
+                    if (count == found.length) {
+                        found = Arrays.copyOf(found, 2 * count);
+                    }
+                    found[count++] = id;
+                }
+            }
+            chars[i] = original;
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * The {@code Query} class answers ladder queries on a {@link WordLadderIndex}. It reuses its
+     * arrays across queries with epoch stamps and is not thread-safe: use one engine per thread.
+     */
+    public final class Query {
+        private static final byte FORWARD = 1;
+        private static final byte BACKWARD = 2;
+
+        private final int virtual = words.length;   // the id of a begin word outside the dictionary
+        private final int[] wordStamp = new int[words.length + 1];
+        private final byte[] side = new byte[words.length + 1];
+        private final int[] depth = new int[words.length + 1];     // words from its side's end, counting it
+        private final int[] beginStamp = new int[words.length];    // one letter from an outside begin word
+        private final int[] localStamp = new int[words.length + 1];
+        private final int[] local = new int[words.length + 1];     // node number in the ladder DAG
+        private final int[] bucketStamp = new int[bucketStart.length - 1];
+        private int epoch;
+        private int[] forward = new int[64];
+        private int[] backward = new int[64];
+        private int[] next = new int[64];
+        private int[] scratch = new int[64];
+        private int[] nodes = new int[64];      // DAG node number to word id
+        private int nodeCount;
+        private int forwardSize;
+        private int backwardSize;
+        private int nextSize;
+        private boolean outsideBegin;
+        private int[] beginNeighbors;
+
+        // Where the last successful search met: the side whose expansion touched the other, and
+        // the depths of both frontiers at that moment.
+        private byte meetSide;
+        private int meetDepth;
+        private int otherDepth;
+
+        private Query() {
+        }
+
+        /**
+         * Finds the length of the shortest transformation sequence, as
+         * {@link WordLadder#ladderLength(String, String, List)} does against this dictionary.
+         *
+         * <p>When {@code beginWord} equals {@code endWord}, the sequence is that single word, so the
+         * result is 1 if the word is in the dictionary and 0 otherwise; no search is run.</p>
+         *
+         * @param beginWord The word to start from; it need not be in the dictionary.
+         * @param endWord   The word to reach; it must be in the dictionary.
+         * @return The number of words in the shortest sequence, 1 if {@code beginWord} equals
+         *         {@code endWord}, or 0 if there is none.
+         */
+        public int ladderLength(String beginWord, String endWord) {
+            return search(beginWord, endWord);
+        }
+
+        /**
+         * Finds every shortest transformation sequence. The sequences are not listed: the result
+         * holds the subgraph of words on some shortest sequence, at most every word reached, and
+         * enumerates the sequences lazily from it.
+         *
+         * @param beginWord The word to start from; it need not be in the dictionary.
+         * @param endWord   The word to reach; it must be in the dictionary.
+         * @return The shortest sequences, none if {@code endWord} cannot be reached.
+         */
+        public Ladders allLadders(String beginWord, String endWord) {
+            int length = search(beginWord, endWord);
+            if (length == 0) {
+                return new Ladders(new String[0], new int[]{0}, new int[0], 0);
+            }
+            if (length == 1) {
+                return new Ladders(new String[]{beginWord}, new int[]{0, 0}, new int[0], 1);
+            }
+            int source = outsideBegin ? virtual : id(beginWord);
+            int target = id(endWord);
+
+            // Number the DAG's nodes as they are found; the source is node 0 and the target node 1.
+            nodeCount = 0;
+            int[] edgeFrom = new int[16];
+            int[] edgeTo = new int[16];
+            int edgeCount = 0;
+            addNode(source);
+            addNode(target);
+
+            // Edges between the two frontiers where the search met.
+            byte other = meetSide == FORWARD ? BACKWARD : FORWARD;
+            int[] frontier = meetSide == FORWARD ? forward : backward;
+            int frontierSize = meetSide == FORWARD ? forwardSize : backwardSize;
+            for (int f = 0; f < frontierSize; f++) {
+                int u = frontier[f];
+                for (int i = 0, count = neighbors(u); i < count; i++) {
+                    int v = scratch[i];
+                    if (wordStamp[v] == epoch && side[v] == other && depth[v] == otherDepth) {
+                        int from = meetSide == FORWARD ? u : v;
+                        int to = meetSide == FORWARD ? v : u;
+                        addNode(from);
+                        addNode(to);
+                        edgeFrom = append(edgeFrom, edgeCount, from);
+                        edgeTo = append(edgeTo, edgeCount++, to);
+                    }
+                }
+            }
+
+            // Walk each side back to its end word, one depth at a time, keeping the edges that
+            // step exactly one depth; a node joins the DAG once, so each edge is found once.
+            for (int n = 0; n < nodeCount; n++) {
+                int x = nodes[n];
+                if (depth[x] == 1) {
+                    continue;
+                }
+                for (int i = 0, count = neighbors(x); i < count; i++) {
+                    int y = scratch[i];
+                    if (wordStamp[y] != epoch || side[y] != side[x] || depth[y] != depth[x] - 1) {
+                        continue;
+                    }
+                    addNode(y);
+                    edgeFrom = append(edgeFrom, edgeCount, side[x] == FORWARD ? y : x);
+                    edgeTo = append(edgeTo, edgeCount++, side[x] == FORWARD ? x : y);
+                }
+            }
+
+            String[] names = new String[nodeCount];
+            for (int n = 0; n < nodeCount; n++) {
+                names[n] = nodes[n] == virtual ? beginWord : words[nodes[n]];
+            }
+            int[] start = new int[nodeCount + 1];
+            for (int e = 0; e < edgeCount; e++) {
+                start[local[edgeFrom[e]] + 1]++;
+            }
+            for (int n = 0; n < nodeCount; n++) {
+                start[n + 1] += start[n];
+            }
+            int[] successors = new int[edgeCount];
+            int[] fill = Arrays.copyOf(start, nodeCount);
+            for (int e = 0; e < edgeCount; e++) {
+                successors[fill[local[edgeFrom[e]]]++] = local[edgeTo[e]];
+            }
+            return new Ladders(names, start, successors, length);
+        }
+
+        // Gives w the next DAG node number, unless it has one.
+        private void addNode(int w) {
+            if (localStamp[w] != epoch) {
+                localStamp[w] = epoch;
+                local[w] = nodeCount;
+                nodes = append(nodes, nodeCount++, w);
+            }
+        }
+
+        // Bidirectional BFS; returns the ladder length in words, or 0, and records where it met.
+        private int search(String beginWord, String endWord) {
+            int target = id(endWord);
+            if (target < 0) {
+                return 0;
+            }
+            if (beginWord.equals(endWord)) {
+                return 1;
+            }
+            if (++epoch == 0) {
+                Arrays.fill(wordStamp, 0);
+                Arrays.fill(beginStamp, 0);
+                Arrays.fill(localStamp, 0);
+                Arrays.fill(bucketStamp, 0);
+                epoch = 1;
+            }
+            int source = id(beginWord);
+            outsideBegin = source < 0;
+            if (outsideBegin) {
+                source = virtual;
+                beginNeighbors = outsideNeighbors(beginWord);
+                for (int w : beginNeighbors) {
+                    beginStamp[w] = epoch;
+                }
+            }
+            visit(source, FORWARD, 1);
+            forward[0] = source;
+            forwardSize = 1;
+            int forwardDepth = 1;
+            visit(target, BACKWARD, 1);
+            backward[0] = target;
+            backwardSize = 1;
+            int backwardDepth = 1;
+
+            // A word reached from both sides joins levels forwardDepth and backwardDepth, counted
+            // in words, and the first such word is on a shortest ladder.
+            while (forwardSize > 0 && backwardSize > 0) {
+                if (forwardSize <= backwardSize) {
+                    if (expand(forward, forwardSize, FORWARD, forwardDepth + 1)) {
+                        return met(FORWARD, forwardDepth, backwardDepth);
+                    }
+                    int[] t = forward;
+                    forward = next;
+                    next = t;
+                    forwardSize = nextSize;
+                    forwardDepth++;
+                } else {
+                    if (expand(backward, backwardSize, BACKWARD, backwardDepth + 1)) {
+                        return met(BACKWARD, backwardDepth, forwardDepth);
+                    }
+                    int[] t = backward;
+                    backward = next;
+                    next = t;
+                    backwardSize = nextSize;
+                    backwardDepth++;
+                }
+            }
+            return 0;
+        }
+
+        private int met(byte from, int fromDepth, int toDepth) {
+            meetSide = from;
+            meetDepth = fromDepth;
+            otherDepth = toDepth;
+            return fromDepth + toDepth;
+        }
+
+        // Expands one level into next, each bucket at most once per query; true if it touches
+        // the other side.
+        private boolean expand(int[] frontier, int size, byte from, int nextDepth) {
+            nextSize = 0;
+            for (int f = 0; f < size; f++) {
+                int u = frontier[f];
+                if (u == virtual) {
+                    for (int v : beginNeighbors) {
+                        if (reach(v, from, nextDepth)) {
+                            return true;
+                        }
+                    }
+                    continue;
+                }
+                if (outsideBegin && beginStamp[u] == epoch && reach(virtual, from, nextDepth)) {
+                    return true;
+                }
+                for (int pattern = patternStart[u]; pattern < patternStart[u + 1]; pattern++) {
+                    int b = bucketOf[pattern];
+                    if (b < 0 || bucketStamp[b] == epoch) {
+                        continue;
+                    }
+                    bucketStamp[b] = epoch;
+                    for (int k = bucketStart[b]; k < bucketStart[b + 1]; k++) {
+                        if (reach(bucketWords[k], from, nextDepth)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        // Visits w from one side; true if the other side already has it.
+        private boolean reach(int w, byte from, int d) {
+            if (wordStamp[w] == epoch) {
+                return side[w] != from;
+            }
+            visit(w, from, d);
+            next = append(next, nextSize++, w);
+            return false;
+        }
+
+        private void visit(int w, byte from, int d) {
+            wordStamp[w] = epoch;
+            side[w] = from;
+            depth[w] = d;
+        }
+
+        // Lists every neighbor of u into scratch, with no bucket skipped; returns the count.
+        private int neighbors(int u) {
+            int count = 0;
+            if (u == virtual) {
+                for (int v : beginNeighbors) {
+                    scratch = append(scratch, count++, v);
+                }
+                return count;
+            }
+            if (outsideBegin && beginStamp[u] == epoch) {
+                scratch = append(scratch, count++, virtual);
+            }
+            for (int pattern = patternStart[u]; pattern < patternStart[u + 1]; pattern++) {
+                int b = bucketOf[pattern];
+                if (b < 0) {
+                    continue;
+                }
+                for (int k = bucketStart[b]; k < bucketStart[b + 1]; k++) {
+                    if (bucketWords[k] != u) {
+                        scratch = append(scratch, count++, bucketWords[k]);
+                    }
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * The {@code Ladders} class holds every shortest transformation sequence between two words as
+     * the DAG of the words on them, and enumerates the sequences on demand. Its size is at most
+     * the number of words and neighbor pairs the search reached, however many sequences there are.
+     */
+    public static final class Ladders implements Iterable<List<String>> {
+        private final String[] names;       // node 0 is the begin word and node 1 the end word
+        private final int[] start;
+        private final int[] successors;
+        private final int length;
+
+        Ladders(String[] names, int[] start, int[] successors, int length) {
+            this.names = names;
+            this.start = start;
+            this.successors = successors;
+            this.length = length;
+        }
+
+        /**
+         * @return The number of words in each sequence, or 0 if there is none.
+         */
+        public int length() {
+            return length;
+        }
+
+        /**
+         * @return The number of distinct words on some shortest sequence.
+         */
+        public int wordCount() {
+            return names.length;
+        }
+
+        /**
+         * Counts the sequences without enumerating them.
+         *
+         * @return The number of shortest sequences, or {@code Long.MAX_VALUE} if that overflows.
+         */
+        public long count() {
+            if (length <= 1) {
+                return length;
+            }
+            // Nodes by layer (position in every sequence through them), then paths to the end
+            // word, summed from the last layer back.
+            int n = names.length;
+            int[] layer = new int[n];
+            Arrays.fill(layer, -1);
+            int[] order = new int[n];
+            int size = 0;
+            layer[0] = 0;
+            order[size++] = 0;
+            for (int i = 0; i < size; i++) {
+                int u = order[i];
+                for (int e = start[u]; e < start[u + 1]; e++) {
+                    if (layer[successors[e]] < 0) {
+                        layer[successors[e]] = layer[u] + 1;
+                        order[size++] = successors[e];
+                    }
+                }
+            }
+            long[] ways = new long[n];
+            ways[1] = 1;
+            for (int i = size - 1; i >= 0; i--) {
+                int u = order[i];
+                for (int e = start[u]; e < start[u + 1]; e++) {
+                    long sum = ways[u] + ways[successors[e]];
+                    ways[u] = sum < 0 ? Long.MAX_VALUE : sum;
+                }
+            }
+            return ways[0];
+        }
+
+        /**
+         * @return An iterator over the sequences, each a new list from the begin word to the end
+         *         word, computed in O(length) per sequence.
+         */
+        @Override
+        public Iterator<List<String>> iterator() {
+            return new Iterator<>() {
+                private final int[] path = new int[length];
+                private final int[] edge = new int[length];    // edge taken from path[i] to path[i + 1]
+                private boolean more = length > 0;
+
+                {
+                    if (more) {
+                        descend(0);
+                    }
+                }
+
+                private void descend(int from) {
+                    for (int i = from; i < length - 1; i++) {
+                        edge[i] = start[path[i]];
+                        path[i + 1] = successors[edge[i]];
+                    }
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return more;
+                }
+
+                @Override
+                public List<String> next() {
+                    if (!more) {
+                        throw new NoSuchElementException();
+                    }
+                    String[] ladder = new String[length];
+                    for (int i = 0; i < length; i++) {
+                        ladder[i] = names[path[i]];
+                    }
+                    int i = length - 2;
+                    while (i >= 0 && edge[i] + 1 == start[path[i] + 1]) {
+                        i--;
+                    }
+                    if (i < 0) {
+                        more = false;
+                    } else {
+                        edge[i]++;
+                        path[i + 1] = successors[edge[i]];
+                        descend(i + 1);
+                    }
+                    return Arrays.asList(ladder);
+                }
+            };
+        }
+
+        /**
+         * @return The sequences as a lazy, sequential stream.
+         */
+        public Stream<List<String>> stream() {
+            return StreamSupport.stream(spliterator(), false);
+        }
+    }
+
+    // Stores value at index, growing the array when full.
+    private static int[] append(int[] array, int index, int value) {
+        if (index == array.length) {
+            array = Arrays.copyOf(array, 2 * index);
+        }
+        array[index] = value;
+        return array;
+    }
+
+    /**
+     * The {@code main} method checks lengths against {@link WordLadderOptimized} and all ladders
+     * against brute-force enumeration on random dictionaries, streams ladders whose count is
+     * astronomically large, then times single and batched queries on a large dictionary.
+     *
+     * @param args Optional: dictionary size and word length for the benchmark.
+     */
+    public static void main(String[] args) {
+        List<String> dictionary = Arrays.asList("hot", "dot", "dog", "lot", "log", "cog");
+        WordLadderIndex.Query small = new WordLadderIndex(dictionary).newQuery();
+        System.out.println("hit -> cog: " + small.ladderLength("hit", "cog"));     // 5
+        System.out.println("hit -> cot: " + small.ladderLength("hit", "cot"));     // 0
+        for (List<String> ladder : small.allLadders("hit", "cog")) {
+            System.out.println("  " + ladder);
+        }
+
+        Random random = new Random(47);
+        WordLadderOptimized reference = new WordLadderOptimized();
+        boolean agree = true;
+        for (int round = 0; round < 200 && agree; round++) {
+            int length = 1 + random.nextInt(4);
+            int letters = 2 + random.nextInt(5);
+            List<String> words = randomWords(1 + random.nextInt(200), length, letters, random);
+            WordLadderIndex.Query query = new WordLadderIndex(words).newQuery();
+            for (int q = 0; q < 30 && agree; q++) {
+                String begin = random.nextInt(4) == 0 ? randomWords(1, length, letters, random).get(0)
+                        : words.get(random.nextInt(words.size()));
+                String end = words.get(random.nextInt(words.size()));
+                if (begin.equals(end)) {
+                    continue;   // WordLadderOptimized never answers 1 for a word to itself
+                }
+                agree = query.ladderLength(begin, end) == reference.ladderLength(begin, end, words);
+                Ladders ladders = query.allLadders(begin, end);
+                List<String> listed = new ArrayList<>();
+                for (List<String> ladder : ladders) {
+                    listed.add(String.join(" ", ladder));
+                }
+                List<String> expected = bruteForceLadders(begin, end, words);
+                TreeSet<String> distinct = new TreeSet<>(listed);
+                agree &= distinct.size() == listed.size() && distinct.equals(new TreeSet<>(expected))
+                        && ladders.count() == expected.size();
+            }
+        }
+        System.out.println("Lengths agree with WordLadderOptimized, ladders with brute force: " + agree);
+
+        // Every 20-letter word over {a, b}: 20! shortest ladders from a...a to b...b, 2^20 words.
+        List<String> binary = new ArrayList<>();
+        for (int mask = 0; mask < 1 << 20; mask++) {
+            StringBuilder word = new StringBuilder();
+            for (int i = 0; i < 20; i++) {
+                word.append((mask >>> i & 1) == 0 ? 'a' : 'b');
+            }
+            binary.add(word.toString());
+        }
+        Ladders huge = new WordLadderIndex(binary).newQuery().allLadders(binary.get(0), binary.get((1 << 20) - 1));
+        System.out.println("a^20 -> b^20: length " + huge.length() + ", " + huge.count() + " ladders over "
+                + huge.wordCount() + " words; the last words of the first two:");
+        huge.stream().limit(2).forEach(ladder -> System.out.println("  ... " + ladder.subList(18, 21)));
+
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int length = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        List<String> words = randomWords(size, length, 26, random);
+        long t0 = System.nanoTime();
+        WordLadderIndex index = new WordLadderIndex(words);
+        long t1 = System.nanoTime();
+        System.out.printf("%d words of %d letters: index built in %.0f ms, %d buckets%n", index.size(), length,
+                (t1 - t0) / 1e6, index.bucketCount());
+        String[][] pairs = new String[2000][];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = new String[]{words.get(random.nextInt(size)), words.get(random.nextInt(size))};
+        }
+        WordLadderIndex.Query query = index.newQuery();
+        for (int round = 0; round < 3; round++) {
+            long total = 0;
+            long t2 = System.nanoTime();
+            for (String[] pair : pairs) {
+                total += query.ladderLength(pair[0], pair[1]);
+            }
+            long t3 = System.nanoTime();
+            System.out.printf("  %d queries: %.1f us/query, average length %.2f%n", pairs.length,
+                    (t3 - t2) / 1e3 / pairs.length, (double) total / pairs.length);
+        }
+        List<String> begins = new ArrayList<>(), ends = new ArrayList<>();
+        for (String[] pair : pairs) {
+            begins.add(pair[0]);
+            ends.add(pair[1]);
+        }
+        for (int round = 0; round < 2; round++) {
+            long t2 = System.nanoTime();
+            int[] lengths = index.ladderLengths(begins, ends, ForkJoinPool.commonPool());
+            long t3 = System.nanoTime();
+            Ladders[] all = index.allLadders(begins, ends, ForkJoinPool.commonPool());
+            long t4 = System.nanoTime();
+            boolean same = true;
+            long ladders = 0;
+            for (int i = 0; i < pairs.length; i++) {
+                same &= lengths[i] == query.ladderLength(pairs[i][0], pairs[i][1]) && all[i].length() == lengths[i];
+                ladders = Math.min(Long.MAX_VALUE / 2, ladders + all[i].count());
+            }
+            System.out.printf("  batch on %d threads: lengths %.1f us/query, all ladders %.1f us/query"
+                    + " (%d ladders in all, consistent %b)%n", ForkJoinPool.commonPool().getParallelism(),
+                    (t3 - t2) / 1e3 / pairs.length, (t4 - t3) / 1e3 / pairs.length, ladders, same);
+        }
+        long t4 = System.nanoTime();
+        int check = 0;
+        for (int i = 0; i < 20; i++) {
+            check += reference.ladderLength(pairs[i][0], pairs[i][1], words) == query.ladderLength(pairs[i][0], pairs[i][1]) ? 1 : 0;
+        }
+        long t5 = System.nanoTime();
+        System.out.printf("  WordLadderOptimized: %.1f ms/query (%d/20 agree)%n", (t5 - t4) / 1e6 / 20, check);
+    }
+
+    // Every shortest ladder, by BFS distances to the end word and a depth-first walk down them.
+    private static List<String> bruteForceLadders(String begin, String end, List<String> dictionary) {
+        List<String> words = new ArrayList<>(new TreeSet<>(dictionary));
+        List<String> found = new ArrayList<>();
+        if (!words.contains(end)) {
+            return found;
+        }
+        if (!words.contains(begin)) {
+            words.add(begin);
+        }
+        Map<String, Integer> toEnd = new HashMap<>();
+        toEnd.put(end, 0);
+        List<String> level = List.of(end);
+        while (!level.isEmpty()) {
+            List<String> nextLevel = new ArrayList<>();
+            for (String u : level) {
+                for (String v : words) {
+                    if (!toEnd.containsKey(v) && oneLetterApart(u, v)) {
+                        toEnd.put(v, toEnd.get(u) + 1);
+                        nextLevel.add(v);
+                    }
+                }
+            }
+            level = nextLevel;
+        }
+        if (toEnd.containsKey(begin)) {
+            walk(begin, end, new ArrayList<>(List.of(begin)), toEnd, words, found);
+        }
+        return found;
+    }
+
+    private static void walk(String at, String end, List<String> path, Map<String, Integer> toEnd,
+                             List<String> words, List<String> found) {
+        if (at.equals(end)) {
+            found.add(String.join(" ", path));
+            return;
+        }
+        for (String v : words) {
+            if (toEnd.containsKey(v) && toEnd.get(v) == toEnd.get(at) - 1 && oneLetterApart(at, v)) {
+                path.add(v);
+                walk(v, end, path, toEnd, words, found);
+                path.remove(path.size() - 1);
+            }
+        }
+    }
+
+    private static boolean oneLetterApart(String a, String b) {
+        if (a.length() != b.length()) {
+            return false;
+        }
+        int differences = 0;
+        for (int i = 0; i < a.length(); i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                differences++;
+            }
+        }
+        return differences == 1;
+    }
+
+    private static List<String> randomWords(int count, int length, int letters, Random random) {
+        List<String> words = new ArrayList<>(count);
+        char[] chars = new char[length];
+        for (int i = 0; i < count; i++) {
+            for (int j = 0; j < length; j++) {
+                chars[j] = (char) ('a' + random.nextInt(letters));
+            }
+            words.add(new String(chars));
+        }
+        return words;
+    }
+}
@@ -1,6 +1,12 @@
 package trees;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
 
 /**
  * The {@code BinarySearchTree} class provides an implementation of a Binary Search Tree (BST)
@@ -12,6 +18,14 @@ import java.util.ArrayList;
  * <p>Additionally, it provides a method to find the Lowest Common Ancestor (LCA) of two nodes
  * within the BST.</p>
  *
+ * <p>Ordered queries ({@code floor}, {@code ceiling}, {@code higher}, {@code lower}) and range
+ * queries ({@code range}, {@code forEachInRange}, {@code countInRange}) prune subtrees that fall
+ * outside the requested bounds and run in O(h + k), where k is the number of values reported.</p>
+ *
+ * <p>{@code fromSorted} bulk-loads a tree from sorted input in O(n), height-balanced when the
+ * values are distinct, and
+ * {@code merge} combines two trees in O(n + m) by flattening both and rebuilding.</p>
+ *
  * <p>Example Usage:</p>
  * <pre>{@code
  * BinarySearchTree bst = new BinarySearchTree();
@@ -222,6 +236,260 @@ public class BinarySearchTree {
         return null; // If LCA doesn't exist (which shouldn't happen given the constraints).
     }
 
+    ///////////////////////////////////////////////////////
+    //////////     Floor / Ceiling Functions    /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Finds the greatest value in the BST that is less than or equal to the given value.
+     *
+     * @param value The value to search for.
+     * @return The floor of {@code value}, or {@code null} if every value in the BST is greater.
+     */
+    public Integer floor(int value) {
+        return BstNeighbors.floor(this.root, value, n -> n.left, n -> n.right, n -> n.value);
+    }
+
+    /**
+     * Finds the smallest value in the BST that is greater than or equal to the given value.
+     *
+     * @param value The value to search for.
+     * @return The ceiling of {@code value}, or {@code null} if every value in the BST is smaller.
+     */
+    public Integer ceiling(int value) {
+        return BstNeighbors.ceiling(this.root, value, n -> n.left, n -> n.right, n -> n.value);
+    }
+
+    /**
+     * Finds the smallest value in the BST that is strictly greater than the given value.
+     *
+     * @param value The value to search for.
+     * @return The successor of {@code value}, or {@code null} if no such value exists.
+     */
+    public Integer higher(int value) {
+        return BstNeighbors.higher(this.root, value, n -> n.left, n -> n.right, n -> n.value);
+    }
+
+    /**
+     * Finds the greatest value in the BST that is strictly less than the given value.
+     *
+     * @param value The value to search for.
+     * @return The predecessor of {@code value}, or {@code null} if no such value exists.
+     */
+    public Integer lower(int value) {
+        return BstNeighbors.lower(this.root, value, n -> n.left, n -> n.right, n -> n.value);
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////      Range Query Functions      /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Streams every value {@code v} with {@code from <= v <= to} in ascending order.
+     *
+     * <p>The stream is backed by an in-order iterator that only descends into subtrees that can
+     * still hold values inside the range, so no intermediate list is built and consuming
+     * {@code k} values costs O(h + k), where h is the height of the tree.</p>
+     *
+     * @param from The inclusive lower bound.
+     * @param to   The inclusive upper bound.
+     * @return A sequential {@code IntStream} over the values in the range.
+     */
+    public IntStream range(int from, int to) {
+        return BstRangeIterator.stream(rangeIterator(from, to));
+    }
+
+    /**
+     * Returns an ascending iterator over every value {@code v} with {@code from <= v <= to}.
+     *
+     * @param from The inclusive lower bound.
+     * @param to   The inclusive upper bound.
+     * @return A {@code PrimitiveIterator.OfInt} over the values in the range.
+     */
+    public PrimitiveIterator.OfInt rangeIterator(int from, int to) {
+        return new BstRangeIterator<>(this.root, from, to, n -> n.left, n -> n.right, n -> n.value);
+    }
+
+    /**
+     * Passes every value {@code v} with {@code from <= v <= to} to the given action in ascending order.
+     *
+     * @param from   The inclusive lower bound.
+     * @param to     The inclusive upper bound.
+     * @param action The action invoked for each value in the range.
+     */
+    public void forEachInRange(int from, int to, IntConsumer action) {
+        PrimitiveIterator.OfInt it = rangeIterator(from, to);
+        while (it.hasNext()) {
+            action.accept(it.nextInt());
+        }
+    }
+
+    /**
+     * Counts the values {@code v} with {@code from <= v <= to}.
+     *
+     * @param from The inclusive lower bound.
+     * @param to   The inclusive upper bound.
+     * @return The number of values in the range.
+     */
+    public int countInRange(int from, int to) {
+        int count = 0;
+        PrimitiveIterator.OfInt it = rangeIterator(from, to);
+        while (it.hasNext()) {
+            it.nextInt();
+            count++;
+        }
+        return count;
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////     Bulk Load / Merge Functions   /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Builds a BST from values that are already in non-decreasing order, height-balanced when the
+     * values are distinct.
+     *
+     * <p>The value at each sub-range's midpoint becomes its root, so for distinct values the tree
+     * is built with O(n) work and its height is {@code floor(log2 n)}. Equal values are placed
+     * as {@link #insert(int)} places them, in the left subtree, so the root moves to the edge of
+     * its run of equal values; a value repeated k times forces a height of at least k - 1.</p>
+     *
+     * @param sorted The values in non-decreasing order.
+     * @return A new {@code BinarySearchTree} holding every value in {@code sorted}.
+     * @throws IllegalArgumentException if {@code sorted} is not in non-decreasing order.
+     */
+    public static BinarySearchTree fromSorted(int[] sorted) {
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i - 1] > sorted[i]) {
+                throw new IllegalArgumentException("Input is not sorted at index " + i);
+            }
+        }
+        BinarySearchTree tree = new BinarySearchTree();
+        tree.root = buildBalanced(sorted, 0, sorted.length - 1);
+        return tree;
+    }
+
+    /**
+     * Builds a BST from a stream of values in non-decreasing order, as {@link #fromSorted(int[])} does;
+     * the tree is height-balanced only when the values are distinct.
+     *
+     * @param sorted The values in non-decreasing order.
+     * @return A new {@code BinarySearchTree} holding every value in {@code sorted}.
+     * @throws IllegalArgumentException if {@code sorted} is not in non-decreasing order.
+     */
+    public static BinarySearchTree fromSorted(IntStream sorted) {
+        return fromSorted(sorted.toArray());
+    }
+
+    /**
+     * Merges two BSTs into a new BST in O(n + m), height-balanced when the merged values are distinct.
+     *
+     * <p>Both trees are flattened with an iterative in-order walk, the two sorted arrays are
+     * merged, and the result is rebuilt with {@link #fromSorted(int[])}. Neither input is modified.</p>
+     *
+     * @param first  The first tree.
+     * @param second The second tree.
+     * @return A new {@code BinarySearchTree} holding the values of both trees.
+     * @throws ArithmeticException if the two trees together hold more than {@code Integer.MAX_VALUE} values.
+     */
+    public static BinarySearchTree merge(BinarySearchTree first, BinarySearchTree second) {
+        int[] a = first.toSortedArray();
+        int[] b = second.toSortedArray();
+        int[] merged = new int[Math.addExact(a.length, b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            merged[k++] = a[i] <= b[j] ? a[i++] : b[j++];
+        }
+        while (i < a.length) {
+            merged[k++] = a[i++];
+        }
+        while (j < b.length) {
+            merged[k++] = b[j++];
+        }
+        BinarySearchTree tree = new BinarySearchTree();
+        tree.root = buildBalanced(merged, 0, merged.length - 1);
+        return tree;
+    }
+
+    /**
+     * Returns the values of the BST in ascending order.
+     *
+     * <p>The walk is iterative, so it works on degenerate (list-shaped) trees of any depth.</p>
+     *
+     * @return An {@code int[]} with the in-order values of the BST.
+     */
+    public int[] toSortedArray() {
+        int[] values = new int[size()];
+        int index = 0;
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        Node current = this.root;
+        while (current != null || !stack.isEmpty()) {
+            while (current != null) {
+                stack.push(current);
+                current = current.left;
+            }
+            current = stack.pop();
+            values[index++] = current.value;
+            current = current.right;
+        }
+        return values;
+    }
+
+    /**
+     * Counts the nodes in the BST with an iterative walk.
+     *
+     * @return The number of values stored in the BST.
+     */
+    public int size() {
+        if (this.root == null) {
+            return 0;
+        }
+        int count = 0;
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        stack.push(this.root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            count++;
+            if (node.left != null) {
+                stack.push(node.left);
+            }
+            if (node.right != null) {
+                stack.push(node.right);
+            }
+        }
+        return count;
+    }
+
+    // Places equal values as insert does: left subtree <= node < right subtree. The root of each
+    // range is therefore the last of its run of equal values, or the value just before the run,
+    // whichever is nearer the midpoint. A range of one repeated value is the left chain insert would
+    // build, made iteratively; otherwise recursion depth is bounded by the height of the result.
+    private static Node buildBalanced(int[] sorted, int lo, int hi) {
+        if (lo > hi) {
+            return null;
+        }
+        if (sorted[lo] == sorted[hi]) {
+            Node top = null;
+            for (int i = lo; i <= hi; i++) {
+                Node node = new Node(sorted[i]);
+                node.left = top;
+                top = node;
+            }
+            return top;
+        }
+        int mid = (lo + hi) >>> 1;
+        int first = mid;
+        int last = mid;
+        while (first > lo && sorted[first - 1] == sorted[mid]) {
+            first--;
+        }
+        while (last < hi && sorted[last + 1] == sorted[mid]) {
+            last++;
+        }
+        int split = first > lo && mid - (first - 1) < last - mid ? first - 1 : last;
+        Node node = new Node(sorted[split]);
+        node.left = buildBalanced(sorted, lo, split - 1);
+        node.right = buildBalanced(sorted, split + 1, hi);
+        return node;
+    }
+
     ///////////////////////////////////////////////////////
     //////////                DFS               /////////////
     ///////////////////////////////////////////////////////
@@ -257,6 +525,17 @@ public class BinarySearchTree {
         return hlp.traversePostOrder(this.root, answer);
     }
 
+    /**
+     * Computes size, sum, height, minimum, maximum and a predicate count over the BST in one
+     * fork-join pass. The walk is iterative, so degenerate trees built from sorted inserts are safe.
+     *
+     * @param predicate The predicate to count matches of, or {@code null}.
+     * @return The {@code ParallelTreeReducer.TreeSummary} of the BST.
+     */
+    public ParallelTreeReducer.TreeSummary summarize(IntPredicate predicate) {
+        return new ParallelTreeReducer<Node>(n -> n.left, n -> n.right, n -> n.value).summarize(this.root, predicate);
+    }
+
     ///////////////////////////////////////////////////////
     //////////   Breadth First Search Methods    //////////
     ///////////////////////////////////////////////////////
@@ -359,10 +638,32 @@ public class BinarySearchTree {
         System.out.println("DFS InOrder: " + bst.DFSInOrder());
         System.out.println("DFS PreOrder: " + bst.DFSPreOrder());
         System.out.println("DFS PostOrder: " + bst.DFSPostOrder());
+        System.out.println("Summary: " + bst.summarize(v -> v % 2 == 0));
 
         // Lookup for a value in the BST.
         System.out.println("Lookup 8: " + bst.lookup(8)); // Output: true
 
+        // Ordered and range queries.
+        System.out.println("Floor 8: " + bst.floor(8));     // Output: 8
+        System.out.println("Ceiling 8: " + bst.ceiling(8)); // Output: 8
+        System.out.println("Higher 4: " + bst.higher(4));   // Output: 5
+        System.out.println("Lower 0: " + bst.lower(0));     // Output: null
+        System.out.println("Range [3, 7]: " + Arrays.toString(bst.range(3, 7).toArray())); // Output: [3, 4, 5, 6, 7]
+        System.out.println("Count in [3, 7]: " + bst.countInRange(3, 7)); // Output: 5
+
+        // Bulk-load a balanced tree and merge it with the existing one.
+        BinarySearchTree loaded = BinarySearchTree.fromSorted(new int[]{1, 10, 11, 12, 13, 14, 15});
+        System.out.println("Bulk-loaded BFS: " + loaded.breadthFirstSearch()); // Output: [12, 10, 14, 1, 11, 13, 15]
+        BinarySearchTree merged = BinarySearchTree.merge(bst, loaded);
+        System.out.println("Merged InOrder: " + merged.DFSInOrder());
+        System.out.println("Merged size: " + merged.size()); // Output: 16
+
+        // Bulk-loaded duplicates sit on the left, as insert puts them, so later inserts agree.
+        BinarySearchTree duplicates = BinarySearchTree.fromSorted(new int[]{2, 2, 5, 5, 5, 7});
+        System.out.println("Duplicates BFS: " + duplicates.breadthFirstSearch()); // Output: [2, 2, 5, 5, 7, 5]
+        duplicates.insert(5);
+        System.out.println("Count in [5, 5] after insert: " + duplicates.countInRange(5, 5)); // Output: 4
+
         // Remove a node and perform lookup again.
         bst.remove(8);
         System.out.println("Lookup 8 after removing 8: " + bst.lookup(8)); // Output: false
@@ -0,0 +1,126 @@
+package trees;
+
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * The {@code BstNeighbors} class answers the ordered neighbour queries {@code floor},
+ * {@code ceiling}, {@code higher} and {@code lower} on a binary search tree.
+ *
+ * <p>Like {@link BstRangeIterator}, it is independent of the node class: it is given accessors
+ * for the left child, the right child and the integer value, so the same code serves
+ * {@code BinarySearchTree} and {@code trees.bst.MyBST}.</p>
+ *
+ * <p>Each query walks a single root-to-leaf path, remembering the last node that satisfied the
+ * bound, so no recursion or extra storage is needed.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * Integer f = BstNeighbors.floor(root, 7, n -> n.left, n -> n.right, n -> n.value);
+ * }</pre>
+ *
+ * <p><strong>Time Complexity:</strong> O(h) per query for a tree of height h.</p>
+ * <p><strong>Space Complexity:</strong> O(1).</p>
+ */
+public final class BstNeighbors {
+
+    private BstNeighbors() {
+    }
+
+    /**
+     * Finds the greatest value in the tree that is less than or equal to {@code value}.
+     *
+     * @param root  The root of the tree, or {@code null} for an empty tree.
+     * @param value The value to search for.
+     * @param left  Returns the left child of a node, or {@code null}.
+     * @param right Returns the right child of a node, or {@code null}.
+     * @param key   Returns the value stored in a node.
+     * @param <N>   The node type of the tree.
+     * @return The floor of {@code value}, or {@code null} if every value in the tree is greater.
+     */
+    public static <N> Integer floor(N root, int value, Function<N, N> left, Function<N, N> right,
+                                    ToIntFunction<N> key) {
+        return below(root, value, false, left, right, key);
+    }
+
+    /**
+     * Finds the greatest value in the tree that is strictly less than {@code value}.
+     *
+     * @param root  The root of the tree, or {@code null} for an empty tree.
+     * @param value The value to search for.
+     * @param left  Returns the left child of a node, or {@code null}.
+     * @param right Returns the right child of a node, or {@code null}.
+     * @param key   Returns the value stored in a node.
+     * @param <N>   The node type of the tree.
+     * @return The predecessor of {@code value}, or {@code null} if no such value exists.
+     */
+    public static <N> Integer lower(N root, int value, Function<N, N> left, Function<N, N> right,
+                                    ToIntFunction<N> key) {
+        return below(root, value, true, left, right, key);
+    }
+
+    /**
+     * Finds the smallest value in the tree that is greater than or equal to {@code value}.
+     *
+     * @param root  The root of the tree, or {@code null} for an empty tree.
+     * @param value The value to search for.
+     * @param left  Returns the left child of a node, or {@code null}.
+     * @param right Returns the right child of a node, or {@code null}.
+     * @param key   Returns the value stored in a node.
+     * @param <N>   The node type of the tree.
+     * @return The ceiling of {@code value}, or {@code null} if every value in the tree is smaller.
+     */
+    public static <N> Integer ceiling(N root, int value, Function<N, N> left, Function<N, N> right,
+                                      ToIntFunction<N> key) {
+        return above(root, value, false, left, right, key);
+    }
+
+    /**
+     * Finds the smallest value in the tree that is strictly greater than {@code value}.
+     *
+     * @param root  The root of the tree, or {@code null} for an empty tree.
+     * @param value The value to search for.
+     * @param left  Returns the left child of a node, or {@code null}.
+     * @param right Returns the right child of a node, or {@code null}.
+     * @param key   Returns the value stored in a node.
+     * @param <N>   The node type of the tree.
+     * @return The successor of {@code value}, or {@code null} if no such value exists.
+     */
+    public static <N> Integer higher(N root, int value, Function<N, N> left, Function<N, N> right,
+                                     ToIntFunction<N> key) {
+        return above(root, value, true, left, right, key);
+    }
+
+    // Greatest value below value (or equal to it unless strict): a node that qualifies becomes the
+    // candidate and the search moves right looking for a larger one.
+    private static <N> Integer below(N current, int value, boolean strict, Function<N, N> left,
+                                     Function<N, N> right, ToIntFunction<N> key) {
+        N candidate = null;
+        while (current != null) {
+            int v = key.applyAsInt(current);
+            if (v < value || (!strict && v == value)) {
+                candidate = current;
+                current = right.apply(current);
+            } else {
+                current = left.apply(current);
+            }
+        }
+        return candidate == null ? null : key.applyAsInt(candidate);
+    }
+
+    // Smallest value above value (or equal to it unless strict), mirroring below.
+    private static <N> Integer above(N current, int value, boolean strict, Function<N, N> left,
+                                     Function<N, N> right, ToIntFunction<N> key) {
+        N candidate = null;
+        while (current != null) {
+            int v = key.applyAsInt(current);
+            if (v > value || (!strict && v == value)) {
+                candidate = current;
+                current = left.apply(current);
+            } else {
+                current = right.apply(current);
+            }
+        }
+        return candidate == null ? null : key.applyAsInt(candidate);
+    }
+}
@@ -0,0 +1,110 @@
+package trees;
+
+import java.util.ArrayDeque;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The {@code BstRangeIterator} class is an ascending in-order iterator over the values {@code v}
+ * of a binary search tree with {@code from <= v <= to}.
+ *
+ * <p>Like {@link ParallelTreeReducer}, it is independent of the node class: it is given accessors
+ * for the left child, the right child and the integer value, so the same code serves the range
+ * queries of {@code BinarySearchTree} and {@code trees.bst.MyBST}.</p>
+ *
+ * <p>Left subtrees of nodes below {@code from} are never pushed, and iteration stops at the first
+ * value above {@code to}, so only the search paths and the reported nodes are visited. The walk
+ * uses an explicit stack, so degenerate (list-shaped) trees of any depth are safe.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * PrimitiveIterator.OfInt it = new BstRangeIterator<>(root, 3, 7, n -> n.left, n -> n.right, n -> n.value);
+ * IntStream values = BstRangeIterator.stream(it);
+ * }</pre>
+ *
+ * <p><strong>Time Complexity:</strong> O(h + k) to report k values from a tree of height h.</p>
+ * <p><strong>Space Complexity:</strong> O(h) for the stack.</p>
+ *
+ * @param <N> The node type of the tree.
+ */
+public final class BstRangeIterator<N> implements PrimitiveIterator.OfInt {
+    private final ArrayDeque<N> stack = new ArrayDeque<>();
+    private final Function<N, N> left;
+    private final Function<N, N> right;
+    private final ToIntFunction<N> value;
+    private final int from;
+    private final int to;
+
+    /**
+     * Constructs an iterator over the values of the tree at {@code root} within {@code [from, to]}.
+     *
+     * @param root  The root of the tree, or {@code null} for an empty tree.
+     * @param from  The inclusive lower bound.
+     * @param to    The inclusive upper bound.
+     * @param left  Returns the left child of a node, or {@code null}.
+     * @param right Returns the right child of a node, or {@code null}.
+     * @param value Returns the value stored in a node.
+     */
+    public BstRangeIterator(N root, int from, int to, Function<N, N> left, Function<N, N> right,
+                            ToIntFunction<N> value) {
+        this.left = left;
+        this.right = right;
+        this.value = value;
+        this.from = from;
+        this.to = to;
+        pushLeft(root);
+    }
+
+    /**
+     * Wraps a range iterator in a sequential, sorted {@code IntStream}.
+     *
+     * @param iterator The iterator to stream.
+     * @return An {@code IntStream} over the remaining values of {@code iterator}.
+     */
+    public static IntStream stream(PrimitiveIterator.OfInt iterator) {
+        return StreamSupport.intStream(
+                Spliterators.spliteratorUnknownSize(iterator,
+                        Spliterator.ORDERED | Spliterator.SORTED | Spliterator.NONNULL),
+                false);
+    }
+
+    // Push the left spine of node, skipping nodes (and their left subtrees) below the range.
+    private void pushLeft(N node) {
+        while (node != null) {
+            if (value.applyAsInt(node) < from) {
+                node = right.apply(node);
+            } else {
+                stack.push(node);
+                node = left.apply(node);
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (stack.isEmpty()) {
+            return false;
+        }
+        if (value.applyAsInt(stack.peek()) > to) {
+            stack.clear();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int nextInt() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        N node = stack.pop();
+        pushLeft(right.apply(node));
+        return value.applyAsInt(node);
+    }
+}
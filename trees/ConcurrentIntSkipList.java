@@ -0,0 +1,421 @@
+package trees;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The {@code ConcurrentIntSkipList} class is a lock-free ordered set of primitive {@code int} keys
+ * intended to replace a {@code MyBST} or {@code BinarySearchTree} shared behind a lock.
+ *
+ * <p>It follows the lock-free skip list of Herlihy and Shavit: a node is logically removed by
+ * marking its forward pointers, top level first, then physically unlinked by later traversals.
+ * Instead of an {@code AtomicMarkableReference} (which costs a {@code Pair} object per pointer and
+ * an extra hop on every read), a marked pointer is stored as a {@code Marked} wrapper in a plain
+ * {@code Object[]} updated through a {@code VarHandle}, so live pointers lead straight to the next
+ * node and only deletions allocate. {@code insert} and
+ * {@code remove} are lock-free; {@code lookup} is wait-free and never writes to shared state.
+ * Range iteration is weakly consistent, like {@code ConcurrentSkipListSet}: it never throws
+ * {@code ConcurrentModificationException} and reports keys present at some point during the walk.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * ConcurrentIntSkipList set = new ConcurrentIntSkipList();
+ * set.insert(20);
+ * set.insert(5);
+ * set.insert(12);
+ * set.lookup(12);                           // true
+ * set.remove(12);                           // true
+ * set.range(0, 100).forEach(System.out::println); // 5, 20
+ * }</pre>
+ *
+ * <p><strong>Time Complexity:</strong> O(log n) expected for insert, lookup and remove;
+ * O(log n + k) for a range reporting k keys.</p>
+ * <p><strong>Space Complexity:</strong> O(n) expected, about 1.33 forward pointers per key.</p>
+ *
+ * @author
+ */
+public class ConcurrentIntSkipList {
+    // Levels are promoted with p = 1/4, so 16 levels cover the full 2^32 int range.
+    private static final int MAX_LEVEL = 16;
+
+    private final Node head = new Node(Integer.MIN_VALUE, MAX_LEVEL - 1);
+    private final Node tail = new Node(Integer.MAX_VALUE, MAX_LEVEL - 1);
+
+    // Highest level any node has been given; searches start here instead of at MAX_LEVEL - 1.
+    // It only grows, and levels above it hold nothing but head -> tail.
+    private final AtomicInteger maxLevel = new AtomicInteger();
+
+    private static final VarHandle NEXT = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    /**
+     * Constructs an empty set.
+     */
+    public ConcurrentIntSkipList() {
+        for (int level = 0; level < MAX_LEVEL; level++) {
+            head.next[level] = tail;
+        }
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////          Insert Function       /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Adds the key to the set if it is not already present.
+     *
+     * @param key The key to insert.
+     * @return {@code true} if the key was added; {@code false} if it was already present.
+     */
+    public boolean insert(int key) {
+        int topLevel = randomLevel();
+        if (topLevel > maxLevel.get()) {
+            maxLevel.accumulateAndGet(topLevel, Math::max);
+        }
+        Node[] preds = new Node[MAX_LEVEL];
+        Node[] succs = new Node[MAX_LEVEL];
+        while (true) {
+            if (find(key, preds, succs)) {
+                return false;
+            }
+            // Plain writes are safe here: the CAS that publishes the node has release semantics.
+            Node newNode = new Node(key, topLevel);
+            for (int level = 0; level <= topLevel; level++) {
+                newNode.next[level] = succs[level];
+            }
+            // Linking the bottom level is the linearization point.
+            if (!casNext(preds[0], 0, succs[0], newNode)) {
+                continue;
+            }
+            for (int level = 1; level <= topLevel; level++) {
+                while (true) {
+                    Node succ = succs[level];
+                    Object current = nextOf(newNode, level);
+                    if (current instanceof Marked) {
+                        // A concurrent remove already claimed the node; let find() unlink it.
+                        find(key, preds, succs);
+                        return true;
+                    }
+                    if (current != succ && !casNext(newNode, level, current, succ)) {
+                        continue;
+                    }
+                    if (casNext(preds[level], level, succ, newNode)) {
+                        break;
+                    }
+                    find(key, preds, succs);
+                }
+            }
+            return true;
+        }
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////          Lookup Function       /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Checks whether the key is in the set. Never blocks and never modifies the list.
+     *
+     * @param key The key to search for.
+     * @return {@code true} if the key is present; {@code false} otherwise.
+     */
+    public boolean lookup(int key) {
+        Node node = ceilingNode(key);
+        return node != tail && node.key == key;
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////          Remove Function       /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Removes the key from the set if it is present.
+     *
+     * @param key The key to remove.
+     * @return {@code true} if this call removed the key; {@code false} if it was absent.
+     */
+    public boolean remove(int key) {
+        Node[] preds = new Node[MAX_LEVEL];
+        Node[] succs = new Node[MAX_LEVEL];
+        if (!find(key, preds, succs)) {
+            return false;
+        }
+        Node victim = succs[0];
+        // Mark the upper levels first so no new links are built on top of the victim.
+        for (int level = victim.next.length - 1; level >= 1; level--) {
+            Object succ = nextOf(victim, level);
+            while (!(succ instanceof Marked)) {
+                casNext(victim, level, succ, new Marked((Node) succ));
+                succ = nextOf(victim, level);
+            }
+        }
+        // Marking the bottom level is the linearization point; only one remover can win it.
+        while (true) {
+            Object succ = nextOf(victim, 0);
+            if (succ instanceof Marked) {
+                return false;
+            }
+            if (casNext(victim, 0, succ, new Marked((Node) succ))) {
+                find(key, preds, succs);
+                return true;
+            }
+        }
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////      Range Query Functions      /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Streams every key {@code k} with {@code from <= k <= to} in ascending order.
+     *
+     * @param from The inclusive lower bound.
+     * @param to   The inclusive upper bound.
+     * @return A sequential, weakly consistent {@code IntStream} over the keys in the range.
+     */
+    public IntStream range(int from, int to) {
+        return StreamSupport.intStream(
+                Spliterators.spliteratorUnknownSize(rangeIterator(from, to),
+                        Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT
+                                | Spliterator.NONNULL | Spliterator.CONCURRENT),
+                false);
+    }
+
+    /**
+     * Returns an ascending, weakly consistent iterator over every key {@code k} with
+     * {@code from <= k <= to}.
+     *
+     * @param from The inclusive lower bound.
+     * @param to   The inclusive upper bound.
+     * @return A {@code PrimitiveIterator.OfInt} over the keys in the range.
+     */
+    public PrimitiveIterator.OfInt rangeIterator(int from, int to) {
+        return new RangeIterator(ceilingNode(from), to);
+    }
+
+    /**
+     * Passes every key {@code k} with {@code from <= k <= to} to the given action in ascending order.
+     *
+     * @param from   The inclusive lower bound.
+     * @param to     The inclusive upper bound.
+     * @param action The action invoked for each key in the range.
+     */
+    public void forEachInRange(int from, int to, IntConsumer action) {
+        PrimitiveIterator.OfInt it = rangeIterator(from, to);
+        while (it.hasNext()) {
+            action.accept(it.nextInt());
+        }
+    }
+
+    /**
+     * Counts the keys {@code k} with {@code from <= k <= to}. Weakly consistent under concurrent updates.
+     *
+     * @param from The inclusive lower bound.
+     * @param to   The inclusive upper bound.
+     * @return The number of keys in the range.
+     */
+    public int countInRange(int from, int to) {
+        int count = 0;
+        PrimitiveIterator.OfInt it = rangeIterator(from, to);
+        while (it.hasNext()) {
+            it.nextInt();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Counts every key in the set by walking the bottom level. Weakly consistent under
+     * concurrent updates.
+     *
+     * @return The number of keys in the set.
+     */
+    public int size() {
+        return countInRange(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////         Helper Functions        /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Locates the predecessor and successor of {@code key} on every level, unlinking marked nodes
+     * on the way.
+     *
+     * @return {@code true} if an unmarked node holding {@code key} is linked at the bottom level.
+     */
+    private boolean find(int key, Node[] preds, Node[] succs) {
+        retry:
+        while (true) {
+            Node pred = head;
+            for (int level = maxLevel.get(); level >= 0; level--) {
+                Node curr = unmark(nextOf(pred, level));
+                while (true) {
+                    Object succ = nextOf(curr, level);
+                    while (succ instanceof Marked) {
+                        Node next = ((Marked) succ).successor;
+                        if (!casNext(pred, level, curr, next)) {
+                            continue retry;
+                        }
+                        curr = next;
+                        succ = nextOf(curr, level);
+                    }
+                    if (curr != tail && curr.key < key) {
+                        pred = curr;
+                        curr = (Node) succ;
+                    } else {
+                        break;
+                    }
+                }
+                preds[level] = pred;
+                succs[level] = curr;
+            }
+            return succs[0] != tail && succs[0].key == key;
+        }
+    }
+
+    /**
+     * Returns the first unmarked node whose key is at least {@code key}, or {@code tail}.
+     * Read-only: marked nodes are skipped, not unlinked.
+     */
+    private Node ceilingNode(int key) {
+        Node pred = head;
+        Node curr = null;
+        for (int level = maxLevel.get(); level >= 0; level--) {
+            curr = unmark(nextOf(pred, level));
+            while (true) {
+                Object succ = nextOf(curr, level);
+                while (succ instanceof Marked) {
+                    curr = ((Marked) succ).successor;
+                    succ = nextOf(curr, level);
+                }
+                if (curr != tail && curr.key < key) {
+                    pred = curr;
+                    curr = (Node) succ;
+                } else {
+                    break;
+                }
+            }
+        }
+        return curr;
+    }
+
+    // Volatile read of a forward pointer: either a Node, a Marked wrapper, or null past the tail.
+    private static Object nextOf(Node node, int level) {
+        return NEXT.getVolatile(node.next, level);
+    }
+
+    private static boolean casNext(Node node, int level, Object expected, Object update) {
+        return NEXT.compareAndSet(node.next, level, expected, update);
+    }
+
+    private static Node unmark(Object pointer) {
+        return pointer instanceof Marked ? ((Marked) pointer).successor : (Node) pointer;
+    }
+
+    // Geometric distribution with p = 1/4: each pair of trailing zero bits adds one level.
+    private static int randomLevel() {
+        int bits = ThreadLocalRandom.current().nextInt() | Integer.MIN_VALUE;
+        return Math.min(Integer.numberOfTrailingZeros(bits) >>> 1, MAX_LEVEL - 1);
+    }
+
+    /**
+     * The {@code main} method demonstrates concurrent inserts followed by lookups and a range query.
+     *
+     * @param args Command-line arguments (not utilized in this program).
+     */
+    public static void main(String[] args) throws InterruptedException {
+        ConcurrentIntSkipList set = new ConcurrentIntSkipList();
+
+        // Four threads insert the multiples of 1..4 below 100 concurrently.
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            int step = t + 1;
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < 100; i += step) {
+                    set.insert(i);
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        System.out.println("Size: " + set.size());                    // Output: 100
+        System.out.println("Lookup 42: " + set.lookup(42));           // Output: true
+        System.out.println("Remove 42: " + set.remove(42));           // Output: true
+        System.out.println("Lookup 42 after removing: " + set.lookup(42)); // Output: false
+        System.out.println("Range [40, 45]: " + Arrays.toString(set.range(40, 45).toArray()));
+        // Output: [40, 41, 43, 44, 45]
+    }
+
+    /**
+     * Bottom-level walk from a starting node, skipping logically deleted nodes.
+     */
+    private final class RangeIterator implements PrimitiveIterator.OfInt {
+        private final int to;
+        private Node next;
+
+        RangeIterator(Node start, int to) {
+            this.to = to;
+            this.next = start;
+            skipDeleted();
+        }
+
+        private void skipDeleted() {
+            Object succ;
+            while (next != tail && (succ = nextOf(next, 0)) instanceof Marked) {
+                next = ((Marked) succ).successor;
+            }
+            if (next != tail && next.key > to) {
+                next = tail;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != tail;
+        }
+
+        @Override
+        public int nextInt() {
+            if (next == tail) {
+                throw new NoSuchElementException();
+            }
+            int key = next.key;
+            next = unmark(nextOf(next, 0));
+            skipDeleted();
+            return key;
+        }
+    }
+
+    /**
+     * A skip list node holding one key and {@code topLevel + 1} forward pointers. Each pointer is
+     * a {@code Node} while the node is live, and a {@code Marked} once removal has claimed it.
+     */
+    private static final class Node {
+        final int key;
+        final Object[] next;
+
+        Node(int key, int topLevel) {
+            this.key = key;
+            this.next = new Object[topLevel + 1];
+        }
+    }
+
+    /**
+     * A forward pointer whose owner has been logically deleted. Never modified once installed.
+     */
+    private static final class Marked {
+        final Node successor;
+
+        Marked(Node successor) {
+            this.successor = successor;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package trees;
+
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import trees.bst.MyBST;
+
+/**
+ * The {@code ConcurrentIntSkipListBenchmark} class compares the throughput of
+ * {@code ConcurrentIntSkipList} against a {@code MyBST} guarded by a single lock and against
+ * {@code ConcurrentSkipListSet<Integer>} at 1 to 64 threads.
+ *
+ * <p>Each set is pre-filled with half of the key range, then every thread runs a random mix of
+ * lookups, inserts and removes for a fixed duration. The read ratio defaults to 90% with the
+ * remaining operations split evenly between inserts and removes, so the set size stays stable.</p>
+ *
+ * <p>Run from the repository root:</p>
+ * <pre>{@code
+ * javac -d out trees/*.java trees/bst/*.java
+ * java -cp out trees.ConcurrentIntSkipListBenchmark [keyRange] [readPercent] [millisPerRun]
+ * }</pre>
+ *
+ * <p>Throughput is printed in million operations per second. Run on an otherwise idle machine
+ * with at least as many cores as the largest thread count for meaningful scaling numbers.</p>
+ *
+ * @author
+ */
+public class ConcurrentIntSkipListBenchmark {
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+
+    /**
+     * The operations the benchmark drives on each candidate set.
+     */
+    private interface IntSet {
+        boolean insert(int key);
+
+        boolean lookup(int key);
+
+        boolean remove(int key);
+    }
+
+    private static IntSet lockedBst() {
+        MyBST bst = new MyBST();
+        Object lock = new Object();
+        return new IntSet() {
+            public boolean insert(int key) {
+                synchronized (lock) {
+                    // MyBST keeps duplicates, so check first to get set semantics.
+                    if (bst.lookup(key)) {
+                        return false;
+                    }
+                    bst.insert(key);
+                    return true;
+                }
+            }
+
+            public boolean lookup(int key) {
+                synchronized (lock) {
+                    return bst.lookup(key);
+                }
+            }
+
+            public boolean remove(int key) {
+                synchronized (lock) {
+                    if (!bst.lookup(key)) {
+                        return false;
+                    }
+                    bst.remove(key);
+                    return true;
+                }
+            }
+        };
+    }
+
+    private static IntSet jdkSkipList() {
+        ConcurrentSkipListSet<Integer> set = new ConcurrentSkipListSet<>();
+        return new IntSet() {
+            public boolean insert(int key) {
+                return set.add(key);
+            }
+
+            public boolean lookup(int key) {
+                return set.contains(key);
+            }
+
+            public boolean remove(int key) {
+                return set.remove(key);
+            }
+        };
+    }
+
+    private static IntSet intSkipList() {
+        ConcurrentIntSkipList set = new ConcurrentIntSkipList();
+        return new IntSet() {
+            public boolean insert(int key) {
+                return set.insert(key);
+            }
+
+            public boolean lookup(int key) {
+                return set.lookup(key);
+            }
+
+            public boolean remove(int key) {
+                return set.remove(key);
+            }
+        };
+    }
+
+    /**
+     * Runs one timed measurement and returns the throughput in operations per second.
+     */
+    private static double run(IntSet set, int threads, int keyRange, int readPercent, long millis)
+            throws InterruptedException {
+        // Pre-fill in random order so the unbalanced MyBST stays close to logarithmic height.
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < keyRange / 2; i++) {
+            set.insert(random.nextInt(keyRange));
+        }
+
+        AtomicLong totalOps = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        long[] deadline = new long[1];
+        int insertBound = readPercent + (100 - readPercent) / 2;
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                long ops = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long end = deadline[0];
+                // Check the clock every 1024 operations to keep timing overhead out of the loop.
+                while ((ops & 1023) != 0 || System.nanoTime() < end) {
+                    int key = rnd.nextInt(keyRange);
+                    int op = rnd.nextInt(100);
+                    if (op < readPercent) {
+                        set.lookup(key);
+                    } else if (op < insertBound) {
+                        set.insert(key);
+                    } else {
+                        set.remove(key);
+                    }
+                    ops++;
+                }
+                totalOps.addAndGet(ops);
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        deadline[0] = begin + millis * 1_000_000L;
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        return totalOps.get() * 1e9 / elapsed;
+    }
+
+    /**
+     * The {@code main} method runs the benchmark and prints a throughput table.
+     *
+     * @param args Optional: key range, read percentage, and milliseconds per measurement.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int keyRange = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int readPercent = args.length > 1 ? Integer.parseInt(args[1]) : 90;
+        long millis = args.length > 2 ? Long.parseLong(args[2]) : 2000;
+
+        System.out.printf("keyRange=%d readPercent=%d millisPerRun=%d cores=%d%n",
+                keyRange, readPercent, millis, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%8s %18s %18s %18s%n", "threads", "locked MyBST", "CSLS<Integer>", "ConcurrentIntSkipList");
+
+        // Warm up every implementation once so the JIT has compiled the hot paths.
+        run(lockedBst(), 2, keyRange, readPercent, millis / 2);
+        run(jdkSkipList(), 2, keyRange, readPercent, millis / 2);
+        run(intSkipList(), 2, keyRange, readPercent, millis / 2);
+
+        for (int threads : THREAD_COUNTS) {
+            double bst = run(lockedBst(), threads, keyRange, readPercent, millis);
+            double jdk = run(jdkSkipList(), threads, keyRange, readPercent, millis);
+            double ours = run(intSkipList(), threads, keyRange, readPercent, millis);
+            System.out.printf("%8d %15.2f M/s %15.2f M/s %15.2f M/s%n",
+                    threads, bst / 1e6, jdk / 1e6, ours / 1e6);
+        }
+    }
+}
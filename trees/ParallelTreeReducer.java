@@ -0,0 +1,321 @@
+package trees;
+
+import java.util.ArrayList;
+import java.util.OptionalInt;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * The {@code ParallelTreeReducer} class computes aggregates over a binary tree (height, size, sum,
+ * minimum, maximum and predicate counts) on a fork-join pool.
+ *
+ * <p>The reducer is independent of the node class: it is given accessors for the left child, the
+ * right child and the integer value, so the same code serves {@code trees.Node},
+ * {@code trees.bst.Node}, {@code TreeNode} and {@code MaximumHeightBinaryTree.TreeNode}.</p>
+ *
+ * <p>Every task walks its subtree iteratively with an explicit array stack, so degenerate
+ * (list-shaped) trees of any depth never cause a {@code StackOverflowError}. Nodes do not store
+ * subtree sizes, so splitting is driven by work done rather than by a size field: once a task has
+ * processed {@code grain} nodes sequentially and the pool is not already saturated, it forks the
+ * shallowest pending subtree (the bottom of its stack, which is the largest one left) and keeps
+ * going. Subtrees smaller than the grain are therefore always reduced sequentially.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * ParallelTreeReducer<TreeNode> reducer =
+ *         new ParallelTreeReducer<>(n -> n.left, n -> n.right, n -> n.val);
+ * int depth = reducer.depth(root);
+ * long evens = reducer.count(root, v -> v % 2 == 0);
+ * ParallelTreeReducer.TreeSummary all = reducer.summarize(root, v -> v > 100);
+ * }</pre>
+ *
+ * <p><strong>Time Complexity:</strong> O(n / p + h) with p workers on a bushy tree; O(n) on a
+ * degenerate tree, which has no parallelism to exploit.</p>
+ * <p><strong>Space Complexity:</strong> O(h) per task for the explicit stack.</p>
+ *
+ * @param <N> The node type of the tree.
+ */
+public class ParallelTreeReducer<N> {
+    /** Default number of nodes a task reduces sequentially before it may fork. */
+    public static final int DEFAULT_GRAIN = 1 << 13;
+
+    // Do not fork while the worker already has this many unstolen tasks queued.
+    private static final int MAX_SURPLUS = 3;
+
+    private final Function<N, N> left;
+    private final Function<N, N> right;
+    private final ToIntFunction<N> value;
+    private final int grain;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a reducer that runs on the common pool with the default grain.
+     *
+     * @param left  Returns the left child of a node, or {@code null}.
+     * @param right Returns the right child of a node, or {@code null}.
+     * @param value Returns the value stored in a node.
+     */
+    public ParallelTreeReducer(Function<N, N> left, Function<N, N> right, ToIntFunction<N> value) {
+        this(left, right, value, DEFAULT_GRAIN, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a reducer with an explicit grain and pool.
+     *
+     * @param left  Returns the left child of a node, or {@code null}.
+     * @param right Returns the right child of a node, or {@code null}.
+     * @param value Returns the value stored in a node.
+     * @param grain The number of nodes a task reduces sequentially before it may fork.
+     * @param pool  The pool the reduction runs on.
+     * @throws IllegalArgumentException if {@code grain} is not positive.
+     */
+    public ParallelTreeReducer(Function<N, N> left, Function<N, N> right, ToIntFunction<N> value,
+                               int grain, ForkJoinPool pool) {
+        if (grain <= 0) {
+            throw new IllegalArgumentException("grain must be positive: " + grain);
+        }
+        this.left = left;
+        this.right = right;
+        this.value = value;
+        this.grain = grain;
+        this.pool = pool;
+    }
+
+    /**
+     * Computes every aggregate in a single parallel pass.
+     *
+     * @param root      The root of the tree, may be {@code null}.
+     * @param predicate The predicate counted in {@link TreeSummary#matching}, or {@code null}.
+     * @return The {@code TreeSummary} of the tree.
+     */
+    public TreeSummary summarize(N root, IntPredicate predicate) {
+        if (root == null) {
+            return new TreeSummary(new Accumulator());
+        }
+        return new TreeSummary(pool.invoke(new ReduceTask(root, 0, predicate)));
+    }
+
+    /**
+     * Computes the height of the tree as the number of edges on the longest root-to-leaf path.
+     *
+     * @param root The root of the tree, may be {@code null}.
+     * @return The height, or -1 for an empty tree.
+     */
+    public int height(N root) {
+        return summarize(root, null).height;
+    }
+
+    /**
+     * Computes the depth of the tree as the number of nodes on the longest root-to-leaf path.
+     *
+     * @param root The root of the tree, may be {@code null}.
+     * @return The depth, or 0 for an empty tree.
+     */
+    public int depth(N root) {
+        return summarize(root, null).height + 1;
+    }
+
+    /**
+     * Counts the nodes of the tree.
+     *
+     * @param root The root of the tree, may be {@code null}.
+     * @return The number of nodes.
+     */
+    public long size(N root) {
+        return summarize(root, null).size;
+    }
+
+    /**
+     * Sums the values of the tree.
+     *
+     * @param root The root of the tree, may be {@code null}.
+     * @return The sum of every value, as a {@code long}.
+     */
+    public long sum(N root) {
+        return summarize(root, null).sum;
+    }
+
+    /**
+     * Finds the smallest value in the tree.
+     *
+     * @param root The root of the tree, may be {@code null}.
+     * @return The minimum, or an empty {@code OptionalInt} for an empty tree.
+     */
+    public OptionalInt min(N root) {
+        return summarize(root, null).min();
+    }
+
+    /**
+     * Finds the largest value in the tree.
+     *
+     * @param root The root of the tree, may be {@code null}.
+     * @return The maximum, or an empty {@code OptionalInt} for an empty tree.
+     */
+    public OptionalInt max(N root) {
+        return summarize(root, null).max();
+    }
+
+    /**
+     * Counts the values of the tree that satisfy the predicate.
+     *
+     * @param root      The root of the tree, may be {@code null}.
+     * @param predicate The predicate to test each value against.
+     * @return The number of matching values.
+     */
+    public long count(N root, IntPredicate predicate) {
+        return summarize(root, predicate).matching;
+    }
+
+    /**
+     * The immutable result of a reduction.
+     */
+    public static final class TreeSummary {
+        /** The number of nodes. */
+        public final long size;
+        /** The sum of every value. */
+        public final long sum;
+        /** The number of edges on the longest root-to-leaf path, -1 when empty. */
+        public final int height;
+        /** The number of values that satisfied the predicate, 0 when none was given. */
+        public final long matching;
+        private final int min;
+        private final int max;
+
+        private TreeSummary(Accumulator acc) {
+            this.size = acc.size;
+            this.sum = acc.sum;
+            this.height = acc.maxDepth;
+            this.matching = acc.matching;
+            this.min = acc.min;
+            this.max = acc.max;
+        }
+
+        /**
+         * @return The minimum value, or an empty {@code OptionalInt} for an empty tree.
+         */
+        public OptionalInt min() {
+            return size == 0 ? OptionalInt.empty() : OptionalInt.of(min);
+        }
+
+        /**
+         * @return The maximum value, or an empty {@code OptionalInt} for an empty tree.
+         */
+        public OptionalInt max() {
+            return size == 0 ? OptionalInt.empty() : OptionalInt.of(max);
+        }
+
+        @Override
+        public String toString() {
+            return "TreeSummary{size=" + size + ", sum=" + sum + ", height=" + height
+                    + ", min=" + min() + ", max=" + max() + ", matching=" + matching + "}";
+        }
+    }
+
+    /**
+     * Mutable per-task partial result.
+     */
+    private static final class Accumulator {
+        long size;
+        long sum;
+        long matching;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        int maxDepth = -1;
+
+        void combine(Accumulator other) {
+            size += other.size;
+            sum += other.sum;
+            matching += other.matching;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            maxDepth = Math.max(maxDepth, other.maxDepth);
+        }
+    }
+
+    /**
+     * Reduces one subtree. Pending nodes live in {@code nodes[bottom..top)}; the sequential walk
+     * pops from the top while forks take from the bottom, where the shallowest subtrees are.
+     */
+    @SuppressWarnings("serial")
+    private final class ReduceTask extends RecursiveTask<Accumulator> {
+        private final N start;
+        private final int startDepth;
+        private final IntPredicate predicate;
+
+        ReduceTask(N start, int startDepth, IntPredicate predicate) {
+            this.start = start;
+            this.startDepth = startDepth;
+            this.predicate = predicate;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected Accumulator compute() {
+            Accumulator acc = new Accumulator();
+            ArrayList<ReduceTask> forked = new ArrayList<>();
+            Object[] nodes = new Object[64];
+            int[] depths = new int[64];
+            int bottom = 0;
+            int top = 0;
+            nodes[top] = start;
+            depths[top++] = startDepth;
+            int processed = 0;
+
+            while (top > bottom) {
+                if (processed >= grain && top - bottom > 1 && getSurplusQueuedTaskCount() < MAX_SURPLUS) {
+                    ReduceTask task = new ReduceTask((N) nodes[bottom], depths[bottom], predicate);
+                    nodes[bottom++] = null;
+                    task.fork();
+                    forked.add(task);
+                    processed = 0;
+                    continue;
+                }
+
+                N node = (N) nodes[--top];
+                int depth = depths[top];
+                nodes[top] = null;
+                processed++;
+
+                int v = value.applyAsInt(node);
+                acc.size++;
+                acc.sum += v;
+                if (v < acc.min) acc.min = v;
+                if (v > acc.max) acc.max = v;
+                if (depth > acc.maxDepth) acc.maxDepth = depth;
+                if (predicate != null && predicate.test(v)) acc.matching++;
+
+                N r = right.apply(node);
+                N l = left.apply(node);
+                if (top + 2 > nodes.length) {
+                    // Slide the live window down before growing, forks may have emptied the bottom.
+                    int live = top - bottom;
+                    int capacity = live + 2 > nodes.length / 2 ? nodes.length * 2 : nodes.length;
+                    Object[] newNodes = new Object[capacity];
+                    int[] newDepths = new int[capacity];
+                    System.arraycopy(nodes, bottom, newNodes, 0, live);
+                    System.arraycopy(depths, bottom, newDepths, 0, live);
+                    nodes = newNodes;
+                    depths = newDepths;
+                    bottom = 0;
+                    top = live;
+                }
+                if (r != null) {
+                    nodes[top] = r;
+                    depths[top++] = depth + 1;
+                }
+                if (l != null) {
+                    nodes[top] = l;
+                    depths[top++] = depth + 1;
+                }
+            }
+
+            for (int i = forked.size() - 1; i >= 0; i--) {
+                acc.combine(forked.get(i).join());
+            }
+            return acc;
+        }
+    }
+}
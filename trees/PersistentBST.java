@@ -0,0 +1,385 @@
+package trees;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+
+/**
+ * The {@code PersistentBST} class is an immutable, balanced (AVL) binary search tree of distinct
+ * {@code int} values. Updates never modify an existing tree: {@code insert} and {@code remove}
+ * copy only the nodes on the search path (plus the few touched by rebalancing) and return a new
+ * tree that shares every other node with the old one.
+ *
+ * <p>Because a tree never changes after construction, a snapshot is just a reference to it:
+ * taking one is O(1), reading one needs no lock, and an old snapshot stays valid and consistent
+ * while writers keep producing new versions. {@link Versioned} packages this as a single mutable
+ * index that writers update with compare-and-set and readers snapshot at any time.</p>
+ *
+ * <p>Each update allocates O(log n) new nodes, so retaining k versions costs about
+ * {@code k * 1.44 * log2(n)} extra nodes on top of one full tree, instead of {@code k * n} for
+ * copying a {@code BinarySearchTree}. {@link #distinctNodes(PersistentBST...)} measures this
+ * exactly, and {@code main} prints the per-version overhead.</p>
+ *
+ * <p>Example Usage:</p>
+ * <pre>{@code
+ * PersistentBST v1 = PersistentBST.empty().insert(6).insert(2).insert(8);
+ * PersistentBST v2 = v1.insert(4).remove(8);
+ * v1.lookup(8); // true, v1 is unaffected
+ * v2.lookup(8); // false
+ *
+ * PersistentBST.Versioned index = new PersistentBST.Versioned();
+ * index.insert(10);
+ * PersistentBST snapshot = index.snapshot(); // consistent view, never blocks
+ * }</pre>
+ *
+ * <p><strong>Time Complexity:</strong> O(log n) for insert, remove and lookup; O(1) for a snapshot.</p>
+ * <p><strong>Space Complexity:</strong> O(n) for one version plus O(log n) per retained update.</p>
+ *
+ * @author
+ */
+public final class PersistentBST {
+    // Approximate size of one PNode with compressed oops: 12-byte header, two ints, two references.
+    private static final int NODE_BYTES = 32;
+
+    private static final PersistentBST EMPTY = new PersistentBST(null, 0);
+
+    private final PNode root;
+    private final int size;
+
+    private PersistentBST(PNode root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty tree.
+     *
+     * @return The shared empty {@code PersistentBST}.
+     */
+    public static PersistentBST empty() {
+        return EMPTY;
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////          Insert Function       /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Returns a tree that also contains {@code value}. This tree is not modified.
+     *
+     * @param value The value to insert.
+     * @return The new version, or {@code this} if {@code value} is already present.
+     */
+    public PersistentBST insert(int value) {
+        PNode newRoot = insert(root, value);
+        return newRoot == root ? this : new PersistentBST(newRoot, size + 1);
+    }
+
+    private static PNode insert(PNode node, int value) {
+        if (node == null) {
+            return new PNode(value, null, null);
+        }
+        if (value < node.value) {
+            PNode left = insert(node.left, value);
+            return left == node.left ? node : balance(node.value, left, node.right);
+        } else if (value > node.value) {
+            PNode right = insert(node.right, value);
+            return right == node.right ? node : balance(node.value, node.left, right);
+        }
+        return node;
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////          Lookup Function       /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Looks up whether a given value exists in this version.
+     *
+     * @param value The value to search for.
+     * @return {@code true} if the value exists; {@code false} otherwise.
+     */
+    public boolean lookup(int value) {
+        PNode current = root;
+        while (current != null) {
+            if (value < current.value) {
+                current = current.left;
+            } else if (value > current.value) {
+                current = current.right;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////          Remove Function       /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Returns a tree without {@code value}. This tree is not modified.
+     *
+     * @param value The value to remove.
+     * @return The new version, or {@code this} if {@code value} is absent.
+     */
+    public PersistentBST remove(int value) {
+        PNode newRoot = remove(root, value);
+        return newRoot == root ? this : new PersistentBST(newRoot, size - 1);
+    }
+
+    private static PNode remove(PNode node, int value) {
+        if (node == null) {
+            return null;
+        }
+        if (value < node.value) {
+            PNode left = remove(node.left, value);
+            return left == node.left ? node : balance(node.value, left, node.right);
+        } else if (value > node.value) {
+            PNode right = remove(node.right, value);
+            return right == node.right ? node : balance(node.value, node.left, right);
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        // Replace with the in-order successor, copying only the path down to it.
+        PNode successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.value, node.left, remove(node.right, successor.value));
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////         Query Functions         /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * @return The number of values in this version.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The number of edges on the longest root-to-leaf path, or -1 if empty.
+     */
+    public int height() {
+        return height(root) - 1;
+    }
+
+    /**
+     * Passes every value in this version to the given action in ascending order.
+     *
+     * @param action The action invoked for each value.
+     */
+    public void forEach(IntConsumer action) {
+        ArrayDeque<PNode> stack = new ArrayDeque<>();
+        PNode current = root;
+        while (current != null || !stack.isEmpty()) {
+            while (current != null) {
+                stack.push(current);
+                current = current.left;
+            }
+            current = stack.pop();
+            action.accept(current.value);
+            current = current.right;
+        }
+    }
+
+    /**
+     * @return The values of this version in ascending order.
+     */
+    public int[] toSortedArray() {
+        int[] values = new int[size];
+        int[] index = {0};
+        forEach(v -> values[index[0]++] = v);
+        return values;
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////       Memory Measurement        /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Counts the distinct node objects reachable from a set of versions. Nodes shared between
+     * versions are counted once, so this is the number of nodes those versions keep alive.
+     *
+     * @param versions The versions to measure.
+     * @return The number of distinct nodes.
+     */
+    public static long distinctNodes(PersistentBST... versions) {
+        Set<PNode> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        ArrayDeque<PNode> stack = new ArrayDeque<>();
+        for (PersistentBST version : versions) {
+            if (version.root != null) {
+                stack.push(version.root);
+            }
+            while (!stack.isEmpty()) {
+                PNode node = stack.pop();
+                if (!seen.add(node)) {
+                    continue; // Shared subtree already counted.
+                }
+                if (node.left != null) {
+                    stack.push(node.left);
+                }
+                if (node.right != null) {
+                    stack.push(node.right);
+                }
+            }
+        }
+        return seen.size();
+    }
+
+    /**
+     * Estimates the heap retained by a set of versions from their distinct node count.
+     *
+     * @param versions The versions to measure.
+     * @return The approximate retained size in bytes.
+     */
+    public static long estimatedBytes(PersistentBST... versions) {
+        return distinctNodes(versions) * NODE_BYTES;
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////         AVL Balancing           /////////////
+    ///////////////////////////////////////////////////////
+    private static int height(PNode node) {
+        return node == null ? 0 : node.height;
+    }
+
+    // Builds a node from (value, left, right), rotating if the subtrees differ in height by 2.
+    private static PNode balance(int value, PNode left, PNode right) {
+        int hl = height(left);
+        int hr = height(right);
+        if (hl > hr + 1) {
+            if (height(left.left) >= height(left.right)) {
+                // Single right rotation.
+                return new PNode(left.value, left.left, new PNode(value, left.right, right));
+            }
+            // Left-right double rotation.
+            PNode pivot = left.right;
+            return new PNode(pivot.value,
+                    new PNode(left.value, left.left, pivot.left),
+                    new PNode(value, pivot.right, right));
+        }
+        if (hr > hl + 1) {
+            if (height(right.right) >= height(right.left)) {
+                // Single left rotation.
+                return new PNode(right.value, new PNode(value, left, right.left), right.right);
+            }
+            // Right-left double rotation.
+            PNode pivot = right.left;
+            return new PNode(pivot.value,
+                    new PNode(value, left, pivot.left),
+                    new PNode(right.value, pivot.right, right.right));
+        }
+        return new PNode(value, left, right);
+    }
+
+    /**
+     * An immutable AVL node. All fields are final, so a published tree is safe to read from any
+     * thread without synchronization.
+     */
+    private static final class PNode {
+        final int value;
+        final int height;
+        final PNode left;
+        final PNode right;
+
+        PNode(int value, PNode left, PNode right) {
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+        }
+    }
+
+    /**
+     * The {@code Versioned} class is a mutable index backed by persistent versions. Writers
+     * publish a new version with compare-and-set; readers call {@link #snapshot()} and then work
+     * on an immutable tree, so they never block and never see a partial update.
+     */
+    public static final class Versioned {
+        private final AtomicReference<PersistentBST> current = new AtomicReference<>(EMPTY);
+
+        /**
+         * @return The current version. O(1); the returned tree never changes.
+         */
+        public PersistentBST snapshot() {
+            return current.get();
+        }
+
+        /**
+         * Inserts a value, retrying if another writer published first.
+         *
+         * @param value The value to insert.
+         * @return The version that now includes {@code value}.
+         */
+        public PersistentBST insert(int value) {
+            return current.updateAndGet(tree -> tree.insert(value));
+        }
+
+        /**
+         * Removes a value, retrying if another writer published first.
+         *
+         * @param value The value to remove.
+         * @return The version that no longer includes {@code value}.
+         */
+        public PersistentBST remove(int value) {
+            return current.updateAndGet(tree -> tree.remove(value));
+        }
+
+        /**
+         * Looks up a value in the current version.
+         *
+         * @param value The value to search for.
+         * @return {@code true} if the value exists; {@code false} otherwise.
+         */
+        public boolean lookup(int value) {
+            return current.get().lookup(value);
+        }
+    }
+
+    /**
+     * The {@code main} method demonstrates snapshots and measures the memory retained per version.
+     *
+     * @param args Command-line arguments (not utilized in this program).
+     */
+    public static void main(String[] args) {
+        PersistentBST v1 = empty().insert(6).insert(2).insert(8).insert(0).insert(4);
+        PersistentBST v2 = v1.insert(7).remove(2);
+        System.out.println("v1: " + Arrays.toString(v1.toSortedArray())); // Output: [0, 2, 4, 6, 8]
+        System.out.println("v2: " + Arrays.toString(v2.toSortedArray())); // Output: [0, 4, 6, 7, 8]
+        System.out.println("v1 lookup 2: " + v1.lookup(2) + ", v2 lookup 2: " + v2.lookup(2)); // true, false
+
+        // Memory overhead: build one large version, then retain a snapshot after each of 1,000 updates.
+        int n = 1_000_000;
+        int[] sorted = new int[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = i * 2;
+        }
+        PersistentBST base = empty();
+        for (int value : sorted) {
+            base = base.insert(value);
+        }
+        int versions = 1_000;
+        PersistentBST[] retained = new PersistentBST[versions + 1];
+        retained[0] = base;
+        Random random = new Random(42);
+        for (int i = 1; i <= versions; i++) {
+            retained[i] = retained[i - 1].insert(random.nextInt(2 * n) | 1);
+        }
+        long baseNodes = distinctNodes(base);
+        long allNodes = distinctNodes(retained);
+        double perVersion = (double) (allNodes - baseNodes) / versions;
+        System.out.println("Base version: " + baseNodes + " nodes, height " + base.height()
+                + ", ~" + estimatedBytes(base) / (1024 * 1024) + " MiB");
+        System.out.printf("%d retained versions: %d distinct nodes, %.1f new nodes (~%.0f bytes) per version%n",
+                versions, allNodes, perVersion, perVersion * NODE_BYTES);
+        System.out.println("Full copies would need " + (long) versions * baseNodes + " extra nodes.");
+    }
+}
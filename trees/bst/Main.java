@@ -1,5 +1,6 @@
 package trees.bst ; 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * The {@code Main} class serves as the entry point for testing the {@code MyBST} class.
@@ -15,6 +16,10 @@ import java.util.ArrayList;
  * dfs inOrder: [1, 4, 6, 9, 15, 20, 170]
  * dfs preOrder: [9, 4, 1, 6, 20, 15, 170]
  * dfs postOrder: [1, 6, 4, 15, 170, 20, 9]
+ * floor 10: 9
+ * ceiling 10: 15
+ * range [4, 20]: [4, 6, 9, 15, 20]
+ * count in [4, 20]: 5
  * look for 20 after removing 20: false
  * }</pre>
  *
@@ -49,6 +54,13 @@ public class Main {
         System.out.println("dfs inOrder: " + bst.DFSInOrder());
         System.out.println("dfs preOrder: " + bst.DFSPreOrder());
         System.out.println("dfs postOrder: " + bst.DFSPostOrder());
+        System.out.println("summary: " + bst.summarize(v -> v > 10));
+
+        // Ordered and range queries.
+        System.out.println("floor 10: " + bst.floor(10));
+        System.out.println("ceiling 10: " + bst.ceiling(10));
+        System.out.println("range [4, 20]: " + Arrays.toString(bst.range(4, 20).toArray()));
+        System.out.println("count in [4, 20]: " + bst.countInRange(4, 20));
 
         // Remove a node and perform lookup again.
         bst.remove(20);
@@ -1,5 +1,13 @@
 package trees.bst ; 
 import java.util.ArrayList;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import trees.BstNeighbors;
+import trees.BstRangeIterator;
+import trees.ParallelTreeReducer;
 
 /**
  * The {@code MyBST} class provides an implementation of a Binary Search Tree (BST) with
@@ -8,6 +16,10 @@ import java.util.ArrayList;
  * <p>This class includes methods for breadth-first search (both iterative and recursive)
  * and depth-first search (in-order, pre-order, post-order).</p>
  *
+ * <p>Ordered queries ({@code floor}, {@code ceiling}, {@code higher}, {@code lower}) and range
+ * queries ({@code range}, {@code forEachInRange}, {@code countInRange}) prune subtrees that fall
+ * outside the requested bounds and run in O(h + k), where k is the number of values reported.</p>
+ *
  * <p>Example Usage:</p>
  * <pre>{@code
  * MyBST bst = new MyBST();
@@ -162,6 +174,109 @@ public class MyBST {
         }
     }
 
+    ///////////////////////////////////////////////////////
+    //////////     Floor / Ceiling Functions    /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Finds the greatest value in the BST that is less than or equal to the given value.
+     *
+     * @param value The value to search for.
+     * @return The floor of {@code value}, or {@code null} if every value in the BST is greater.
+     */
+    public Integer floor(int value) {
+        return BstNeighbors.floor(this.root, value, n -> n.left, n -> n.right, n -> n.value);
+    }
+
+    /**
+     * Finds the smallest value in the BST that is greater than or equal to the given value.
+     *
+     * @param value The value to search for.
+     * @return The ceiling of {@code value}, or {@code null} if every value in the BST is smaller.
+     */
+    public Integer ceiling(int value) {
+        return BstNeighbors.ceiling(this.root, value, n -> n.left, n -> n.right, n -> n.value);
+    }
+
+    /**
+     * Finds the smallest value in the BST that is strictly greater than the given value.
+     *
+     * @param value The value to search for.
+     * @return The successor of {@code value}, or {@code null} if no such value exists.
+     */
+    public Integer higher(int value) {
+        return BstNeighbors.higher(this.root, value, n -> n.left, n -> n.right, n -> n.value);
+    }
+
+    /**
+     * Finds the greatest value in the BST that is strictly less than the given value.
+     *
+     * @param value The value to search for.
+     * @return The predecessor of {@code value}, or {@code null} if no such value exists.
+     */
+    public Integer lower(int value) {
+        return BstNeighbors.lower(this.root, value, n -> n.left, n -> n.right, n -> n.value);
+    }
+
+    ///////////////////////////////////////////////////////
+    //////////      Range Query Functions      /////////////
+    ///////////////////////////////////////////////////////
+    /**
+     * Streams every value {@code v} with {@code from <= v <= to} in ascending order.
+     *
+     * <p>The stream is backed by an in-order iterator that only descends into subtrees that can
+     * still hold values inside the range, so no intermediate list is built and consuming
+     * {@code k} values costs O(h + k), where h is the height of the tree.</p>
+     *
+     * @param from The inclusive lower bound.
+     * @param to   The inclusive upper bound.
+     * @return A sequential {@code IntStream} over the values in the range.
+     */
+    public IntStream range(int from, int to) {
+        return BstRangeIterator.stream(rangeIterator(from, to));
+    }
+
+    /**
+     * Returns an ascending iterator over every value {@code v} with {@code from <= v <= to}.
+     *
+     * @param from The inclusive lower bound.
+     * @param to   The inclusive upper bound.
+     * @return A {@code PrimitiveIterator.OfInt} over the values in the range.
+     */
+    public PrimitiveIterator.OfInt rangeIterator(int from, int to) {
+        return new BstRangeIterator<>(this.root, from, to, n -> n.left, n -> n.right, n -> n.value);
+    }
+
+    /**
+     * Passes every value {@code v} with {@code from <= v <= to} to the given action in ascending order.
+     *
+     * @param from   The inclusive lower bound.
+     * @param to     The inclusive upper bound.
+     * @param action The action invoked for each value in the range.
+     */
+    public void forEachInRange(int from, int to, IntConsumer action) {
+        PrimitiveIterator.OfInt it = rangeIterator(from, to);
+        while (it.hasNext()) {
+            action.accept(it.nextInt());
+        }
+    }
+
+    /**
+     * Counts the values {@code v} with {@code from <= v <= to}.
+     *
+     * @param from The inclusive lower bound.
+     * @param to   The inclusive upper bound.
+     * @return The number of values in the range.
+     */
+    public int countInRange(int from, int to) {
+        int count = 0;
+        PrimitiveIterator.OfInt it = rangeIterator(from, to);
+        while (it.hasNext()) {
+            it.nextInt();
+            count++;
+        }
+        return count;
+    }
+
     ///////////////////////////////////////////////////////
     //                Breadth First Search              //
     //   Note: {This method is from the algorithms section} //
@@ -261,5 +376,16 @@ public class MyBST {
         return hlp.traversePostOrder(this.root, answer);
     }
 
+    /**
+     * Computes size, sum, height, minimum, maximum and a predicate count over the BST in one
+     * fork-join pass. The walk is iterative, so degenerate trees built from sorted inserts are safe.
+     *
+     * @param predicate The predicate to count matches of, or {@code null}.
+     * @return The {@code ParallelTreeReducer.TreeSummary} of the BST.
+     */
+    public ParallelTreeReducer.TreeSummary summarize(IntPredicate predicate) {
+        return new ParallelTreeReducer<Node>(n -> n.left, n -> n.right, n -> n.value).summarize(this.root, predicate);
+    }
+
     // Main method is moved to a separate public class.
 }